@@ -6,7 +6,8 @@ import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
 
 /**
- * Annotation to enable rate limiting on controller methods using the token bucket algorithm.
+ * Annotation to enable rate limiting on controller methods, using the token bucket algorithm
+ * unless another {@link #algorithm()} is chosen.
  * <p>
  * This annotation uses a token bucket algorithm where:
  * - capacity: Maximum number of tokens the bucket can hold
@@ -20,6 +21,7 @@ import java.lang.annotation.Target;
  *
  * @author HRM Tool Next Gen
  * @see com.minhpt.hrmtoolnextgen.component.TokenBucketRateLimiter
+ * @see com.minhpt.hrmtoolnextgen.component.RateLimitAlgorithm
  * @see com.minhpt.hrmtoolnextgen.component.RateLimitingAspect
  */
 @Target(ElementType.METHOD)
@@ -50,8 +52,9 @@ public @interface RateLimit {
      * Key prefix for Redis storage of rate limit state.
      * <p>
      * This allows customization of the Redis key used to store rate limit state.
-     * The actual key will be constructed as: {keyPrefix}:{identifier}
-     * where identifier is typically the IP address or user ID.
+     * The actual key will be constructed as: {keyPrefix}:{algorithm}:{identifier}
+     * where algorithm is the lower-case {@link Algorithm} name and identifier is
+     * typically the IP address or user ID.
      * <p>
      * Default is "ratelimit".
      *
@@ -72,6 +75,39 @@ public @interface RateLimit {
      */
     RateLimitStrategy strategy() default RateLimitStrategy.IP;
 
+    /**
+     * Algorithm used to enforce the limit.
+     * <p>
+     * Default is TOKEN_BUCKET.
+     *
+     * @return the rate limit algorithm
+     */
+    Algorithm algorithm() default Algorithm.TOKEN_BUCKET;
+
+    /**
+     * Algorithms available to enforce a rate limit; see
+     * {@link com.minhpt.hrmtoolnextgen.component.RateLimitAlgorithm}.
+     */
+    enum Algorithm {
+        /**
+         * Token bucket with local leasing: two hash fields per key.
+         * Good default for high-volume endpoints.
+         */
+        TOKEN_BUCKET,
+
+        /**
+         * Generic Cell Rate Algorithm: a single integer per key written with one SET.
+         * Same burst/rate semantics as the token bucket with the smallest Redis footprint.
+         */
+        GCRA,
+
+        /**
+         * Sliding window log: one sorted-set entry per admitted request.
+         * Exact, with no boundary bursts; intended for strict protection of sensitive endpoints.
+         */
+        SLIDING_WINDOW_LOG
+    }
+
     /**
      * Rate limit strategies for identifying the subject of rate limiting.
      */
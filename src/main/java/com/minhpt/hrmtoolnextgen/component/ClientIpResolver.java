@@ -0,0 +1,307 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Resolves the real client IP address behind trusted reverse proxies.
+ *
+ * <p>Forwarding headers are only honoured when the TCP peer ({@code remoteAddr}) is inside one of
+ * the {@code hrm.security.trusted-proxies} CIDR blocks. {@code X-Forwarded-For} is then walked
+ * from right to left and the first address that is not a trusted proxy is returned, so a client
+ * cannot spoof its address by prepending entries to the header.
+ *
+ * <p>Headers are scanned in place: IPv4 addresses are parsed straight into an {@code int} and
+ * no regex, {@code split} or intermediate strings are used. Entries that are not IP literals are
+ * never resolved through DNS; they are simply treated as untrusted.
+ */
+@Component
+@Log4j2
+public class ClientIpResolver {
+
+    private static final String X_FORWARDED_FOR = "X-Forwarded-For";
+    private static final String X_REAL_IP = "X-Real-IP";
+
+    private final int[] ipv4Networks;
+    private final int[] ipv4Masks;
+    private final long[] ipv6Networks;
+    private final long[] ipv6Masks;
+
+    public ClientIpResolver(
+            @Value("${hrm.security.trusted-proxies:127.0.0.0/8,::1/128,10.0.0.0/8,172.16.0.0/12,192.168.0.0/16}")
+            List<String> trustedProxies) {
+        int ipv4Count = 0;
+        int ipv6Count = 0;
+        int[] v4Networks = new int[trustedProxies.size()];
+        int[] v4Masks = new int[trustedProxies.size()];
+        long[] v6Networks = new long[trustedProxies.size() * 2];
+        long[] v6Masks = new long[trustedProxies.size() * 2];
+
+        for (String cidr : trustedProxies) {
+            String block = cidr.trim();
+            if (block.isEmpty()) {
+                continue;
+            }
+            int slash = block.indexOf('/');
+            int addressEnd = slash < 0 ? block.length() : slash;
+
+            long ipv4 = parseIpv4(block, 0, addressEnd);
+            long[] ipv6 = new long[2];
+            if (ipv4 >= 0) {
+                int prefix = prefixLength(block, slash, 32);
+                int mask = prefix == 0 ? 0 : (int) (0xFFFFFFFFL << (32 - prefix));
+                v4Networks[ipv4Count] = (int) ipv4 & mask;
+                v4Masks[ipv4Count++] = mask;
+            } else if (parseIpv6(block, 0, addressEnd, ipv6)) {
+                int prefix = prefixLength(block, slash, 128);
+                long maskHi = prefix >= 64 ? -1L : prefix == 0 ? 0L : -1L << (64 - prefix);
+                long maskLo = prefix <= 64 ? 0L : prefix == 128 ? -1L : -1L << (128 - prefix);
+                v6Networks[ipv6Count * 2] = ipv6[0] & maskHi;
+                v6Networks[ipv6Count * 2 + 1] = ipv6[1] & maskLo;
+                v6Masks[ipv6Count * 2] = maskHi;
+                v6Masks[ipv6Count++ * 2 + 1] = maskLo;
+            } else {
+                throw new IllegalArgumentException("Invalid trusted proxy CIDR block: " + block);
+            }
+        }
+
+        this.ipv4Networks = Arrays.copyOf(v4Networks, ipv4Count);
+        this.ipv4Masks = Arrays.copyOf(v4Masks, ipv4Count);
+        this.ipv6Networks = Arrays.copyOf(v6Networks, ipv6Count * 2);
+        this.ipv6Masks = Arrays.copyOf(v6Masks, ipv6Count * 2);
+        log.info("Client IP resolver trusts {} IPv4 and {} IPv6 proxy blocks", ipv4Count, ipv6Count);
+    }
+
+    /**
+     * @return the prefix length after {@code slash}, or {@code maxLength} for a bare address
+     * @throws IllegalArgumentException if the prefix is not a number in {@code [0, maxLength]}
+     */
+    private static int prefixLength(String block, int slash, int maxLength) {
+        if (slash < 0) {
+            return maxLength;
+        }
+        try {
+            int prefix = Integer.parseInt(block.substring(slash + 1));
+            if (prefix >= 0 && prefix <= maxLength) {
+                return prefix;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid prefix length in trusted proxy CIDR block: " + block
+                + " (expected 0-" + maxLength + ")");
+    }
+
+    /**
+     * @return the originating client address of {@code request}
+     */
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr == null || !isTrusted(remoteAddr, 0, remoteAddr.length())) {
+            return remoteAddr;
+        }
+
+        String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        if (forwardedFor != null) {
+            int leftStart = -1;
+            int leftEnd = -1;
+            int end = forwardedFor.length();
+            while (end > 0) {
+                int comma = forwardedFor.lastIndexOf(',', end - 1);
+                int start = trimStart(forwardedFor, comma + 1, end);
+                int trimmedEnd = trimEnd(forwardedFor, start, end);
+                if (trimmedEnd > start) {
+                    if (!isTrusted(forwardedFor, start, trimmedEnd)) {
+                        return forwardedFor.substring(start, trimmedEnd);
+                    }
+                    leftStart = start;
+                    leftEnd = trimmedEnd;
+                }
+                end = comma;
+            }
+            if (leftStart >= 0) {
+                // Every hop is a trusted proxy: the left-most one is the closest to the client
+                return forwardedFor.substring(leftStart, leftEnd);
+            }
+        }
+
+        String realIp = request.getHeader(X_REAL_IP);
+        if (realIp != null) {
+            int start = trimStart(realIp, 0, realIp.length());
+            int end = trimEnd(realIp, start, realIp.length());
+            if (end > start) {
+                return start == 0 && end == realIp.length() ? realIp : realIp.substring(start, end);
+            }
+        }
+
+        return remoteAddr;
+    }
+
+    /**
+     * @return {@code true} if {@code address[from, to)} is an IP literal inside a trusted block
+     */
+    boolean isTrusted(CharSequence address, int from, int to) {
+        long ipv4 = parseIpv4(address, from, to);
+        if (ipv4 >= 0) {
+            int value = (int) ipv4;
+            for (int i = 0; i < ipv4Networks.length; i++) {
+                if ((value & ipv4Masks[i]) == ipv4Networks[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (ipv6Networks.length == 0) {
+            return false;
+        }
+        long[] ipv6 = new long[2];
+        if (!parseIpv6(address, from, to, ipv6)) {
+            return false;
+        }
+        for (int i = 0; i < ipv6Networks.length; i += 2) {
+            if ((ipv6[0] & ipv6Masks[i]) == ipv6Networks[i] && (ipv6[1] & ipv6Masks[i + 1]) == ipv6Networks[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------
+    // Parsing
+    // ------------------------------------------------------------------
+
+    /**
+     * @return the dotted-quad {@code s[from, to)} as an unsigned 32-bit value, or {@code -1}
+     */
+    static long parseIpv4(CharSequence s, int from, int to) {
+        long result = 0;
+        int octets = 0;
+        int i = from;
+        while (i < to) {
+            int value = 0;
+            int digits = 0;
+            while (i < to && s.charAt(i) != '.') {
+                char c = s.charAt(i++);
+                if (c < '0' || c > '9' || ++digits > 3) {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (digits == 0 || value > 255 || ++octets > 4) {
+                return -1;
+            }
+            result = result << 8 | value;
+            if (i < to) {
+                i++; // skip '.'
+                if (i == to) {
+                    return -1; // trailing dot
+                }
+            }
+        }
+        return octets == 4 ? result : -1;
+    }
+
+    /**
+     * Parses the IPv6 literal {@code s[from, to)} (with optional {@code ::} compression and an
+     * embedded IPv4 tail) into {@code out[0]} (high 64 bits) and {@code out[1]} (low 64 bits).
+     */
+    static boolean parseIpv6(CharSequence s, int from, int to, long[] out) {
+        int[] groups = new int[8];
+        int count = 0;
+        int compressAt = -1;
+        int i = from;
+
+        if (to - from >= 2 && s.charAt(from) == ':' && s.charAt(from + 1) == ':') {
+            compressAt = 0;
+            i += 2;
+        } else if (i < to && s.charAt(i) == ':') {
+            return false;
+        }
+
+        while (i < to) {
+            int groupEnd = i;
+            boolean dotted = false;
+            while (groupEnd < to && s.charAt(groupEnd) != ':') {
+                dotted |= s.charAt(groupEnd) == '.';
+                groupEnd++;
+            }
+
+            if (dotted) {
+                long ipv4 = groupEnd == to ? parseIpv4(s, i, to) : -1;
+                if (ipv4 < 0 || count > 6) {
+                    return false;
+                }
+                groups[count++] = (int) (ipv4 >>> 16);
+                groups[count++] = (int) (ipv4 & 0xFFFF);
+                i = to;
+                break;
+            }
+
+            int length = groupEnd - i;
+            if (length == 0 || length > 4 || count == 8) {
+                return false;
+            }
+            int value = 0;
+            for (; i < groupEnd; i++) {
+                int digit = Character.digit(s.charAt(i), 16);
+                if (digit < 0) {
+                    return false;
+                }
+                value = value << 4 | digit;
+            }
+            groups[count++] = value;
+
+            if (i < to) {
+                i++; // skip ':'
+                if (i < to && s.charAt(i) == ':') {
+                    if (compressAt >= 0) {
+                        return false;
+                    }
+                    compressAt = count;
+                    i++;
+                } else if (i == to) {
+                    return false; // trailing single ':'
+                }
+            }
+        }
+
+        if (compressAt < 0 ? count != 8 : count > 7) {
+            return false;
+        }
+
+        int zeros = 8 - count;
+        long high = 0;
+        long low = 0;
+        for (int k = 0, g = 0; k < 8; k++) {
+            int value = compressAt >= 0 && k >= compressAt && k < compressAt + zeros ? 0 : groups[g++];
+            if (k < 4) {
+                high = high << 16 | value;
+            } else {
+                low = low << 16 | value;
+            }
+        }
+        out[0] = high;
+        out[1] = low;
+        return true;
+    }
+
+    private static int trimStart(String s, int start, int end) {
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(String s, int start, int end) {
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
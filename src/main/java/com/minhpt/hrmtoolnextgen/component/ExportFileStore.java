@@ -0,0 +1,101 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Local directory holding finished export files, {@code hrm.export.store.directory}.
+ *
+ * <p>Files are written under a {@code .part} name and moved into place once complete, so a
+ * download never sees a half-written file. For any node to serve any download the directory has
+ * to be shared storage (a network mount); otherwise only the node that ran the job has the file.
+ * Files older than {@code hrm.export.store.retention} are deleted by a periodic sweep.
+ */
+@Component
+@Log4j2
+public class ExportFileStore {
+
+    private static final String PART_SUFFIX = ".part";
+
+    private final Path directory;
+    private final Duration retention;
+
+    public ExportFileStore(@Value("${hrm.export.store.directory:${java.io.tmpdir}/hrm-exports}") Path directory,
+                           @Value("${hrm.export.store.retention:PT24H}") Duration retention) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.retention = retention;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create export directory " + this.directory, e);
+        }
+    }
+
+    /**
+     * @return the path to write {@code fileName} to before {@link #publish(Path) publishing} it
+     */
+    public Path partFile(String fileName) {
+        return resolve(fileName + PART_SUFFIX);
+    }
+
+    /**
+     * Atomically renames a finished part file to its final name.
+     *
+     * @return the published file
+     */
+    public Path publish(Path partFile) throws IOException {
+        String partName = partFile.getFileName().toString();
+        Path target = resolve(partName.substring(0, partName.length() - PART_SUFFIX.length()));
+        return Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code fileName} would point outside the store
+     */
+    public Path resolve(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.getParent().equals(directory)) {
+            throw new IllegalArgumentException("Invalid export file name: " + fileName);
+        }
+        return file;
+    }
+
+    public void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${hrm.export.store.sweep-interval:PT1H}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    deleteQuietly(file);
+                    deleted++;
+                }
+            }
+        } catch (IOException e) {
+            log.error("Failed to sweep export directory {}: {}", directory, e.getMessage());
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} expired export files", deleted);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import com.minhpt.hrmtoolnextgen.annotation.RateLimit;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Generic Cell Rate Algorithm (GCRA) limiter backed by Redis.
+ *
+ * <p>Each key holds a single integer, the theoretical arrival time (TAT) in epoch-ms.
+ * Requests are spaced {@code 60000 / refillRate} ms apart and may run ahead of that schedule
+ * by at most {@code capacity} intervals. The key is written with one {@code SET ... PX} that
+ * expires exactly when the limit has fully recovered, so idle keys cost nothing.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class GcraRateLimiter implements RateLimitAlgorithm {
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * Lua script – returns 1 if allowed, 0 otherwise.
+     *
+     * <p>ARGV: [emissionIntervalMs, capacity, nowMs]
+     */
+    private static final DefaultRedisScript<Long> GCRA_SCRIPT = new DefaultRedisScript<>(
+            """
+            local key      = KEYS[1]
+            local interval = tonumber(ARGV[1])
+            local capacity = tonumber(ARGV[2])
+            local now      = tonumber(ARGV[3])
+
+            local tat    = math.max(tonumber(redis.call('GET', key)) or now, now)
+            local newTat = tat + interval
+            if newTat - now > interval * capacity then
+                return 0
+            end
+
+            redis.call('SET', key, newTat, 'PX', newTat - now)
+            return 1
+            """,
+            Long.class
+    );
+
+    @Override
+    public RateLimit.Algorithm algorithm() {
+        return RateLimit.Algorithm.GCRA;
+    }
+
+    @Override
+    public boolean tryConsume(String key, int capacity, int refillRate) {
+        try {
+            long emissionIntervalMs = Math.max(1L, 60_000L / Math.max(1, refillRate));
+            Long allowed = stringRedisTemplate.execute(
+                    GCRA_SCRIPT,
+                    List.of(key),
+                    String.valueOf(emissionIntervalMs),
+                    String.valueOf(capacity),
+                    String.valueOf(Instant.now().toEpochMilli())
+            );
+            log.debug("GCRA check – key: {}, allowed: {}", key, allowed);
+            return allowed == null || allowed == 1L; // fail-open on an empty reply
+        } catch (Exception e) {
+            log.error("GCRA rate limiter error for key '{}'; failing open: {}", key, e.getMessage());
+            return true; // fail-open
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidaySnapshot;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Holiday snapshots loaded at startup, so holidays are known without calling the holiday API.
+ *
+ * <p>A snapshot is a JSON {@link HolidaySnapshot} of one country and year. Bundled snapshots are
+ * read from {@code hrm.holiday.snapshot.bundled} (by default {@code holidays/*.json} on the
+ * classpath), then the ones in {@code hrm.holiday.snapshot.directory}, which replace bundled ones
+ * of the same country and year. Every fetch from the API is written back to that directory as
+ * {@code <country>-<year>.json}, so the next start has the latest holidays even offline. Without a
+ * directory, snapshots are only read from the classpath.
+ */
+@Component
+@Log4j2
+public class HolidaySnapshotStore {
+
+    private static final Pattern COUNTRY_CODE = Pattern.compile("^[A-Z]{2}$");
+
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final Map<String, HolidaySnapshot> snapshots = new ConcurrentHashMap<>();
+    private final Path directory;
+
+    public HolidaySnapshotStore(ResourcePatternResolver resourcePatternResolver,
+                                @Value("${hrm.holiday.snapshot.bundled:classpath*:holidays/*.json}") String bundled,
+                                @Value("${hrm.holiday.snapshot.directory:}") String directory) {
+        this.directory = directory.isBlank() ? null : Path.of(directory).toAbsolutePath().normalize();
+        loadBundled(resourcePatternResolver, bundled);
+        loadDirectory();
+        log.info("Loaded {} holiday snapshots", snapshots.size());
+    }
+
+    public Optional<HolidaySnapshot> find(String countryCode, int year) {
+        return Optional.ofNullable(snapshots.get(key(countryCode, year)));
+    }
+
+    /**
+     * Keeps {@code snapshot} for this run and writes it to the snapshot directory, if any. A failed
+     * write is logged; the holidays are fetched again on the next start.
+     */
+    public void save(HolidaySnapshot snapshot) {
+        if (snapshot.getCountry() == null || !COUNTRY_CODE.matcher(snapshot.getCountry()).matches()) {
+            log.warn("Not saving holiday snapshot of invalid country {}", snapshot.getCountry());
+            return;
+        }
+        snapshots.put(key(snapshot.getCountry(), snapshot.getYear()), snapshot);
+        if (directory == null) {
+            return;
+        }
+        Path file = directory.resolve(snapshot.getCountry() + "-" + snapshot.getYear() + ".json");
+        Path partFile = directory.resolve(file.getFileName() + ".part");
+        try {
+            Files.createDirectories(directory);
+            objectMapper.writeValue(partFile.toFile(), snapshot);
+            Files.move(partFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Failed to write holiday snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    private void loadBundled(ResourcePatternResolver resourcePatternResolver, String bundled) {
+        if (bundled.isBlank()) {
+            return;
+        }
+        try {
+            for (Resource resource : resourcePatternResolver.getResources(bundled)) {
+                try (InputStream input = resource.getInputStream()) {
+                    put(objectMapper.readValue(input, HolidaySnapshot.class), resource.getDescription());
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable holiday snapshot {}: {}", resource.getDescription(), e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list bundled holiday snapshots {}: {}", bundled, e.getMessage());
+        }
+    }
+
+    private void loadDirectory() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) {
+                try {
+                    put(objectMapper.readValue(file.toFile(), HolidaySnapshot.class), file.toString());
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable holiday snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list holiday snapshots in {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private void put(HolidaySnapshot snapshot, String source) {
+        if (snapshot.getCountry() == null || snapshot.getHolidays() == null) {
+            log.warn("Skipping holiday snapshot {} without country or holidays", source);
+            return;
+        }
+        snapshots.put(key(snapshot.getCountry(), snapshot.getYear()), snapshot);
+    }
+
+    private static String key(String countryCode, int year) {
+        return countryCode + ":" + year;
+    }
+}
@@ -0,0 +1,26 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import com.minhpt.hrmtoolnextgen.annotation.RateLimit;
+
+/**
+ * Rate-limiting algorithm selectable through {@link RateLimit#algorithm()}.
+ *
+ * <p>Implementations are Spring beans; {@link RateLimitingAspect} picks the one whose
+ * {@link #algorithm()} matches the annotation. All implementations share the annotation's
+ * {@code capacity} (burst size) and {@code refillRate} (sustained requests per minute) semantics
+ * and fail open when Redis is unavailable.
+ */
+public interface RateLimitAlgorithm {
+
+    RateLimit.Algorithm algorithm();
+
+    /**
+     * Attempts to admit one request for {@code key}.
+     *
+     * @param key        Redis key for this limit (e.g. "ratelimit:login:token_bucket:192.168.1.1")
+     * @param capacity   Maximum burst size
+     * @param refillRate Sustained requests per minute
+     * @return {@code true} if the request is allowed
+     */
+    boolean tryConsume(String key, int capacity, int refillRate);
+}
@@ -1,13 +1,24 @@
 package com.minhpt.hrmtoolnextgen.component;
 
-import org.apache.commons.lang3.StringUtils;
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
@@ -15,8 +26,6 @@ import com.minhpt.hrmtoolnextgen.annotation.RateLimit;
 import com.minhpt.hrmtoolnextgen.annotation.RateLimit.RateLimitStrategy;
 import com.minhpt.hrmtoolnextgen.exception.RateLimitException;
 
-import jakarta.servlet.http.HttpServletRequest;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -24,35 +33,67 @@ import lombok.extern.log4j.Log4j2;
  *
  * <p>Rate limit subjects:
  * <ul>
- *   <li>{@code IP}     – keyed by the client's effective IP address</li>
+ *   <li>{@code IP}     – keyed by the client's effective IP address (see {@link ClientIpResolver})</li>
  *   <li>{@code USER}   – keyed by the authenticated user's name</li>
  *   <li>{@code GLOBAL} – single shared bucket for the annotated method</li>
  * </ul>
+ *
+ * <p>Everything derived from the annotation – key prefix, limiter implementation, meters and
+ * the complete {@code GLOBAL} key – is resolved once per {@link Method} and cached, so a request
+ * that is let through only builds its bucket key.
+ *
+ * <p>Metrics: {@code hrm.rate_limit.violations} counts rejections and {@code hrm.rate_limit.latency}
+ * times each limiter decision; lease hits/misses are reported by {@link TokenBucketRateLimiter}.
  */
 @Aspect
 @Component
-@RequiredArgsConstructor
 @Log4j2
 public class RateLimitingAspect {
 
+    private static final String UNKNOWN_CLIENT = "unknown";
+
     private final TokenBucketRateLimiter rateLimiter;
+    private final Map<RateLimit.Algorithm, RateLimitAlgorithm> algorithms;
+    private final ClientIpResolver clientIpResolver;
     private final MessageService messageService;
     private final MeterRegistry meterRegistry;
 
+    private final Map<Method, RateLimitMetadata> metadataByMethod = new ConcurrentHashMap<>();
+
+    /**
+     * @param rateLimiter default algorithm, also used for any algorithm without an implementation
+     * @param algorithms  every {@link RateLimitAlgorithm} bean
+     */
+    public RateLimitingAspect(TokenBucketRateLimiter rateLimiter,
+                              List<RateLimitAlgorithm> algorithms,
+                              ClientIpResolver clientIpResolver,
+                              MessageService messageService,
+                              MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.algorithms = new EnumMap<>(RateLimit.Algorithm.class);
+        for (RateLimitAlgorithm algorithm : algorithms) {
+            if (algorithm.algorithm() != null) {
+                this.algorithms.put(algorithm.algorithm(), algorithm);
+            }
+        }
+        this.clientIpResolver = clientIpResolver;
+        this.messageService = messageService;
+        this.meterRegistry = meterRegistry;
+    }
+
     @Around("@annotation(rateLimit)")
     public Object enforce(ProceedingJoinPoint pjp, RateLimit rateLimit) throws Throwable {
-        String identifier = resolveIdentifier(rateLimit.strategy(), pjp);
-        String redisKey   = rateLimit.keyPrefix() + ":" + identifier;
+        RateLimitMetadata metadata = metadataFor(pjp, rateLimit);
+        String redisKey = resolveKey(metadata);
 
-        if (!rateLimiter.tryConsume(redisKey, rateLimit.capacity(), rateLimit.refillRate())) {
+        long start = System.nanoTime();
+        boolean allowed = metadata.limiter().tryConsume(redisKey, metadata.capacity(), metadata.refillRate());
+        metadata.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!allowed) {
             log.warn("Rate limit exceeded – key: {}, capacity: {}, refillRate: {}/min",
-                    redisKey, rateLimit.capacity(), rateLimit.refillRate());
-            meterRegistry.counter(
-                "hrm.rate_limit.violations",
-                "key_prefix", rateLimit.keyPrefix(),
-                "strategy", rateLimit.strategy().name(),
-                "method", pjp.getSignature().getName()
-            ).increment();
+                    redisKey, metadata.capacity(), metadata.refillRate());
+            metadata.violations().increment();
             throw new RateLimitException(messageService.getMessage("rate.limit.exceeded"));
         }
 
@@ -63,52 +104,82 @@ public class RateLimitingAspect {
     // helpers
     // ------------------------------------------------------------------
 
-    private String resolveIdentifier(RateLimitStrategy strategy, ProceedingJoinPoint pjp) {
-        return switch (strategy) {
-            case IP     -> extractClientIp();
-            case USER   -> extractUsername();
-            case GLOBAL -> pjp.getSignature().toShortString();
+    private RateLimitMetadata metadataFor(ProceedingJoinPoint pjp, RateLimit rateLimit) {
+        if (pjp.getSignature() instanceof MethodSignature methodSignature) {
+            // get() first: computeIfAbsent would allocate the capturing lambda on every call
+            RateLimitMetadata metadata = metadataByMethod.get(methodSignature.getMethod());
+            return metadata != null
+                    ? metadata
+                    : metadataByMethod.computeIfAbsent(methodSignature.getMethod(), method -> compile(pjp, rateLimit));
+        }
+        return compile(pjp, rateLimit);
+    }
+
+    private RateLimitMetadata compile(ProceedingJoinPoint pjp, RateLimit rateLimit) {
+        // Unimplemented algorithms fall back to the token bucket, and share its keys
+        RateLimit.Algorithm algorithm = algorithms.containsKey(rateLimit.algorithm())
+                ? rateLimit.algorithm()
+                : RateLimit.Algorithm.TOKEN_BUCKET;
+        // Each algorithm stores a different Redis type, so switching one must not reuse the old keys
+        String keyPrefix = rateLimit.keyPrefix() + ":" + algorithm.name().toLowerCase(Locale.ROOT) + ":";
+        String[] tags = {
+                "key_prefix", rateLimit.keyPrefix(),
+                "strategy", rateLimit.strategy().name(),
+                "method", pjp.getSignature().getName()
         };
+        return new RateLimitMetadata(
+                rateLimit.strategy(),
+                keyPrefix,
+                rateLimit.strategy() == RateLimitStrategy.GLOBAL ? keyPrefix + pjp.getSignature().toShortString() : null,
+                rateLimit.capacity(),
+                rateLimit.refillRate(),
+                algorithms.getOrDefault(algorithm, rateLimiter),
+                meterRegistry.timer("hrm.rate_limit.latency", tags),
+                meterRegistry.counter("hrm.rate_limit.violations", tags)
+        );
     }
 
-    /**
-     * Extracts the real client IP, respecting common reverse-proxy headers.
-     * Only the first (left-most) address in X-Forwarded-For is used to
-     * avoid header injection by intermediate proxies.
-     */
-    private String extractClientIp() {
-        try {
-            ServletRequestAttributes attrs =
-                    (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
-            HttpServletRequest request = attrs.getRequest();
-
-            String xForwardedFor = request.getHeader("X-Forwarded-For");
-            if (StringUtils.isNotBlank(xForwardedFor)) {
-                // Take only the first IP – the originating client
-                return xForwardedFor.split(",")[0].trim();
-            }
+    private String resolveKey(RateLimitMetadata metadata) {
+        return switch (metadata.strategy()) {
+            case IP     -> metadata.keyPrefix().concat(extractClientIp());
+            case USER   -> metadata.keyPrefix().concat(extractUsername());
+            case GLOBAL -> metadata.globalKey();
+        };
+    }
 
-            String xRealIp = request.getHeader("X-Real-IP");
-            if (StringUtils.isNotBlank(xRealIp)) {
-                return xRealIp.trim();
+    private String extractClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            String clientIp = clientIpResolver.resolve(servletAttributes.getRequest());
+            if (clientIp != null) {
+                return clientIp;
             }
-
-            return request.getRemoteAddr();
-        } catch (Exception e) {
-            log.warn("Cannot determine client IP; falling back to 'unknown': {}", e.getMessage());
-            return "unknown";
         }
+        log.warn("Cannot determine client IP; falling back to '{}'", UNKNOWN_CLIENT);
+        return UNKNOWN_CLIENT;
     }
 
     private String extractUsername() {
-        try {
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            if (auth != null && auth.isAuthenticated() && auth.getPrincipal() != null) {
-                return auth.getName();
-            }
-        } catch (Exception e) {
-            log.warn("Cannot determine authenticated user; falling back to IP: {}", e.getMessage());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() != null) {
+            return auth.getName();
         }
         return extractClientIp();
     }
+
+    /**
+     * Everything {@link #enforce} needs from a {@link RateLimit}, resolved once per method.
+     *
+     * @param keyPrefix annotation prefix and algorithm name, each followed by {@code ':'}
+     * @param globalKey complete bucket key for {@code GLOBAL} limits, {@code null} otherwise
+     */
+    private record RateLimitMetadata(RateLimitStrategy strategy,
+                                     String keyPrefix,
+                                     String globalKey,
+                                     int capacity,
+                                     int refillRate,
+                                     RateLimitAlgorithm limiter,
+                                     Timer latency,
+                                     Counter violations) {
+    }
 }
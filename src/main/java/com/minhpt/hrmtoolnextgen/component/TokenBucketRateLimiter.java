@@ -1,13 +1,33 @@
 package com.minhpt.hrmtoolnextgen.component;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minhpt.hrmtoolnextgen.annotation.RateLimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -20,26 +40,65 @@ import lombok.extern.log4j.Log4j2;
  * </ul>
  * A single Lua script executes atomically so there are no race conditions
  * even across multiple application nodes.
+ *
+ * <h3>Local leases</h3>
+ * <p>Instead of taking one token per request, a node takes a small batch (a lease) from the
+ * Redis bucket and hands it out locally with lock-free counters. When a lease runs low it is
+ * topped up in the background; refills queued for several buckets share one Redis pipeline.
+ *
+ * <p>A lease never exceeds {@code hrm.rate-limit.lease.max-fraction} of the bucket capacity
+ * (capped at {@code hrm.rate-limit.lease.max-size}). That is the leakage bound: tokens are always
+ * taken from Redis before they are spent, so limits are never exceeded, but up to one lease per
+ * node may sit unused and expire after {@code hrm.rate-limit.lease.ttl}. Buckets too small for a
+ * lease of two or more tokens are checked against Redis on every request, as before.
  */
 @Component
-@RequiredArgsConstructor
 @Log4j2
-public class TokenBucketRateLimiter {
+public class TokenBucketRateLimiter implements RateLimitAlgorithm {
 
     private final StringRedisTemplate stringRedisTemplate;
+    private final Executor refillExecutor;
+    private final Counter leaseHits;
+    private final Counter leaseMisses;
+
+    @Value("${hrm.rate-limit.lease.max-fraction:0.2}")
+    private double maxLeaseFraction;
+
+    @Value("${hrm.rate-limit.lease.max-size:50}")
+    private int maxLeaseSize;
+
+    @Value("${hrm.rate-limit.lease.ttl:PT5S}")
+    private Duration leaseTtl;
+
+    private final Cache<String, Lease> leases = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(2))
+            .build();
+
+    private final Queue<PendingRefill> pendingRefills = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    public TokenBucketRateLimiter(StringRedisTemplate stringRedisTemplate,
+                                  @Qualifier("rateLimitRefillExecutor") Executor refillExecutor,
+                                  MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.refillExecutor = refillExecutor;
+        this.leaseHits = meterRegistry.counter("hrm.rate_limit.lease", "result", "hit");
+        this.leaseMisses = meterRegistry.counter("hrm.rate_limit.lease", "result", "miss");
+    }
 
     /**
-     * Lua script – returns a two-element list: [allowed (0|1), remainingTokens].
+     * Lua script – takes up to {@code requested} whole tokens and returns how many were granted.
      *
-     * <p>ARGV: [capacity, refillRate (tokens/min), nowMs]
+     * <p>ARGV: [capacity, refillRate (tokens/min), nowMs, requested]
      */
-    @SuppressWarnings("rawtypes")
-    private static final DefaultRedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
+    private static final DefaultRedisScript<Long> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>(
             """
             local key            = KEYS[1]
             local capacity       = tonumber(ARGV[1])
             local refillRate     = tonumber(ARGV[2])
             local now            = tonumber(ARGV[3])
+            local requested      = tonumber(ARGV[4])
 
             local data           = redis.call('HMGET', key, 'tokens', 'lastRefillTime')
             local tokens         = tonumber(data[1]) or capacity
@@ -49,52 +108,231 @@ public class TokenBucketRateLimiter {
             local tokensToAdd    = (elapsedMs / 60000) * refillRate
             tokens               = math.min(capacity, tokens + tokensToAdd)
 
-            local allowed = 0
-            if tokens >= 1 then
-                tokens  = tokens - 1
-                allowed = 1
-            end
+            local granted = math.min(requested, math.floor(tokens))
+            tokens        = tokens - granted
 
-            redis.call('HMSET', key, 'tokens', tokens, 'lastRefillTime', now)
+            redis.call('HSET', key, 'tokens', tokens, 'lastRefillTime', now)
             -- TTL: 2 × the refill window (120 s) to auto-clean idle buckets
             redis.call('EXPIRE', key, 120)
 
-            return {allowed, math.floor(tokens)}
+            return granted
             """,
-            List.class
+            Long.class
     );
 
+    @Override
+    public RateLimit.Algorithm algorithm() {
+        return RateLimit.Algorithm.TOKEN_BUCKET;
+    }
+
     /**
      * Attempts to consume one token from the bucket identified by {@code key}.
      *
-     * @param key        Redis key for this bucket (e.g. "ratelimit:login:192.168.1.1")
+     * @param key        Redis key for this bucket (e.g. "ratelimit:login:token_bucket:192.168.1.1")
      * @param capacity   Maximum tokens the bucket can hold
      * @param refillRate Tokens added per minute
      * @return {@code true} if a token was consumed and the request is allowed
      */
+    @Override
     public boolean tryConsume(String key, int capacity, int refillRate) {
+        int leaseSize = leaseSize(capacity);
+        if (leaseSize <= 1) {
+            return takeFromRedis(key, capacity, refillRate, 1) != 0;
+        }
+
+        long nowMs = Instant.now().toEpochMilli();
+        Lease lease = leases.get(key, k -> new Lease());
+        if (lease.tryTake(nowMs)) {
+            leaseHits.increment();
+            if (lease.remaining() <= leaseSize / 2) {
+                scheduleRefill(key, lease, capacity, refillRate, leaseSize);
+            }
+            return true;
+        }
+
+        leaseMisses.increment();
+        long granted = takeFromRedis(key, capacity, refillRate, leaseSize);
+        if (granted < 0) {
+            return true; // fail-open, without granting a lease
+        }
+        if (granted == 0) {
+            return false;
+        }
+        lease.grant((int) granted - 1, nowMs + leaseTtl.toMillis());
+        return true;
+    }
+
+    /**
+     * @return tokens granted by Redis, or {@code -1} if Redis could not be reached
+     */
+    private long takeFromRedis(String key, int capacity, int refillRate, int requested) {
         try {
             long nowMs = Instant.now().toEpochMilli();
-            List<?> result = stringRedisTemplate.execute(
+            Long granted = stringRedisTemplate.execute(
                     TOKEN_BUCKET_SCRIPT,
                     List.of(key),
                     String.valueOf(capacity),
                     String.valueOf(refillRate),
-                    String.valueOf(nowMs)
+                    String.valueOf(nowMs),
+                    String.valueOf(requested)
             );
 
-            if (result.isEmpty()) {
+            if (granted == null) {
                 log.warn("Rate limiter Redis script returned null for key '{}'; allowing request", key);
-                return true; // fail-open: don't block traffic if Redis is temporarily unavailable
+                return -1; // fail-open: don't block traffic if Redis is temporarily unavailable
             }
 
-            long allowed = ((Number) result.get(0)).longValue();
-            log.debug("Rate limit check – key: {}, allowed: {}, remaining: {}", key, allowed, result.get(1));
-            return allowed == 1L;
+            log.debug("Rate limit check – key: {}, requested: {}, granted: {}", key, requested, granted);
+            return granted;
 
         } catch (Exception e) {
             log.error("Rate limiter error for key '{}'; failing open: {}", key, e.getMessage());
-            return true; // fail-open
+            return -1; // fail-open
+        }
+    }
+
+    private int leaseSize(int capacity) {
+        return Math.min(maxLeaseSize, (int) (capacity * maxLeaseFraction));
+    }
+
+    // ------------------------------------------------------------------
+    // Background refills
+    // ------------------------------------------------------------------
+
+    private void scheduleRefill(String key, Lease lease, int capacity, int refillRate, int leaseSize) {
+        if (!lease.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        pendingRefills.add(new PendingRefill(key, lease, capacity, refillRate, leaseSize));
+        if (drainScheduled.compareAndSet(false, true)) {
+            try {
+                refillExecutor.execute(this::drainRefills);
+            } catch (TaskRejectedException e) {
+                drainScheduled.set(false);
+                log.warn("Rate limit lease refill rejected; leases will be refilled on demand: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void drainRefills() {
+        drainScheduled.set(false);
+        List<PendingRefill> batch = new ArrayList<>();
+        for (PendingRefill refill; (refill = pendingRefills.poll()) != null; ) {
+            batch.add(refill);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long nowMs = Instant.now().toEpochMilli();
+        List<Object> results;
+        try {
+            results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                batch.forEach(refill -> evalLeaseScript(connection, refill, nowMs));
+                return null;
+            });
+        } catch (RedisPipelineException e) {
+            results = retryNotExecuted(batch, e.getPipelineResult());
+        } catch (Exception e) {
+            // Outcome unknown (e.g. connection lost mid-pipeline): some scripts may already have taken
+            // their tokens, so don't retry – the leases drain and are refilled on demand
+            log.warn("Pipelined lease refill failed; leases will be refilled on demand: {}", e.getMessage());
+            results = List.of();
+        }
+
+        long expiresAt = nowMs + leaseTtl.toMillis();
+        for (int i = 0; i < batch.size(); i++) {
+            Lease lease = batch.get(i).lease();
+            if (i < results.size() && results.get(i) instanceof Number granted && granted.intValue() > 0) {
+                lease.grant(granted.intValue(), expiresAt);
+            }
+            lease.refilling.set(false);
+        }
+    }
+
+    /**
+     * Re-runs only the refills Redis rejected with {@code NOSCRIPT} (e.g. after a Redis restart), which
+     * are known not to have executed; each is a single script call that loads the script if needed.
+     * Refills that failed otherwise are skipped, since they may have taken tokens already.
+     */
+    private List<Object> retryNotExecuted(List<PendingRefill> batch, List<Object> pipelineResults) {
+        List<Object> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Object result = i < pipelineResults.size() ? pipelineResults.get(i) : null;
+            if (result instanceof Exception e && isNoScriptError(e)) {
+                PendingRefill refill = batch.get(i);
+                result = takeFromRedis(refill.key(), refill.capacity(), refill.refillRate(), refill.requested());
+            } else if (result instanceof Exception e) {
+                log.warn("Lease refill failed for key '{}'; refilling on demand: {}", batch.get(i).key(),
+                        e.getMessage());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void evalLeaseScript(RedisConnection connection, PendingRefill refill, long nowMs) {
+        connection.scriptingCommands().evalSha(
+                TOKEN_BUCKET_SCRIPT.getSha1(),
+                ReturnType.INTEGER,
+                1,
+                bytes(refill.key()),
+                bytes(String.valueOf(refill.capacity())),
+                bytes(String.valueOf(refill.refillRate())),
+                bytes(String.valueOf(nowMs)),
+                bytes(String.valueOf(refill.requested())));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Tokens of one bucket already taken from Redis by this node.
+     */
+    private static final class Lease {
+        private final AtomicInteger remaining = new AtomicInteger();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private volatile long expiresAt;
+
+        boolean tryTake(long nowMs) {
+            if (nowMs > expiresAt) {
+                remaining.set(0);
+                return false;
+            }
+            int current;
+            do {
+                current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - 1));
+            return true;
+        }
+
+        void grant(int tokens, long newExpiresAt) {
+            remaining.addAndGet(tokens);
+            expiresAt = newExpiresAt;
+        }
+
+        int remaining() {
+            return remaining.get();
+        }
+    }
+
+    private record PendingRefill(String key, Lease lease, int capacity, int refillRate, int leaseSize) {
+        /** Tops the lease up to {@code leaseSize}, never beyond. */
+        int requested() {
+            return Math.max(1, leaseSize - lease.remaining());
         }
     }
 }
@@ -0,0 +1,213 @@
+package com.minhpt.hrmtoolnextgen.component.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.cache.RedisCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * A Redis cache fronted by a bounded in-process Caffeine cache.
+ *
+ * <p>Reads are served from the local tier when possible and fill it from Redis otherwise. Writes
+ * and evictions go to both tiers and are then announced through the {@link InvalidationPublisher},
+ * so other nodes drop their local copy; a lost announcement is bounded by the local TTL. Keys are
+ * held locally, and announced, by their string form.
+ *
+ * <p>Gets per tier are counted for {@link TwoLevelCacheMetrics}.
+ */
+public class TwoLevelCache implements Cache {
+
+    private final RedisCache remote;
+    private final com.github.benmanes.caffeine.cache.Cache<String, Object> local;
+    private final InvalidationPublisher publisher;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder localMisses = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder remoteMisses = new LongAdder();
+
+    public TwoLevelCache(RedisCache remote, long localMaxSize, Duration localTtl, InvalidationPublisher publisher) {
+        this.remote = remote;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .build();
+        this.publisher = publisher;
+    }
+
+    @Override
+    public String getName() {
+        return remote.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    public RedisCache getRemote() {
+        return remote;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object value = local.getIfPresent(localKey);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        localMisses.increment();
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            remoteMisses.increment();
+            return wrapper;
+        }
+        remoteHits.increment();
+        local.put(localKey, wrapper.get());
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null && wrapper.get() != null) {
+            return (T) wrapper.get();
+        }
+        T value = remote.get(key, valueLoader);
+        if (value != null) {
+            local.put(localKey(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        String localKey = localKey(key);
+        if (value == null) {
+            local.invalidate(localKey);
+        } else {
+            local.put(localKey, value);
+        }
+        publisher.evicted(getName(), localKey);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        Object current = existing == null ? value : existing.get();
+        String localKey = localKey(key);
+        if (current != null) {
+            local.put(localKey, current);
+        }
+        if (existing == null) {
+            publisher.evicted(getName(), localKey);
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        try {
+            remote.evict(key);
+        } finally {
+            publisher.evicted(getName(), localKey);
+        }
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = localKey(key);
+        local.invalidate(localKey);
+        try {
+            return remote.evictIfPresent(key);
+        } finally {
+            publisher.evicted(getName(), localKey);
+        }
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        try {
+            remote.clear();
+        } finally {
+            publisher.cleared(getName());
+        }
+    }
+
+    @Override
+    public boolean invalidate() {
+        local.invalidateAll();
+        try {
+            return remote.invalidate();
+        } finally {
+            publisher.cleared(getName());
+        }
+    }
+
+    /**
+     * Drops the local copy of a key written or evicted on another node.
+     */
+    public void evictLocal(String localKey) {
+        local.invalidate(localKey);
+    }
+
+    public void clearLocal() {
+        local.invalidateAll();
+    }
+
+    public long getLocalSize() {
+        return local.estimatedSize();
+    }
+
+    public long getLocalHits() {
+        return localHits.sum();
+    }
+
+    public long getLocalMisses() {
+        return localMisses.sum();
+    }
+
+    public long getRemoteHits() {
+        return remoteHits.sum();
+    }
+
+    public long getRemoteMisses() {
+        return remoteMisses.sum();
+    }
+
+    private static String localKey(Object key) {
+        return key instanceof String string ? string : String.valueOf(key);
+    }
+
+    /**
+     * Announces local-tier invalidations to the other nodes.
+     */
+    public interface InvalidationPublisher {
+
+        void evicted(String cacheName, String localKey);
+
+        void cleared(String cacheName);
+    }
+}
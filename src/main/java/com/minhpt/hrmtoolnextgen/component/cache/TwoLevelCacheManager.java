@@ -0,0 +1,116 @@
+package com.minhpt.hrmtoolnextgen.component.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Cache manager putting a {@link TwoLevelCache} in front of each Redis cache that has a local tier
+ * configured; other caches are the plain Redis caches.
+ *
+ * <p>Local writes and evictions are published on {@value #INVALIDATION_CHANNEL} as
+ * {@code <node>|<cache>|E|<key>} or {@code <node>|<cache>|C|}; every other node drops the key, or
+ * the whole local tier, when it receives the message. The publishing node has already updated its
+ * own tier and ignores its messages.
+ */
+@Log4j2
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "hrm:cache:invalidate";
+
+    private final RedisCacheManager redisCacheManager;
+    private final Map<String, LocalTier> localTiers;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+    private final TwoLevelCache.InvalidationPublisher publisher = new TwoLevelCache.InvalidationPublisher() {
+        @Override
+        public void evicted(String cacheName, String localKey) {
+            publish(cacheName, "E", localKey);
+        }
+
+        @Override
+        public void cleared(String cacheName) {
+            publish(cacheName, "C", "");
+        }
+    };
+
+    /**
+     * @param localTiers local tier of each cache that has one, by cache name
+     */
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, Map<String, LocalTier> localTiers,
+                                StringRedisTemplate stringRedisTemplate) {
+        this.redisCacheManager = redisCacheManager;
+        this.localTiers = Map.copyOf(localTiers);
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remote = redisCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        LocalTier localTier = localTiers.get(name);
+        return caches.computeIfAbsent(name, cacheName -> localTier == null
+                ? remote
+                : new TwoLevelCache((RedisCache) remote, localTier.maxSize(), localTier.ttl(), publisher));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return redisCacheManager.getCacheNames();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split("\\|", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed cache invalidation message: {}", body);
+            return;
+        }
+        if (nodeId.equals(parts[0]) || !(caches.get(parts[1]) instanceof TwoLevelCache cache)) {
+            return;
+        }
+        if ("C".equals(parts[2])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    private void publish(String cacheName, String operation, String localKey) {
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    nodeId + "|" + cacheName + "|" + operation + "|" + localKey);
+        } catch (Exception e) {
+            log.error("Failed to publish invalidation of cache '{}' key '{}'; other nodes will expire it locally: {}",
+                    cacheName, localKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Size bound and TTL of the in-process tier of one cache.
+     */
+    public record LocalTier(long maxSize, Duration ttl) {
+    }
+}
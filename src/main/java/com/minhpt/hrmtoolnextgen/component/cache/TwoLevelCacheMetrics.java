@@ -0,0 +1,63 @@
+package com.minhpt.hrmtoolnextgen.component.cache;
+
+import java.util.function.ToLongFunction;
+
+import org.springframework.boot.actuate.metrics.cache.RedisCacheMetrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Metrics of a {@link TwoLevelCache}: the usual {@code cache.*} meters of its Redis tier, plus per
+ * tier {@code cache.tier.gets} counters ({@code tier=local|redis}, {@code result=hit|miss}), a
+ * {@code cache.tier.hit.ratio} gauge and the {@code cache.tier.size} of the local tier. The Redis
+ * tier only sees the gets the local tier missed.
+ */
+public class TwoLevelCacheMetrics implements MeterBinder {
+
+    private final TwoLevelCache cache;
+    private final Iterable<Tag> baseTags;
+    private final Tags tags;
+
+    public TwoLevelCacheMetrics(TwoLevelCache cache, Iterable<Tag> tags) {
+        this.cache = cache;
+        this.baseTags = tags;
+        this.tags = Tags.concat(tags, "cache", cache.getName());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new RedisCacheMetrics(cache.getRemote(), baseTags).bindTo(registry);
+        bindTier(registry, "local", TwoLevelCache::getLocalHits, TwoLevelCache::getLocalMisses);
+        bindTier(registry, "redis", TwoLevelCache::getRemoteHits, TwoLevelCache::getRemoteMisses);
+        Gauge.builder("cache.tier.size", cache, TwoLevelCache::getLocalSize)
+                .tags(tags.and("tier", "local"))
+                .description("Estimated number of entries in the tier")
+                .register(registry);
+    }
+
+    private void bindTier(MeterRegistry registry, String tier, ToLongFunction<TwoLevelCache> hits,
+                          ToLongFunction<TwoLevelCache> misses) {
+        Tags tierTags = tags.and("tier", tier);
+        FunctionCounter.builder("cache.tier.gets", cache, c -> hits.applyAsLong(c))
+                .tags(tierTags.and("result", "hit"))
+                .description("Gets answered by the tier")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.gets", cache, c -> misses.applyAsLong(c))
+                .tags(tierTags.and("result", "miss"))
+                .description("Gets the tier could not answer")
+                .register(registry);
+        Gauge.builder("cache.tier.hit.ratio", cache, c -> {
+                    long hit = hits.applyAsLong(c);
+                    long total = hit + misses.applyAsLong(c);
+                    return total == 0 ? Double.NaN : (double) hit / total;
+                })
+                .tags(tierTags)
+                .description("Share of the gets reaching the tier that it answered")
+                .register(registry);
+    }
+}
@@ -29,6 +29,7 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
     private final JwtProvider tokenProvider;
     private final UserDetailsServiceImpl userDetailsService;
     private final UserTokenRedisRepository userTokenRedisRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     @Override
     protected void doFilterInternal(@NotNull HttpServletRequest request,
@@ -43,36 +44,35 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
                 return;
             }
 
-            if (!tokenProvider.validateJwtToken(jwt)) {
+            // One signature check; every claim below comes from this verified value
+            VerifiedToken verifiedToken = tokenProvider.verifyToken(jwt).orElse(null);
+            if (verifiedToken == null) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
             // Ensure it's an access token, not a refresh token
-            if (!tokenProvider.isAccessToken(jwt)) {
+            if (!verifiedToken.isAccessToken()) {
                 filterChain.doFilter(request, response);
                 return;
             }
 
-            String email = tokenProvider.getEmailFromJwtToken(jwt);
-            Long userId = tokenProvider.getIdFromJwtToken(jwt);
-
-            // Check if token exists in Redis (not invalidated)
-            if (userId != null) {
-                UserTokenRedisEntity storedToken = userTokenRedisRepository
-                        .findUserByUserIdAndTokenType(userId, EUserTokenType.ACCESS_TOKEN);
-
-                if (storedToken == null || !storedToken.getToken().equals(jwt)) {
-                    // Token was invalidated (logout) or doesn't match
+            if (tokenRevocationRegistry.isStateless()) {
+                // Revocations are pushed to this node, so no Redis round trip is needed
+                if (tokenRevocationRegistry.isRevoked(verifiedToken)) {
                     filterChain.doFilter(request, response);
                     return;
                 }
+            } else if (!isStoredAccessToken(verifiedToken)) {
+                // Token was invalidated (logout) or doesn't match
+                filterChain.doFilter(request, response);
+                return;
             }
 
-            UserPrincipalDto userDetails = userDetailsService.loadUserByUsername(email);
+            UserPrincipalDto userDetails = userDetailsService.loadUserByUsername(verifiedToken.email());
             userDetails.setAccessToken(jwt);
 
-            userDetails.setRemainTime(tokenProvider.getRemainTimeFromJwtToken(jwt));
+            userDetails.setRemainTime(verifiedToken.getRemainTime());
 
             UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(
@@ -93,6 +93,17 @@ public class JwtAuthTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isStoredAccessToken(VerifiedToken verifiedToken) {
+        Long userId = verifiedToken.userId();
+        if (userId == null) {
+            return true;
+        }
+        // Check if token exists in Redis (not invalidated)
+        UserTokenRedisEntity storedToken = userTokenRedisRepository
+                .findUserByUserIdAndTokenType(userId, EUserTokenType.ACCESS_TOKEN);
+        return storedToken != null && storedToken.getToken().equals(verifiedToken.token());
+    }
+
     private String getJwt(HttpServletRequest request) {
         String authHeader = request.getHeader("Authorization");
 
@@ -3,7 +3,10 @@ package com.minhpt.hrmtoolnextgen.component.jwt;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.HashMap;
 import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
 
 import javax.crypto.SecretKey;
 
@@ -17,9 +20,13 @@ import com.minhpt.hrmtoolnextgen.util.DateUtils;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwsHeader;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 
@@ -43,12 +50,20 @@ import lombok.extern.log4j.Log4j2;
  *       new tokens are signed with the new key.</li>
  *   <li>Once all old tokens have expired you can clear {@code jwtSecretPrevious}.</li>
  * </ol>
+ *
+ * <h3>Verification</h3>
+ * <p>Keys are built once on first use and indexed by their {@code kid} fingerprint. The parser
+ * resolves the key straight from the token header, so a valid token costs exactly one
+ * signature check. Use {@link #verifyToken(String)} to get every claim from that single parse.
  */
 @Component
 @Log4j2
 @RequiredArgsConstructor
 public class JwtProvider {
 
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+    private static final String TOKEN_EPOCH_CLAIM = "token_epoch";
+
     /** The currently active signing secret. Must never be empty. */
     @Value("${hrm.app.jwtSecret}")
     private String jwtSecret;
@@ -66,6 +81,9 @@ public class JwtProvider {
     @Value("${hrm.app.refreshTokenExpiration}")
     private long refreshTokenExpiration;
 
+    /** Keys and parsers built from the secrets on first use; see {@link #keyRing()}. */
+    private volatile KeyRing keyRing;
+
     // ------------------------------------------------------------------
     // Token generation
     // ------------------------------------------------------------------
@@ -79,38 +97,72 @@ public class JwtProvider {
     }
 
     public String generateTokenFromEmail(String email, Long id) {
-        Instant expired = Instant.now().plusMillis(jwtExpiration);
-        return Jwts.builder()
-                .header().add("kid", fingerprint(jwtSecret)).and()
-                .id(String.valueOf(id))
-                .subject(email)
-                .claim("token_type", "access")
-                .issuedAt(DateUtils.convertInstantToDate(Instant.now()))
-                .expiration(DateUtils.convertInstantToDate(expired))
-                .signWith(buildKey(jwtSecret))
-                .compact();
+        return generateTokenFromEmail(email, id, 0L);
+    }
+
+    /**
+     * @param tokenEpoch the user's token generation; see {@link TokenRevocationRegistry}
+     */
+    public String generateTokenFromEmail(String email, Long id, long tokenEpoch) {
+        return generateToken(email, id, VerifiedToken.ACCESS_TOKEN_TYPE, jwtExpiration, tokenEpoch);
     }
 
     public String generateRefreshToken(String email, Long id) {
-        Instant expired = Instant.now().plusMillis(refreshTokenExpiration);
+        return generateRefreshToken(email, id, 0L);
+    }
+
+    public String generateRefreshToken(String email, Long id, long tokenEpoch) {
+        return generateToken(email, id, VerifiedToken.REFRESH_TOKEN_TYPE, refreshTokenExpiration, tokenEpoch);
+    }
+
+    private String generateToken(String email, Long id, String tokenType, long expiration, long tokenEpoch) {
+        KeyRing ring = keyRing();
+        Instant now = Instant.now();
+        Instant expired = now.plusMillis(expiration);
         return Jwts.builder()
-                .header().add("kid", fingerprint(jwtSecret)).and()
+                .header().add("kid", ring.signingKeyId()).and()
                 .id(String.valueOf(id))
                 .subject(email)
-                .claim("token_type", "refresh")
-                .issuedAt(DateUtils.convertInstantToDate(Instant.now()))
+                .claim(TOKEN_TYPE_CLAIM, tokenType)
+                .claim(TOKEN_EPOCH_CLAIM, tokenEpoch > 0 ? tokenEpoch : null)
+                .issuedAt(DateUtils.convertInstantToDate(now))
                 .expiration(DateUtils.convertInstantToDate(expired))
-                .signWith(buildKey(jwtSecret))
+                .signWith(ring.signingKey())
                 .compact();
     }
 
+    // ------------------------------------------------------------------
+    // Token verification
+    // ------------------------------------------------------------------
+
+    /**
+     * Verifies the signature and expiry of a token once and returns all of its claims.
+     *
+     * @param token compact JWT string
+     * @return the verified token, or empty if it is malformed, forged or expired
+     */
+    public Optional<VerifiedToken> verifyToken(String token) {
+        if (StringUtils.isBlank(token)) {
+            return Optional.empty();
+        }
+        try {
+            VerifiedToken verifiedToken = toVerifiedToken(token, getSignedClaims(token).getPayload());
+            return verifiedToken.isExpired() ? Optional.empty() : Optional.of(verifiedToken);
+        } catch (Exception e) {
+            log.error("Error verifyToken -> Message: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
     // ------------------------------------------------------------------
     // Token inspection
     // ------------------------------------------------------------------
+    // Each call below performs a full verification. Prefer verifyToken when
+    // more than one claim is needed.
 
     public Long getIdFromJwtToken(String token) {
         try {
-            return Long.parseLong(getSignedClaims(token).getPayload().getId());
+            return parseUserId(getSignedClaims(token).getPayload());
         } catch (Exception e) {
             log.error("Error getting ID from JWT token", e);
             return null;
@@ -119,8 +171,7 @@ public class JwtProvider {
 
     public String getTokenTypeFromJwtToken(String token) {
         try {
-            Object tokenType = getSignedClaims(token).getPayload().get("token_type");
-            return tokenType != null ? tokenType.toString() : null;
+            return parseTokenType(getSignedClaims(token).getPayload());
         } catch (Exception e) {
             log.error("Error getting token type from JWT token", e);
             return null;
@@ -128,11 +179,11 @@ public class JwtProvider {
     }
 
     public boolean isAccessToken(String token) {
-        return "access".equals(getTokenTypeFromJwtToken(token));
+        return VerifiedToken.ACCESS_TOKEN_TYPE.equals(getTokenTypeFromJwtToken(token));
     }
 
     public boolean isRefreshToken(String token) {
-        return "refresh".equals(getTokenTypeFromJwtToken(token));
+        return VerifiedToken.REFRESH_TOKEN_TYPE.equals(getTokenTypeFromJwtToken(token));
     }
 
     public String getEmailFromJwtToken(String token) {
@@ -160,17 +211,19 @@ public class JwtProvider {
     /**
      * Parses and verifies a token.
      *
-     * <p>Tries the current key first; if that fails and a previous key is
-     * configured, retries with the previous key (rotation window support).
+     * <p>The key is resolved from the {@code kid} header, so tokens issued by this service
+     * are verified exactly once. A signature mismatch falls back to the previous key, which
+     * covers tokens issued without a {@code kid} during a rotation window.
      */
     private Jws<Claims> getSignedClaims(String authToken) {
+        KeyRing ring = keyRing();
         try {
-            return parse(authToken, buildKey(jwtSecret));
-        } catch (JwtException primaryFail) {
-            if (StringUtils.isNotBlank(jwtSecretPrevious)) {
+            return ring.parser().parseSignedClaims(authToken);
+        } catch (SignatureException primaryFail) {
+            if (ring.previousKeyParser() != null) {
                 try {
                     log.debug("Token did not validate with current key; trying previous key");
-                    return parse(authToken, buildKey(jwtSecretPrevious));
+                    return ring.previousKeyParser().parseSignedClaims(authToken);
                 } catch (JwtException secondaryFail) {
                     // throw the original failure for cleaner error messages
                     log.error("the original failure for cleaner error messages",secondaryFail);
@@ -180,11 +233,52 @@ public class JwtProvider {
         }
     }
 
-    private Jws<Claims> parse(String token, SecretKey key) {
-        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+    private VerifiedToken toVerifiedToken(String token, Claims claims) {
+        return new VerifiedToken(
+                token,
+                parseUserId(claims),
+                claims.getSubject(),
+                parseTokenType(claims),
+                claims.getExpiration().getTime(),
+                parseTokenEpoch(claims)
+        );
+    }
+
+    private Long parseUserId(Claims claims) {
+        try {
+            return Long.parseLong(claims.getId());
+        } catch (NumberFormatException e) {
+            log.error("Error getting ID from JWT token", e);
+            return null;
+        }
+    }
+
+    private String parseTokenType(Claims claims) {
+        Object tokenType = claims.get(TOKEN_TYPE_CLAIM);
+        return tokenType != null ? tokenType.toString() : null;
+    }
+
+    private long parseTokenEpoch(Claims claims) {
+        Object tokenEpoch = claims.get(TOKEN_EPOCH_CLAIM);
+        return tokenEpoch instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private KeyRing keyRing() {
+        KeyRing ring = keyRing;
+        if (ring == null) {
+            synchronized (this) {
+                ring = keyRing;
+                if (ring == null) {
+                    ring = KeyRing.build(jwtSecret, jwtSecretPrevious);
+                    keyRing = ring;
+                    log.debug("JWT verification keys initialised: {}", ring.verificationKeys().keySet());
+                }
+            }
+        }
+        return ring;
     }
 
-    private SecretKey buildKey(String secret) {
+    private static SecretKey buildKey(String secret) {
         return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
     }
 
@@ -202,4 +296,44 @@ public class JwtProvider {
             return "unknown";
         }
     }
+
+    /**
+     * Pre-built signing key plus verification keys indexed by {@code kid}.
+     *
+     * @param previousKeyParser fallback for tokens without a recognised {@code kid};
+     *                          {@code null} when no previous secret is configured
+     */
+    private record KeyRing(String signingKeyId,
+                           SecretKey signingKey,
+                           Map<String, SecretKey> verificationKeys,
+                           JwtParser parser,
+                           JwtParser previousKeyParser) {
+
+        static KeyRing build(String secret, String previousSecret) {
+            String signingKeyId = fingerprint(secret);
+            SecretKey signingKey = buildKey(secret);
+
+            Map<String, SecretKey> keys = new HashMap<>();
+            keys.put(signingKeyId, signingKey);
+            JwtParser previousKeyParser = null;
+            if (StringUtils.isNotBlank(previousSecret) && !previousSecret.equals(secret)) {
+                SecretKey previousKey = buildKey(previousSecret);
+                keys.putIfAbsent(fingerprint(previousSecret), previousKey);
+                previousKeyParser = Jwts.parser().verifyWith(previousKey).build();
+            }
+            Map<String, SecretKey> verificationKeys = Map.copyOf(keys);
+
+            JwtParser parser = Jwts.parser()
+                    .keyLocator(new LocatorAdapter<>() {
+                        @Override
+                        protected SecretKey locate(JwsHeader header) {
+                            // Unknown or missing kid: assume the current key, see getSignedClaims
+                            String keyId = header.getKeyId();
+                            return keyId != null ? verificationKeys.getOrDefault(keyId, signingKey) : signingKey;
+                        }
+                    })
+                    .build();
+            return new KeyRing(signingKeyId, signingKey, verificationKeys, parser, previousKeyParser);
+        }
+    }
 }
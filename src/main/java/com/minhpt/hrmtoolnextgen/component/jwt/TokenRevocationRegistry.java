@@ -0,0 +1,132 @@
+package com.minhpt.hrmtoolnextgen.component.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Per-user token generations ("epochs") for the stateless access-token mode.
+ *
+ * <p>Every token carries the epoch of its user at issue time. Revoking a user's tokens
+ * increments the epoch in the Redis hash {@value #EPOCHS_KEY} and broadcasts
+ * {@code userId:epoch} on {@value #REVOCATION_CHANNEL}; each node keeps the highest epoch
+ * it has seen per user and rejects tokens issued under an older one. Authentication
+ * therefore needs no network call once the token signature is verified.
+ *
+ * <p>The in-memory view is loaded from Redis on startup and re-synchronised every
+ * {@code hrm.security.token-revocation.resync-interval}, which bounds the window in which a
+ * lost pub/sub message could let a revoked token through.
+ *
+ * <p>With {@code hrm.security.token-revocation.stateless=false} (the default) nothing is
+ * tracked here and {@link JwtAuthTokenFilter} compares the token with the one stored in Redis.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class TokenRevocationRegistry implements MessageListener {
+
+    static final String EPOCHS_KEY = "hrm:token-epochs";
+    static final String REVOCATION_CHANNEL = "hrm:token-revocations";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Value("${hrm.security.token-revocation.stateless:false}")
+    private boolean stateless;
+
+    /** Minimum accepted epoch per user id; users never revoked are absent (epoch 0). */
+    private final Map<Long, Long> minimumEpochs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        if (stateless) {
+            redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(REVOCATION_CHANNEL));
+        }
+        log.info("Access token revocation mode: {}", stateless ? "stateless (epoch)" : "strict (Redis lookup)");
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * @return {@code true} if the token was issued before its user's latest revocation
+     */
+    public boolean isRevoked(VerifiedToken verifiedToken) {
+        Long userId = verifiedToken.userId();
+        return userId == null || verifiedToken.tokenEpoch() < currentEpoch(userId);
+    }
+
+    /**
+     * @return the epoch new tokens of {@code userId} must carry, as known by this node
+     */
+    public long currentEpoch(Long userId) {
+        return minimumEpochs.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Invalidates every token issued to {@code userId} so far on all nodes.
+     *
+     * @return the new epoch, to be embedded in tokens issued afterwards
+     */
+    public long revoke(Long userId) {
+        Long epoch = stringRedisTemplate.opsForHash().increment(EPOCHS_KEY, String.valueOf(userId), 1L);
+        advance(userId, epoch);
+        try {
+            stringRedisTemplate.convertAndSend(REVOCATION_CHANNEL, userId + ":" + epoch);
+        } catch (Exception e) {
+            log.error("Failed to publish token revocation for user id '{}'; other nodes will pick it up on resync: {}",
+                    userId, e.getMessage());
+        }
+        log.debug("Revoked tokens of user id: {} (epoch {})", userId, epoch);
+        return epoch;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(':');
+        try {
+            advance(Long.valueOf(body.substring(0, separator)), Long.valueOf(body.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            log.warn("Ignoring malformed token revocation message: {}", body);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${hrm.security.token-revocation.resync-interval:PT1M}")
+    public void resync() {
+        if (!stateless) {
+            return;
+        }
+        try {
+            Map<Object, Object> epochs = stringRedisTemplate.opsForHash().entries(EPOCHS_KEY);
+            epochs.forEach((userId, epoch) ->
+                    advance(Long.valueOf(userId.toString()), Long.valueOf(epoch.toString())));
+            log.debug("Token revocation epochs synchronised: {} users", epochs.size());
+        } catch (Exception e) {
+            log.error("Failed to synchronise token revocation epochs: {}", e.getMessage());
+        }
+    }
+
+    private void advance(Long userId, Long epoch) {
+        if (userId != null && epoch != null) {
+            minimumEpochs.merge(userId, epoch, Math::max);
+        }
+    }
+}
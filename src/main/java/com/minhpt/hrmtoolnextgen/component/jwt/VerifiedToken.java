@@ -0,0 +1,46 @@
+package com.minhpt.hrmtoolnextgen.component.jwt;
+
+import com.minhpt.hrmtoolnextgen.util.DateUtils;
+
+/**
+ * Immutable result of a single signature verification performed by {@link JwtProvider#verifyToken(String)}.
+ *
+ * <p>Every claim the authentication pipeline needs is extracted once, so callers never
+ * have to re-parse (and re-verify) the compact token string.
+ *
+ * @param token          the raw compact JWT
+ * @param userId         value of the {@code jti} claim, or {@code null} if it is not numeric
+ * @param email          value of the {@code sub} claim
+ * @param tokenType      value of the {@code token_type} claim ({@code access} / {@code refresh})
+ * @param expirationTime expiration instant in epoch milliseconds
+ * @param tokenEpoch     value of the {@code token_epoch} claim, {@code 0} for tokens issued without one
+ */
+public record VerifiedToken(String token,
+                            Long userId,
+                            String email,
+                            String tokenType,
+                            long expirationTime,
+                            long tokenEpoch) {
+
+    public static final String ACCESS_TOKEN_TYPE = "access";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    public boolean isAccessToken() {
+        return ACCESS_TOKEN_TYPE.equals(tokenType);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH_TOKEN_TYPE.equals(tokenType);
+    }
+
+    /**
+     * @return milliseconds left before the token expires (negative once expired)
+     */
+    public long getRemainTime() {
+        return expirationTime - DateUtils.getInstantLong();
+    }
+
+    public boolean isExpired() {
+        return getRemainTime() <= 0;
+    }
+}
@@ -3,6 +3,7 @@ package com.minhpt.hrmtoolnextgen.config;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
@@ -29,6 +30,82 @@ public class AsyncConfig implements AsyncConfigurer {
         return executor;
     }
 
+    /**
+     * Runs asynchronous exports, see
+     * {@link com.minhpt.hrmtoolnextgen.service.timesheet.TimesheetExportJobService}. Small and
+     * bounded: each job holds a database cursor for its whole run, and a full queue rejects new
+     * jobs instead of piling them up.
+     */
+    @Bean(name = "exportTaskExecutor")
+    public Executor exportTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("export-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Background refills of the local rate-limit token leases, see
+     * {@link com.minhpt.hrmtoolnextgen.component.TokenBucketRateLimiter}.
+     */
+    @Bean(name = "rateLimitRefillExecutor")
+    public Executor rateLimitRefillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("rate-limit-refill-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Fetches holidays from the holiday API in the background, see
+     * {@link com.minhpt.hrmtoolnextgen.service.HolidayService}. One thread is plenty: a fetch is
+     * one call per country and year, and refreshes of the same year are deduplicated.
+     */
+    @Bean(name = "holidayRefreshExecutor")
+    public Executor holidayRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("holiday-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Works out which users a holiday change affects and recomputes their ledger rows, see
+     * {@link com.minhpt.hrmtoolnextgen.service.WorkCalendarService}. Keeps that scan of every user
+     * off the holiday refresh thread; one thread, as changes arrive a few times a year.
+     */
+    @Bean(name = "workCapacityExecutor")
+    public Executor workCapacityExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("work-capacity-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Drains the per-connection SSE outbound queues and fans out broadcasts, see
+     * {@link com.minhpt.hrmtoolnextgen.service.SseService}. Virtual threads, so a write blocked
+     * on a stalled client parks only its own thread; at most one drain runs per connection.
+     */
+    @Bean(name = "sseDeliveryExecutor")
+    public Executor sseDeliveryExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sse-delivery-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
     @Override
     public Executor getAsyncExecutor() {
         return emailTaskExecutor();
@@ -1,43 +1,147 @@
 package com.minhpt.hrmtoolnextgen.config;
 
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.minhpt.hrmtoolnextgen.component.cache.TwoLevelCache;
+import com.minhpt.hrmtoolnextgen.component.cache.TwoLevelCacheManager;
+import com.minhpt.hrmtoolnextgen.component.cache.TwoLevelCacheMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.interceptor.LoggingCacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
-import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
+/**
+ * Redis caches behind {@code @Cacheable}, each configured by its {@link CacheProperties.Policy}.
+ * Caches whose policy has a {@code local-max-size} are fronted by an in-process tier, kept
+ * consistent across nodes over Redis pub/sub (see {@link TwoLevelCacheManager}).
+ *
+ * <p>Caches with a policy are created at startup with statistics enabled, so Spring Boot binds
+ * their {@code cache.*} metrics ({@code cache=<name>}), next to those of the in-process Caffeine
+ * caches; two-level caches add per-tier meters (see {@link TwoLevelCacheMetrics}). Caches created
+ * on first use get the defaults and no metrics.
+ */
 @Configuration
 @EnableCaching
-public class CacheConfig {
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig implements CachingConfigurer {
+
+    private static final Set<String> CACHE_MANAGER_TAGS = Set.of("cache.manager", "name");
+
+    /**
+     * Redis is a second tier in front of the real source, so a failing Redis is logged and the
+     * cached method runs as if it had missed.
+     */
+    @Override
+    public CacheErrorHandler errorHandler() {
+        return new LoggingCacheErrorHandler();
+    }
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
-        // Create ObjectMapper with JavaTimeModule for LocalDate support
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory, CacheProperties cacheProperties,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageListenerContainer redisMessageListenerContainer) {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.disable(com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Map<String, RedisCacheConfiguration> configurations = new LinkedHashMap<>();
+        Map<String, TwoLevelCacheManager.LocalTier> localTiers = new LinkedHashMap<>();
+        cacheProperties.getCaches().forEach((name, policy) -> {
+            configurations.put(name, configuration(name, policy, cacheProperties, objectMapper));
+            if (policy.getLocalMaxSize() > 0) {
+                localTiers.put(name, new TwoLevelCacheManager.LocalTier(policy.getLocalMaxSize(), policy.getLocalTtl()));
+            }
+        });
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                .cacheDefaults(configuration(null, cacheProperties.getDefaults(), cacheProperties, objectMapper))
+                .withInitialCacheConfigurations(configurations)
+                .enableStatistics()
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, localTiers, stringRedisTemplate);
+        redisMessageListenerContainer.addMessageListener(cacheManager,
+                new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return cacheManager;
+    }
 
-        // Create serializer with configured ObjectMapper
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return TwoLevelCacheMetrics::new;
+    }
+
+    /**
+     * Spring Boot tags the meters of these caches with {@code cache.manager} and {@code name}, the
+     * in-process caches only with {@code cache}; Prometheus needs one tag set per meter name, so
+     * the extra tags are dropped.
+     */
+    @Bean
+    public MeterFilter cacheManagerTagsFilter() {
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (!id.getName().startsWith("cache.")) {
+                    return id;
+                }
+                return id.replaceTags(id.getTags().stream()
+                        .filter(tag -> !CACHE_MANAGER_TAGS.contains(tag.getKey()))
+                        .toList());
+            }
+        };
+    }
 
-        RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(24)) // Cache for 24 hours
+    static RedisCacheConfiguration configuration(String name, CacheProperties.Policy policy,
+                                                 CacheProperties cacheProperties, ObjectMapper objectMapper) {
+        int version = policy.getVersion() != null ? policy.getVersion() : cacheProperties.getVersion();
+        String prefix = cacheProperties.getKeyPrefix() + ":v" + version + ":";
+        return RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(policy.getTtl())
+                .computePrefixWith(cacheName -> prefix + cacheName + "::")
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        valueSerializer(name, policy, objectMapper)))
                 .disableCachingNullValues();
+    }
 
-        return RedisCacheManager.builder(redisConnectionFactory)
-                .cacheDefaults(config)
-                .build();
+    private static RedisSerializer<?> valueSerializer(String name, CacheProperties.Policy policy,
+                                                      ObjectMapper objectMapper) {
+        return switch (policy.getSerializer()) {
+            case JSON -> {
+                if (policy.getValueType() == null || policy.getValueType().isBlank()) {
+                    throw new IllegalStateException(
+                            "hrm.cache.caches." + name + ".value-type is required by the json serializer");
+                }
+                JavaType valueType = objectMapper.getTypeFactory().constructFromCanonical(policy.getValueType());
+                yield new Jackson2JsonRedisSerializer<>(objectMapper, valueType);
+            }
+            case JSON_GENERIC -> new GenericJackson2JsonRedisSerializer(objectMapper.copy());
+            case JDK -> new JdkSerializationRedisSerializer();
+        };
     }
 }
-
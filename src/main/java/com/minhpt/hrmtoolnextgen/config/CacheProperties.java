@@ -0,0 +1,79 @@
+package com.minhpt.hrmtoolnextgen.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Redis cache policies, {@code hrm.cache}: one {@link Policy} per cache name under {@code caches},
+ * and {@code defaults} for caches without one.
+ *
+ * <p>A cache with a {@code local-max-size} also keeps up to that many entries in process for
+ * {@code local-ttl}, in front of Redis.
+ *
+ * <p>Keys are stored as {@code <key-prefix>:v<version>:<cache>::<key>}. Bumping a cache's
+ * {@code version} (or the global one) when its value format changes makes a deploy read a fresh
+ * key space instead of entries written by the previous release; old keys expire with their TTL.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "hrm.cache")
+public class CacheProperties {
+
+    private String keyPrefix = "hrm";
+
+    private int version = 1;
+
+    private Policy defaults = new Policy();
+
+    private Map<String, Policy> caches = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        private Duration ttl = Duration.ofHours(24);
+
+        private Serializer serializer = Serializer.JSON_GENERIC;
+
+        /**
+         * Canonical Java type of the values, e.g. {@code java.util.List<com.example.Dto>}; required
+         * by {@link Serializer#JSON}.
+         */
+        private String valueType;
+
+        /**
+         * Overrides the global {@code version} for this cache.
+         */
+        private Integer version;
+
+        /**
+         * Entries kept in process in front of Redis; 0 for none.
+         */
+        private long localMaxSize;
+
+        /**
+         * How long an entry stays in process; the bound on staleness if an invalidation is lost.
+         */
+        private Duration localTtl = Duration.ofMinutes(5);
+    }
+
+    public enum Serializer {
+        /**
+         * JSON bound to {@code value-type}, without type information in the payload.
+         */
+        JSON,
+        /**
+         * JSON of any value without a bound type; objects are read back as maps and lists.
+         */
+        JSON_GENERIC,
+        /**
+         * Java serialization; values must be {@link java.io.Serializable}.
+         */
+        JDK
+    }
+}
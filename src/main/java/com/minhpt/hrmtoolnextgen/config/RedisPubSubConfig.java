@@ -0,0 +1,36 @@
+package com.minhpt.hrmtoolnextgen.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Shared Redis pub/sub listener container.
+ *
+ * <p>Components that need cross-node notifications register their own channel on this
+ * container instead of opening a dedicated subscriber connection each.
+ *
+ * <p>The container subscribes eagerly on startup and fails the context if Redis is unreachable.
+ * Set {@code hrm.redis.pub-sub.auto-startup=false} to skip that (e.g. in tests without Redis);
+ * listeners then only see their local evictions.
+ */
+@Configuration
+public class RedisPubSubConfig {
+
+    @Value("${hrm.redis.pub-sub.auto-startup:true}")
+    private boolean autoStartup;
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return autoStartup;
+            }
+        };
+        container.setConnectionFactory(redisConnectionFactory);
+        return container;
+    }
+}
@@ -28,6 +28,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import com.minhpt.hrmtoolnextgen.component.jwt.JwtAuthTokenFilter;
 import com.minhpt.hrmtoolnextgen.component.jwt.JwtProvider;
+import com.minhpt.hrmtoolnextgen.component.jwt.TokenRevocationRegistry;
 import com.minhpt.hrmtoolnextgen.constant.ApiConstant;
 import com.minhpt.hrmtoolnextgen.constant.RoleConstant;
 import com.minhpt.hrmtoolnextgen.repository.redis.UserTokenRedisRepository;
@@ -46,13 +47,14 @@ public class WebSecurityConfig implements WebMvcConfigurer {
     private final AuthenticationEntryPoint unauthorizedHandler;
     private final JwtProvider jwtProvider;
     private final UserTokenRedisRepository userTokenRedisRepository;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     @Value("${hrm.security.swagger-enabled:false}")
     private boolean swaggerEnabled;
 
     @Bean
     public JwtAuthTokenFilter authenticationJwtTokenFilter() {
-        return new JwtAuthTokenFilter(jwtProvider, userDetailsService, userTokenRedisRepository);
+        return new JwtAuthTokenFilter(jwtProvider, userDetailsService, userTokenRedisRepository, tokenRevocationRegistry);
     }
 
         private DaoAuthenticationProvider daoAuthenticationProvider() {
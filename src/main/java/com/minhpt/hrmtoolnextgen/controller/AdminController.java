@@ -2,16 +2,23 @@ package com.minhpt.hrmtoolnextgen.controller;
 
 import com.minhpt.hrmtoolnextgen.component.MessageService;
 import com.minhpt.hrmtoolnextgen.constant.ApiConstant;
+import com.minhpt.hrmtoolnextgen.dto.calendar.WorkCalendarDto;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
 import com.minhpt.hrmtoolnextgen.dto.project.ProjectDto;
 import com.minhpt.hrmtoolnextgen.dto.request.CreateUserRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.PaginationRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.SetUserPasswordRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.UpdateUserRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.WorkCalendarRequest;
 import com.minhpt.hrmtoolnextgen.dto.response.CommonSuccessResponse;
 import com.minhpt.hrmtoolnextgen.dto.response.PaginationResponse;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportJobDto;
 import com.minhpt.hrmtoolnextgen.dto.user.UserDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
 import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.service.WorkCalendarService;
 import com.minhpt.hrmtoolnextgen.service.project.ProjectService;
+import com.minhpt.hrmtoolnextgen.service.timesheet.TimesheetExportJobService;
 import com.minhpt.hrmtoolnextgen.service.user.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -19,11 +26,21 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.List;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @AllArgsConstructor
@@ -34,6 +51,8 @@ public class AdminController {
 
     private final UserService userService;
     private final ProjectService projectService;
+    private final TimesheetExportJobService timesheetExportJobService;
+    private final WorkCalendarService workCalendarService;
     private final MessageService messageService;
 
     @GetMapping("/user/{id}")
@@ -157,6 +176,112 @@ public class AdminController {
         return ResponseEntity.ok(buildSuccessResponse(projects, request));
     }
 
+    @PostMapping("/timesheet/export-jobs")
+    @Operation(
+            summary = "Start a month-end timesheet export",
+            description = "Queues an export of all non-deleted timesheets of all projects for the given month (yyyy-MM), as XLSX (default) or CSV, and returns the job at once. Progress is pushed to the caller's SSE connections as 'export-progress' events. Returns 429 when the export queue is full."
+    )
+    public ResponseEntity<CommonSuccessResponse<TimesheetExportJobDto>> submitTimesheetExport(
+            @AuthenticationPrincipal UserPrincipalDto userPrincipalDto,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(defaultValue = "XLSX") EExportFormat format,
+            HttpServletRequest request) {
+        TimesheetExportJobDto job = timesheetExportJobService.submit(userPrincipalDto.getId(), month, format);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(buildSuccessResponse(job, request));
+    }
+
+    @GetMapping("/timesheet/export-jobs/{jobId}")
+    @Operation(
+            summary = "Get a timesheet export job",
+            description = "Returns the status and progress of an export job started by the current user."
+    )
+    public ResponseEntity<CommonSuccessResponse<TimesheetExportJobDto>> getTimesheetExport(
+            @AuthenticationPrincipal UserPrincipalDto userPrincipalDto,
+            @PathVariable String jobId,
+            HttpServletRequest request) {
+        TimesheetExportJobDto job = timesheetExportJobService.getJob(userPrincipalDto.getId(), jobId);
+        return ResponseEntity.ok(buildSuccessResponse(job, request));
+    }
+
+    @GetMapping("/timesheet/export-jobs/{jobId}/download")
+    @Operation(
+            summary = "Download a finished timesheet export",
+            description = "Downloads the file of a completed export job. Supports HTTP Range requests, so an interrupted download can be resumed."
+    )
+    public ResponseEntity<Resource> downloadTimesheetExport(
+            @AuthenticationPrincipal UserPrincipalDto userPrincipalDto,
+            @PathVariable String jobId) {
+        TimesheetExportJobDto job = timesheetExportJobService.getJob(userPrincipalDto.getId(), jobId);
+        Path file = timesheetExportJobService.getDownloadFile(job);
+        // A Resource body lets Spring answer Range requests with 206 and the requested byte ranges
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(job.getFormat().getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(new FileSystemResource(file));
+    }
+
+    @GetMapping("/work-calendars")
+    @Operation(
+            summary = "Get all work calendars",
+            description = "Returns every work calendar ordered by name."
+    )
+    public ResponseEntity<CommonSuccessResponse<List<WorkCalendarDto>>> getWorkCalendars(HttpServletRequest request) {
+        return ResponseEntity.ok(buildSuccessResponse(workCalendarService.getCalendars(), request));
+    }
+
+    @PostMapping("/work-calendar")
+    @Operation(
+            summary = "Create work calendar",
+            description = "Creates a work calendar: working days, work and lunch hours and the country whose public holidays are days off."
+    )
+    public ResponseEntity<CommonSuccessResponse<WorkCalendarDto>> createWorkCalendar(
+            @Valid @RequestBody WorkCalendarRequest workCalendarRequest,
+            HttpServletRequest request) {
+        WorkCalendarDto calendar = workCalendarService.createCalendar(workCalendarRequest);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .body(buildSuccessResponse(calendar, request));
+    }
+
+    @PutMapping("/work-calendar/{id}")
+    @Operation(
+            summary = "Update work calendar",
+            description = "Replaces a work calendar. Capacities of its users are recomputed from the new version; ledger rows already recorded are kept."
+    )
+    public ResponseEntity<CommonSuccessResponse<WorkCalendarDto>> updateWorkCalendar(
+            @PathVariable Long id,
+            @Valid @RequestBody WorkCalendarRequest workCalendarRequest,
+            HttpServletRequest request) {
+        WorkCalendarDto calendar = workCalendarService.updateCalendar(id, workCalendarRequest);
+        return ResponseEntity.ok(buildSuccessResponse(calendar, request));
+    }
+
+    @PutMapping("/user/{id}/work-calendar")
+    @Operation(
+            summary = "Assign work calendar to user",
+            description = "Makes the user follow the given calendar. Without calendarId the user follows their projects' calendar, else the default one."
+    )
+    public ResponseEntity<CommonSuccessResponse<Void>> assignUserWorkCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long calendarId,
+            HttpServletRequest request) {
+        workCalendarService.assignToUser(id, calendarId);
+        return ResponseEntity.ok(buildSuccessResponse(null, request));
+    }
+
+    @PutMapping("/project/{id}/work-calendar")
+    @Operation(
+            summary = "Assign work calendar to project",
+            description = "Members without a calendar of their own follow the calendar of their projects (the lowest calendar id when several). Without calendarId the project has none."
+    )
+    public ResponseEntity<CommonSuccessResponse<Void>> assignProjectWorkCalendar(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long calendarId,
+            HttpServletRequest request) {
+        workCalendarService.assignToProject(id, calendarId);
+        return ResponseEntity.ok(buildSuccessResponse(null, request));
+    }
+
     private <T> CommonSuccessResponse<T> buildSuccessResponse(T data, HttpServletRequest request) {
         return CommonSuccessResponse.<T>commonSuccessResponseBuilder()
                 .path(request.getServletPath())
@@ -3,20 +3,26 @@ package com.minhpt.hrmtoolnextgen.controller;
 import com.minhpt.hrmtoolnextgen.component.MessageService;
 import com.minhpt.hrmtoolnextgen.constant.ApiConstant;
 import com.minhpt.hrmtoolnextgen.dto.dashboard.DashboardSummaryDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.UtilizationDto;
 import com.minhpt.hrmtoolnextgen.dto.response.CommonSuccessResponse;
 import com.minhpt.hrmtoolnextgen.service.DashboardService;
+import com.minhpt.hrmtoolnextgen.service.UtilizationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.YearMonth;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @AllArgsConstructor
@@ -26,6 +32,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class DashboardController {
 
     private final DashboardService dashboardService;
+    private final UtilizationService utilizationService;
     private final MessageService messageService;
 
     @GetMapping("/summary")
@@ -38,6 +45,18 @@ public class DashboardController {
         return ResponseEntity.ok(buildSuccessResponse(summary, request));
     }
 
+    @GetMapping("/utilization")
+    @Operation(
+            summary = "Dashboard utilization",
+            description = "Returns logged versus capacity hours per project and per employee, pending approvals per project manager and approved day-off hours per week for a month (yyyy-MM, defaults to the current month). Figures are cached per month for a few minutes."
+    )
+    public ResponseEntity<CommonSuccessResponse<UtilizationDto>> getUtilization(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            HttpServletRequest request) {
+        UtilizationDto utilization = utilizationService.getUtilization(month == null ? YearMonth.now() : month);
+        return ResponseEntity.ok(buildSuccessResponse(utilization, request));
+    }
+
     private <T> CommonSuccessResponse<T> buildSuccessResponse(T data, HttpServletRequest request) {
         return CommonSuccessResponse.<T>commonSuccessResponseBuilder()
                 .path(request.getServletPath())
@@ -7,9 +7,12 @@ import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
 import com.minhpt.hrmtoolnextgen.dto.project.ProjectDto;
 import com.minhpt.hrmtoolnextgen.dto.request.*;
 import com.minhpt.hrmtoolnextgen.dto.response.CommonSuccessResponse;
+import com.minhpt.hrmtoolnextgen.dto.response.CursorPaginationResponse;
 import com.minhpt.hrmtoolnextgen.dto.response.PaginationResponse;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetBulkApprovalDto;
 import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
 import com.minhpt.hrmtoolnextgen.dto.user.UserDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
 import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
 import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
 import com.minhpt.hrmtoolnextgen.service.dayoff.DayOffService;
@@ -19,14 +22,21 @@ import com.minhpt.hrmtoolnextgen.service.user.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.YearMonth;
+
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -112,6 +122,21 @@ public class ManagerController {
         return ResponseEntity.ok(buildSuccessResponse(timesheetDto, request));
     }
 
+    @PutMapping("/timesheet/approval/bulk")
+    @Operation(
+            summary = "Approve or reject timesheets in bulk",
+            description = "Manager can approve or reject many pending timesheet entries at once, selected either by a list of IDs or by a date range and optional project. Only entries of projects managed by the current user can be selected. Returns the number of entries updated."
+    )
+    public ResponseEntity<CommonSuccessResponse<TimesheetBulkApprovalDto>> bulkApprovalTimesheets(
+            @AuthenticationPrincipal UserPrincipalDto userPrincipalDto,
+            @Valid @RequestBody BulkApprovalTimesheetRequest bulkApprovalForm,
+            HttpServletRequest request
+    ) {
+        TimesheetBulkApprovalDto result = timesheetService.bulkApprovalTimesheets(bulkApprovalForm, userPrincipalDto.getId());
+
+        return ResponseEntity.ok(buildSuccessResponse(result, request));
+    }
+
     @GetMapping("/project")
     @Operation(
             summary = "List projects by manager",
@@ -174,6 +199,55 @@ public class ManagerController {
         return ResponseEntity.ok(buildSuccessResponse(timesheets, request));
     }
 
+    @GetMapping("/timesheet/keyset")
+    @Operation(
+            summary = "List timesheets by manager (cursor pagination)",
+            description = "Same listing as GET /timesheet, newest first, but paged with an opaque cursor instead of a page number. Pass nextCursor from the previous response to get the next page. Set skipCount to true to omit totalElements and its count query."
+    )
+    public ResponseEntity<CommonSuccessResponse<CursorPaginationResponse<TimesheetDto>>> getTimesheetsByManagerWithCursor(
+            @AuthenticationPrincipal UserPrincipalDto userPrincipalDto,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "false") boolean skipCount,
+            @RequestParam(required = false) ETimesheetStatus status,
+            @RequestParam(required = false) Long projectId,
+            HttpServletRequest request) {
+
+        CursorPaginationRequest paginationRequest = CursorPaginationRequest.builder()
+                .cursor(cursor)
+                .size(size)
+                .skipCount(skipCount)
+                .build();
+
+        CursorPaginationResponse<TimesheetDto> timesheets = timesheetService.getTimesheetsByManagerWithCursor(
+                userPrincipalDto.getId(),
+                paginationRequest,
+                status,
+                projectId
+        );
+        return ResponseEntity.ok(buildSuccessResponse(timesheets, request));
+    }
+
+    @GetMapping("/project/{id}/timesheet/export")
+    @Operation(
+            summary = "Export project timesheets of a month",
+            description = "Downloads all non-deleted timesheets of a project managed by the current user for the given month (yyyy-MM), as XLSX (default) or CSV. Rows are streamed from the database into the response, ordered by member and working day."
+    )
+    public void exportProjectTimesheets(
+            @AuthenticationPrincipal UserPrincipalDto userPrincipalDto,
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            @RequestParam(defaultValue = "XLSX") EExportFormat format,
+            HttpServletResponse response) throws IOException {
+        timesheetService.assertCanExportTimesheets(userPrincipalDto.getId(), id);
+
+        String fileName = "timesheets-project-" + id + "-" + month + "." + format.getExtension();
+        response.setContentType(format.getContentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(fileName).build().toString());
+        timesheetService.exportMonthlyProjectTimesheets(id, month, format, response.getOutputStream());
+    }
+
     @PutMapping("/dayoff/approval")
     @Operation(
             summary = "Approve or reject day off request",
@@ -30,16 +30,18 @@ public class SseController {
      * Establish SSE connection for authenticated user
      *
      * @param userPrincipal Authenticated user principal
+     * @param lastEventId   Id of the last event received, sent by the browser on reconnect
      * @param request       HTTP request
      * @return SseEmitter for the connection
      */
     @GetMapping(value = "/connect", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @Operation(
             summary = "Establish SSE connection",
-            description = "Establishes a Server-Sent Events (SSE) connection for the authenticated user. Returns an SseEmitter that streams real-time events to the client. The connection remains open until closed by the client or server."
+            description = "Establishes a Server-Sent Events (SSE) connection for the authenticated user. Returns an SseEmitter that streams real-time events to the client. The connection remains open until closed by the client or server. On reconnect, events published after the Last-Event-ID header are replayed; a 'resync' event is sent instead when they are no longer available."
     )
     public SseEmitter connect(
             @AuthenticationPrincipal UserPrincipalDto userPrincipal,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
             HttpServletRequest request) {
 
         if (userPrincipal == null) {
@@ -50,7 +52,7 @@ public class SseController {
         String userId = String.valueOf(userPrincipal.getId());
         log.info("SSE connection request from user: {} at {}", userId, request.getRemoteAddr());
 
-        return sseService.createConnection(userId);
+        return sseService.createConnection(userId, lastEventId);
     }
 
     /**
@@ -20,6 +20,7 @@ import com.minhpt.hrmtoolnextgen.dto.dayoff.DayOffDto;
 import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
 import com.minhpt.hrmtoolnextgen.dto.project.ProjectDto;
 import com.minhpt.hrmtoolnextgen.dto.request.CreateDayOffRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetBatchRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.PaginationRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.UpdateTimesheetRequest;
@@ -73,6 +74,20 @@ public class UserController {
         return ResponseEntity.ok(buildSuccessResponse(timesheetDto, request));
     }
 
+    @PostMapping("/timesheet/batch")
+    @Operation(
+            summary = "Create timesheet entries in bulk",
+            description = "Creates up to 200 timesheet entries for the current user in one request, e.g. a full week or month grid. Entries are validated like single entries and the whole batch is rejected if any entry is invalid."
+    )
+    public ResponseEntity<CommonSuccessResponse<List<TimesheetDto>>> createTimesheets(
+            @Valid @RequestBody CreateTimesheetBatchRequest createTimesheetBatchReq,
+            HttpServletRequest request
+    ) {
+        List<TimesheetDto> timesheetDtos = timesheetService.createTimesheets(createTimesheetBatchReq.getTimesheets());
+
+        return ResponseEntity.ok(buildSuccessResponse(timesheetDtos, request));
+    }
+
     @PutMapping("/timesheet")
     @Operation(
             summary = "Update timesheet entry",
@@ -0,0 +1,51 @@
+package com.minhpt.hrmtoolnextgen.dto.calendar;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Working days, hours and holiday country of a group of employees")
+public class WorkCalendarDto {
+
+    @Schema(description = "Work calendar id")
+    private Long id;
+
+    @Schema(description = "Unique name")
+    private String name;
+
+    @Schema(description = "ISO 3166-1 alpha-2 code of the country whose public holidays are days off", example = "VN")
+    private String countryCode;
+
+    @Schema(description = "Working days of the week")
+    private List<DayOfWeek> workingDays;
+
+    @Schema(description = "Start of the working day (HH:mm)", example = "09:00")
+    private String workStart;
+
+    @Schema(description = "Start of the lunch break (HH:mm); absent without a break", example = "12:00")
+    private String lunchStart;
+
+    @Schema(description = "End of the lunch break (HH:mm); absent without a break", example = "13:30")
+    private String lunchEnd;
+
+    @Schema(description = "End of the working day (HH:mm)", example = "18:30")
+    private String workEnd;
+
+    @Schema(description = "Hours of a full working day")
+    private Double dailyWorkHours;
+
+    @Schema(description = "Whether users without a calendar of their own or of their projects follow this one")
+    private Boolean defaultCalendar;
+
+    @Schema(description = "Incremented on every change")
+    private Long version;
+}
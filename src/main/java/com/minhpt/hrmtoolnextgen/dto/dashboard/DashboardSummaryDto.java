@@ -20,6 +20,9 @@ public class DashboardSummaryDto {
 
     @Schema(description = "Number of active employees")
     private Long activeEmployeeCount;
+
+    @Schema(description = "When the counts were last changed or reconciled with the database (epoch milliseconds)")
+    private Long asOf;
 }
 
 
@@ -0,0 +1,27 @@
+package com.minhpt.hrmtoolnextgen.dto.dashboard;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Timesheets awaiting a project manager's approval")
+public class ManagerPendingApprovalDto {
+
+    @Schema(description = "Project manager id")
+    private Long managerId;
+
+    @Schema(description = "Project manager full name")
+    private String managerName;
+
+    @Schema(description = "Number of pending timesheets")
+    private Long pendingTimesheets;
+
+    @Schema(description = "Hours of the pending timesheets")
+    private Double pendingHours;
+}
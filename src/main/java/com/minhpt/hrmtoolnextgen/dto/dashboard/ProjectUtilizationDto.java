@@ -0,0 +1,37 @@
+package com.minhpt.hrmtoolnextgen.dto.dashboard;
+
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Logged versus capacity hours of a project")
+public class ProjectUtilizationDto {
+
+    @Schema(description = "Project id")
+    private Long projectId;
+
+    @Schema(description = "Project name")
+    private String projectName;
+
+    @Schema(description = "Project status")
+    private EProjectStatus status;
+
+    @Schema(description = "Hours of pending and approved timesheets of any type")
+    private Double loggedHours;
+
+    @Schema(description = "Part of the logged hours that is overtime")
+    private Double overtimeHours;
+
+    @Schema(description = "Capacity of the active members, less their approved day-offs. Members of several listed projects are split evenly between them")
+    private Double capacityHours;
+
+    @Schema(description = "Logged hours divided by capacity hours; null without capacity")
+    private Double utilization;
+}
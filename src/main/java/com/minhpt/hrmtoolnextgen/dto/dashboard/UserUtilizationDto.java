@@ -0,0 +1,39 @@
+package com.minhpt.hrmtoolnextgen.dto.dashboard;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Logged versus capacity hours of an employee")
+public class UserUtilizationDto {
+
+    @Schema(description = "User id")
+    private Long userId;
+
+    @Schema(description = "User email")
+    private String email;
+
+    @Schema(description = "Full name")
+    private String fullName;
+
+    @Schema(description = "Hours of pending and approved timesheets of any type")
+    private Double loggedHours;
+
+    @Schema(description = "Part of the logged hours that is overtime")
+    private Double overtimeHours;
+
+    @Schema(description = "Approved day-off hours")
+    private Double dayOffHours;
+
+    @Schema(description = "Capacity of the employee's work calendar in the month, less approved day-offs; 0 for inactive users")
+    private Double capacityHours;
+
+    @Schema(description = "Logged hours divided by capacity hours; null without capacity")
+    private Double utilization;
+}
@@ -0,0 +1,41 @@
+package com.minhpt.hrmtoolnextgen.dto.dashboard;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Logged versus capacity hours, pending approvals and day-off load for one month")
+public class UtilizationDto {
+
+    @Schema(description = "Month covered (yyyy-MM)")
+    private String period;
+
+    @Schema(description = "Working days of the default work calendar in the month, public holidays excluded")
+    private Integer workingDays;
+
+    @Schema(description = "Capacity of an employee on the default work calendar over the month, in hours")
+    private Double capacityHoursPerEmployee;
+
+    @Schema(description = "Per project totals, for running projects and projects with time logged in the month")
+    private List<ProjectUtilizationDto> projects;
+
+    @Schema(description = "Per employee totals, for active employees and employees with time logged in the month")
+    private List<UserUtilizationDto> users;
+
+    @Schema(description = "Pending timesheets of the month per project manager, most pending first")
+    private List<ManagerPendingApprovalDto> pendingApprovals;
+
+    @Schema(description = "Approved day-off hours per week (Monday to Sunday) overlapping the month")
+    private List<WeeklyDayOffLoadDto> dayOffLoad;
+
+    @Schema(description = "When the figures were computed (epoch milliseconds); they are cached for a few minutes")
+    private Long computedAt;
+}
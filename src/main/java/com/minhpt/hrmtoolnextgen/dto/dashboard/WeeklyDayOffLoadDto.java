@@ -0,0 +1,24 @@
+package com.minhpt.hrmtoolnextgen.dto.dashboard;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Approved day-offs within one week")
+public class WeeklyDayOffLoadDto {
+
+    @Schema(description = "Monday of the week (yyyy-MM-dd)")
+    private String weekStart;
+
+    @Schema(description = "Approved day-off hours within the month")
+    private Double dayOffHours;
+
+    @Schema(description = "Number of employees with a day-off")
+    private Long employeesOff;
+}
@@ -0,0 +1,28 @@
+package com.minhpt.hrmtoolnextgen.dto.holiday;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Holidays of one country and year as stored in a snapshot file, see
+ * {@link com.minhpt.hrmtoolnextgen.component.HolidaySnapshotStore}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class HolidaySnapshot {
+
+    private String country;
+
+    private int year;
+
+    private Instant fetchedAt;
+
+    private List<HolidayDto> holidays;
+}
@@ -13,7 +13,7 @@ import java.util.List;
 
 @Getter
 @Setter
-@Builder(builderMethodName = "internalBuilder")
+@Builder(builderMethodName = "internalBuilder", toBuilder = true)
 public class UserPrincipalDto implements UserDetails {
     @Serial
     private static final long serialVersionUID = 1L;
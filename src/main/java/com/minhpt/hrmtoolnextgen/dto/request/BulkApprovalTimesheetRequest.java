@@ -0,0 +1,41 @@
+package com.minhpt.hrmtoolnextgen.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Payload for approving or rejecting many pending timesheet entries, selected by ID or by filter")
+public class BulkApprovalTimesheetRequest {
+    @Size(max = 1000)
+    @Schema(description = "IDs of the timesheet entries; when given, the filter fields are ignored")
+    private List<Long> ids;
+
+    @Schema(description = "Filter: only entries of this project (default: every project you manage)")
+    private Long projectId;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Filter: first working day, required when no IDs are given", example = "2024-01-01")
+    private LocalDate fromDate;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    @Schema(description = "Filter: last working day, required when no IDs are given", example = "2024-01-31")
+    private LocalDate toDate;
+
+    @NotNull
+    @Schema(description = "Approval status (APPROVED or REJECTED)", requiredMode = RequiredMode.REQUIRED)
+    private ETimesheetStatus timesheetStatus;
+}
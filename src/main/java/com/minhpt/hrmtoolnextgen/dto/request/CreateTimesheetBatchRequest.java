@@ -0,0 +1,25 @@
+package com.minhpt.hrmtoolnextgen.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.media.Schema.RequiredMode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Payload for submitting a week or month of timesheet entries at once")
+public class CreateTimesheetBatchRequest {
+    @NotEmpty
+    @Size(max = 200)
+    @Schema(description = "Timesheet entries, one per project and working day (at most 200)", requiredMode = RequiredMode.REQUIRED)
+    private List<@Valid CreateTimesheetRequest> timesheets;
+}
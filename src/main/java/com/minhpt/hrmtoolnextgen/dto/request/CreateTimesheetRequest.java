@@ -3,7 +3,6 @@ package com.minhpt.hrmtoolnextgen.dto.request;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
 import io.swagger.v3.oas.annotations.media.Schema;
-import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -25,7 +24,6 @@ public class CreateTimesheetRequest {
     @Schema(description = "Optional description or notes about the work performed")
     private String description;
 
-    @NotEmpty
     @NotNull
     @Schema(description = "ID of the project this timesheet entry is associated with", required = true)
     private Long projectId;
@@ -0,0 +1,31 @@
+package com.minhpt.hrmtoolnextgen.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Cursor (keyset) pagination parameters")
+public class CursorPaginationRequest {
+    private static final int DEFAULT_SIZE = 10;
+    private static final int MAX_SIZE = 100;
+
+    @Schema(description = "Opaque cursor returned as nextCursor by the previous page; empty for the first page")
+    private String cursor;
+
+    @Schema(description = "Page size, at most 100", example = "10")
+    private Integer size;
+
+    @Schema(description = "Skip the total count query", example = "false")
+    private boolean skipCount;
+
+    public int getSafeSize() {
+        if (size == null || size <= 0) return DEFAULT_SIZE;
+        return Math.min(size, MAX_SIZE);
+    }
+}
@@ -0,0 +1,59 @@
+package com.minhpt.hrmtoolnextgen.dto.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.DayOfWeek;
+import java.util.Set;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Payload for creating or replacing a work calendar")
+public class WorkCalendarRequest {
+
+    private static final String TIME_PATTERN = "^([01]\\d|2[0-3]):[0-5]\\d$";
+
+    @NotBlank
+    @Size(max = 100)
+    @Schema(description = "Unique name", example = "Part-time Mon-Wed")
+    private String name;
+
+    @NotBlank
+    @Pattern(regexp = "^[A-Z]{2}$")
+    @Schema(description = "ISO 3166-1 alpha-2 code of the country whose public holidays are days off", example = "VN")
+    private String countryCode;
+
+    @NotEmpty
+    @Schema(description = "Working days of the week", example = "[\"MONDAY\", \"TUESDAY\", \"WEDNESDAY\"]")
+    private Set<DayOfWeek> workingDays;
+
+    @NotBlank
+    @Pattern(regexp = TIME_PATTERN)
+    @Schema(description = "Start of the working day (HH:mm)", example = "09:00")
+    private String workStart;
+
+    @Pattern(regexp = TIME_PATTERN)
+    @Schema(description = "Start of the lunch break (HH:mm); omit together with lunchEnd for no break", example = "12:00")
+    private String lunchStart;
+
+    @Pattern(regexp = TIME_PATTERN)
+    @Schema(description = "End of the lunch break (HH:mm)", example = "13:30")
+    private String lunchEnd;
+
+    @NotBlank
+    @Pattern(regexp = TIME_PATTERN)
+    @Schema(description = "End of the working day (HH:mm)", example = "18:30")
+    private String workEnd;
+
+    @Schema(description = "Make this the default calendar; the previous default stops being one")
+    private boolean defaultCalendar;
+}
@@ -0,0 +1,36 @@
+package com.minhpt.hrmtoolnextgen.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@Schema(description = "Cursor (keyset) pagination wrapper")
+public class CursorPaginationResponse<T> {
+    @Schema(description = "Configured page size")
+    private int pageSize;
+
+    @Schema(description = "Number of elements in the current page")
+    private int numberOfElements;
+
+    @Schema(description = "Total number of elements, null when the count was skipped")
+    private Long totalElements;
+
+    @Schema(description = "Sorted by field")
+    private String sortBy;
+
+    @Schema(description = "Sort direction")
+    private String direction;
+
+    @Schema(description = "Whether another page follows")
+    private boolean hasNext;
+
+    @Schema(description = "Cursor of the next page, null on the last page")
+    private String nextCursor;
+
+    @Schema(description = "Page contents")
+    private List<T> items;
+}
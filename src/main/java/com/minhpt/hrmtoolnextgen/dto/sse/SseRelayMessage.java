@@ -0,0 +1,12 @@
+package com.minhpt.hrmtoolnextgen.dto.sse;
+
+/**
+ * SSE event relayed between application nodes over Redis pub/sub.
+ *
+ * @param originNodeId node that published the event; it has already delivered it locally
+ * @param userId       recipient user id, or {@code null} for a broadcast
+ * @param event        the event itself
+ * @param publishedAt  epoch-ms at which the event was published, for delivery latency
+ */
+public record SseRelayMessage(String originNodeId, String userId, SseEventDto event, long publishedAt) {
+}
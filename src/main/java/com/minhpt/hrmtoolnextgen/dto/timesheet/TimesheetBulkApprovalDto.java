@@ -0,0 +1,16 @@
+package com.minhpt.hrmtoolnextgen.dto.timesheet;
+
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimesheetBulkApprovalDto {
+    private ETimesheetStatus timesheetStatus;
+    private int updatedCount;
+}
@@ -0,0 +1,35 @@
+package com.minhpt.hrmtoolnextgen.dto.timesheet;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of an asynchronous month-end timesheet export, as kept in Redis and sent to the client.
+ * Times are epoch milliseconds.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TimesheetExportJobDto {
+    private String jobId;
+    @JsonIgnore
+    private Long ownerId;
+    private String month;
+    private EExportFormat format;
+    private EExportJobStatus status;
+    private long processedRows;
+    private long totalRows;
+    private String fileName;
+    private long fileSize;
+    private String errorMessage;
+    private long createdAt;
+    private Long finishedAt;
+}
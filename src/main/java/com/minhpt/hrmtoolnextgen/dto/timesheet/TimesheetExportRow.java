@@ -0,0 +1,21 @@
+package com.minhpt.hrmtoolnextgen.dto.timesheet;
+
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * One timesheet line of an export, read straight from the result set.
+ */
+public record TimesheetExportRow(String projectName,
+                                 String memberEmail,
+                                 String memberName,
+                                 LocalDate workingDay,
+                                 ETimesheetType type,
+                                 String title,
+                                 String description,
+                                 LocalTime workingHours,
+                                 ETimesheetStatus status) {
+}
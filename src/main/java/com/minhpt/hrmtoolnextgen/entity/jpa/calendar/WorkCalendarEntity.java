@@ -0,0 +1,58 @@
+package com.minhpt.hrmtoolnextgen.entity.jpa.calendar;
+
+import com.minhpt.hrmtoolnextgen.entity.common.IdentityEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.LocalTime;
+
+/**
+ * Working days, hours and holiday country of a group of employees.
+ *
+ * <p>A user follows their own calendar, else the calendar of one of their projects, else the
+ * default calendar. The lunch break is optional; without it the day is one window from
+ * {@code workStart} to {@code workEnd}. {@code version} changes on every edit.
+ */
+@Entity
+@Table(name = "work_calendars")
+@SQLRestriction("is_delete = FALSE")
+@Getter
+@Setter
+public class WorkCalendarEntity extends IdentityEntity {
+
+    @Column(name = "name", unique = true, nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "country_code", nullable = false, length = 2)
+    private String countryCode;
+
+    /**
+     * Bit {@code n} set when {@code DayOfWeek.of(n + 1)} is a working day, so Monday is bit 0.
+     */
+    @Column(name = "working_days", nullable = false)
+    private int workingDays;
+
+    @Column(name = "work_start", nullable = false, columnDefinition = "TIME")
+    private LocalTime workStart;
+
+    @Column(name = "lunch_start", columnDefinition = "TIME")
+    private LocalTime lunchStart;
+
+    @Column(name = "lunch_end", columnDefinition = "TIME")
+    private LocalTime lunchEnd;
+
+    @Column(name = "work_end", nullable = false, columnDefinition = "TIME")
+    private LocalTime workEnd;
+
+    @Column(name = "is_default", nullable = false)
+    private boolean defaultCalendar;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+}
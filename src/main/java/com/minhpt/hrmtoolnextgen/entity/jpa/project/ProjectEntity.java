@@ -1,6 +1,7 @@
 package com.minhpt.hrmtoolnextgen.entity.jpa.project;
 
 import com.minhpt.hrmtoolnextgen.entity.common.IdentityEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.calendar.WorkCalendarEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
 import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
@@ -62,6 +63,10 @@ public class ProjectEntity extends IdentityEntity {
     @BatchSize(size = 50)
     private List<UserEntity> members = new ArrayList<>();
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "work_calendar_id")
+    private WorkCalendarEntity workCalendar;
+
     public void addMemberToProject(UserEntity userEntity) {
         if (members == null) {
             members = new ArrayList<>();
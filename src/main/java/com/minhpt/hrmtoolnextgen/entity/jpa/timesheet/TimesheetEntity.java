@@ -29,7 +29,9 @@ import lombok.Setter;
 @Table(name = "timesheets", indexes = {
         @Index(name = "idx_timesheets_user_day_status", columnList = "user_id, working_day, status"),
         @Index(name = "idx_timesheets_project_status", columnList = "project_id, status"),
-        @Index(name = "idx_timesheets_delete_created", columnList = "is_delete, create_date")
+        @Index(name = "idx_timesheets_delete_created", columnList = "is_delete, create_date"),
+        @Index(name = "idx_timesheets_created_id", columnList = "create_date, id"),
+        @Index(name = "idx_timesheets_project_created_id", columnList = "project_id, create_date, id")
 })
 @SQLDelete(sql = "UPDATE timesheets SET is_delete = TRUE, deleted_date = NOW() WHERE id = ?")
 @SQLRestriction("is_delete = FALSE")
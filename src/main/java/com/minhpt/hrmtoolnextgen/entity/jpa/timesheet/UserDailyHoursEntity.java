@@ -0,0 +1,45 @@
+package com.minhpt.hrmtoolnextgen.entity.jpa.timesheet;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per user and day totals used to validate timesheet logging.
+ *
+ * <p>{@code loggedMinutes} covers every non-rejected timesheet of the day and
+ * {@code dayOffMinutes} the working time taken by approved day-offs. Rows are maintained by
+ * {@code DailyHoursLedgerService} and locked while a timesheet for the day is validated.
+ */
+@Entity
+@Table(name = "user_daily_hours", uniqueConstraints = {
+        @UniqueConstraint(name = "uc_user_daily_hours_user_day", columnNames = {"user_id", "work_day"})
+})
+@Getter
+@Setter
+public class UserDailyHoursEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(updatable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private Long userId;
+
+    @Column(name = "work_day", nullable = false, updatable = false, columnDefinition = "DATE")
+    private LocalDate workDay;
+
+    @Column(name = "logged_minutes", nullable = false)
+    private int loggedMinutes;
+
+    @Column(name = "day_off_minutes", nullable = false)
+    private int dayOffMinutes;
+}
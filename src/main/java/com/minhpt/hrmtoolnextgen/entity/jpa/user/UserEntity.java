@@ -12,11 +12,11 @@ import org.hibernate.annotations.SQLDelete;
 import org.hibernate.annotations.SQLRestriction;
 
 import com.minhpt.hrmtoolnextgen.entity.common.IdentityEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.calendar.WorkCalendarEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.device.DeviceEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
-import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
@@ -26,12 +26,11 @@ import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.OrderBy;
-import jakarta.persistence.PostLoad;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -108,20 +107,7 @@ public class UserEntity extends IdentityEntity {
             inverseJoinColumns = @JoinColumn(name = "device_id", referencedColumnName = "id"))
     private Set<DeviceEntity> devices = new HashSet<>();
 
-    @Transient
-    private List<TimesheetEntity> normalHours = new ArrayList<>();
-
-    @Transient
-    private List<TimesheetEntity> overtimeHours = new ArrayList<>();
-
-    @Transient
-    private List<TimesheetEntity> bonusHours = new ArrayList<>();
-
-    @PostLoad
-        @SuppressWarnings("unused")
-    private void loadToTransientData() {
-        this.normalHours = timesheets.stream().filter(x -> x.getType() == ETimesheetType.NORMAL).toList();
-        this.overtimeHours = timesheets.stream().filter(x -> x.getType() == ETimesheetType.OVERTIME).toList();
-        this.bonusHours = timesheets.stream().filter(x -> x.getType() == ETimesheetType.BONUS).toList();
-    }
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "work_calendar_id")
+    private WorkCalendarEntity workCalendar;
 }
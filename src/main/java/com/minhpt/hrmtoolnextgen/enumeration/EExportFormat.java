@@ -0,0 +1,15 @@
+package com.minhpt.hrmtoolnextgen.enumeration;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum EExportFormat {
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx"),
+    CSV("text/csv;charset=UTF-8", "csv"),
+    ;
+
+    private final String contentType;
+    private final String extension;
+}
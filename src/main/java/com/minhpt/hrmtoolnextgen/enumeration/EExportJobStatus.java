@@ -0,0 +1,8 @@
+package com.minhpt.hrmtoolnextgen.enumeration;
+
+public enum EExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+}
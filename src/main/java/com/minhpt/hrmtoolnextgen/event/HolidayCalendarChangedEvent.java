@@ -0,0 +1,7 @@
+package com.minhpt.hrmtoolnextgen.event;
+
+/**
+ * The holidays of a country and year became known or changed after a fetch from the holiday API.
+ */
+public record HolidayCalendarChangedEvent(String countryCode, int year) {
+}
@@ -0,0 +1,12 @@
+package com.minhpt.hrmtoolnextgen.event;
+
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+
+/**
+ * A project entered, left or moved between the per-status project counts. A {@code null} status
+ * means the project is not counted: it did not exist yet, or it has been deleted.
+ */
+public record ProjectStatusChangedEvent(Long projectId,
+                                        EProjectStatus previousStatus,
+                                        EProjectStatus currentStatus) {
+}
@@ -0,0 +1,7 @@
+package com.minhpt.hrmtoolnextgen.event;
+
+/**
+ * A user started or stopped counting as an active employee (active and not deleted).
+ */
+public record UserActivityChangedEvent(Long userId, boolean active) {
+}
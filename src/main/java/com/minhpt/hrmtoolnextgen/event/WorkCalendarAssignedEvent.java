@@ -0,0 +1,8 @@
+package com.minhpt.hrmtoolnextgen.event;
+
+/**
+ * The work calendar of a user or project changed; {@code userId} is {@code null} when several
+ * users may follow a different calendar.
+ */
+public record WorkCalendarAssignedEvent(Long userId) {
+}
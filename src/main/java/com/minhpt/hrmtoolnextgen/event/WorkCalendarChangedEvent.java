@@ -0,0 +1,7 @@
+package com.minhpt.hrmtoolnextgen.event;
+
+/**
+ * A work calendar was created or edited; {@code defaultChanged} when another calendar became the default.
+ */
+public record WorkCalendarChangedEvent(Long calendarId, boolean defaultChanged) {
+}
@@ -0,0 +1,10 @@
+package com.minhpt.hrmtoolnextgen.event;
+
+import java.util.Set;
+
+/**
+ * The daily capacity of {@code userIds} may have changed after a calendar edit, an assignment or
+ * new holidays; {@code year} is {@code null} when every year is affected.
+ */
+public record WorkCapacityChangedEvent(Set<Long> userIds, Integer year) {
+}
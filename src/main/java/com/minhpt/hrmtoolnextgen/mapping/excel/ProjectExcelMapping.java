@@ -2,12 +2,16 @@ package com.minhpt.hrmtoolnextgen.mapping.excel;
 
 import com.minhpt.hrmtoolnextgen.dto.project.ProjectExcelDto;
 import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
 import com.minhpt.hrmtoolnextgen.mapping.common.BaseMapper;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 import org.mapstruct.Named;
 
+import java.util.Map;
+
 
 @Mapper(componentModel = "spring", uses = {UserExcelMapping.class})
 public interface ProjectExcelMapping {
@@ -18,5 +22,5 @@ public interface ProjectExcelMapping {
     })
 
     @Named(value = "toExcelDto")
-    ProjectExcelDto toExcelDto(ProjectEntity entity);
+    ProjectExcelDto toExcelDto(ProjectEntity entity, @Context Map<Long, Map<ETimesheetType, Long>> loggedMinutes);
 }
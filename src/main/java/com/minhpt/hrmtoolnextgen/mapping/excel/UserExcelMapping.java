@@ -2,16 +2,29 @@ package com.minhpt.hrmtoolnextgen.mapping.excel;
 
 import com.minhpt.hrmtoolnextgen.dto.user.UserExcelDto;
 import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.Mappings;
 
-@Mapper(componentModel = "spring", uses = {TimesheetExcelMapping.class})
+import java.util.Map;
+
+@Mapper(componentModel = "spring", imports = ETimesheetType.class)
 public interface UserExcelMapping {
+    /**
+     * Hours come from {@code loggedMinutes}, keyed by user id as returned by
+     * {@code TimesheetQueryService.getLoggedMinutesByUserAndType}, never from the lazy timesheets collection.
+     */
     @Mappings({
             @Mapping(target = "name", source = "userInfo.firstName"),
-            @Mapping(target = "normalHours", source = "normalHours"),
-            @Mapping(target = "overtimeHours", source = "overtimeHours")
+            @Mapping(target = "normalHours", expression = "java(loggedHours(entity, loggedMinutes, ETimesheetType.NORMAL))"),
+            @Mapping(target = "overtimeHours", expression = "java(loggedHours(entity, loggedMinutes, ETimesheetType.OVERTIME))")
     })
-    UserExcelDto toDto(UserEntity entity);
+    UserExcelDto toDto(UserEntity entity, @Context Map<Long, Map<ETimesheetType, Long>> loggedMinutes);
+
+    default Double loggedHours(UserEntity entity, Map<Long, Map<ETimesheetType, Long>> loggedMinutes, ETimesheetType type) {
+        Long minutes = loggedMinutes.getOrDefault(entity.getId(), Map.of()).get(type);
+        return minutes == null ? 0d : Math.round(minutes * 100 / 60.0) / 100.0;
+    }
 }
@@ -0,0 +1,12 @@
+package com.minhpt.hrmtoolnextgen.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Projection for logged minutes aggregated per working day.
+ */
+public interface TimesheetDailyMinutesProjection {
+    LocalDate getWorkingDay();
+
+    Long getTotalMinutes();
+}
@@ -0,0 +1,14 @@
+package com.minhpt.hrmtoolnextgen.projection;
+
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+
+/**
+ * Projection for logged hours aggregated per timesheet type.
+ */
+public interface TimesheetHoursAggregateProjection {
+    ETimesheetType getType();
+
+    Long getTotalMinutes();
+
+    Long getEntries();
+}
@@ -0,0 +1,8 @@
+package com.minhpt.hrmtoolnextgen.projection;
+
+/**
+ * Projection for logged hours aggregated per user and timesheet type.
+ */
+public interface TimesheetUserHoursAggregateProjection extends TimesheetHoursAggregateProjection {
+    Long getUserId();
+}
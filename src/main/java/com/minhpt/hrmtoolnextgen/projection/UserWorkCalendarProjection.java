@@ -0,0 +1,10 @@
+package com.minhpt.hrmtoolnextgen.projection;
+
+/**
+ * Projection for the work calendar a user follows; {@code null} when the default calendar applies.
+ */
+public interface UserWorkCalendarProjection {
+    Long getUserId();
+
+    Long getWorkCalendarId();
+}
@@ -2,9 +2,11 @@ package com.minhpt.hrmtoolnextgen.repository.jpa;
 
 
 import com.minhpt.hrmtoolnextgen.entity.jpa.dayoff.DayOffEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -15,6 +17,13 @@ public interface DayOffRepository extends JpaRepository<DayOffEntity, Long>, Jpa
 	    LocalDateTime endTime,
 	    LocalDateTime startTime);
 
+    /**
+     * Loads and row-locks one day-off request, so concurrent decisions on it are serialised and
+     * only the first one sees it pending. Day-off rows are locked before ledger rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<DayOffEntity> findWithLockById(Long id);
+
     @EntityGraph(attributePaths = {"requestedBy", "requestedBy.userInfo"})
     Optional<DayOffEntity> findByRequestedByIdAndStartTimeAndEndTimeAndDeleteFalse(
 	    Long requestedById,
@@ -43,6 +43,8 @@ public interface ProjectRepository extends JpaRepository<ProjectEntity, Long>, J
 
     boolean existsByNameIgnoreCaseAndDeleteFalse(String name);
 
+    boolean existsByIdAndProjectManagerId(Long id, Long projectManagerId);
+
     @Override
     @EntityGraph(attributePaths = {
             "projectManager",
@@ -0,0 +1,73 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Period-wide reads for the dashboard utilization figures. Each method is one set-based query
+ * whose rows are handed to a primitive callback as they arrive, so the caller can fold them into
+ * its own accumulators without materialising entities.
+ */
+public interface TimesheetAnalyticsRepository {
+
+    /**
+     * Sums the working minutes of the non-deleted timesheets of non-deleted projects within a
+     * date range, grouped by project, project manager, member, status and type.
+     */
+    void aggregateTimesheetMinutes(LocalDate fromDate, LocalDate toDate, TimesheetMinutesHandler handler);
+
+    /**
+     * Reads the non-deleted approved day-offs overlapping a date range, ordered by user and start.
+     * Intervals are not clipped to the range.
+     */
+    void scanApprovedDayOffs(LocalDate fromDate, LocalDate toDate, DayOffHandler handler);
+
+    /**
+     * Reads the non-deleted users that are active or have logged time within the date range,
+     * ordered by id.
+     */
+    void scanUtilizationUsers(LocalDate fromDate, LocalDate toDate, UserHandler handler);
+
+    /**
+     * Reads the project memberships of active, non-deleted users in non-deleted projects.
+     */
+    void scanProjectMembers(ProjectMemberHandler handler);
+
+    /**
+     * Reads the non-deleted projects, ordered by id.
+     */
+    void scanProjects(ProjectHandler handler);
+
+    @FunctionalInterface
+    interface TimesheetMinutesHandler {
+        /**
+         * @param managerId 0 when the project has no manager
+         */
+        void accept(long projectId, long managerId, long userId, ETimesheetStatus status, ETimesheetType type,
+                    long minutes, long entries);
+    }
+
+    @FunctionalInterface
+    interface DayOffHandler {
+        void accept(long userId, LocalDateTime startTime, LocalDateTime endTime);
+    }
+
+    @FunctionalInterface
+    interface UserHandler {
+        void accept(long userId, String email, String fullName, boolean active);
+    }
+
+    @FunctionalInterface
+    interface ProjectMemberHandler {
+        void accept(long projectId, long userId);
+    }
+
+    @FunctionalInterface
+    interface ProjectHandler {
+        void accept(long projectId, String name, EProjectStatus status);
+    }
+}
@@ -0,0 +1,105 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.util.CommonUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+class TimesheetAnalyticsRepositoryImpl implements TimesheetAnalyticsRepository {
+
+    private static final String TIMESHEET_MINUTES_SQL = """
+            SELECT t.project_id, p.project_manager, t.user_id, t.status, t.type,
+                   SUM(EXTRACT(HOUR FROM t.working_hours) * 60 + EXTRACT(MINUTE FROM t.working_hours)), COUNT(*)
+            FROM timesheets t
+            JOIN projects p ON p.id = t.project_id
+            WHERE t.working_day BETWEEN ? AND ? AND t.is_delete = FALSE AND p.is_delete = FALSE
+            GROUP BY t.project_id, p.project_manager, t.user_id, t.status, t.type
+            """;
+
+    private static final String APPROVED_DAY_OFFS_SQL = """
+            SELECT requested_by, start_time, end_time
+            FROM day_offs
+            WHERE status = 'APPROVED' AND is_delete = FALSE AND start_time < ? AND end_time > ?
+            ORDER BY requested_by, start_time
+            """;
+
+    private static final String UTILIZATION_USERS_SQL = """
+            SELECT u.id, u.email, ui.first_name, ui.last_name, u.is_active
+            FROM users u
+            LEFT JOIN user_infos ui ON ui.id = u.user_info_id
+            WHERE u.is_delete = FALSE
+              AND (u.is_active = TRUE OR EXISTS (
+                    SELECT 1 FROM timesheets t
+                    WHERE t.user_id = u.id AND t.working_day BETWEEN ? AND ? AND t.is_delete = FALSE))
+            ORDER BY u.id
+            """;
+
+    private static final String PROJECT_MEMBERS_SQL = """
+            SELECT m.project_id, m.user_id
+            FROM users_projects_working m
+            JOIN users u ON u.id = m.user_id
+            JOIN projects p ON p.id = m.project_id
+            WHERE u.is_active = TRUE AND u.is_delete = FALSE AND p.is_delete = FALSE
+            """;
+
+    private static final String PROJECTS_SQL = """
+            SELECT id, name, project_status
+            FROM projects
+            WHERE is_delete = FALSE
+            ORDER BY id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    TimesheetAnalyticsRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void aggregateTimesheetMinutes(LocalDate fromDate, LocalDate toDate, TimesheetMinutesHandler handler) {
+        jdbcTemplate.query(TIMESHEET_MINUTES_SQL, resultSet -> {
+            handler.accept(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3),
+                    ETimesheetStatus.valueOf(resultSet.getString(4)), ETimesheetType.valueOf(resultSet.getString(5)),
+                    resultSet.getLong(6), resultSet.getLong(7));
+        }, Date.valueOf(fromDate), Date.valueOf(toDate));
+    }
+
+    @Override
+    public void scanApprovedDayOffs(LocalDate fromDate, LocalDate toDate, DayOffHandler handler) {
+        jdbcTemplate.query(APPROVED_DAY_OFFS_SQL, resultSet -> {
+            handler.accept(resultSet.getLong(1), resultSet.getTimestamp(2).toLocalDateTime(),
+                    resultSet.getTimestamp(3).toLocalDateTime());
+        }, Timestamp.valueOf(toDate.plusDays(1).atStartOfDay()), Timestamp.valueOf(fromDate.atStartOfDay()));
+    }
+
+    @Override
+    public void scanUtilizationUsers(LocalDate fromDate, LocalDate toDate, UserHandler handler) {
+        jdbcTemplate.query(UTILIZATION_USERS_SQL, resultSet -> {
+            String firstName = resultSet.getString(3);
+            String lastName = resultSet.getString(4);
+            handler.accept(resultSet.getLong(1), resultSet.getString(2),
+                    CommonUtils.fullName(firstName, lastName), resultSet.getBoolean(5));
+        }, Date.valueOf(fromDate), Date.valueOf(toDate));
+    }
+
+    @Override
+    public void scanProjectMembers(ProjectMemberHandler handler) {
+        jdbcTemplate.query(PROJECT_MEMBERS_SQL, resultSet -> {
+            handler.accept(resultSet.getLong(1), resultSet.getLong(2));
+        });
+    }
+
+    @Override
+    public void scanProjects(ProjectHandler handler) {
+        jdbcTemplate.query(PROJECTS_SQL, resultSet -> {
+            String status = resultSet.getString(3);
+            handler.accept(resultSet.getLong(1), resultSet.getString(2),
+                    status == null ? null : EProjectStatus.valueOf(status));
+        });
+    }
+}
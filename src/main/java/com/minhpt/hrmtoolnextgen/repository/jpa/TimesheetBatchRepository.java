@@ -0,0 +1,20 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
+
+import java.util.List;
+
+/**
+ * Batched inserts for {@link TimesheetEntity}.
+ *
+ * <p>Timesheet ids are {@code IDENTITY} columns, for which Hibernate sends every insert on its own
+ * and ignores {@code hibernate.jdbc.batch_size}; this fragment writes them with plain JDBC batches.
+ */
+public interface TimesheetBatchRepository {
+
+    /**
+     * Inserts new timesheets in JDBC batches of {@code hibernate.jdbc.batch_size}, filling their
+     * audit fields and the generated ids. The entities stay detached.
+     */
+    void insertAll(List<TimesheetEntity> timesheets);
+}
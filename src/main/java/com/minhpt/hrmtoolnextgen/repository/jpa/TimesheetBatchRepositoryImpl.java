@@ -0,0 +1,97 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+class TimesheetBatchRepositoryImpl implements TimesheetBatchRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO timesheets (create_date, create_by, is_delete, is_active, title, description,
+                                    working_hours, type, working_day, status, project_id, user_id)
+            VALUES (?, ?, FALSE, TRUE, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditorAware<Long> auditorProvider;
+    private final int batchSize;
+
+    TimesheetBatchRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                 AuditorAware<Long> auditorProvider,
+                                 @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditorProvider = auditorProvider;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void insertAll(List<TimesheetEntity> timesheets) {
+        if (timesheets.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Long auditor = auditorProvider.getCurrentAuditor().orElse(0L);
+        timesheets.forEach(timesheet -> {
+            timesheet.setCreatedDate(now);
+            timesheet.setCreatedBy(auditor);
+        });
+
+        for (int from = 0; from < timesheets.size(); from += batchSize) {
+            List<TimesheetEntity> chunk = timesheets.subList(from, Math.min(from + batchSize, timesheets.size()));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                    connection -> connection.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            bind(ps, chunk.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+
+                        private void bind(PreparedStatement ps, TimesheetEntity timesheet) throws SQLException {
+                            ps.setTimestamp(1, Timestamp.valueOf(timesheet.getCreatedDate()));
+                            ps.setLong(2, timesheet.getCreatedBy());
+                            ps.setString(3, timesheet.getTitle());
+                            ps.setString(4, timesheet.getDescription());
+                            ps.setObject(5, timesheet.getWorkingHours(), Types.TIME);
+                            ps.setString(6, timesheet.getType() != null ? timesheet.getType().name() : null);
+                            ps.setObject(7, timesheet.getWorkingDay(), Types.DATE);
+                            ps.setString(8, timesheet.getStatus().name());
+                            ps.setLong(9, timesheet.getProjectEntity().getId());
+                            ps.setLong(10, timesheet.getUserEntity().getId());
+                        }
+                    },
+                    keyHolder);
+            assignIds(chunk, keyHolder.getKeyList());
+        }
+    }
+
+    /**
+     * Generated keys come back in insertion order, one row per statement of the batch.
+     */
+    private static void assignIds(List<TimesheetEntity> chunk, List<Map<String, Object>> keys) {
+        if (keys.size() != chunk.size()) {
+            throw new IllegalStateException("Expected " + chunk.size() + " generated timesheet ids, got " + keys.size());
+        }
+        for (int i = 0; i < chunk.size(); i++) {
+            Object id = keys.get(i).values().iterator().next();
+            chunk.get(i).setId(((Number) id).longValue());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportRow;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only reads of timesheets for exports, which must not hold a whole project in memory.
+ */
+public interface TimesheetExportRepository {
+
+    /**
+     * Reads the non-deleted timesheets of a project within a date range, ordered by member, day
+     * and type, and hands each row to {@code rowHandler} as it arrives. Rows are fetched in chunks
+     * of {@code hrm.export.fetch-size} through a forward-only cursor and are not retained.
+     *
+     * <p>Call it inside a transaction: PostgreSQL only honours the fetch size with auto-commit off.
+     *
+     * @return the number of rows read
+     */
+    long streamProjectTimesheets(Long projectId, LocalDate fromDate, LocalDate toDate,
+                                 Consumer<TimesheetExportRow> rowHandler);
+
+    /**
+     * Same as {@link #streamProjectTimesheets} across all non-deleted projects, ordered by project
+     * first.
+     */
+    long streamTimesheets(LocalDate fromDate, LocalDate toDate, Consumer<TimesheetExportRow> rowHandler);
+
+    /**
+     * Number of rows {@link #streamTimesheets} would read.
+     */
+    long countTimesheets(LocalDate fromDate, LocalDate toDate);
+}
@@ -0,0 +1,110 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportRow;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.util.CommonUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+class TimesheetExportRepositoryImpl implements TimesheetExportRepository {
+
+    private static final String SELECT_ROWS = """
+            SELECT p.name, u.email, ui.first_name, ui.last_name, t.working_day, t.type, t.title, t.description,
+                   t.working_hours, t.status
+            FROM timesheets t
+            JOIN projects p ON p.id = t.project_id
+            JOIN users u ON u.id = t.user_id
+            LEFT JOIN user_infos ui ON ui.id = u.user_info_id
+            """;
+
+    private static final String PROJECT_TIMESHEETS_SQL = SELECT_ROWS + """
+            WHERE t.project_id = ? AND t.working_day BETWEEN ? AND ? AND t.is_delete = FALSE
+            ORDER BY u.id, t.working_day, t.type, t.id
+            """;
+
+    private static final String ALL_TIMESHEETS_WHERE = """
+            WHERE t.working_day BETWEEN ? AND ? AND t.is_delete = FALSE AND p.is_delete = FALSE
+            """;
+
+    private static final String ALL_TIMESHEETS_SQL = SELECT_ROWS + ALL_TIMESHEETS_WHERE + """
+            ORDER BY p.id, u.id, t.working_day, t.type, t.id
+            """;
+
+    private static final String COUNT_ALL_TIMESHEETS_SQL = """
+            SELECT COUNT(*)
+            FROM timesheets t
+            JOIN projects p ON p.id = t.project_id
+            """ + ALL_TIMESHEETS_WHERE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    TimesheetExportRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                  @Value("${hrm.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public long streamProjectTimesheets(Long projectId, LocalDate fromDate, LocalDate toDate,
+                                        Consumer<TimesheetExportRow> rowHandler) {
+        return stream(PROJECT_TIMESHEETS_SQL, rowHandler, projectId, Date.valueOf(fromDate), Date.valueOf(toDate));
+    }
+
+    @Override
+    public long streamTimesheets(LocalDate fromDate, LocalDate toDate, Consumer<TimesheetExportRow> rowHandler) {
+        return stream(ALL_TIMESHEETS_SQL, rowHandler, Date.valueOf(fromDate), Date.valueOf(toDate));
+    }
+
+    @Override
+    public long countTimesheets(LocalDate fromDate, LocalDate toDate) {
+        Long count = jdbcTemplate.queryForObject(COUNT_ALL_TIMESHEETS_SQL, Long.class,
+                Date.valueOf(fromDate), Date.valueOf(toDate));
+        return count == null ? 0 : count;
+    }
+
+    private long stream(String sql, Consumer<TimesheetExportRow> rowHandler, Object... parameters) {
+        long[] count = {0};
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int index = 0; index < parameters.length; index++) {
+                statement.setObject(index + 1, parameters[index]);
+            }
+            return statement;
+        }, resultSet -> {
+            rowHandler.accept(toRow(resultSet));
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    private TimesheetExportRow toRow(ResultSet resultSet) throws SQLException {
+        String firstName = resultSet.getString(3);
+        String lastName = resultSet.getString(4);
+        Date workingDay = resultSet.getDate(5);
+        String type = resultSet.getString(6);
+        Time workingHours = resultSet.getTime(9);
+        String status = resultSet.getString(10);
+        return new TimesheetExportRow(
+                resultSet.getString(1),
+                resultSet.getString(2),
+                CommonUtils.fullName(firstName, lastName),
+                workingDay == null ? null : workingDay.toLocalDate(),
+                type == null ? null : ETimesheetType.valueOf(type),
+                resultSet.getString(7),
+                resultSet.getString(8),
+                workingHours == null ? null : workingHours.toLocalTime(),
+                status == null ? null : ETimesheetStatus.valueOf(status));
+    }
+}
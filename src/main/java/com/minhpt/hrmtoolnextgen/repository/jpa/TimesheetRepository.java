@@ -3,25 +3,145 @@ package com.minhpt.hrmtoolnextgen.repository.jpa;
 
 import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
 import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
-import com.minhpt.hrmtoolnextgen.projection.TimesheetWorkingHourProjection;
+import com.minhpt.hrmtoolnextgen.projection.TimesheetDailyMinutesProjection;
+import com.minhpt.hrmtoolnextgen.projection.TimesheetHoursAggregateProjection;
+import com.minhpt.hrmtoolnextgen.projection.TimesheetUserHoursAggregateProjection;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface TimesheetRepository extends JpaRepository<TimesheetEntity, Long>, JpaSpecificationExecutor<TimesheetEntity>  {
-    @EntityGraph(attributePaths = {"userEntity"})
-    List<TimesheetWorkingHourProjection> findByUserEntityIdAndWorkingDayAndStatusNot(Long userId, LocalDate workingDay, ETimesheetStatus status);
-
+public interface TimesheetRepository extends JpaRepository<TimesheetEntity, Long>, JpaSpecificationExecutor<TimesheetEntity>,
+        TimesheetBatchRepository, TimesheetExportRepository, TimesheetAnalyticsRepository {
     @EntityGraph(attributePaths = {
             "projectEntity",
             "projectEntity.projectManager",
             "userEntity"
     })
     Page<TimesheetEntity> findAll(Specification<TimesheetEntity> spec, Pageable pageable);
+
+    @Query("""
+            SELECT t.type as type,
+                   SUM(EXTRACT(HOUR FROM t.workingHours) * 60 + EXTRACT(MINUTE FROM t.workingHours)) as totalMinutes,
+                   COUNT(t) as entries
+            FROM TimesheetEntity t
+            WHERE t.userEntity.id = :userId
+              AND t.workingDay BETWEEN :fromDate AND :toDate
+              AND t.status IN :statuses
+            GROUP BY t.type
+            """)
+    List<TimesheetHoursAggregateProjection> sumLoggedMinutesByType(@Param("userId") Long userId,
+                                                                   @Param("fromDate") LocalDate fromDate,
+                                                                   @Param("toDate") LocalDate toDate,
+                                                                   @Param("statuses") Collection<ETimesheetStatus> statuses);
+
+    @Query("""
+            SELECT t.userEntity.id as userId,
+                   t.type as type,
+                   SUM(EXTRACT(HOUR FROM t.workingHours) * 60 + EXTRACT(MINUTE FROM t.workingHours)) as totalMinutes,
+                   COUNT(t) as entries
+            FROM TimesheetEntity t
+            WHERE t.userEntity.id IN :userIds
+              AND t.workingDay BETWEEN :fromDate AND :toDate
+              AND t.status IN :statuses
+            GROUP BY t.userEntity.id, t.type
+            """)
+    List<TimesheetUserHoursAggregateProjection> sumLoggedMinutesByUserAndType(@Param("userIds") Collection<Long> userIds,
+                                                                              @Param("fromDate") LocalDate fromDate,
+                                                                              @Param("toDate") LocalDate toDate,
+                                                                              @Param("statuses") Collection<ETimesheetStatus> statuses);
+
+    @Query("""
+            SELECT t.workingDay as workingDay,
+                   SUM(EXTRACT(HOUR FROM t.workingHours) * 60 + EXTRACT(MINUTE FROM t.workingHours)) as totalMinutes
+            FROM TimesheetEntity t
+            WHERE t.userEntity.id = :userId
+              AND t.workingDay BETWEEN :fromDate AND :toDate
+              AND t.status IN :statuses
+            GROUP BY t.workingDay
+            """)
+    List<TimesheetDailyMinutesProjection> sumLoggedMinutesByDay(@Param("userId") Long userId,
+                                                                @Param("fromDate") LocalDate fromDate,
+                                                                @Param("toDate") LocalDate toDate,
+                                                                @Param("statuses") Collection<ETimesheetStatus> statuses);
+
+    @Query("""
+            SELECT COUNT(t)
+            FROM TimesheetEntity t
+            WHERE t.id IN :ids
+              AND t.projectEntity.id IN (SELECT p.id FROM ProjectEntity p WHERE p.projectManager.id = :managerId)
+            """)
+    long countByIdInAndProjectManagerId(@Param("ids") Collection<Long> ids, @Param("managerId") Long managerId);
+
+    /**
+     * Loads and row-locks one timesheet. Timesheet rows are locked before ledger rows, so status
+     * changes and ledger updates of the same timesheet are serialised without deadlocks.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<TimesheetEntity> findWithLockById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<TimesheetEntity> findByIdInAndStatusAndDeleteFalseOrderByIdAsc(Collection<Long> ids, ETimesheetStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT t
+            FROM TimesheetEntity t
+            WHERE t.projectEntity.id IN (SELECT p.id FROM ProjectEntity p WHERE p.projectManager.id = :managerId)
+              AND (:projectId IS NULL OR t.projectEntity.id = :projectId)
+              AND t.workingDay BETWEEN :fromDate AND :toDate
+              AND t.status = :status
+              AND t.delete = FALSE
+            ORDER BY t.id
+            """)
+    List<TimesheetEntity> findAndLockForFilter(@Param("managerId") Long managerId,
+                                               @Param("projectId") Long projectId,
+                                               @Param("fromDate") LocalDate fromDate,
+                                               @Param("toDate") LocalDate toDate,
+                                               @Param("status") ETimesheetStatus status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE TimesheetEntity t
+            SET t.status = :newStatus, t.lastModifiedDate = :modifiedAt, t.lastModifiedBy = :managerId
+            WHERE t.id IN :ids
+              AND t.status = :currentStatus
+              AND t.delete = FALSE
+            """)
+    int updateStatusForIds(@Param("ids") Collection<Long> ids,
+                           @Param("currentStatus") ETimesheetStatus currentStatus,
+                           @Param("newStatus") ETimesheetStatus newStatus,
+                           @Param("managerId") Long managerId,
+                           @Param("modifiedAt") LocalDateTime modifiedAt);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE TimesheetEntity t
+            SET t.status = :newStatus, t.lastModifiedDate = :modifiedAt, t.lastModifiedBy = :managerId
+            WHERE t.projectEntity.id IN (SELECT p.id FROM ProjectEntity p WHERE p.projectManager.id = :managerId)
+              AND (:projectId IS NULL OR t.projectEntity.id = :projectId)
+              AND t.workingDay BETWEEN :fromDate AND :toDate
+              AND t.status = :currentStatus
+              AND t.delete = FALSE
+            """)
+    int updateStatusForFilter(@Param("managerId") Long managerId,
+                              @Param("projectId") Long projectId,
+                              @Param("fromDate") LocalDate fromDate,
+                              @Param("toDate") LocalDate toDate,
+                              @Param("currentStatus") ETimesheetStatus currentStatus,
+                              @Param("newStatus") ETimesheetStatus newStatus,
+                              @Param("modifiedAt") LocalDateTime modifiedAt);
 }
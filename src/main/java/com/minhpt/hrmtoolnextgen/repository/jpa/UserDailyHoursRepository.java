@@ -0,0 +1,41 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.UserDailyHoursEntity;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface UserDailyHoursRepository extends JpaRepository<UserDailyHoursEntity, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<UserDailyHoursEntity> findByUserIdAndWorkDay(Long userId, LocalDate workDay);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserDailyHoursEntity> findByUserIdAndWorkDayInOrderByWorkDayAsc(Long userId, Collection<LocalDate> workDays);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserDailyHoursEntity> findByUserIdInAndWorkDayBetweenOrderByUserIdAscWorkDayAsc(Collection<Long> userIds,
+                                                                                        LocalDate fromDate,
+                                                                                        LocalDate toDate);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserDailyHoursEntity> findByUserIdAndWorkDayBetweenOrderByWorkDayAsc(Long userId, LocalDate fromDate,
+                                                                             LocalDate toDate);
+
+    @Query("""
+            SELECT DISTINCT d.userId
+            FROM UserDailyHoursEntity d
+            WHERE d.userId IN :userIds
+              AND d.workDay BETWEEN :fromDate AND :toDate
+            """)
+    List<Long> findUserIdsWithRowsBetween(@Param("userIds") Collection<Long> userIds,
+                                          @Param("fromDate") LocalDate fromDate,
+                                          @Param("toDate") LocalDate toDate);
+}
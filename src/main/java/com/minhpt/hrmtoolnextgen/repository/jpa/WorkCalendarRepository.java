@@ -0,0 +1,50 @@
+package com.minhpt.hrmtoolnextgen.repository.jpa;
+
+import com.minhpt.hrmtoolnextgen.entity.jpa.calendar.WorkCalendarEntity;
+import com.minhpt.hrmtoolnextgen.projection.UserWorkCalendarProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface WorkCalendarRepository extends JpaRepository<WorkCalendarEntity, Long> {
+
+    Optional<WorkCalendarEntity> findFirstByDefaultCalendarTrue();
+
+    List<WorkCalendarEntity> findAllByOrderByNameAsc();
+
+    boolean existsByNameIgnoreCase(String name);
+
+    boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
+
+    @Query("select distinct c.countryCode from WorkCalendarEntity c")
+    List<String> findDistinctCountryCodes();
+
+    @Query("select c.id from WorkCalendarEntity c where c.countryCode = :countryCode")
+    List<Long> findIdsByCountryCode(@Param("countryCode") String countryCode);
+
+    @Modifying
+    @Query("update WorkCalendarEntity c set c.defaultCalendar = false, c.version = c.version + 1 "
+            + "where c.defaultCalendar = true and c.id <> :id")
+    int clearDefaultExcept(@Param("id") Long id);
+
+    /**
+     * The user's own calendar, else the lowest calendar id among their projects; empty when the
+     * default calendar applies.
+     */
+    @Query("select coalesce(u.workCalendar.id, "
+            + "(select min(p.workCalendar.id) from ProjectEntity p join p.members m where m.id = u.id)) "
+            + "from UserEntity u where u.id = :userId")
+    Optional<Long> findWorkCalendarIdByUserId(@Param("userId") Long userId);
+
+    /**
+     * Same resolution as {@link #findWorkCalendarIdByUserId(Long)} for every user in one query.
+     */
+    @Query("select u.id as userId, coalesce(u.workCalendar.id, "
+            + "(select min(p.workCalendar.id) from ProjectEntity p join p.members m where m.id = u.id)) as workCalendarId "
+            + "from UserEntity u")
+    List<UserWorkCalendarProjection> findAllUserWorkCalendarIds();
+}
@@ -0,0 +1,113 @@
+package com.minhpt.hrmtoolnextgen.repository.redis;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reset-password tokens keyed by the SHA-256 of the raw token.
+ *
+ * <p>Keys:
+ * <ul>
+ *   <li>{@code {reset_password_token}:<sha256>} – user id, expires with the token</li>
+ *   <li>{@code {reset_password_token}:user:<userId>} – hash of the user's latest token, so issuing
+ *       a new token invalidates the previous one</li>
+ * </ul>
+ * All keys share the {@code {reset_password_token}} hash tag so the save script only touches one
+ * Redis Cluster slot. Consumption is a single {@code GETDEL}, independent of how many tokens are
+ * outstanding, and the raw token never reaches Redis.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResetPasswordTokenRedisRepository {
+
+    static final String KEY_PREFIX = "{reset_password_token}:";
+    static final String USER_KEY_PREFIX = KEY_PREFIX + "user:";
+
+    private static final int MAX_SAVE_ATTEMPTS = 5;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * Lua script – stores the new token and drops the user's previous one atomically, provided the
+     * user's latest token is still the one read by the caller (otherwise returns 0 and writes nothing).
+     *
+     * <p>KEYS: [tokenKey, userKey, previousTokenKey]; ARGV: [userId, tokenHash, ttlMs, previousHash]
+     * – {@code previousHash} is empty when the user had no token.
+     */
+    private static final DefaultRedisScript<Long> SAVE_SCRIPT = new DefaultRedisScript<>(
+            """
+            local current = redis.call('GET', KEYS[2]) or ''
+            if current ~= ARGV[4] then
+                return 0
+            end
+            if current ~= '' and current ~= ARGV[2] then
+                redis.call('DEL', KEYS[3])
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """,
+            Long.class
+    );
+
+    /**
+     * Stores {@code rawToken} for {@code userId}, replacing any token issued to that user before.
+     *
+     * @param ttlMs token lifetime in milliseconds
+     */
+    public void save(Long userId, String rawToken, long ttlMs) {
+        String tokenHash = hash(rawToken);
+        String userKey = USER_KEY_PREFIX + userId;
+        for (int attempt = 0; attempt < MAX_SAVE_ATTEMPTS; attempt++) {
+            // The previous token key must be declared in KEYS, so read the pointer first and let the
+            // script retry-check it; a concurrent save for the same user just causes another round
+            String previousHash = stringRedisTemplate.opsForValue().get(userKey);
+            String expected = previousHash != null ? previousHash : "";
+            Long saved = stringRedisTemplate.execute(
+                    SAVE_SCRIPT,
+                    List.of(KEY_PREFIX + tokenHash, userKey, KEY_PREFIX + expected),
+                    String.valueOf(userId),
+                    tokenHash,
+                    String.valueOf(ttlMs),
+                    expected
+            );
+            if (Long.valueOf(1L).equals(saved)) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Concurrent reset-password token updates for user " + userId);
+    }
+
+    /**
+     * Looks up {@code rawToken} without consuming it.
+     *
+     * @return the owning user id, or {@code null} if the token is unknown, expired or already used
+     */
+    public Long find(String rawToken) {
+        return toUserId(stringRedisTemplate.opsForValue().get(KEY_PREFIX + hash(rawToken)));
+    }
+
+    /**
+     * Atomically looks up and deletes {@code rawToken}.
+     *
+     * @return the owning user id, or {@code null} if the token is unknown, expired or already used
+     */
+    public Long consume(String rawToken) {
+        return toUserId(stringRedisTemplate.opsForValue().getAndDelete(KEY_PREFIX + hash(rawToken)));
+    }
+
+    private static Long toUserId(String userId) {
+        return userId != null ? Long.valueOf(userId) : null;
+    }
+
+    private static String hash(String rawToken) {
+        return DigestUtils.sha256Hex(rawToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,192 @@
+package com.minhpt.hrmtoolnextgen.repository.redis;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Repository;
+
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportJobDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportJobStatus;
+
+/**
+ * Export job state, shared by all nodes so any of them can answer status and download requests.
+ *
+ * <p>Keys: {@code export_job:<jobId>} – a hash with one field per {@link TimesheetExportJobDto}
+ * property plus {@code heartbeatAt}, expiring {@code hrm.export.job.ttl} after the last full save.
+ * Progress updates only rewrite {@code processedRows}. {@code export_job_active} – the ids of
+ * jobs saved as QUEUED or RUNNING, so orphans left by a crashed node can be found without a scan.
+ */
+@Repository
+public class TimesheetExportJobRedisRepository {
+
+    static final String KEY_PREFIX = "export_job:";
+    static final String ACTIVE_KEY = "export_job_active";
+
+    private static final String OWNER_ID = "ownerId";
+    private static final String MONTH = "month";
+    private static final String FORMAT = "format";
+    private static final String STATUS = "status";
+    private static final String PROCESSED_ROWS = "processedRows";
+    private static final String TOTAL_ROWS = "totalRows";
+    private static final String FILE_NAME = "fileName";
+    private static final String FILE_SIZE = "fileSize";
+    private static final String ERROR_MESSAGE = "errorMessage";
+    private static final String CREATED_AT = "createdAt";
+    private static final String FINISHED_AT = "finishedAt";
+    private static final String HEARTBEAT_AT = "heartbeatAt";
+
+    /**
+     * Touches {@code heartbeatAt} unless the job has expired, which would leave a hash without its
+     * other fields. KEYS: [jobKey]; ARGV: [now]
+     */
+    private static final DefaultRedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>(
+            """
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'heartbeatAt', ARGV[1])
+            return 1
+            """,
+            Long.class
+    );
+
+    /**
+     * Fails a QUEUED or RUNNING job whose heartbeat is older than {@code staleBefore}. Returns 1 if
+     * it did, 0 if the job is still alive and -1 if it is gone or already finished.
+     *
+     * <p>KEYS: [jobKey]; ARGV: [staleBefore, errorMessage, now]
+     */
+    private static final DefaultRedisScript<Long> FAIL_STALE_SCRIPT = new DefaultRedisScript<>(
+            """
+            local status = redis.call('HGET', KEYS[1], 'status')
+            if status ~= 'QUEUED' and status ~= 'RUNNING' then
+                return -1
+            end
+            local heartbeatAt = tonumber(redis.call('HGET', KEYS[1], 'heartbeatAt') or '0')
+            if heartbeatAt >= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'status', 'FAILED', 'errorMessage', ARGV[2], 'finishedAt', ARGV[3])
+            return 1
+            """,
+            Long.class
+    );
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Duration ttl;
+
+    public TimesheetExportJobRedisRepository(StringRedisTemplate stringRedisTemplate,
+                                             @Value("${hrm.export.job.ttl:PT24H}") Duration ttl) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.ttl = ttl;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void save(TimesheetExportJobDto job) {
+        String key = KEY_PREFIX + job.getJobId();
+        Map<String, String> fields = new HashMap<>();
+        fields.put(OWNER_ID, String.valueOf(job.getOwnerId()));
+        fields.put(MONTH, job.getMonth());
+        fields.put(FORMAT, job.getFormat().name());
+        fields.put(STATUS, job.getStatus().name());
+        fields.put(PROCESSED_ROWS, String.valueOf(job.getProcessedRows()));
+        fields.put(TOTAL_ROWS, String.valueOf(job.getTotalRows()));
+        fields.put(FILE_SIZE, String.valueOf(job.getFileSize()));
+        fields.put(CREATED_AT, String.valueOf(job.getCreatedAt()));
+        fields.put(HEARTBEAT_AT, String.valueOf(System.currentTimeMillis()));
+        if (job.getFileName() != null) {
+            fields.put(FILE_NAME, job.getFileName());
+        }
+        if (job.getErrorMessage() != null) {
+            fields.put(ERROR_MESSAGE, job.getErrorMessage());
+        }
+        if (job.getFinishedAt() != null) {
+            fields.put(FINISHED_AT, String.valueOf(job.getFinishedAt()));
+        }
+        hashOperations().putAll(key, fields);
+        stringRedisTemplate.expire(key, ttl);
+        if (isActive(job.getStatus())) {
+            stringRedisTemplate.opsForSet().add(ACTIVE_KEY, job.getJobId());
+        } else {
+            stringRedisTemplate.opsForSet().remove(ACTIVE_KEY, job.getJobId());
+        }
+    }
+
+    public void updateProgress(String jobId, long processedRows) {
+        hashOperations().put(KEY_PREFIX + jobId, PROCESSED_ROWS, String.valueOf(processedRows));
+    }
+
+    /**
+     * Records that the node running the job is still alive.
+     */
+    public void heartbeat(String jobId, long now) {
+        stringRedisTemplate.execute(HEARTBEAT_SCRIPT, List.of(KEY_PREFIX + jobId), String.valueOf(now));
+    }
+
+    /**
+     * @return ids of jobs last saved as QUEUED or RUNNING; some may have finished or expired since
+     */
+    public Set<String> findActiveJobIds() {
+        Set<String> jobIds = stringRedisTemplate.opsForSet().members(ACTIVE_KEY);
+        return jobIds != null ? jobIds : Set.of();
+    }
+
+    /**
+     * Marks the job FAILED if it is still QUEUED or RUNNING and its last heartbeat is older than
+     * {@code staleBefore}, and drops it from the active jobs unless it is still alive.
+     *
+     * @return {@code true} if this call failed the job
+     */
+    public boolean failIfStale(String jobId, long staleBefore, String errorMessage, long now) {
+        Long result = stringRedisTemplate.execute(FAIL_STALE_SCRIPT, List.of(KEY_PREFIX + jobId),
+                String.valueOf(staleBefore), errorMessage, String.valueOf(now));
+        if (result == null || result != 0) {
+            stringRedisTemplate.opsForSet().remove(ACTIVE_KEY, jobId);
+        }
+        return result != null && result == 1;
+    }
+
+    /**
+     * @return the job, or {@code null} if it is unknown or has expired
+     */
+    public TimesheetExportJobDto findById(String jobId) {
+        Map<String, String> fields = hashOperations().entries(KEY_PREFIX + jobId);
+        if (fields.isEmpty()) {
+            return null;
+        }
+        String finishedAt = fields.get(FINISHED_AT);
+        return TimesheetExportJobDto.builder()
+                .jobId(jobId)
+                .ownerId(Long.valueOf(fields.get(OWNER_ID)))
+                .month(fields.get(MONTH))
+                .format(EExportFormat.valueOf(fields.get(FORMAT)))
+                .status(EExportJobStatus.valueOf(fields.get(STATUS)))
+                .processedRows(Long.parseLong(fields.get(PROCESSED_ROWS)))
+                .totalRows(Long.parseLong(fields.get(TOTAL_ROWS)))
+                .fileName(fields.get(FILE_NAME))
+                .fileSize(Long.parseLong(fields.get(FILE_SIZE)))
+                .errorMessage(fields.get(ERROR_MESSAGE))
+                .createdAt(Long.parseLong(fields.get(CREATED_AT)))
+                .finishedAt(finishedAt == null ? null : Long.valueOf(finishedAt))
+                .build();
+    }
+
+    private static boolean isActive(EExportJobStatus status) {
+        return status == EExportJobStatus.QUEUED || status == EExportJobStatus.RUNNING;
+    }
+
+    private HashOperations<String, String, String> hashOperations() {
+        return stringRedisTemplate.opsForHash();
+    }
+}
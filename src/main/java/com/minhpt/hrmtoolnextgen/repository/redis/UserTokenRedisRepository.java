@@ -9,5 +9,5 @@ import java.util.List;
 public interface UserTokenRedisRepository extends CrudRepository<UserTokenRedisEntity, String> {
     UserTokenRedisEntity findUserByUserIdAndTokenType(Long userId, EUserTokenType tokenType);
 
-    List<UserTokenRedisEntity> findByTokenType(EUserTokenType tokenType);
+    List<UserTokenRedisEntity> findAllByTokenType(EUserTokenType tokenType);
 }
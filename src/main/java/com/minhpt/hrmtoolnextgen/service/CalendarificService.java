@@ -8,6 +8,7 @@ import com.minhpt.hrmtoolnextgen.exception.InternalServerException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -36,17 +37,34 @@ public class CalendarificService {
     @Value("${calendarific.api.url:https://calendarific.com/api/v2/holidays}")
     private String apiUrl;
 
-    private static final String COUNTRY_CODE = "VN"; // Vietnam
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
 
-    @Cacheable(value = "holidays", key = "#year")
-    public List<HolidayDto> getHolidays(int year) {
-        return normalize(fetchHolidays(year));
+    /**
+     * @param countryCode ISO 3166-1 alpha-2 code of the country, e.g. {@code VN}
+     */
+    @Cacheable(value = "holidays", key = "#countryCode + ':' + #year")
+    public List<HolidayDto> getHolidays(int year, String countryCode) {
+        return normalize(fetchHolidays(year, countryCode));
+    }
+
+    /**
+     * Fetches the holidays from the API and replaces the Redis entry with them.
+     */
+    @CachePut(value = "holidays", key = "#countryCode + ':' + #year")
+    public List<HolidayDto> refreshHolidays(int year, String countryCode) {
+        return normalize(fetchHolidays(year, countryCode));
+    }
+
+    /**
+     * @return whether an API key is set; without one every fetch returns no holidays
+     */
+    public boolean isConfigured() {
+        return apiKey != null && !apiKey.isBlank();
     }
 
     @SuppressWarnings("null")
-    public List<HolidayDto> fetchHolidays(int year) {
-        if (apiKey == null || apiKey.isBlank()) {
+    public List<HolidayDto> fetchHolidays(int year, String countryCode) {
+        if (!isConfigured()) {
             log.warn("Calendarific API key is not configured. Returning empty list.");
             return new ArrayList<>();
         }
@@ -54,11 +72,11 @@ public class CalendarificService {
         try {
             String url = UriComponentsBuilder.fromUriString(Objects.requireNonNullElse(apiUrl, ""))
                     .queryParam("api_key", apiKey)
-                    .queryParam("country", COUNTRY_CODE)
+                    .queryParam("country", countryCode)
                     .queryParam("year", year)
                     .toUriString();
 
-            log.debug("Fetching holidays from Calendarific API for year: {}", year);
+            log.debug("Fetching holidays from Calendarific API for country: {}, year: {}", countryCode, year);
             CalendarificResponse response = restTemplate.getForObject(url, CalendarificResponse.class);
 
             if (response == null || response.getResponse() == null || response.getResponse().getHolidays() == null) {
@@ -75,7 +93,7 @@ public class CalendarificService {
             }
 
             return response.getResponse().getHolidays().stream()
-                    .map(this::mapToHolidayDto)
+                    .map(holiday -> mapToHolidayDto(holiday, countryCode))
                     .collect(Collectors.toList());
 
         } catch (Exception e) {
@@ -92,14 +110,14 @@ public class CalendarificService {
      *
      * @return The proxied service instance
      */
-    private HolidayDto mapToHolidayDto(CalendarificResponse.CalendarificHoliday holiday) {
+    private HolidayDto mapToHolidayDto(CalendarificResponse.CalendarificHoliday holiday, String countryCode) {
         HolidayDto dto = new HolidayDto();
         dto.setName(holiday.getName());
         dto.setDescription(holiday.getDescription());
         dto.setType(holiday.getTypes() != null && !holiday.getTypes().isEmpty()
                 ? holiday.getTypes().getFirst() : "Unknown");
         dto.setIsPublic(holiday.getTypes() != null && holiday.getTypes().contains("National holiday"));
-        dto.setCountry(holiday.getCountry() != null ? holiday.getCountry().getId() : COUNTRY_CODE);
+        dto.setCountry(holiday.getCountry() != null ? holiday.getCountry().getId() : countryCode);
 
         // Parse date
         if (holiday.getDate() != null && holiday.getDate().getIso() != null) {
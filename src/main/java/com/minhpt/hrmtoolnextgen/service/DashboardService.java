@@ -3,48 +3,143 @@ package com.minhpt.hrmtoolnextgen.service;
 import com.minhpt.hrmtoolnextgen.dto.dashboard.DashboardSummaryDto;
 import com.minhpt.hrmtoolnextgen.dto.dashboard.ProjectStatusCountDto;
 import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.event.ProjectStatusChangedEvent;
+import com.minhpt.hrmtoolnextgen.event.UserActivityChangedEvent;
 import com.minhpt.hrmtoolnextgen.projection.ProjectStatusCountProjection;
 import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.EnumMap;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
 
+/**
+ * Dashboard counts served from an in-memory snapshot instead of counting on every load.
+ *
+ * <p>The snapshot is immutable and held in an {@link AtomicReference}, so reads never lock and
+ * never reach the database. {@link ProjectStatusChangedEvent} and {@link UserActivityChangedEvent}
+ * from the project and user services adjust it once their transaction commits; rolled-back changes
+ * are never counted. Every {@code hrm.dashboard.reconcile-interval} the snapshot is rebuilt from the
+ * database, which corrects drift, including events that race a reconciliation (see
+ * {@link #reconcile()}), and picks up changes made on other nodes or outside the services.
+ * {@link DashboardSummaryDto#getAsOf()} is the time of the last change or reconciliation.
+ */
 @Service
 @RequiredArgsConstructor
 @Log4j2
 public class DashboardService {
 
+    private static final int MAX_RECONCILE_ATTEMPTS = 3;
+
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
 
-    @Transactional(readOnly = true)
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
     public DashboardSummaryDto getDashboardSummary() {
-        log.info("Fetching dashboard summary");
-        List<ProjectStatusCountDto> projectStatusCounts = buildProjectStatusCounts();
-        long activeEmployees = userRepository.countByActiveTrueAndDeleteFalse();
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            reconcile();
+            current = snapshot.get();
+        }
+        List<ProjectStatusCountDto> projectStatusCounts = new ArrayList<>(current.projectCounts().length);
+        for (EProjectStatus status : EProjectStatus.values()) {
+            projectStatusCounts.add(new ProjectStatusCountDto(status, current.projectCounts()[status.ordinal()]));
+        }
+        return new DashboardSummaryDto(projectStatusCounts, current.activeEmployees(), current.asOf());
+    }
 
-        log.debug("Dashboard summary - projectStatusCounts: {}, activeEmployees: {}", projectStatusCounts, activeEmployees);
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectStatusChanged(ProjectStatusChangedEvent event) {
+        apply(current -> {
+            long[] projectCounts = current.projectCounts().clone();
+            if (event.previousStatus() != null) {
+                projectCounts[event.previousStatus().ordinal()]--;
+            }
+            if (event.currentStatus() != null) {
+                projectCounts[event.currentStatus().ordinal()]++;
+            }
+            return current.next(projectCounts, current.activeEmployees());
+        });
+    }
 
-        return new DashboardSummaryDto(projectStatusCounts, activeEmployees);
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserActivityChanged(UserActivityChangedEvent event) {
+        apply(current -> current.next(current.projectCounts(),
+                current.activeEmployees() + (event.active() ? 1 : -1)));
     }
 
-    private List<ProjectStatusCountDto> buildProjectStatusCounts() {
-        Map<EProjectStatus, Long> counts = new EnumMap<>(EProjectStatus.class);
-        List<ProjectStatusCountProjection> aggregated = projectRepository.countProjectsByStatus();
+    /**
+     * Replaces the snapshot with counts read from the database. If an event is applied while the
+     * counts are read, they are read again so the snapshot does not lose it.
+     *
+     * <p>This is not exact: a transaction that commits before the counts are read but whose
+     * after-commit listener runs after the snapshot is replaced is counted twice, and one whose
+     * listener runs during the read but which the read did not yet see is missed. The database
+     * gives no way to tell which commits a read saw, so such drift stays until the next
+     * reconciliation.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${hrm.dashboard.reconcile-interval:PT5M}",
+            initialDelayString = "${hrm.dashboard.reconcile-interval:PT5M}")
+    public void reconcile() {
+        for (int attempt = 0; attempt < MAX_RECONCILE_ATTEMPTS; attempt++) {
+            Snapshot before = snapshot.get();
+            Snapshot loaded = load(before == null ? 0 : before.version() + 1);
+            if (snapshot.compareAndSet(before, loaded)) {
+                if (before != null && !before.sameCounts(loaded)) {
+                    log.info("Dashboard snapshot drifted from the database and was corrected: {} -> {}",
+                            before, loaded);
+                }
+                return;
+            }
+        }
+        log.warn("Dashboard snapshot not reconciled: changed during {} attempts", MAX_RECONCILE_ATTEMPTS);
+    }
 
-        aggregated.forEach(projection -> counts.put(projection.getStatus(), projection.getTotal()));
+    private void apply(UnaryOperator<Snapshot> change) {
+        // Before the first load there is nothing to adjust; the load reads the committed change
+        snapshot.updateAndGet(current -> current == null ? null : change.apply(current));
+    }
 
-        return Arrays.stream(EProjectStatus.values())
-                .map(status -> new ProjectStatusCountDto(status, counts.getOrDefault(status, 0L)))
-                .toList();
+    private Snapshot load(long version) {
+        long[] projectCounts = new long[EProjectStatus.values().length];
+        for (ProjectStatusCountProjection projection : projectRepository.countProjectsByStatus()) {
+            if (projection.getStatus() != null) {
+                projectCounts[projection.getStatus().ordinal()] = projection.getTotal();
+            }
+        }
+        long activeEmployees = userRepository.countByActiveTrueAndDeleteFalse();
+        return new Snapshot(projectCounts, activeEmployees, System.currentTimeMillis(), version);
     }
-}
 
+    /**
+     * @param projectCounts never modified once published, indexed by {@link EProjectStatus#ordinal()}
+     * @param asOf          epoch milliseconds of the last change or reconciliation
+     * @param version       incremented by every change, so a reconciliation can detect one
+     */
+    private record Snapshot(long[] projectCounts, long activeEmployees, long asOf, long version) {
+
+        Snapshot next(long[] projectCounts, long activeEmployees) {
+            return new Snapshot(projectCounts, activeEmployees, System.currentTimeMillis(), version + 1);
+        }
 
+        boolean sameCounts(Snapshot other) {
+            return activeEmployees == other.activeEmployees && Arrays.equals(projectCounts, other.projectCounts);
+        }
+
+        @Override
+        public String toString() {
+            return "projects=" + Arrays.toString(projectCounts) + ", activeEmployees=" + activeEmployees;
+        }
+    }
+}
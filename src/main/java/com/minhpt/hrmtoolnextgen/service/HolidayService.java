@@ -1,27 +1,144 @@
 package com.minhpt.hrmtoolnextgen.service;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.minhpt.hrmtoolnextgen.component.HolidaySnapshotStore;
 import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
-import lombok.RequiredArgsConstructor;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidaySnapshot;
+import com.minhpt.hrmtoolnextgen.event.HolidayCalendarChangedEvent;
+import com.minhpt.hrmtoolnextgen.repository.jpa.WorkCalendarRepository;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+/**
+ * Public holidays, served from per-country and per-year {@link HolidayCalendar}s held in process.
+ * Methods without a country use {@code hrm.holiday.country-code}; work calendars name their own.
+ *
+ * <p>Reads never wait for the holiday API. A year not held yet starts from its
+ * {@link HolidaySnapshotStore snapshot}, or, without one, from a
+ * {@link HolidayCalendar#isProvisional() provisional} calendar without holidays while the year is
+ * fetched on the {@code holidayRefreshExecutor}; a failed fetch is retried at most every
+ * {@code hrm.holiday.retry-interval}. A calendar older than {@code hrm.holiday.calendar.ttl} is
+ * still served while it is read again through {@link CalendarificService#getHolidays(int, String)}
+ * (Redis, then the API), and a failed refresh keeps it. Without an API key the snapshots, or no
+ * holidays, are final.
+ *
+ * <p>The current and next year of the default country and of every work calendar's country are
+ * prefetched from the API every {@code hrm.holiday.prefetch.interval}, bypassing Redis. Every fetch
+ * is saved as a snapshot, and a {@link HolidayCalendarChangedEvent} is published when it brings new
+ * holidays. Hit/miss counters are exposed as {@code cache.*} metrics with
+ * {@code cache=holiday_calendars}.
+ *
+ * <p>Code that checks many days should fetch the calendar once with {@link #getCalendar(int, String)} and
+ * call {@link HolidayCalendar#isHoliday(long)} per day.
+ */
 @Service
-@RequiredArgsConstructor
 @Log4j2
 public class HolidayService {
 
+    static final String CACHE_NAME = "holiday_calendars";
+
     private final CalendarificService calendarificService;
+    private final HolidaySnapshotStore snapshotStore;
+    private final WorkCalendarRepository workCalendarRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Executor holidayRefreshExecutor;
+
+    private final Map<CalendarKey, Long> lastFetchAttempts = new ConcurrentHashMap<>();
+
+    @Value("${hrm.holiday.calendar.ttl:PT1H}")
+    private Duration calendarTtl;
+
+    @Value("${hrm.holiday.retry-interval:PT5M}")
+    private Duration retryInterval;
+
+    @Value("${hrm.holiday.country-code:VN}")
+    private String defaultCountryCode;
+
+    private LoadingCache<CalendarKey, HolidayCalendar> calendars;
+
+    public HolidayService(CalendarificService calendarificService,
+                          HolidaySnapshotStore snapshotStore,
+                          WorkCalendarRepository workCalendarRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry,
+                          @Qualifier("holidayRefreshExecutor") Executor holidayRefreshExecutor) {
+        this.calendarificService = calendarificService;
+        this.snapshotStore = snapshotStore;
+        this.workCalendarRepository = workCalendarRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.holidayRefreshExecutor = holidayRefreshExecutor;
+    }
+
+    @PostConstruct
+    void init() {
+        calendars = Caffeine.newBuilder()
+                .maximumSize(64)
+                .refreshAfterWrite(calendarTtl)
+                .executor(holidayRefreshExecutor)
+                .recordStats()
+                .build(new CacheLoader<>() {
+                    @Override
+                    public HolidayCalendar load(CalendarKey key) {
+                        return initialCalendar(key);
+                    }
+
+                    @Override
+                    public HolidayCalendar reload(CalendarKey key, HolidayCalendar current) {
+                        return fetch(key, current, false);
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, calendars, CACHE_NAME);
+    }
+
+    /**
+     * @return the holiday calendar of a year in the default country
+     */
+    public HolidayCalendar getCalendar(int year) {
+        return getCalendar(year, defaultCountryCode);
+    }
+
+    /**
+     * @return the holiday calendar of a year, which is provisional while its holidays are fetched
+     */
+    public HolidayCalendar getCalendar(int year, String countryCode) {
+        CalendarKey key = new CalendarKey(countryCode, year);
+        HolidayCalendar calendar = calendars.get(key);
+        if (calendar.isProvisional()) {
+            requestFetch(key);
+        }
+        return calendar;
+    }
 
     public List<HolidayDto> getHolidaysByYear(int year) {
-        return calendarificService.getHolidays(year);
+        return getCalendar(year).getHolidays();
     }
 
     /**
-     * Get Vietnam holidays for a date range
+     * Get holidays of the default country for a date range
      *
      * @param startDate Start date
      * @param endDate   End date
@@ -31,32 +148,20 @@ public class HolidayService {
     public List<HolidayDto> getHolidaysByRange(LocalDate startDate, LocalDate endDate) {
         log.debug("Getting holidays from {} to {}", startDate, endDate);
         List<HolidayDto> allHolidays = new ArrayList<>();
-        int startYear = startDate.getYear();
-        int endYear = endDate.getYear();
-
-        for (int year = startYear; year <= endYear; year++) {
-            List<HolidayDto> yearHolidays = getHolidaysByYear(year);
-            allHolidays.addAll(yearHolidays.stream()
-                    .filter(holiday -> {
-                        LocalDate holidayDate = holiday.getDate();
-                        return !holidayDate.isBefore(startDate) && !holidayDate.isAfter(endDate);
-                    })
-                    .toList());
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            allHolidays.addAll(getCalendar(year).getHolidays(startDate, endDate));
         }
-
         return allHolidays;
     }
 
     /**
-     * Check if a specific date is a holiday in Vietnam
+     * Check if a specific date is a holiday in the default country
      *
      * @param date The date to check
      * @return true if the date is a holiday
      */
     public boolean isHoliday(LocalDate date) {
-        log.debug("Checking if date {} is a holiday", date);
-        List<HolidayDto> holidays = getHolidaysByYear(date.getYear());
-        return holidays.stream().anyMatch(holiday -> holiday.getDate().equals(date));
+        return getCalendar(date.getYear()).isHoliday(date);
     }
 
     /**
@@ -69,6 +174,92 @@ public class HolidayService {
         return getHolidaysByYear(LocalDate.now().getYear());
     }
 
+    /**
+     * Fetches the current and next year of every country in use from the API, off the scheduler thread.
+     */
+    @Scheduled(initialDelayString = "${hrm.holiday.prefetch.initial-delay:PT30S}",
+            fixedDelayString = "${hrm.holiday.prefetch.interval:PT12H}")
+    public void prefetch() {
+        if (!calendarificService.isConfigured()) {
+            return;
+        }
+        Set<String> countryCodes = new TreeSet<>(workCalendarRepository.findDistinctCountryCodes());
+        countryCodes.add(defaultCountryCode);
+        int currentYear = LocalDate.now().getYear();
+        for (String countryCode : countryCodes) {
+            for (int year = currentYear; year <= currentYear + 1; year++) {
+                CalendarKey key = new CalendarKey(countryCode, year);
+                try {
+                    holidayRefreshExecutor.execute(() -> fetch(key, calendars.get(key), true));
+                } catch (RejectedExecutionException e) {
+                    log.warn("Holiday prefetch of {} {} rejected: {}", countryCode, year, e.getMessage());
+                }
+            }
+        }
+    }
 
-}
+    private HolidayCalendar initialCalendar(CalendarKey key) {
+        return snapshotStore.find(key.countryCode(), key.year())
+                .map(snapshot -> HolidayCalendar.of(key.year(), snapshot.getHolidays()))
+                .orElseGet(() -> calendarificService.isConfigured()
+                        ? HolidayCalendar.provisional(key.year())
+                        : HolidayCalendar.empty(key.year()));
+    }
 
+    private void requestFetch(CalendarKey key) {
+        long now = System.currentTimeMillis();
+        Long previous = lastFetchAttempts.get(key);
+        boolean due = previous == null
+                ? lastFetchAttempts.putIfAbsent(key, now) == null
+                : now - previous >= retryInterval.toMillis() && lastFetchAttempts.replace(key, previous, now);
+        if (due) {
+            try {
+                calendars.refresh(key);
+            } catch (RejectedExecutionException e) {
+                log.warn("Holiday fetch of {} {} rejected: {}", key.countryCode(), key.year(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Fetches a year and installs it; any failure keeps {@code current}. Runs on the
+     * {@code holidayRefreshExecutor}.
+     *
+     * @param fromApi bypass the Redis cache and refresh it
+     */
+    private HolidayCalendar fetch(CalendarKey key, HolidayCalendar current, boolean fromApi) {
+        if (!calendarificService.isConfigured()) {
+            return current;
+        }
+        List<HolidayDto> holidays;
+        try {
+            holidays = fromApi
+                    ? calendarificService.refreshHolidays(key.year(), key.countryCode())
+                    : calendarificService.getHolidays(key.year(), key.countryCode());
+        } catch (RuntimeException e) {
+            log.warn("Failed to fetch holidays of {} {}, keeping the {} calendar: {}", key.countryCode(),
+                    key.year(), current.isProvisional() ? "provisional" : "current", e.getMessage());
+            return current;
+        }
+        if (holidays.isEmpty() && !current.getHolidays().isEmpty()) {
+            log.warn("Holiday API returned no holidays for {} {}, keeping the current calendar",
+                    key.countryCode(), key.year());
+            return current;
+        }
+        HolidayCalendar fetched = HolidayCalendar.of(key.year(), holidays);
+        boolean changed = current.isProvisional() || !fetched.hasSameDays(current);
+        if (changed || fromApi) {
+            snapshotStore.save(new HolidaySnapshot(key.countryCode(), key.year(), Instant.now(), fetched.getHolidays()));
+        }
+        calendars.put(key, fetched);
+        lastFetchAttempts.remove(key);
+        log.debug("Fetched {} holidays of {} {}", fetched.getHolidays().size(), key.countryCode(), key.year());
+        if (changed) {
+            eventPublisher.publishEvent(new HolidayCalendarChangedEvent(key.countryCode(), key.year()));
+        }
+        return fetched;
+    }
+
+    private record CalendarKey(String countryCode, int year) {
+    }
+}
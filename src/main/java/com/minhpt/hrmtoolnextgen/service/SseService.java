@@ -1,54 +1,197 @@
 package com.minhpt.hrmtoolnextgen.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.minhpt.hrmtoolnextgen.dto.sse.SseEventDto;
-import lombok.RequiredArgsConstructor;
+import com.minhpt.hrmtoolnextgen.dto.sse.SseRelayMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Server-Sent Events hub.
+ *
+ * <p>A user may hold any number of connections (browser tabs, devices) up to
+ * {@code hrm.sse.max-connections-per-user}; opening one more closes the oldest. Every connection
+ * has a bounded outbound queue drained on the {@code sseDeliveryExecutor} (virtual threads), so
+ * callers never write to a socket themselves and a stalled client only blocks its own drain.
+ * A connection whose queue reaches {@code hrm.sse.high-water-mark} is evicted.
+ *
+ * <p>Each event is serialized once into a complete SSE frame whose bytes are shared by all
+ * recipients. Events for one user and broadcasts alike go through a single FIFO dispatch queue
+ * drained on the delivery executor rather than the calling thread, so a connection receives events
+ * in the order they were published on this node (or received from the relay).
+ *
+ * <p>Events are delivered to the local connections first and then published on the Redis channel
+ * {@value #RELAY_CHANNEL}; every other node delivers them to the connections it holds, so no
+ * sticky sessions are needed.
+ *
+ * <p>Every event gets an id, and the last {@code hrm.sse.replay.buffer-size} events of each user
+ * (including broadcasts) are kept in a ring buffer for {@code hrm.sse.replay.ttl} after the user's
+ * last connection on this node closes. A reconnect carrying {@code Last-Event-ID} is sent the
+ * events it missed; if that id is no longer buffered it gets a {@code resync} event instead, the
+ * client's cue to reload its state.
+ *
+ * <p>Idle connections get a comment frame every {@code hrm.sse.heartbeat-interval} from a
+ * single one-second timer wheel: connections are spread over its slots, so each tick only visits
+ * one slot and heartbeats are not sent in bursts.
+ *
+ * <p>Metrics: {@code hrm.sse.connections} (open connections on this node),
+ * {@code hrm.sse.events} by {@code result} (delivered, evicted, failed) and
+ * {@code hrm.sse.delivery.latency} from publication to the write on the connection.
+ */
 @Service
-@RequiredArgsConstructor
 @Log4j2
-public class SseService {
+public class SseService implements MessageListener {
 
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
-    private final Map<String, String> userConnections = new ConcurrentHashMap<>();
+    static final String RELAY_CHANNEL = "hrm:sse:events";
+    static final String RESYNC_EVENT = "resync";
+
+    private static final long WHEEL_TICK_MS = 1000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper payloadMapper;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final Executor deliveryExecutor;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Map<String, SseConnection> connections = new ConcurrentHashMap<>();
+    private final Map<String, Set<SseConnection>> userConnections = new ConcurrentHashMap<>();
+    private final Map<String, EventRing> replayBuffers = new ConcurrentHashMap<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+    private final AtomicLong wheelPosition = new AtomicLong();
+    private final AtomicLong connectionSequence = new AtomicLong();
+    private final Queue<Dispatch> dispatchQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+    private List<Set<SseConnection>> heartbeatWheel;
+    private SseFrame heartbeatFrame;
+
+    private final Counter delivered;
+    private final Counter evicted;
+    private final Counter failed;
+    private final Timer deliveryLatency;
 
     @Value("${hrm.sse.timeout-ms:1800000}")
     private long defaultTimeout;
 
+    @Value("${hrm.sse.high-water-mark:256}")
+    private int highWaterMark;
+
+    @Value("${hrm.sse.max-connections-per-user:10}")
+    private int maxConnectionsPerUser;
+
+    @Value("${hrm.sse.heartbeat-interval:PT15S}")
+    private Duration heartbeatInterval;
+
+    @Value("${hrm.sse.replay.buffer-size:100}")
+    private int replayBufferSize;
+
+    @Value("${hrm.sse.replay.ttl:PT5M}")
+    private Duration replayTtl;
+
+    /**
+     * @param payloadMapper the application {@code objectMapper}, so event data is rendered as the
+     *                      HTTP message converters would render it and relay messages use the same
+     *                      Jackson configuration on every node
+     */
+    public SseService(StringRedisTemplate stringRedisTemplate,
+                      ObjectMapper payloadMapper,
+                      RedisMessageListenerContainer redisMessageListenerContainer,
+                      @Qualifier("sseDeliveryExecutor") Executor deliveryExecutor,
+                      MeterRegistry meterRegistry) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.payloadMapper = payloadMapper;
+        this.redisMessageListenerContainer = redisMessageListenerContainer;
+        this.deliveryExecutor = deliveryExecutor;
+        Gauge.builder("hrm.sse.connections", connections, Map::size)
+                .description("Open SSE connections on this node")
+                .register(meterRegistry);
+        this.delivered = meterRegistry.counter("hrm.sse.events", "result", "delivered");
+        this.evicted = meterRegistry.counter("hrm.sse.events", "result", "evicted");
+        this.failed = meterRegistry.counter("hrm.sse.events", "result", "failed");
+        this.deliveryLatency = Timer.builder("hrm.sse.delivery.latency")
+                .description("Time from publishing an SSE event to writing it to a connection")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        int slots = (int) Math.max(1, heartbeatInterval.toMillis() / WHEEL_TICK_MS);
+        heartbeatWheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            heartbeatWheel.add(ConcurrentHashMap.newKeySet());
+        }
+        heartbeatFrame = frame(null, ":heartbeat\n\n");
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(RELAY_CHANNEL));
+        log.info("SSE hub initialized - node: {}, highWaterMark: {}, maxConnectionsPerUser: {}",
+                nodeId, highWaterMark, maxConnectionsPerUser);
+    }
+
     public SseEmitter createConnection(String userId) {
-        SseEmitter emitter = new SseEmitter(defaultTimeout);
+        return createConnection(userId, null);
+    }
+
+    /**
+     * Opens a connection for {@code userId} and replays the events buffered after
+     * {@code lastEventId}, if given.
+     *
+     * @param lastEventId value of the {@code Last-Event-ID} header sent on reconnect, or {@code null}
+     */
+    public SseEmitter createConnection(String userId, String lastEventId) {
+        SseEmitter emitter = newEmitter();
         String connectionId = UUID.randomUUID().toString();
+        int slot = (int) (connectionSequence.getAndIncrement() % heartbeatWheel.size());
+        SseConnection connection = new SseConnection(connectionId, userId, emitter, highWaterMark, slot);
 
         emitter.onCompletion(() -> {
             log.info("SSE connection completed for user: {}", userId);
-            emitters.remove(connectionId);
-            userConnections.remove(userId);
+            removeConnection(connection);
         });
 
         emitter.onTimeout(() -> {
             log.info("SSE connection timeout for user: {}", userId);
-            emitters.remove(connectionId);
-            userConnections.remove(userId);
+            removeConnection(connection);
         });
 
         emitter.onError((ex) -> {
             log.error("SSE connection error for user: {}", userId, ex);
-            emitters.remove(connectionId);
-            userConnections.remove(userId);
+            removeConnection(connection);
         });
 
-        emitters.put(connectionId, emitter);
-        userConnections.put(userId, connectionId);
-        log.info("SSE connection created for user: {} with connectionId: {}", userId, connectionId);
-
         // Send initial connection event
         try {
             emitter.send(SseEmitter.event()
@@ -58,6 +201,25 @@ public class SseService {
             log.error("Error sending initial connection event", e);
         }
 
+        EventRing ring = replayBuffers.compute(userId, (id, existing) -> {
+            EventRing result = existing != null ? existing : new EventRing(replayBufferSize);
+            result.touch();
+            return result;
+        });
+        Set<SseConnection> userSet;
+        // Registration and replay happen under the ring lock, so no event falls in between
+        synchronized (ring) {
+            connections.put(connectionId, connection);
+            heartbeatWheel.get(slot).add(connection);
+            userSet = userConnections.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet());
+            userSet.add(connection);
+            if (lastEventId != null) {
+                replay(connection, ring, lastEventId);
+            }
+        }
+        closeOldestOverLimit(userSet);
+        log.info("SSE connection created for user: {} with connectionId: {}", userId, connectionId);
+
         return emitter;
     }
 
@@ -67,43 +229,18 @@ public class SseService {
     }
 
     /**
-     * Send an event to a specific user with event DTO
+     * Send an event to every connection of a specific user, on whichever node it is held
      *
      * @param userId User ID
      * @param event  SSE Event DTO
      */
     public void sendEventToUser(String userId, SseEventDto event) {
-        String connectionId = userConnections.get(userId);
-        if (connectionId == null) {
-            log.warn("No active connection found for user: {}", userId);
-            return;
-        }
-
-        SseEmitter emitter = emitters.get(connectionId);
-        if (emitter == null) {
-            log.warn("Emitter not found for connectionId: {}", connectionId);
-            userConnections.remove(userId);
-            return;
-        }
-
-        try {
-            SseEmitter.SseEventBuilder eventBuilder = SseEmitter.event()
-                    .name(event.getEvent())
-                    .data(event.getData());
-
-            if (event.getId() != null) {
-                eventBuilder.id(event.getId());
-            }
-            if (event.getComment() != null) {
-                eventBuilder.comment(event.getComment());
-            }
-
-            emitter.send(eventBuilder);
-        } catch (IOException e) {
-            log.error("Error sending SSE event to user: {}", userId, e);
-            emitters.remove(connectionId);
-            userConnections.remove(userId);
+        long publishedAt = System.currentTimeMillis();
+        assignId(event);
+        if (replayBuffers.containsKey(userId)) {
+            dispatch(userId, prepare(event), publishedAt);
         }
+        relay(new SseRelayMessage(nodeId, userId, event, publishedAt));
     }
 
     /**
@@ -118,65 +255,433 @@ public class SseService {
     }
 
     /**
-     * Broadcast an event to all connected users
+     * Broadcast an event to all connected users on every node. Returns once the event is
+     * serialized; the fan-out to local connections runs on the delivery executor, in order with
+     * events sent to single users.
      *
      * @param event SSE Event DTO
      */
     public void broadcastEvent(SseEventDto event) {
-        emitters.entrySet().removeIf(entry -> {
-            try {
-                SseEmitter emitter = entry.getValue();
-                emitter.send(SseEmitter.event()
-                        .id(event.getId())
-                        .name(event.getEvent())
-                        .data(event.getData())
-                        .comment(event.getComment()));
-                return false;
-            } catch (IOException e) {
-                log.error("Error broadcasting SSE event", e);
-                return true; // Remove failed emitter
-            }
-        });
+        long publishedAt = System.currentTimeMillis();
+        assignId(event);
+        if (!replayBuffers.isEmpty()) {
+            dispatch(null, prepare(event), publishedAt);
+        }
+        relay(new SseRelayMessage(nodeId, null, event, publishedAt));
     }
 
     /**
-     * Close connection for a specific user
+     * Close all connections of a specific user held by this node
      *
      * @param userId User ID
      */
     public void closeConnection(String userId) {
-        String connectionId = userConnections.remove(userId);
-        if (connectionId != null) {
-            SseEmitter emitter = emitters.remove(connectionId);
-            if (emitter != null) {
-                emitter.complete();
-                log.info("SSE connection closed for user: {}", userId);
+        Set<SseConnection> userSet = userConnections.remove(userId);
+        if (userSet != null) {
+            for (SseConnection connection : userSet) {
+                removeConnection(connection);
+                connection.emitter.complete();
             }
+            log.info("SSE connections closed for user: {} ({})", userId, userSet.size());
         }
     }
 
     /**
-     * Get the number of active connections
+     * Get the number of active connections on this node
      *
      * @return Number of active connections
      */
     public int getActiveConnectionCount() {
-        return emitters.size();
+        return connections.size();
     }
 
     /**
-     * Check if a user has an active connection
+     * Check if a user has an active connection on this node
      *
      * @param userId User ID
      * @return true if user has active connection
      */
     public boolean hasActiveConnection(String userId) {
-        String connectionId = userConnections.get(userId);
-        if (connectionId == null) {
-            return false;
+        Set<SseConnection> userSet = userConnections.get(userId);
+        return userSet != null && !userSet.isEmpty();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        SseRelayMessage relayed;
+        try {
+            relayed = payloadMapper.readValue(message.getBody(), SseRelayMessage.class);
+        } catch (IOException e) {
+            log.warn("Ignoring malformed SSE relay message: {}", e.getMessage());
+            return;
+        }
+        if (nodeId.equals(relayed.originNodeId()) || relayed.event() == null) {
+            return;
+        }
+        if (relayed.userId() == null ? !replayBuffers.isEmpty() : replayBuffers.containsKey(relayed.userId())) {
+            dispatch(relayed.userId(), prepare(relayed.event()), relayed.publishedAt());
+        }
+    }
+
+    /**
+     * Creates the emitter for a new connection; overridden by tests and load benchmarks.
+     */
+    protected SseEmitter newEmitter() {
+        return new SseEmitter(defaultTimeout);
+    }
+
+    // ------------------------------------------------------------------
+    // Local delivery
+    // ------------------------------------------------------------------
+
+    /**
+     * Buffers {@code frame} for replay and queues it on the user's open connections. Users
+     * without a replay buffer have neither a connection nor a recent one on this node.
+     */
+    private void deliverToUser(String userId, SseFrame frame, long publishedAt) {
+        EventRing ring = replayBuffers.get(userId);
+        if (ring != null) {
+            deliverToUser(userId, ring, frame, publishedAt);
+        }
+    }
+
+    private void deliverToUser(String userId, EventRing ring, SseFrame frame, long publishedAt) {
+        synchronized (ring) {
+            ring.append(frame, publishedAt);
+            Set<SseConnection> userSet = userConnections.get(userId);
+            if (userSet != null) {
+                for (SseConnection connection : userSet) {
+                    enqueue(connection, frame, publishedAt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues {@code frame} for one user, or for every user when {@code userId} is {@code null}.
+     * A single drain at a time fans the queue out in order.
+     */
+    private void dispatch(String userId, SseFrame frame, long publishedAt) {
+        dispatchQueue.add(new Dispatch(userId, frame, publishedAt));
+        scheduleDispatch();
+    }
+
+    private void scheduleDispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deliveryExecutor.execute(this::drainDispatchQueue);
+        } catch (TaskRejectedException e) {
+            dispatching.set(false);
+            log.error("SSE dispatch rejected; {} events wait for the next one: {}", dispatchQueue.size(),
+                    e.getMessage());
+        }
+    }
+
+    private void drainDispatchQueue() {
+        try {
+            for (Dispatch next; (next = dispatchQueue.poll()) != null; ) {
+                Dispatch dispatch = next;
+                if (dispatch.userId() == null) {
+                    replayBuffers.forEach((userId, ring) ->
+                            deliverToUser(userId, ring, dispatch.frame(), dispatch.publishedAt()));
+                } else {
+                    deliverToUser(dispatch.userId(), dispatch.frame(), dispatch.publishedAt());
+                }
+            }
+        } finally {
+            dispatching.set(false);
+        }
+        // An event may have been queued after the last poll but before the flag was cleared
+        if (!dispatchQueue.isEmpty()) {
+            scheduleDispatch();
+        }
+    }
+
+    private void enqueue(SseConnection connection, SseFrame frame, long publishedAt) {
+        if (!connection.queue.offer(new PendingEvent(frame, publishedAt))) {
+            evict(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void replay(SseConnection connection, EventRing ring, String lastEventId) {
+        List<PendingEvent> missed = ring.after(lastEventId);
+        if (missed == null) {
+            log.info("Last-Event-ID {} of user: {} is no longer buffered; requesting resync", lastEventId, connection.userId);
+            enqueue(connection, prepare(SseEventDto.create(RESYNC_EVENT, Map.of("lastEventId", lastEventId))),
+                    System.currentTimeMillis());
+            return;
+        }
+        log.debug("Replaying {} SSE events after {} to user: {}", missed.size(), lastEventId, connection.userId);
+        for (PendingEvent pending : missed) {
+            enqueue(connection, pending.frame(), pending.publishedAt());
         }
-        SseEmitter emitter = emitters.get(connectionId);
-        return emitter != null;
     }
-}
 
+    // ------------------------------------------------------------------
+    // Heartbeats and replay buffer expiry
+    // ------------------------------------------------------------------
+
+    /**
+     * Advances the heartbeat wheel by one slot. Connections in that slot that have not been
+     * written to for a whole heartbeat interval get a comment frame; once per rotation, replay
+     * buffers of users gone for longer than {@code hrm.sse.replay.ttl} are dropped.
+     */
+    @Scheduled(fixedRate = WHEEL_TICK_MS)
+    public void heartbeat() {
+        long tick = wheelPosition.getAndIncrement();
+        int slot = (int) (tick % heartbeatWheel.size());
+        long now = System.currentTimeMillis();
+        long idleBefore = now - heartbeatInterval.toMillis() + WHEEL_TICK_MS;
+        for (SseConnection connection : heartbeatWheel.get(slot)) {
+            if (connection.lastWriteAt < idleBefore) {
+                enqueue(connection, heartbeatFrame, now);
+            }
+        }
+        if (slot == 0) {
+            expireReplayBuffers(now);
+        }
+    }
+
+    private void expireReplayBuffers(long now) {
+        long expiredBefore = now - replayTtl.toMillis();
+        for (String userId : replayBuffers.keySet()) {
+            replayBuffers.computeIfPresent(userId, (id, ring) ->
+                    ring.lastActiveAt < expiredBefore && !userConnections.containsKey(id) ? null : ring);
+        }
+    }
+
+    /**
+     * Drops a connection that stopped reading. Completing the emitter may block behind a stalled
+     * write, so it happens on the delivery executor rather than the publishing thread.
+     */
+    private void evict(SseConnection connection) {
+        if (!connection.evicted.compareAndSet(false, true)) {
+            return;
+        }
+        evicted.increment();
+        log.warn("SSE connectionId: {} (user: {}) exceeded {} queued events; evicting slow consumer",
+                connection.id, connection.userId, highWaterMark);
+        removeConnection(connection);
+        connection.queue.clear();
+        try {
+            deliveryExecutor.execute(connection.emitter::complete);
+        } catch (TaskRejectedException e) {
+            log.warn("Could not complete evicted SSE connectionId: {}: {}", connection.id, e.getMessage());
+        }
+    }
+
+    private void scheduleDrain(SseConnection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            deliveryExecutor.execute(() -> drain(connection));
+        } catch (TaskRejectedException e) {
+            connection.draining.set(false);
+            log.warn("SSE delivery rejected for connectionId: {}; will retry with the next event: {}",
+                    connection.id, e.getMessage());
+        }
+    }
+
+    private void drain(SseConnection connection) {
+        try {
+            for (PendingEvent pending; (pending = connection.queue.poll()) != null; ) {
+                try {
+                    connection.emitter.send(pending.frame().items());
+                    connection.lastWriteAt = System.currentTimeMillis();
+                    if (pending.frame() == heartbeatFrame) {
+                        continue;
+                    }
+                    delivered.increment();
+                    deliveryLatency.record(System.currentTimeMillis() - pending.publishedAt(), TimeUnit.MILLISECONDS);
+                } catch (IOException | IllegalStateException e) {
+                    failed.increment();
+                    log.warn("Error sending SSE event to connectionId: {} (user: {}); closing it: {}",
+                            connection.id, connection.userId, e.getMessage());
+                    removeConnection(connection);
+                    connection.queue.clear();
+                    return;
+                }
+            }
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before the flag was cleared
+        if (!connection.queue.isEmpty() && !connection.evicted.get()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    /**
+     * Renders {@code event} as one complete SSE frame. Text data is written as is and anything
+     * else as JSON, matching what {@link SseEmitter.SseEventBuilder#data(Object)} would produce.
+     */
+    SseFrame prepare(SseEventDto event) {
+        StringBuilder frame = new StringBuilder(128);
+        if (event.getId() != null) {
+            frame.append("id:").append(event.getId()).append('\n');
+        }
+        if (event.getEvent() != null) {
+            frame.append("event:").append(event.getEvent()).append('\n');
+        }
+        if (event.getComment() != null) {
+            frame.append(':').append(event.getComment()).append('\n');
+        }
+        if (event.getData() != null) {
+            String data;
+            if (event.getData() instanceof CharSequence text) {
+                data = text.toString();
+            } else {
+                try {
+                    data = payloadMapper.writeValueAsString(event.getData());
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("SSE event data is not serializable: " + e.getMessage(), e);
+                }
+            }
+            frame.append("data:").append(data.replace("\n", "\ndata:")).append('\n');
+        }
+        frame.append('\n');
+        return frame(event.getId(), frame.toString());
+    }
+
+    private static SseFrame frame(String id, String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return new SseFrame(id, Set.of(new DataWithMediaType(bytes, MediaType.TEXT_EVENT_STREAM)));
+    }
+
+    /**
+     * Gives {@code event} a node-unique, increasing id unless the caller set one.
+     */
+    private void assignId(SseEventDto event) {
+        if (event.getId() == null) {
+            event.setId(nodeId.substring(0, 8) + "-" + eventSequence.incrementAndGet());
+        }
+    }
+
+    private void relay(SseRelayMessage message) {
+        try {
+            stringRedisTemplate.convertAndSend(RELAY_CHANNEL, payloadMapper.writeValueAsString(message));
+        } catch (Exception e) {
+            log.error("Failed to relay SSE event '{}' to other nodes; delivered locally only: {}",
+                    message.event().getEvent(), e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Connection bookkeeping
+    // ------------------------------------------------------------------
+
+    private void removeConnection(SseConnection connection) {
+        connections.remove(connection.id);
+        heartbeatWheel.get(connection.slot).remove(connection);
+        userConnections.computeIfPresent(connection.userId, (userId, userSet) -> {
+            userSet.remove(connection);
+            return userSet.isEmpty() ? null : userSet;
+        });
+        EventRing ring = replayBuffers.get(connection.userId);
+        if (ring != null) {
+            ring.touch();
+        }
+    }
+
+    private void closeOldestOverLimit(Set<SseConnection> userSet) {
+        if (userSet.size() <= maxConnectionsPerUser) {
+            return;
+        }
+        List<SseConnection> byAge = new ArrayList<>(userSet);
+        byAge.sort(Comparator.comparingLong(connection -> connection.createdAt));
+        for (int i = 0; i < byAge.size() - maxConnectionsPerUser; i++) {
+            SseConnection oldest = byAge.get(i);
+            log.info("Closing oldest SSE connection {} of user: {} (limit {})",
+                    oldest.id, oldest.userId, maxConnectionsPerUser);
+            removeConnection(oldest);
+            oldest.emitter.complete();
+        }
+    }
+
+    /**
+     * An event serialized once; {@link #items()} is shared by every connection it is sent to.
+     */
+    record SseFrame(String id, Set<DataWithMediaType> items) {
+    }
+
+    /**
+     * An event waiting in the dispatch queue; {@code userId} is {@code null} for a broadcast.
+     */
+    private record Dispatch(String userId, SseFrame frame, long publishedAt) {
+    }
+
+    private record PendingEvent(SseFrame frame, long publishedAt) {
+    }
+
+    /**
+     * One open emitter with its outbound queue, bounded by the high-water mark.
+     */
+    private static final class SseConnection {
+        private final String id;
+        private final String userId;
+        private final SseEmitter emitter;
+        private final long createdAt = System.nanoTime();
+        private final Queue<PendingEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean evicted = new AtomicBoolean();
+        private final int slot;
+        private volatile long lastWriteAt = System.currentTimeMillis();
+
+        private SseConnection(String id, String userId, SseEmitter emitter, int highWaterMark, int slot) {
+            this.id = id;
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(highWaterMark);
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * The most recent frames sent to one user, oldest first. Guarded by its own monitor.
+     */
+    private static final class EventRing {
+        private final PendingEvent[] events;
+        private int next;
+        private int size;
+        private volatile long lastActiveAt = System.currentTimeMillis();
+
+        private EventRing(int capacity) {
+            this.events = new PendingEvent[Math.max(1, capacity)];
+        }
+
+        void touch() {
+            lastActiveAt = System.currentTimeMillis();
+        }
+
+        synchronized void append(SseFrame frame, long publishedAt) {
+            if (frame.id() == null) {
+                return;
+            }
+            events[next] = new PendingEvent(frame, publishedAt);
+            next = (next + 1) % events.length;
+            size = Math.min(size + 1, events.length);
+        }
+
+        /**
+         * @return the events after {@code lastEventId}, or {@code null} if it is not buffered
+         */
+        synchronized List<PendingEvent> after(String lastEventId) {
+            for (int age = 0; age < size; age++) {
+                int index = Math.floorMod(next - 1 - age, events.length);
+                if (lastEventId.equals(events[index].frame().id())) {
+                    List<PendingEvent> missed = new ArrayList<>(age);
+                    for (int i = age - 1; i >= 0; i--) {
+                        missed.add(events[Math.floorMod(next - 1 - i, events.length)]);
+                    }
+                    return missed;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.ManagerPendingApprovalDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.ProjectUtilizationDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.UserUtilizationDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.UtilizationDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.WeeklyDayOffLoadDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
+import com.minhpt.hrmtoolnextgen.util.LongLongMap;
+import com.minhpt.hrmtoolnextgen.util.WorkCapacityTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monthly utilization figures for the admin dashboard.
+ *
+ * <p>A month is computed from a fixed number of set-based reads, whatever the number of users,
+ * projects or timesheets: one grouped aggregation over the timesheets, one scan of the approved
+ * day-offs, and one read each of users, their work calendars, memberships and projects. Day-off
+ * minutes are derived from the day-offs and the users' calendars rather than read from the daily
+ * ledger, whose rows only exist for days touched since it was introduced. Rows are folded into
+ * {@link LongLongMap}s keyed by id (or by the epoch day of the week's Monday). Each user's capacity
+ * is the month's capacity under their work calendar, summed once per calendar from its compiled
+ * {@link WorkCapacityTable}. A project's capacity is its members' capacity, with a member of
+ * several listed projects split evenly between them so that no one is counted twice.
+ *
+ * <p>Results are cached per month for {@code hrm.dashboard.utilization.cache-ttl}, which bounds
+ * how stale a figure can be; concurrent requests for an uncached month share one computation.
+ * Hit/miss counters are exposed as {@code cache.*} metrics with {@code cache=dashboard_utilization}.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class UtilizationService {
+
+    static final String CACHE_NAME = "dashboard_utilization";
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final TimesheetRepository timesheetRepository;
+    private final WorkCalendarService workCalendarService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${hrm.dashboard.utilization.cache-ttl:PT5M}")
+    private Duration cacheTtl;
+
+    @Value("${hrm.dashboard.utilization.cache-size:24}")
+    private long cacheSize;
+
+    private Cache<YearMonth, UtilizationDto> utilizationByMonth;
+
+    @PostConstruct
+    void init() {
+        utilizationByMonth = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, utilizationByMonth, CACHE_NAME);
+    }
+
+    public UtilizationDto getUtilization(YearMonth month) {
+        return utilizationByMonth.get(month, this::calculate);
+    }
+
+    /**
+     * Computes the figures of a month from the database, bypassing and not filling the cache.
+     */
+    public UtilizationDto calculate(YearMonth month) {
+        long startedAt = System.nanoTime();
+        LocalDate fromDate = month.atDay(1);
+        LocalDate toDate = month.atEndOfMonth();
+        WorkCapacityTable defaultTable = workCalendarService.getDefaultTable(month.getYear());
+        int workingDays = defaultTable.countWorkingDays(fromDate.toEpochDay(), toDate.toEpochDay());
+        long fullCapacityMinutes = defaultTable.sumCapacity(fromDate.toEpochDay(), toDate.toEpochDay());
+        LongLongMap calendarIds = workCalendarService.resolveAllCalendarIds();
+        LongLongMap calendarCapacity = new LongLongMap();
+        calendarCapacity.put(defaultTable.getCalendarId(), fullCapacityMinutes);
+
+        LongLongMap projectLogged = new LongLongMap();
+        LongLongMap projectOvertime = new LongLongMap();
+        LongLongMap userLogged = new LongLongMap(1024);
+        LongLongMap userOvertime = new LongLongMap(1024);
+        LongLongMap managerPendingEntries = new LongLongMap();
+        LongLongMap managerPendingMinutes = new LongLongMap();
+        timesheetRepository.aggregateTimesheetMinutes(fromDate, toDate,
+                (projectId, managerId, userId, status, type, minutes, entries) -> {
+                    if (status == ETimesheetStatus.REJECTED) {
+                        return;
+                    }
+                    projectLogged.add(projectId, minutes);
+                    userLogged.add(userId, minutes);
+                    if (type == ETimesheetType.OVERTIME) {
+                        projectOvertime.add(projectId, minutes);
+                        userOvertime.add(userId, minutes);
+                    }
+                    if (status == ETimesheetStatus.PENDING && managerId != 0) {
+                        managerPendingEntries.add(managerId, entries);
+                        managerPendingMinutes.add(managerId, minutes);
+                    }
+                });
+
+        DayOffTotals dayOffs = new DayOffTotals(fromDate, month.lengthOfMonth());
+        // Rows arrive ordered by user, so each user's day-offs are spread and folded in one go
+        timesheetRepository.scanApprovedDayOffs(fromDate, toDate, (userId, startTime, endTime) -> {
+            if (userId != dayOffs.userId) {
+                long calendarId = calendarIds.containsKey(userId) ? calendarIds.get(userId) : defaultTable.getCalendarId();
+                dayOffs.startUser(userId, workCalendarService.getCalendarTable(calendarId, month.getYear()));
+            }
+            dayOffs.add(WorkHoursCalculatorService.toEpochMinute(startTime),
+                    WorkHoursCalculatorService.toEpochMinute(endTime));
+        });
+        dayOffs.finishUser();
+        LongLongMap userDayOff = dayOffs.userDayOff;
+        LongLongMap weekDayOff = dayOffs.weekDayOff;
+        LongLongMap weekEmployees = dayOffs.weekEmployees;
+
+        LongLongMap userCapacity = new LongLongMap(1024);
+        Map<Long, String> managerNames = new HashMap<>();
+        List<UserUtilizationDto> users = new ArrayList<>();
+        timesheetRepository.scanUtilizationUsers(fromDate, toDate, (userId, email, fullName, active) -> {
+            long calendarId = calendarIds.containsKey(userId) ? calendarIds.get(userId) : defaultTable.getCalendarId();
+            if (active && !calendarCapacity.containsKey(calendarId)) {
+                calendarCapacity.put(calendarId, workCalendarService.getCalendarTable(calendarId, month.getYear())
+                        .sumCapacity(fromDate.toEpochDay(), toDate.toEpochDay()));
+            }
+            long capacity = active ? Math.max(0, calendarCapacity.get(calendarId) - userDayOff.get(userId)) : 0;
+            if (active) {
+                userCapacity.put(userId, capacity);
+            }
+            if (managerPendingEntries.containsKey(userId)) {
+                managerNames.put(userId, fullName);
+            }
+            users.add(new UserUtilizationDto(userId, email, fullName, toHours(userLogged.get(userId)),
+                    toHours(userOvertime.get(userId)), toHours(userDayOff.get(userId)), toHours(capacity),
+                    ratio(userLogged.get(userId), capacity)));
+        });
+
+        List<ProjectUtilizationDto> projects = new ArrayList<>();
+        LongLongMap listedProjects = new LongLongMap();
+        timesheetRepository.scanProjects((projectId, name, status) -> {
+            if (status != EProjectStatus.RUNNING && !projectLogged.containsKey(projectId)) {
+                return;
+            }
+            listedProjects.put(projectId, 1);
+            projects.add(new ProjectUtilizationDto(projectId, name, status, toHours(projectLogged.get(projectId)),
+                    toHours(projectOvertime.get(projectId)), null, null));
+        });
+
+        // Memberships are buffered so each member's capacity can be split across their listed projects
+        List<long[]> memberships = new ArrayList<>();
+        LongLongMap userProjects = new LongLongMap(1024);
+        timesheetRepository.scanProjectMembers((projectId, userId) -> {
+            if (listedProjects.containsKey(projectId) && userCapacity.containsKey(userId)) {
+                memberships.add(new long[] {projectId, userId});
+                userProjects.add(userId, 1);
+            }
+        });
+        LongLongMap projectCapacity = new LongLongMap();
+        for (long[] membership : memberships) {
+            projectCapacity.add(membership[0], userCapacity.get(membership[1]) / userProjects.get(membership[1]));
+        }
+        for (ProjectUtilizationDto project : projects) {
+            long capacity = projectCapacity.get(project.getProjectId());
+            project.setCapacityHours(toHours(capacity));
+            project.setUtilization(ratio(projectLogged.get(project.getProjectId()), capacity));
+        }
+
+        List<ManagerPendingApprovalDto> pendingApprovals = new ArrayList<>();
+        managerPendingEntries.forEach((managerId, entries) -> pendingApprovals.add(new ManagerPendingApprovalDto(
+                managerId, managerNames.get(managerId), entries, toHours(managerPendingMinutes.get(managerId)))));
+        pendingApprovals.sort(Comparator.comparing(ManagerPendingApprovalDto::getPendingTimesheets).reversed()
+                .thenComparing(ManagerPendingApprovalDto::getManagerId));
+
+        List<WeeklyDayOffLoadDto> dayOffLoad = new ArrayList<>();
+        for (long weekStart = weekStart(fromDate.toEpochDay()); weekStart <= toDate.toEpochDay(); weekStart += 7) {
+            dayOffLoad.add(new WeeklyDayOffLoadDto(LocalDate.ofEpochDay(weekStart).toString(),
+                    toHours(weekDayOff.get(weekStart)), weekEmployees.get(weekStart)));
+        }
+
+        log.info("Utilization of {} computed in {} ms - projects: {}, users: {}", month,
+                (System.nanoTime() - startedAt) / 1_000_000, projects.size(), users.size());
+        return new UtilizationDto(month.toString(), workingDays, toHours(fullCapacityMinutes), projects, users,
+                pendingApprovals, dayOffLoad, System.currentTimeMillis());
+    }
+
+    /**
+     * Day-off minutes of a month, folded per user, per week and per employees off in a week. A
+     * user's approved day-offs are spread over the month's days under their work calendar, with
+     * overlapping day-offs capped at the day's capacity as in the daily ledger.
+     */
+    private static final class DayOffTotals {
+
+        final LongLongMap userDayOff = new LongLongMap(1024);
+        final LongLongMap weekDayOff = new LongLongMap();
+        final LongLongMap weekEmployees = new LongLongMap();
+
+        private final long firstDay;
+        private final int[] minutesByDay;
+        private long userId = Long.MIN_VALUE;
+        private WorkCapacityTable table;
+
+        DayOffTotals(LocalDate fromDate, int days) {
+            this.firstDay = fromDate.toEpochDay();
+            this.minutesByDay = new int[days];
+        }
+
+        void startUser(long userId, WorkCapacityTable table) {
+            finishUser();
+            this.userId = userId;
+            this.table = table;
+        }
+
+        void add(long startMinute, long endMinute) {
+            int first = (int) Math.max(0, Math.floorDiv(startMinute, MINUTES_PER_DAY) - firstDay);
+            int last = (int) Math.min(minutesByDay.length - 1, Math.floorDiv(endMinute, MINUTES_PER_DAY) - firstDay);
+            for (int index = first; index <= last; index++) {
+                long epochDay = firstDay + index;
+                minutesByDay[index] = Math.min(table.getCapacity(epochDay),
+                        minutesByDay[index] + table.dayOffMinutes(startMinute, endMinute, epochDay));
+            }
+        }
+
+        void finishUser() {
+            long countedWeek = Long.MIN_VALUE;
+            for (int index = 0; index < minutesByDay.length; index++) {
+                int minutes = minutesByDay[index];
+                if (minutes == 0) {
+                    continue;
+                }
+                long weekStart = weekStart(firstDay + index);
+                userDayOff.add(userId, minutes);
+                weekDayOff.add(weekStart, minutes);
+                if (weekStart != countedWeek) {
+                    weekEmployees.add(weekStart, 1);
+                    countedWeek = weekStart;
+                }
+            }
+            Arrays.fill(minutesByDay, 0);
+        }
+    }
+
+    /**
+     * Epoch day of the Monday of the week containing {@code epochDay}; day 0 was a Thursday.
+     */
+    private static long weekStart(long epochDay) {
+        return epochDay - Math.floorMod(epochDay + 3, 7);
+    }
+
+    private static double toHours(long minutes) {
+        return Math.round(minutes * 100 / 60.0) / 100.0;
+    }
+
+    private static Double ratio(long logged, long capacity) {
+        return capacity == 0 ? null : Math.round(logged * 1000.0 / capacity) / 1000.0;
+    }
+}
@@ -0,0 +1,432 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.dto.calendar.WorkCalendarDto;
+import com.minhpt.hrmtoolnextgen.dto.request.WorkCalendarRequest;
+import com.minhpt.hrmtoolnextgen.entity.jpa.calendar.WorkCalendarEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.event.HolidayCalendarChangedEvent;
+import com.minhpt.hrmtoolnextgen.event.WorkCalendarAssignedEvent;
+import com.minhpt.hrmtoolnextgen.event.WorkCalendarChangedEvent;
+import com.minhpt.hrmtoolnextgen.event.WorkCapacityChangedEvent;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.exception.InternalServerException;
+import com.minhpt.hrmtoolnextgen.exception.NotFoundException;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.WorkCalendarRepository;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+import com.minhpt.hrmtoolnextgen.util.LongLongMap;
+import com.minhpt.hrmtoolnextgen.util.WorkCapacityTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Work calendars and the capacity tables compiled from them.
+ *
+ * <p>A user follows their own calendar, else the lowest-id calendar among their projects, else the
+ * default calendar. Each calendar is compiled per year into a {@link WorkCapacityTable} holding the
+ * minutes of every day, with the public holidays of the calendar's country taken out, so capacity
+ * checks in timesheet validation and the dashboards are array reads.
+ *
+ * <p>Tables and the calendar each user follows are cached in process for
+ * {@code hrm.work-calendar.cache-ttl}. Edits and assignments made through this service drop the
+ * affected entries once their transaction commits; other nodes pick them up within the TTL.
+ * A table compiled while the holidays of its year are unknown is cached for
+ * {@code hrm.work-calendar.provisional-ttl} only, and the tables of a year are dropped when its
+ * holidays change. Compiling takes a read lock and invalidating the write lock, so a table compiled
+ * from data read before a change can never be cached after that change dropped the old ones.
+ * Each invalidation then publishes a {@link WorkCapacityChangedEvent} naming the users whose
+ * capacity may have changed, so the daily hours ledger can recompute their day-offs; for holiday
+ * changes that runs on the {@code workCapacityExecutor}, off the holiday refresh thread.
+ * Hit/miss counters are exposed as {@code cache.*} metrics with {@code cache=work_capacity_tables}
+ * and {@code cache=user_work_calendars}.
+ */
+@Service
+@Log4j2
+public class WorkCalendarService {
+
+    static final String TABLE_CACHE_NAME = "work_capacity_tables";
+    static final String USER_CACHE_NAME = "user_work_calendars";
+
+    private final WorkCalendarRepository workCalendarRepository;
+    private final UserRepository userRepository;
+    private final ProjectRepository projectRepository;
+    private final HolidayService holidayService;
+    private final MessageService messageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Executor workCapacityExecutor;
+    private final ReadWriteLock compileLock = new ReentrantReadWriteLock();
+
+    @Value("${hrm.work-calendar.cache-ttl:PT1H}")
+    private Duration cacheTtl;
+
+    @Value("${hrm.work-calendar.user-cache-size:10000}")
+    private long userCacheSize;
+
+    @Value("${hrm.work-calendar.provisional-ttl:PT1M}")
+    private Duration provisionalTtl;
+
+    private Cache<TableKey, WorkCapacityTable> tables;
+    // Tables compiled without holidays; short-lived so an outage neither recompiles per call nor lasts
+    private Cache<TableKey, WorkCapacityTable> provisionalTables;
+    private Cache<Long, Long> calendarIdByUser;
+
+    public WorkCalendarService(WorkCalendarRepository workCalendarRepository,
+                               UserRepository userRepository,
+                               ProjectRepository projectRepository,
+                               HolidayService holidayService,
+                               MessageService messageService,
+                               ApplicationEventPublisher eventPublisher,
+                               MeterRegistry meterRegistry,
+                               @Qualifier("workCapacityExecutor") Executor workCapacityExecutor) {
+        this.workCalendarRepository = workCalendarRepository;
+        this.userRepository = userRepository;
+        this.projectRepository = projectRepository;
+        this.holidayService = holidayService;
+        this.messageService = messageService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.workCapacityExecutor = workCapacityExecutor;
+    }
+
+    @PostConstruct
+    void init() {
+        tables = Caffeine.newBuilder()
+                .maximumSize(256)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        provisionalTables = Caffeine.newBuilder()
+                .maximumSize(256)
+                .expireAfterWrite(provisionalTtl)
+                .build();
+        calendarIdByUser = Caffeine.newBuilder()
+                .maximumSize(userCacheSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, tables, TABLE_CACHE_NAME);
+        CaffeineCacheMetrics.monitor(meterRegistry, calendarIdByUser, USER_CACHE_NAME);
+    }
+
+    /**
+     * @return the capacity table of the calendar {@code userId} follows, for {@code year}
+     */
+    public WorkCapacityTable getTable(Long userId, int year) {
+        return getCalendarTable(resolveCalendarId(userId), year);
+    }
+
+    /**
+     * @return minutes {@code userId} can work on {@code day}; 0 on non-working days and holidays
+     */
+    public int getCapacityMinutes(Long userId, LocalDate day) {
+        return getTable(userId, day.getYear()).getCapacity(day.toEpochDay());
+    }
+
+    public WorkCapacityTable getDefaultTable(int year) {
+        return getCalendarTable(findDefaultCalendar().getId(), year);
+    }
+
+    public WorkCapacityTable getCalendarTable(long calendarId, int year) {
+        TableKey key = new TableKey(calendarId, year);
+        WorkCapacityTable table = tables.getIfPresent(key);
+        if (table == null) {
+            table = provisionalTables.getIfPresent(key);
+        }
+        if (table == null) {
+            compileLock.readLock().lock();
+            try {
+                WorkCalendarEntity calendar = workCalendarRepository.findById(calendarId)
+                        .orElseThrow(() -> new NotFoundException(messageService.getMessage("work.calendar.not.found", calendarId)));
+                HolidayCalendar holidays = loadHolidays(calendar, year);
+                table = compile(calendar, year, holidays == null ? HolidayCalendar.empty(year) : holidays);
+                (holidays != null ? tables : provisionalTables).put(key, table);
+            } finally {
+                compileLock.readLock().unlock();
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @return the id of the calendar {@code userId} follows
+     */
+    public long resolveCalendarId(Long userId) {
+        return calendarIdByUser.get(userId, id -> workCalendarRepository.findWorkCalendarIdByUserId(id)
+                .orElseGet(() -> findDefaultCalendar().getId()));
+    }
+
+    /**
+     * Resolves the calendar of every user with one query, bypassing the per-user cache.
+     *
+     * @return calendar id by user id
+     */
+    public LongLongMap resolveAllCalendarIds() {
+        long defaultId = findDefaultCalendar().getId();
+        LongLongMap calendarIds = new LongLongMap(1024);
+        workCalendarRepository.findAllUserWorkCalendarIds().forEach(row -> calendarIds.put(row.getUserId(),
+                row.getWorkCalendarId() == null ? defaultId : row.getWorkCalendarId()));
+        return calendarIds;
+    }
+
+    public List<WorkCalendarDto> getCalendars() {
+        return workCalendarRepository.findAllByOrderByNameAsc().stream().map(this::toDto).toList();
+    }
+
+    @Transactional
+    public WorkCalendarDto createCalendar(WorkCalendarRequest request) {
+        if (workCalendarRepository.existsByNameIgnoreCase(request.getName())) {
+            throw new BadRequestException(messageService.getMessage("work.calendar.name.exists", request.getName()));
+        }
+        WorkCalendarEntity calendar = new WorkCalendarEntity();
+        apply(calendar, request);
+        calendar = workCalendarRepository.save(calendar);
+        boolean defaultChanged = calendar.isDefaultCalendar()
+                && workCalendarRepository.clearDefaultExcept(calendar.getId()) > 0;
+        log.info("Created work calendar {} ({})", calendar.getId(), calendar.getName());
+        eventPublisher.publishEvent(new WorkCalendarChangedEvent(calendar.getId(), defaultChanged));
+        return toDto(calendar);
+    }
+
+    @Transactional
+    public WorkCalendarDto updateCalendar(Long id, WorkCalendarRequest request) {
+        WorkCalendarEntity calendar = findCalendar(id);
+        if (workCalendarRepository.existsByNameIgnoreCaseAndIdNot(request.getName(), id)) {
+            throw new BadRequestException(messageService.getMessage("work.calendar.name.exists", request.getName()));
+        }
+        if (calendar.isDefaultCalendar() && !request.isDefaultCalendar()) {
+            throw new BadRequestException(messageService.getMessage("work.calendar.default.required"));
+        }
+        boolean becomesDefault = !calendar.isDefaultCalendar() && request.isDefaultCalendar();
+        apply(calendar, request);
+        calendar = workCalendarRepository.saveAndFlush(calendar);
+        if (becomesDefault) {
+            workCalendarRepository.clearDefaultExcept(id);
+        }
+        log.info("Updated work calendar {} to version {}", id, calendar.getVersion());
+        eventPublisher.publishEvent(new WorkCalendarChangedEvent(id, becomesDefault));
+        return toDto(calendar);
+    }
+
+    /**
+     * Makes {@code userId} follow {@code calendarId}, or their projects' or the default calendar
+     * when {@code calendarId} is {@code null}.
+     */
+    @Transactional
+    public void assignToUser(Long userId, Long calendarId) {
+        UserEntity user = userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(messageService.getMessage("user.not.found", userId)));
+        user.setWorkCalendar(calendarId == null ? null : findCalendar(calendarId));
+        log.info("Assigned work calendar {} to user {}", calendarId, userId);
+        eventPublisher.publishEvent(new WorkCalendarAssignedEvent(userId));
+    }
+
+    /**
+     * Makes the members of {@code projectId} without a calendar of their own follow
+     * {@code calendarId}, unless one of their other projects has a lower-id calendar.
+     */
+    @Transactional
+    public void assignToProject(Long projectId, Long calendarId) {
+        ProjectEntity project = projectRepository.findById(projectId)
+                .orElseThrow(() -> new NotFoundException(messageService.getMessage("project.not.found", projectId)));
+        project.setWorkCalendar(calendarId == null ? null : findCalendar(calendarId));
+        log.info("Assigned work calendar {} to project {}", calendarId, projectId);
+        eventPublisher.publishEvent(new WorkCalendarAssignedEvent(null));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarChanged(WorkCalendarChangedEvent event) {
+        invalidateTables(key -> key.calendarId() == event.calendarId());
+        if (event.defaultChanged()) {
+            calendarIdByUser.invalidateAll();
+            publishCapacityChange(calendarId -> true, null);
+        } else {
+            publishCapacityChange(calendarId -> calendarId == event.calendarId(), null);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCalendarAssigned(WorkCalendarAssignedEvent event) {
+        if (event.userId() == null) {
+            calendarIdByUser.invalidateAll();
+            publishCapacityChange(calendarId -> true, null);
+        } else {
+            calendarIdByUser.invalidate(event.userId());
+            eventPublisher.publishEvent(new WorkCapacityChangedEvent(Set.of(event.userId()), null));
+        }
+    }
+
+    /**
+     * Drops the tables of the year at once; finding and recomputing the affected users is handed
+     * to the {@code workCapacityExecutor}, as this runs on the holiday refresh thread.
+     */
+    @EventListener
+    public void onHolidaysChanged(HolidayCalendarChangedEvent event) {
+        invalidateTables(key -> key.year() == event.year());
+        try {
+            workCapacityExecutor.execute(() -> {
+                try {
+                    Set<Long> calendarIds = new HashSet<>(workCalendarRepository.findIdsByCountryCode(event.countryCode()));
+                    publishCapacityChange(calendarIds::contains, event.year());
+                } catch (RuntimeException e) {
+                    log.error("Failed to publish the capacity change of {} {} holidays: {}",
+                            event.countryCode(), event.year(), e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Capacity change of {} {} holidays rejected: {}", event.countryCode(), event.year(), e.getMessage());
+        }
+    }
+
+    private void invalidateTables(Predicate<TableKey> affected) {
+        compileLock.writeLock().lock();
+        try {
+            tables.asMap().keySet().removeIf(affected);
+            provisionalTables.asMap().keySet().removeIf(affected);
+        } finally {
+            compileLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Publishes a {@link WorkCapacityChangedEvent} for the users following a calendar that
+     * {@code affected} accepts. Runs after the change committed, so it reads the new assignments.
+     */
+    private void publishCapacityChange(LongPredicate affected, Integer year) {
+        Set<Long> userIds = new HashSet<>();
+        resolveAllCalendarIds().forEach((userId, calendarId) -> {
+            if (affected.test(calendarId)) {
+                userIds.add(userId);
+            }
+        });
+        if (!userIds.isEmpty()) {
+            eventPublisher.publishEvent(new WorkCapacityChangedEvent(userIds, year));
+        }
+    }
+
+    private WorkCalendarEntity findCalendar(Long id) {
+        return workCalendarRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(messageService.getMessage("work.calendar.not.found", id)));
+    }
+
+    private WorkCalendarEntity findDefaultCalendar() {
+        return workCalendarRepository.findFirstByDefaultCalendarTrue().orElseThrow(() -> {
+            InternalServerException ex = new InternalServerException();
+            ex.setMessage(messageService.getMessage("work.calendar.default.missing"));
+            ex.setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+            return ex;
+        });
+    }
+
+    private HolidayCalendar loadHolidays(WorkCalendarEntity calendar, int year) {
+        try {
+            HolidayCalendar holidays = holidayService.getCalendar(year, calendar.getCountryCode());
+            return holidays.isProvisional() ? null : holidays;
+        } catch (RuntimeException e) {
+            // Capacity without holidays beats failing every timesheet; the table is compiled again next time
+            log.warn("Holidays of {} {} unavailable, compiling work calendar {} without them: {}",
+                    calendar.getCountryCode(), year, calendar.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static WorkCapacityTable compile(WorkCalendarEntity calendar, int year, HolidayCalendar holidays) {
+        int[] windowStarts;
+        int[] windowEnds;
+        if (calendar.getLunchStart() == null) {
+            windowStarts = new int[]{minuteOfDay(calendar.getWorkStart())};
+            windowEnds = new int[]{minuteOfDay(calendar.getWorkEnd())};
+        } else {
+            windowStarts = new int[]{minuteOfDay(calendar.getWorkStart()), minuteOfDay(calendar.getLunchEnd())};
+            windowEnds = new int[]{minuteOfDay(calendar.getLunchStart()), minuteOfDay(calendar.getWorkEnd())};
+        }
+        return WorkCapacityTable.compile(calendar.getId(), calendar.getVersion(), year, calendar.getWorkingDays(),
+                windowStarts, windowEnds, holidays);
+    }
+
+    private void apply(WorkCalendarEntity calendar, WorkCalendarRequest request) {
+        LocalTime workStart = LocalTime.parse(request.getWorkStart());
+        LocalTime workEnd = LocalTime.parse(request.getWorkEnd());
+        LocalTime lunchStart = request.getLunchStart() == null ? null : LocalTime.parse(request.getLunchStart());
+        LocalTime lunchEnd = request.getLunchEnd() == null ? null : LocalTime.parse(request.getLunchEnd());
+        boolean validHours = lunchStart == null && lunchEnd == null
+                ? workStart.isBefore(workEnd)
+                : lunchStart != null && lunchEnd != null && workStart.isBefore(lunchStart)
+                && lunchStart.isBefore(lunchEnd) && lunchEnd.isBefore(workEnd);
+        if (!validHours) {
+            throw new BadRequestException(messageService.getMessage("work.calendar.invalid.hours"));
+        }
+        calendar.setName(request.getName().trim());
+        calendar.setCountryCode(request.getCountryCode());
+        calendar.setWorkingDays(toMask(request.getWorkingDays()));
+        calendar.setWorkStart(workStart);
+        calendar.setLunchStart(lunchStart);
+        calendar.setLunchEnd(lunchEnd);
+        calendar.setWorkEnd(workEnd);
+        calendar.setDefaultCalendar(request.isDefaultCalendar());
+    }
+
+    private WorkCalendarDto toDto(WorkCalendarEntity calendar) {
+        List<DayOfWeek> workingDays = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            if ((calendar.getWorkingDays() & 1 << day.ordinal()) != 0) {
+                workingDays.add(day);
+            }
+        }
+        int dailyMinutes = minuteOfDay(calendar.getWorkEnd()) - minuteOfDay(calendar.getWorkStart());
+        if (calendar.getLunchStart() != null) {
+            dailyMinutes -= minuteOfDay(calendar.getLunchEnd()) - minuteOfDay(calendar.getLunchStart());
+        }
+        return new WorkCalendarDto(calendar.getId(), calendar.getName(), calendar.getCountryCode(), workingDays,
+                calendar.getWorkStart().toString(),
+                calendar.getLunchStart() == null ? null : calendar.getLunchStart().toString(),
+                calendar.getLunchEnd() == null ? null : calendar.getLunchEnd().toString(),
+                calendar.getWorkEnd().toString(), dailyMinutes / 60.0, calendar.isDefaultCalendar(),
+                calendar.getVersion());
+    }
+
+    private static int toMask(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << day.ordinal();
+        }
+        return mask;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private record TableKey(long calendarId, int year) {
+    }
+}
@@ -1,119 +1,121 @@
 package com.minhpt.hrmtoolnextgen.service;
 
+import com.minhpt.hrmtoolnextgen.util.DailyMinutes;
+import com.minhpt.hrmtoolnextgen.util.WorkCapacityTable;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
 
-import java.time.*;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 /**
- * Calculates remaining loggable working hours per day when a day-off interval overlaps
- * with fixed work windows (09:00–12:00, 13:30–18:30), excluding weekends and configured holidays.
+ * Calculates, per day, how much of a user's working time a day-off interval takes and how much
+ * is left, under the work calendar the user follows (see {@link WorkCalendarService}).
+ *
+ * <p>Day-offs are compared with the calendar's work windows as half-open ranges of epoch minutes
+ * (minutes since 1970-01-01T00:00 in local time), and day capacities come from the compiled
+ * {@link WorkCapacityTable}s, so a day costs a handful of {@code long} comparisons and an array
+ * read. Non-working days and holidays have nothing to take and nothing left.
  */
 @Service
 @RequiredArgsConstructor
 @Log4j2
 public class WorkHoursCalculatorService {
 
-    private final HolidayService holidayService;
+    private static final int MINUTES_PER_DAY = 24 * 60;
 
-    private static final LocalTime WORK_START = LocalTime.of(9, 0);
-    private static final LocalTime LUNCH_START = LocalTime.of(12, 0);
-    private static final LocalTime LUNCH_END = LocalTime.of(13, 30);
-    private static final LocalTime WORK_END = LocalTime.of(18, 30);
-
-    private static final List<TimeWindow> WORK_WINDOWS = List.of(
-            new TimeWindow(WORK_START, LUNCH_START),
-            new TimeWindow(LUNCH_END, WORK_END)
-    );
-
-    private static final double DAILY_WORK_HOURS = WORK_WINDOWS.stream()
-            .mapToDouble(TimeWindow::hours)
-            .sum();
-
-    public double getDailyWorkHours() {
-        return DAILY_WORK_HOURS;
-    }
+    private final WorkCalendarService workCalendarService;
 
     /**
-     * Computes remaining loggable hours for each working day affected by a day-off interval.
-     * Weekends and holidays return 0.
+     * Computes remaining loggable minutes for each day from the first to the last day touched by
+     * a day-off interval.
      *
+     * @param userId      user taking the day-off
      * @param dayOffStart start of the day-off interval
      * @param dayOffEnd   end of the day-off interval
-     * @return ordered map of date -> remaining hours for that date
+     * @return remaining minutes per day, starting with the day of {@code dayOffStart}
      */
-    public Map<LocalDate, Double> calculateRemainingHours(LocalDateTime dayOffStart, LocalDateTime dayOffEnd) {
-        log.debug("Calculating remaining hours for day-off from {} to {}", dayOffStart, dayOffEnd);
-        if (dayOffEnd.isBefore(dayOffStart) || dayOffEnd.isEqual(dayOffStart)) {
-            throw new IllegalArgumentException("dayOffEnd must be after dayOffStart");
-        }
-
-        Map<LocalDate, Double> remainingByDate = new LinkedHashMap<>();
-
-        LocalDate current = dayOffStart.toLocalDate();
-        LocalDate endDate = dayOffEnd.toLocalDate();
-
-        while (!current.isAfter(endDate)) {
-            if (isWeekend(current)) {
-                remainingByDate.put(current, 0.0);
-            } else {
-                double remaining = remainingHoursForDate(current, dayOffStart, dayOffEnd);
-                remainingByDate.put(current, remaining);
-            }
-            current = current.plusDays(1);
-        }
-
-        return remainingByDate;
+    public DailyMinutes calculateRemainingMinutes(Long userId, LocalDateTime dayOffStart, LocalDateTime dayOffEnd) {
+        return calculateRemainingMinutes(userId, dayOffStart, dayOffEnd,
+                dayOffStart.toLocalDate(), dayOffEnd.toLocalDate());
     }
 
-    private double remainingHoursForDate(LocalDate date, LocalDateTime dayOffStart, LocalDateTime dayOffEnd) {
-        LocalDateTime dayStart = date.atTime(WORK_START);
-        LocalDateTime dayEnd = date.atTime(WORK_END);
-
-        // If the day-off interval does not intersect this workday, full hours remain
-        if (dayOffEnd.isBefore(dayStart) || dayOffStart.isAfter(dayEnd)) {
-            return DAILY_WORK_HOURS;
-        }
-
-        long overlapSeconds = 0;
-        for (TimeWindow window : WORK_WINDOWS) {
-            LocalDateTime windowStart = date.atTime(window.start());
-            LocalDateTime windowEnd = date.atTime(window.end());
-
-            LocalDateTime overlapStart = max(windowStart, dayOffStart);
-            LocalDateTime overlapEnd = min(windowEnd, dayOffEnd);
+    /**
+     * Same as {@link #calculateRemainingMinutes(Long, LocalDateTime, LocalDateTime)}, restricted to
+     * the days between {@code fromDate} and {@code toDate} (inclusive).
+     */
+    public DailyMinutes calculateRemainingMinutes(Long userId, LocalDateTime dayOffStart, LocalDateTime dayOffEnd,
+                                                  LocalDate fromDate, LocalDate toDate) {
+        return calculate(userId, dayOffStart, dayOffEnd, fromDate, toDate, true);
+    }
 
-            if (overlapEnd.isAfter(overlapStart)) {
-                overlapSeconds += Duration.between(overlapStart, overlapEnd).getSeconds();
-            }
-        }
+    /**
+     * Remaining loggable minutes of a single date under a day-off interval, without computing
+     * the other days of the interval.
+     */
+    public int calculateRemainingMinutes(Long userId, LocalDateTime dayOffStart, LocalDateTime dayOffEnd,
+                                         LocalDate date) {
+        long startMinute = toEpochMinute(dayOffStart);
+        long endMinute = toEpochMinute(dayOffEnd);
+        requireInterval(startMinute, endMinute);
+        return workCalendarService.getTable(userId, date.getYear())
+                .remainingMinutes(startMinute, endMinute, date.toEpochDay());
+    }
 
-        double overlapHours = overlapSeconds / 3600.0;
-        double remaining = DAILY_WORK_HOURS - overlapHours;
-        return remaining < 0 ? 0 : remaining;
+    /**
+     * Computes the working minutes a day-off interval takes on each day it touches.
+     *
+     * @return minutes taken per day, starting with the day of {@code dayOffStart}
+     */
+    public DailyMinutes calculateDayOffMinutes(Long userId, LocalDateTime dayOffStart, LocalDateTime dayOffEnd) {
+        return calculateDayOffMinutes(userId, dayOffStart, dayOffEnd,
+                dayOffStart.toLocalDate(), dayOffEnd.toLocalDate());
     }
 
-    private boolean isWeekend(LocalDate date) {
-        DayOfWeek dow = date.getDayOfWeek();
-        return dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY;
+    /**
+     * Same as {@link #calculateDayOffMinutes(Long, LocalDateTime, LocalDateTime)}, restricted to the
+     * days between {@code fromDate} and {@code toDate} (inclusive).
+     */
+    public DailyMinutes calculateDayOffMinutes(Long userId, LocalDateTime dayOffStart, LocalDateTime dayOffEnd,
+                                               LocalDate fromDate, LocalDate toDate) {
+        return calculate(userId, dayOffStart, dayOffEnd, fromDate, toDate, false);
     }
 
-    private LocalDateTime max(LocalDateTime a, LocalDateTime b) {
-        return a.isAfter(b) ? a : b;
+    public static long toEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
     }
 
-    private LocalDateTime min(LocalDateTime a, LocalDateTime b) {
-        return a.isBefore(b) ? a : b;
+    private DailyMinutes calculate(Long userId, LocalDateTime dayOffStart, LocalDateTime dayOffEnd,
+                                   LocalDate fromDate, LocalDate toDate, boolean remaining) {
+        long startMinute = toEpochMinute(dayOffStart);
+        long endMinute = toEpochMinute(dayOffEnd);
+        requireInterval(startMinute, endMinute);
+
+        long firstDay = Math.max(fromDate.toEpochDay(), Math.floorDiv(startMinute, MINUTES_PER_DAY));
+        long lastDay = Math.min(toDate.toEpochDay(), Math.floorDiv(endMinute, MINUTES_PER_DAY));
+        if (lastDay < firstDay) {
+            return DailyMinutes.empty();
+        }
+        long calendarId = workCalendarService.resolveCalendarId(userId);
+        WorkCapacityTable table = null;
+        int[] minutes = new int[(int) (lastDay - firstDay + 1)];
+        for (int index = 0; index < minutes.length; index++) {
+            long epochDay = firstDay + index;
+            if (table == null || !table.contains(epochDay)) {
+                table = workCalendarService.getCalendarTable(calendarId, LocalDate.ofEpochDay(epochDay).getYear());
+            }
+            minutes[index] = remaining
+                    ? table.remainingMinutes(startMinute, endMinute, epochDay)
+                    : table.dayOffMinutes(startMinute, endMinute, epochDay);
+        }
+        return new DailyMinutes(firstDay, minutes);
     }
 
-    private record TimeWindow(LocalTime start, LocalTime end) {
-        double hours() {
-            return Duration.between(start, end).toMinutes() / 60.0;
+    private static void requireInterval(long startMinute, long endMinute) {
+        if (endMinute <= startMinute) {
+            throw new IllegalArgumentException("dayOffEnd must be after dayOffStart");
         }
     }
 }
-
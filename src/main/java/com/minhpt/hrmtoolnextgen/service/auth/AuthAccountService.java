@@ -11,16 +11,22 @@ import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
 import com.minhpt.hrmtoolnextgen.entity.redis.UserTokenRedisEntity;
 import com.minhpt.hrmtoolnextgen.enumeration.EUserTokenType;
+import com.minhpt.hrmtoolnextgen.event.UserActivityChangedEvent;
 import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
 import com.minhpt.hrmtoolnextgen.mapping.UserMapping;
 import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.repository.redis.ResetPasswordTokenRedisRepository;
 import com.minhpt.hrmtoolnextgen.repository.redis.UserTokenRedisRepository;
 import com.minhpt.hrmtoolnextgen.service.EmailService;
+import com.minhpt.hrmtoolnextgen.service.security.UserPrincipalCache;
 import com.minhpt.hrmtoolnextgen.util.CommonUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,10 +43,12 @@ public class AuthAccountService {
     private final PasswordEncoder passwordEncoder;
     private final UserMapping userMapping;
     private final RoleRepository roleRepository;
+    private final ResetPasswordTokenRedisRepository resetPasswordTokenRedisRepository;
     private final UserTokenRedisRepository userTokenRedisRepository;
     private final EmailService emailService;
     private final MessageService messageService;
-    private final AuthSessionService authSessionService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${hrm.app.resetPasswordTokenExpiration:3600000}")
     private long resetPasswordTokenExpiration;
@@ -68,6 +76,7 @@ public class AuthAccountService {
         userEntity.setCreatedDate(LocalDateTime.now());
 
         userEntity = userRepository.save(userEntity);
+        eventPublisher.publishEvent(new UserActivityChangedEvent(userEntity.getId(), true));
         log.info("User registered successfully with id: {} and email: {}", userEntity.getId(), userEntity.getEmail());
 
         return RegisterResponse.builder()
@@ -88,12 +97,7 @@ public class AuthAccountService {
         }
 
         String resetToken = CommonUtils.randomPassword(CommonConstant.RESET_TOKEN_LENGTH);
-        authSessionService.saveTokenToRedis(
-                userEntity.getId(),
-                resetToken,
-                EUserTokenType.RESET_PASSWORD_TOKEN,
-                resetPasswordTokenExpiration
-        );
+        resetPasswordTokenRedisRepository.save(userEntity.getId(), resetToken, resetPasswordTokenExpiration);
 
         log.info("Password reset token generated for user: {} (email: {})", userEntity.getId(), request.getEmail());
         emailService.sendPasswordResetEmail(request.getEmail(), resetToken);
@@ -101,13 +105,12 @@ public class AuthAccountService {
 
     @Transactional
     public void resetPassword(ResetPasswordRequest request) {
-        List<UserTokenRedisEntity> resetTokens = userTokenRedisRepository.findByTokenType(EUserTokenType.RESET_PASSWORD_TOKEN);
-        UserTokenRedisEntity resetTokenEntity = resetTokens.stream()
-                .filter(token -> token.getToken().equals(request.getToken()))
-                .findFirst()
-                .orElseThrow(() -> new BadRequestException(messageService.getMessage("auth.reset.token.invalid")));
+        // Validate before consuming, so a reset rejected for the account does not burn the token
+        Long userId = resetPasswordTokenRedisRepository.find(request.getToken());
+        if (userId == null) {
+            throw new BadRequestException(messageService.getMessage("auth.reset.token.invalid"));
+        }
 
-        Long userId = resetTokenEntity.getUserId();
         UserEntity userEntity = userRepository.findById(userId)
                 .orElseThrow(() -> new BadRequestException(messageService.getMessage("auth.user.not.found")));
 
@@ -115,10 +118,45 @@ public class AuthAccountService {
             throw new BadRequestException(messageService.getMessage("auth.account.not.active"));
         }
 
+        // Single GETDEL: of two concurrent resets with the same token only one gets past here
+        if (!userId.equals(resetPasswordTokenRedisRepository.consume(request.getToken()))) {
+            throw new BadRequestException(messageService.getMessage("auth.reset.token.invalid"));
+        }
+
         userEntity.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(userEntity);
-        userTokenRedisRepository.delete(resetTokenEntity);
+        userPrincipalCache.evict(userId);
 
         log.info("Password reset successfully for user: {} (email: {})", userId, userEntity.getEmail());
     }
+
+    /**
+     * Moves reset-password tokens issued before they were stored under hashed keys
+     * ({@code user_tokens} hashes) to {@link ResetPasswordTokenRedisRepository}, keeping their
+     * remaining lifetime, so links already e-mailed keep working after the upgrade.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyResetPasswordTokens() {
+        try {
+            List<UserTokenRedisEntity> legacyTokens =
+                    userTokenRedisRepository.findAllByTokenType(EUserTokenType.RESET_PASSWORD_TOKEN);
+            int migrated = 0;
+            for (UserTokenRedisEntity legacyToken : legacyTokens) {
+                if (legacyToken == null) {
+                    continue;
+                }
+                Long ttl = legacyToken.getTtl();
+                if (legacyToken.getToken() != null && ttl != null && ttl > 0) {
+                    resetPasswordTokenRedisRepository.save(legacyToken.getUserId(), legacyToken.getToken(), ttl);
+                    migrated++;
+                }
+                userTokenRedisRepository.delete(legacyToken);
+            }
+            if (migrated > 0) {
+                log.info("Migrated {} legacy reset password tokens", migrated);
+            }
+        } catch (Exception e) {
+            log.error("Failed to migrate legacy reset password tokens: {}", e.getMessage());
+        }
+    }
 }
@@ -2,6 +2,8 @@ package com.minhpt.hrmtoolnextgen.service.auth;
 
 import com.minhpt.hrmtoolnextgen.component.MessageService;
 import com.minhpt.hrmtoolnextgen.component.jwt.JwtProvider;
+import com.minhpt.hrmtoolnextgen.component.jwt.TokenRevocationRegistry;
+import com.minhpt.hrmtoolnextgen.component.jwt.VerifiedToken;
 import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
 import com.minhpt.hrmtoolnextgen.dto.request.LoginRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.RefreshTokenRequest;
@@ -34,6 +36,7 @@ public class AuthSessionService {
     private final JwtProvider jwtProvider;
     private final UserTokenRedisRepository userTokenRedisRepository;
     private final MessageService messageService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     @Value("${hrm.app.jwtExpiration}")
     private long jwtExpiration;
@@ -51,8 +54,10 @@ public class AuthSessionService {
             SecurityContextHolder.getContext().setAuthentication(authentication);
             UserPrincipalDto principal = (UserPrincipalDto) authentication.getPrincipal();
 
-            String accessToken = jwtProvider.generateJwtToken(authentication);
-            String refreshToken = jwtProvider.generateRefreshToken(principal.getEmail(), principal.getId());
+            // A new login replaces the previous session, as saving over the stored tokens does in strict mode
+            long tokenEpoch = nextTokenEpoch(principal.getId());
+            String accessToken = jwtProvider.generateTokenFromEmail(principal.getEmail(), principal.getId(), tokenEpoch);
+            String refreshToken = jwtProvider.generateRefreshToken(principal.getEmail(), principal.getId(), tokenEpoch);
 
             saveTokenToRedis(principal.getId(), accessToken, EUserTokenType.ACCESS_TOKEN, jwtExpiration);
             saveTokenToRedis(principal.getId(), refreshToken, EUserTokenType.REFRESH_TOKEN, refreshTokenExpiration);
@@ -76,14 +81,13 @@ public class AuthSessionService {
         log.info("Refresh token request received");
         String refreshToken = refreshTokenRequest.getRefreshToken();
 
-        if (!jwtProvider.validateJwtToken(refreshToken)) {
-            throw new UnauthorizedException(messageService.getMessage("auth.refresh.token.invalid"));
-        }
-        if (!jwtProvider.isRefreshToken(refreshToken)) {
+        VerifiedToken verifiedToken = jwtProvider.verifyToken(refreshToken)
+                .orElseThrow(() -> new UnauthorizedException(messageService.getMessage("auth.refresh.token.invalid")));
+        if (!verifiedToken.isRefreshToken()) {
             throw new UnauthorizedException(messageService.getMessage("auth.refresh.token.not.refresh"));
         }
 
-        Long userId = jwtProvider.getIdFromJwtToken(refreshToken);
+        Long userId = verifiedToken.userId();
         if (userId == null) {
             throw new UnauthorizedException(messageService.getMessage("auth.refresh.token.invalid.id"));
         }
@@ -94,15 +98,17 @@ public class AuthSessionService {
             throw new UnauthorizedException(messageService.getMessage("auth.refresh.token.not.found"));
         }
 
-        String email = jwtProvider.getEmailFromJwtToken(refreshToken);
+        String email = verifiedToken.email();
         if (userRepository.findByEmail(email).isEmpty()) {
             throw new UnauthorizedException(messageService.getMessage("auth.user.not.found"));
         }
 
-        String newAccessToken = jwtProvider.generateTokenFromEmail(email, userId);
-        String newRefreshToken = jwtProvider.generateRefreshToken(email, userId);
-
+        // Revoke first so that the new tokens carry the post-revocation epoch
         invalidateUserTokens(userId);
+        long tokenEpoch = tokenRevocationRegistry.isStateless() ? tokenRevocationRegistry.currentEpoch(userId) : 0L;
+        String newAccessToken = jwtProvider.generateTokenFromEmail(email, userId, tokenEpoch);
+        String newRefreshToken = jwtProvider.generateRefreshToken(email, userId, tokenEpoch);
+
         saveTokenToRedis(userId, newAccessToken, EUserTokenType.ACCESS_TOKEN, jwtExpiration);
         saveTokenToRedis(userId, newRefreshToken, EUserTokenType.REFRESH_TOKEN, refreshTokenExpiration);
 
@@ -133,7 +139,15 @@ public class AuthSessionService {
         userTokenRedisRepository.save(Objects.requireNonNull(tokenEntity));
     }
 
+    /**
+     * Removes the stored tokens of {@code userId}; in stateless mode also bumps the user's
+     * token epoch so that already issued access tokens are rejected on every node.
+     */
     public void invalidateUserTokens(Long userId) {
+        if (tokenRevocationRegistry.isStateless()) {
+            tokenRevocationRegistry.revoke(userId);
+        }
+
         UserTokenRedisEntity accessToken = userTokenRedisRepository
                 .findUserByUserIdAndTokenType(userId, EUserTokenType.ACCESS_TOKEN);
         if (accessToken != null) {
@@ -146,4 +160,8 @@ public class AuthSessionService {
             userTokenRedisRepository.delete(refreshToken);
         }
     }
+
+    private long nextTokenEpoch(Long userId) {
+        return tokenRevocationRegistry.isStateless() ? tokenRevocationRegistry.revoke(userId) : 0L;
+    }
 }
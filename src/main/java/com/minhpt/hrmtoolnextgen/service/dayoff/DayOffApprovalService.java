@@ -10,6 +10,7 @@ import com.minhpt.hrmtoolnextgen.enumeration.EDayOffStatus;
 import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
 import com.minhpt.hrmtoolnextgen.repository.jpa.DayOffRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.timesheet.DailyHoursLedgerService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,7 @@ public class DayOffApprovalService {
 
     private final DayOffRepository dayOffRepository;
     private final UserRepository userRepository;
+    private final DailyHoursLedgerService dailyHoursLedgerService;
     private final MessageService messageService;
 
     @Transactional
@@ -38,13 +40,19 @@ public class DayOffApprovalService {
                 .orElseThrow(() -> new BadRequestException(messageService.getMessage("user.not.found", decidedId)));
 
         DayOffEntity dayOffEntity = dayOffRepository
-                .findById(request.getId())
+                .findWithLockById(request.getId())
                 .orElseThrow(() -> new BadRequestException(messageService.getMessage("dayoff.not.found", request.getId())));
 
         if (dayOffEntity.getStatus() != EDayOffStatus.PENDING) {
             throw new BadRequestException(messageService.getMessage("dayoff.already.processed"));
         }
 
+        if (request.getStatus() == EDayOffStatus.APPROVED
+                && dayOffEntity.getStartTime() != null && dayOffEntity.getEndTime() != null) {
+            dailyHoursLedgerService.addApprovedDayOff(
+                    dayOffEntity.getRequestedBy().getId(), dayOffEntity.getStartTime(), dayOffEntity.getEndTime());
+        }
+
         dayOffEntity.setStatus(request.getStatus());
         dayOffEntity.setDecidedAt(LocalDateTime.now());
         dayOffEntity.setDecidedBy(decidedUserEntity);
@@ -6,6 +6,9 @@ import com.minhpt.hrmtoolnextgen.dto.request.CreateProjectRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.UpdateProjectRequest;
 import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.event.ProjectStatusChangedEvent;
+import com.minhpt.hrmtoolnextgen.event.WorkCalendarAssignedEvent;
 import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
 import com.minhpt.hrmtoolnextgen.exception.NotFoundException;
 import com.minhpt.hrmtoolnextgen.mapping.ProjectMapping;
@@ -14,13 +17,16 @@ import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +37,7 @@ public class ProjectCommandService {
     private final UserRepository userRepository;
     private final ProjectMapping projectMapping;
     private final MessageService messageService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProjectDto createProject(CreateProjectRequest request) {
@@ -44,6 +51,8 @@ public class ProjectCommandService {
         projectEntity.setDelete(false);
 
         ProjectEntity savedEntity = projectRepository.save(projectEntity);
+        publishStatusChange(savedEntity.getId(), null, savedEntity.getProjectStatus());
+        publishCalendarAssignments(savedEntity, Set.of());
         log.info("Created project with id: {}", savedEntity.getId());
         return projectMapping.toDto(savedEntity);
     }
@@ -52,6 +61,8 @@ public class ProjectCommandService {
     public ProjectDto updateProject(Long id, UpdateProjectRequest request) {
         log.info("Updating project with id: {}", id);
         ProjectEntity projectEntity = getProjectForUpdate(id);
+        EProjectStatus previousStatus = projectEntity.getProjectStatus();
+        Set<Long> previousMemberIds = memberIds(projectEntity);
 
         if (request.getProjectName() != null && !request.getProjectName().equals(projectEntity.getName())) {
             assertProjectNameAvailableForUpdate(id, request.getProjectName());
@@ -73,6 +84,8 @@ public class ProjectCommandService {
         }
 
         ProjectEntity updatedEntity = projectRepository.save(projectEntity);
+        publishStatusChange(id, previousStatus, updatedEntity.getProjectStatus());
+        publishCalendarAssignments(updatedEntity, previousMemberIds);
         log.info("Updated project with id: {}", updatedEntity.getId());
         return projectMapping.toDto(updatedEntity);
     }
@@ -89,9 +102,39 @@ public class ProjectCommandService {
 
         projectEntity.setDelete(true);
         projectRepository.save(projectEntity);
+        publishStatusChange(id, projectEntity.getProjectStatus(), null);
         log.info("Deleted project with id: {}", id);
     }
 
+    private void publishStatusChange(Long projectId, EProjectStatus previousStatus, EProjectStatus currentStatus) {
+        if (previousStatus != currentStatus) {
+            eventPublisher.publishEvent(new ProjectStatusChangedEvent(projectId, previousStatus, currentStatus));
+        }
+    }
+
+    /**
+     * Members who joined or left a project with a work calendar may now follow another calendar,
+     * see {@link com.minhpt.hrmtoolnextgen.service.WorkCalendarService}.
+     */
+    private void publishCalendarAssignments(ProjectEntity projectEntity, Set<Long> previousMemberIds) {
+        if (projectEntity.getWorkCalendar() == null) {
+            return;
+        }
+        Set<Long> changedMemberIds = new HashSet<>(previousMemberIds);
+        for (Long memberId : memberIds(projectEntity)) {
+            if (!changedMemberIds.remove(memberId)) {
+                changedMemberIds.add(memberId);
+            }
+        }
+        changedMemberIds.forEach(memberId -> eventPublisher.publishEvent(new WorkCalendarAssignedEvent(memberId)));
+    }
+
+    private static Set<Long> memberIds(ProjectEntity projectEntity) {
+        Set<Long> memberIds = new HashSet<>();
+        projectEntity.getMembers().forEach(member -> memberIds.add(member.getId()));
+        return memberIds;
+    }
+
     private void assertProjectNameAvailable(String projectName) {
         if (projectRepository.existsByNameIgnoreCaseAndDeleteFalse(projectName)) {
             throw new BadRequestException(messageService.getMessage("project.name.exists", projectName));
@@ -13,7 +13,6 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -27,11 +26,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final MessageService messageService;
+    private final UserPrincipalCache userPrincipalCache;
 
+    /**
+     * Resolves the principal from {@link UserPrincipalCache}, hitting the database only on a miss.
+     * No transaction is opened here: the {@code findByEmail} entity graph already fetches every
+     * association the principal needs, so a cache hit never borrows a connection.
+     */
     @Override
-    @Transactional
     public UserPrincipalDto loadUserByUsername(String username)
             throws UsernameNotFoundException {
+        return userPrincipalCache.get(username, this::loadUserFromDatabase);
+    }
+
+    private UserPrincipalDto loadUserFromDatabase(String username) {
         log.debug("Loading user by username: {}", username);
 
         UserEntity userEntity = userRepository.findByEmail(username)
@@ -0,0 +1,149 @@
+package com.minhpt.hrmtoolnextgen.service.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * In-process near-cache for authenticated principals.
+ *
+ * <p>Principals are stored by user id, with a secondary email → id index so that
+ * {@link UserDetailsServiceImpl#loadUserByUsername(String)} can resolve them without
+ * touching the database. Both maps are bounded and expire after
+ * {@code hrm.security.principal-cache.ttl}, which is the upper bound on how long a
+ * node may keep serving a stale principal if an invalidation message is lost.
+ *
+ * <p>{@link #evict(Long)} publishes the user id on a Redis channel after the current
+ * transaction commits; every node (including this one) drops the entry when it receives
+ * the message. Hit/miss/eviction counters are exposed as {@code cache.*} metrics with
+ * {@code cache=user_principals}.
+ */
+@Component
+@RequiredArgsConstructor
+@Log4j2
+public class UserPrincipalCache implements MessageListener {
+
+    static final String CACHE_NAME = "user_principals";
+    static final String INVALIDATION_CHANNEL = "hrm:principal-cache:evict";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${hrm.security.principal-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${hrm.security.principal-cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${hrm.security.principal-cache.ttl:PT1M}")
+    private Duration ttl;
+
+    private Cache<Long, UserPrincipalDto> principalsById;
+    private Cache<String, Long> userIdsByEmail;
+
+    @PostConstruct
+    void init() {
+        principalsById = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principalsById, CACHE_NAME);
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+        log.info("User principal cache initialized - enabled: {}, maxSize: {}, ttl: {}", enabled, maxSize, ttl);
+    }
+
+    /**
+     * Returns a copy of the cached principal for {@code email}, loading it with {@code loader} on a miss.
+     *
+     * <p>Callers receive their own instance because the authentication filter writes
+     * request-specific fields ({@code accessToken}, {@code remainTime}) onto it.
+     */
+    public UserPrincipalDto get(String email, Function<String, UserPrincipalDto> loader) {
+        if (!enabled) {
+            return loader.apply(email);
+        }
+
+        Long userId = userIdsByEmail.getIfPresent(email);
+        UserPrincipalDto cached = userId != null ? principalsById.getIfPresent(userId) : null;
+        if (cached != null && email.equals(cached.getEmail())) {
+            return cached.toBuilder().build();
+        }
+
+        UserPrincipalDto loaded = loader.apply(email);
+        principalsById.put(loaded.getId(), loaded.toBuilder().build());
+        userIdsByEmail.put(email, loaded.getId());
+        return loaded;
+    }
+
+    /**
+     * Drops the principal of {@code userId} on every node once the surrounding transaction
+     * has committed, or immediately when no transaction is active.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publishEviction(userId);
+                }
+            });
+        } else {
+            publishEviction(userId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            evictLocal(Long.valueOf(body));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed principal cache invalidation message: {}", body);
+        }
+    }
+
+    void evictLocal(Long userId) {
+        principalsById.invalidate(userId);
+        log.debug("Evicted cached principal for user id: {}", userId);
+    }
+
+    private void publishEviction(Long userId) {
+        // Always drop the local entry first so this node never depends on Redis delivery
+        evictLocal(userId);
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(userId));
+        } catch (Exception e) {
+            log.error("Failed to publish principal cache invalidation for user id '{}'; other nodes will expire it after {}: {}",
+                    userId, ttl, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportRow;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * RFC 4180 CSV in UTF-8 with a byte order mark, so Excel shows Vietnamese names correctly.
+ */
+class CsvTimesheetExportWriter implements TimesheetExportWriter {
+
+    private static final DateTimeFormatter HOURS_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final Writer writer;
+    private final boolean includeProject;
+
+    CsvTimesheetExportWriter(OutputStream outputStream, boolean includeProject) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        this.includeProject = includeProject;
+        writer.write('\uFEFF');
+        writeLine(TimesheetExportWriter.headers(includeProject), 0);
+    }
+
+    @Override
+    public void write(TimesheetExportRow row) {
+        try {
+            writeLine(new String[]{
+                    row.projectName(),
+                    row.memberEmail(),
+                    row.memberName(),
+                    row.workingDay() == null ? null : row.workingDay().toString(),
+                    row.type() == null ? null : row.type().name(),
+                    row.title(),
+                    row.description(),
+                    row.workingHours() == null ? null : HOURS_FORMAT.format(row.workingHours()),
+                    row.status() == null ? null : row.status().name()
+            }, includeProject ? 0 : 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() {
+        // The writer only wraps the caller's stream, which the caller closes
+    }
+
+    private void writeLine(String[] values, int firstColumn) throws IOException {
+        for (int index = firstColumn; index < values.length; index++) {
+            if (index > firstColumn) {
+                writer.write(',');
+            }
+            writeField(values[index]);
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        // Free text starting with these is run as a formula by spreadsheet applications
+        char first = value.charAt(0);
+        boolean formulaLike = first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        boolean quoted = formulaLike || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quoted) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        if (formulaLike) {
+            writer.write('\'');
+        }
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
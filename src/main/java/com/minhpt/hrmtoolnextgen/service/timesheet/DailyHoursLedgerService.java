@@ -0,0 +1,302 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import com.minhpt.hrmtoolnextgen.entity.jpa.dayoff.DayOffEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.UserDailyHoursEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EDayOffStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.event.WorkCapacityChangedEvent;
+import com.minhpt.hrmtoolnextgen.projection.TimesheetDailyMinutesProjection;
+import com.minhpt.hrmtoolnextgen.repository.jpa.DayOffRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserDailyHoursRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.WorkCalendarService;
+import com.minhpt.hrmtoolnextgen.service.WorkHoursCalculatorService;
+import jakarta.persistence.criteria.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains the {@code user_daily_hours} ledger: logged and day-off minutes per user and day.
+ *
+ * <p>Rows are read with {@code SELECT ... FOR UPDATE}, so two requests touching the same user and
+ * day are serialised and cannot both pass validation. A missing row is built from the
+ * timesheets and approved day-offs of that day, under a lock on the user row so concurrent
+ * first writers agree on a single row.
+ *
+ * <p>Callers must lock or update the ledger <em>before</em> changing the timesheet or day-off
+ * itself in the same transaction; otherwise a freshly built row would already include the change.
+ * Changes to existing timesheets lock the timesheet rows before the ledger rows, never the reverse.
+ *
+ * <p>Day-off minutes depend on the user's work calendar and holidays. When those change
+ * ({@link WorkCapacityChangedEvent}), the existing rows of the affected users are recomputed from
+ * their approved day-offs, one user per transaction.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class DailyHoursLedgerService {
+
+    private static final Set<ETimesheetStatus> LOGGED_STATUSES = EnumSet.complementOf(EnumSet.of(ETimesheetStatus.REJECTED));
+    private static final int USER_ID_BATCH_SIZE = 500;
+
+    private final UserDailyHoursRepository userDailyHoursRepository;
+    private final UserRepository userRepository;
+    private final TimesheetRepository timesheetRepository;
+    private final DayOffRepository dayOffRepository;
+    private final WorkHoursCalculatorService workHoursCalculatorService;
+    private final WorkCalendarService workCalendarService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * @return the locked ledger row of {@code userId} for {@code workDay}, created on first use
+     */
+    @Transactional
+    public UserDailyHoursEntity lock(Long userId, LocalDate workDay) {
+        return userDailyHoursRepository.findByUserIdAndWorkDay(userId, workDay)
+                .orElseGet(() -> lockAll(userId, Set.of(workDay)).get(workDay));
+    }
+
+    /**
+     * Locks the ledger rows of several days in date order, building all missing rows with one
+     * timesheet aggregate and one day-off query.
+     *
+     * @return locked rows by day, one for each of {@code workDays}
+     */
+    @Transactional
+    public Map<LocalDate, UserDailyHoursEntity> lockAll(Long userId, Set<LocalDate> workDays) {
+        Map<LocalDate, UserDailyHoursEntity> rows = new TreeMap<>();
+        userDailyHoursRepository.findByUserIdAndWorkDayInOrderByWorkDayAsc(userId, workDays)
+                .forEach(row -> rows.put(row.getWorkDay(), row));
+        if (rows.size() == workDays.size()) {
+            return rows;
+        }
+
+        // A concurrent first writer blocks here until we commit, then finds our rows
+        userRepository.lockById(userId);
+        userDailyHoursRepository.findByUserIdAndWorkDayInOrderByWorkDayAsc(userId, workDays)
+                .forEach(row -> rows.put(row.getWorkDay(), row));
+
+        TreeSet<LocalDate> missingDays = new TreeSet<>(workDays);
+        missingDays.removeAll(rows.keySet());
+        if (!missingDays.isEmpty()) {
+            log.debug("Creating {} daily hours ledger rows for user: {}", missingDays.size(), userId);
+            userDailyHoursRepository.saveAll(buildRows(userId, missingDays))
+                    .forEach(row -> rows.put(row.getWorkDay(), row));
+        }
+        return rows;
+    }
+
+    /**
+     * Locks the ledger rows of several users at once. Existing rows are locked with one query over
+     * the users and the overall date range, which may also lock a few rows in between.
+     *
+     * @return locked rows by user and day, one for each requested day
+     */
+    @Transactional
+    public Map<Long, Map<LocalDate, UserDailyHoursEntity>> lockAll(Map<Long, ? extends Set<LocalDate>> workDaysByUser) {
+        Map<Long, Map<LocalDate, UserDailyHoursEntity>> rows = new TreeMap<>();
+        if (workDaysByUser.isEmpty()) {
+            return rows;
+        }
+        LocalDate fromDate = workDaysByUser.values().stream().flatMap(Set::stream).min(LocalDate::compareTo).orElseThrow();
+        LocalDate toDate = workDaysByUser.values().stream().flatMap(Set::stream).max(LocalDate::compareTo).orElseThrow();
+        userDailyHoursRepository.findByUserIdInAndWorkDayBetweenOrderByUserIdAscWorkDayAsc(workDaysByUser.keySet(), fromDate, toDate)
+                .forEach(row -> rows.computeIfAbsent(row.getUserId(), userId -> new TreeMap<>()).put(row.getWorkDay(), row));
+
+        new TreeMap<>(workDaysByUser).forEach((userId, workDays) -> {
+            Map<LocalDate, UserDailyHoursEntity> userRows = rows.computeIfAbsent(userId, id -> new TreeMap<>());
+            if (!userRows.keySet().containsAll(workDays)) {
+                userRows.putAll(lockAll(userId, workDays));
+            }
+        });
+        return rows;
+    }
+
+    /**
+     * Adds {@code minutes} (negative to remove) to the logged minutes of {@code workDay}.
+     */
+    @Transactional
+    public void addLoggedMinutes(Long userId, LocalDate workDay, int minutes) {
+        if (minutes == 0) {
+            return;
+        }
+        UserDailyHoursEntity dailyHours = lock(userId, workDay);
+        dailyHours.setLoggedMinutes(dailyHours.getLoggedMinutes() + minutes);
+    }
+
+    /**
+     * Moves a timesheet's minutes from one day to another, locking both rows in date order.
+     */
+    @Transactional
+    public void moveLoggedMinutes(Long userId, LocalDate fromDay, int fromMinutes, LocalDate toDay, int toMinutes) {
+        if (fromDay.equals(toDay)) {
+            addLoggedMinutes(userId, fromDay, toMinutes - fromMinutes);
+            return;
+        }
+        UserDailyHoursEntity first = lock(userId, fromDay.isBefore(toDay) ? fromDay : toDay);
+        UserDailyHoursEntity second = lock(userId, fromDay.isBefore(toDay) ? toDay : fromDay);
+        UserDailyHoursEntity from = fromDay.isBefore(toDay) ? first : second;
+        UserDailyHoursEntity to = fromDay.isBefore(toDay) ? second : first;
+        from.setLoggedMinutes(from.getLoggedMinutes() - fromMinutes);
+        to.setLoggedMinutes(to.getLoggedMinutes() + toMinutes);
+    }
+
+    /**
+     * Records the working time taken by a day-off that is about to be approved.
+     */
+    @Transactional
+    public void addApprovedDayOff(Long userId, LocalDateTime startTime, LocalDateTime endTime) {
+        workHoursCalculatorService.calculateDayOffMinutes(userId, startTime, endTime).forEach((epochDay, used) -> {
+            if (used > 0) {
+                LocalDate workDay = LocalDate.ofEpochDay(epochDay);
+                UserDailyHoursEntity dailyHours = lock(userId, workDay);
+                dailyHours.setDayOffMinutes(Math.min(getCapacityMinutes(userId, workDay),
+                        dailyHours.getDayOffMinutes() + used));
+            }
+        });
+    }
+
+    /**
+     * Recomputes the day-off minutes of the affected users' existing rows. Rows that do not exist
+     * yet are built under the new calendar on first use.
+     */
+    @EventListener
+    public void onWorkCapacityChanged(WorkCapacityChangedEvent event) {
+        LocalDate fromDate = event.year() == null ? LocalDate.of(1970, 1, 1) : LocalDate.of(event.year(), 1, 1);
+        LocalDate toDate = event.year() == null ? LocalDate.of(9999, 12, 31) : LocalDate.of(event.year(), 12, 31);
+        // Published after the change committed, possibly from its afterCommit callback
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        List<Long> affectedUserIds = new ArrayList<>(new TreeSet<>(event.userIds()));
+        TreeSet<Long> userIds = new TreeSet<>();
+        for (int from = 0; from < affectedUserIds.size(); from += USER_ID_BATCH_SIZE) {
+            List<Long> batch = affectedUserIds.subList(from, Math.min(from + USER_ID_BATCH_SIZE, affectedUserIds.size()));
+            userIds.addAll(userDailyHoursRepository.findUserIdsWithRowsBetween(batch, fromDate, toDate));
+        }
+        int changed = 0;
+        for (Long userId : userIds) {
+            try {
+                Integer rows = transaction.execute(status -> recomputeDayOffMinutes(userId, fromDate, toDate));
+                changed += rows == null ? 0 : rows;
+            } catch (RuntimeException e) {
+                log.error("Failed to recompute day-off minutes of user {}: {}", userId, e.getMessage());
+            }
+        }
+        if (changed > 0) {
+            log.info("Recomputed day-off minutes after a work capacity change: {} ledger rows", changed);
+        }
+    }
+
+    /**
+     * @return minutes of normal work the day still allows, ignoring what is already logged
+     */
+    public int getLoggableMinutes(UserDailyHoursEntity dailyHours) {
+        return Math.max(0, getCapacityMinutes(dailyHours.getUserId(), dailyHours.getWorkDay())
+                - dailyHours.getDayOffMinutes());
+    }
+
+    /**
+     * @return minutes the user's work calendar allows on {@code workDay}; 0 on non-working days and holidays
+     */
+    public int getCapacityMinutes(Long userId, LocalDate workDay) {
+        return workCalendarService.getCapacityMinutes(userId, workDay);
+    }
+
+    public static int toMinutes(LocalTime time) {
+        return time == null ? 0 : time.getHour() * 60 + time.getMinute();
+    }
+
+    private List<UserDailyHoursEntity> buildRows(Long userId, TreeSet<LocalDate> workDays) {
+        LocalDate fromDate = workDays.first();
+        LocalDate toDate = workDays.last();
+        Map<LocalDate, Integer> loggedMinutes = new HashMap<>();
+        for (TimesheetDailyMinutesProjection day : timesheetRepository.sumLoggedMinutesByDay(userId, fromDate, toDate, LOGGED_STATUSES)) {
+            loggedMinutes.put(day.getWorkingDay(), day.getTotalMinutes() == null ? 0 : day.getTotalMinutes().intValue());
+        }
+        Map<LocalDate, Integer> dayOffMinutes = sumDayOffMinutes(userId, fromDate, toDate);
+
+        List<UserDailyHoursEntity> rows = new ArrayList<>(workDays.size());
+        for (LocalDate workDay : workDays) {
+            UserDailyHoursEntity dailyHours = new UserDailyHoursEntity();
+            dailyHours.setUserId(userId);
+            dailyHours.setWorkDay(workDay);
+            dailyHours.setLoggedMinutes(loggedMinutes.getOrDefault(workDay, 0));
+            dailyHours.setDayOffMinutes(dayOffMinutes.getOrDefault(workDay, 0));
+            rows.add(dailyHours);
+        }
+        return rows;
+    }
+
+    private int recomputeDayOffMinutes(Long userId, LocalDate fromDate, LocalDate toDate) {
+        List<UserDailyHoursEntity> rows =
+                userDailyHoursRepository.findByUserIdAndWorkDayBetweenOrderByWorkDayAsc(userId, fromDate, toDate);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<LocalDate, Integer> dayOffMinutes = sumDayOffMinutes(userId, rows.get(0).getWorkDay(),
+                rows.get(rows.size() - 1).getWorkDay());
+        int changed = 0;
+        for (UserDailyHoursEntity row : rows) {
+            int minutes = dayOffMinutes.getOrDefault(row.getWorkDay(), 0);
+            if (row.getDayOffMinutes() != minutes) {
+                row.setDayOffMinutes(minutes);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    private Map<LocalDate, Integer> sumDayOffMinutes(Long userId, LocalDate fromDate, LocalDate toDate) {
+        Map<LocalDate, Integer> usedByDate = new HashMap<>();
+        for (DayOffEntity dayOff : dayOffRepository.findAll(buildApprovedDayOffOverlapSpec(userId, fromDate, toDate))) {
+            if (dayOff.getStartTime() == null || dayOff.getEndTime() == null) {
+                continue;
+            }
+            // Only the requested days: a day-off may run far beyond them
+            workHoursCalculatorService.calculateDayOffMinutes(userId, dayOff.getStartTime(), dayOff.getEndTime(),
+                            fromDate, toDate)
+                    .forEach((epochDay, used) -> {
+                        if (used > 0) {
+                            LocalDate workDay = LocalDate.ofEpochDay(epochDay);
+                            int capacity = getCapacityMinutes(userId, workDay);
+                            usedByDate.merge(workDay, used, (a, b) -> Math.min(capacity, a + b));
+                        }
+                    });
+        }
+        return usedByDate;
+    }
+
+    private Specification<DayOffEntity> buildApprovedDayOffOverlapSpec(Long userId, LocalDate fromDate, LocalDate toDate) {
+        LocalDateTime dayStart = fromDate.atStartOfDay();
+        LocalDateTime dayEnd = toDate.plusDays(1).atStartOfDay();
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.lessThan(root.get("startTime"), dayEnd));
+            predicates.add(cb.greaterThan(root.get("endTime"), dayStart));
+            predicates.add(cb.equal(root.get("requestedBy").get("id"), userId));
+            predicates.add(cb.equal(root.get("status"), EDayOffStatus.APPROVED));
+            predicates.add(cb.equal(root.get("delete"), false));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+}
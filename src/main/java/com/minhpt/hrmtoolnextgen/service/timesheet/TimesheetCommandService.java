@@ -3,40 +3,41 @@ package com.minhpt.hrmtoolnextgen.service.timesheet;
 import com.minhpt.hrmtoolnextgen.component.MessageService;
 import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
 import com.minhpt.hrmtoolnextgen.dto.request.ApprovalTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.BulkApprovalTimesheetRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.UpdateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetBulkApprovalDto;
 import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
-import com.minhpt.hrmtoolnextgen.entity.jpa.dayoff.DayOffEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.UserDailyHoursEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
-import com.minhpt.hrmtoolnextgen.enumeration.EDayOffStatus;
 import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
 import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
 import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
 import com.minhpt.hrmtoolnextgen.exception.NotFoundException;
 import com.minhpt.hrmtoolnextgen.mapping.TimesheetMapping;
-import com.minhpt.hrmtoolnextgen.repository.jpa.DayOffRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
-import com.minhpt.hrmtoolnextgen.service.WorkHoursCalculatorService;
-import com.minhpt.hrmtoolnextgen.util.TimeUtils;
-import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -46,9 +47,8 @@ public class TimesheetCommandService {
     private final TimesheetRepository timesheetRepository;
     private final UserRepository userRepository;
     private final ProjectRepository projectRepository;
-    private final DayOffRepository dayOffRepository;
+    private final DailyHoursLedgerService dailyHoursLedgerService;
     private final TimesheetMapping timesheetMapping;
-    private final WorkHoursCalculatorService workHoursCalculatorService;
     private final MessageService messageService;
 
     @Transactional
@@ -61,27 +61,84 @@ public class TimesheetCommandService {
         assertUserInProject(projectEntity.getId(), currentUser.getId());
 
         if (form.getTimesheetType() == ETimesheetType.NORMAL) {
-            assertNotWeekend(form.getWorkingDay());
-            assertCanLogNormalTimesheet(currentUser.getId(), form.getWorkingDay(), form.getWorkingHours());
+            assertWorkingDay(currentUser.getId(), form.getWorkingDay());
         }
 
+        UserDailyHoursEntity dailyHours = dailyHoursLedgerService.lock(currentUser.getId(), form.getWorkingDay());
+        int newMinutes = DailyHoursLedgerService.toMinutes(form.getWorkingHours());
+        if (form.getTimesheetType() == ETimesheetType.NORMAL) {
+            assertCanLogNormalTimesheet(dailyHours, newMinutes);
+        }
+        dailyHours.setLoggedMinutes(dailyHours.getLoggedMinutes() + newMinutes);
+
         TimesheetEntity savedEntity = timesheetRepository.save(buildTimesheetEntity(form, projectEntity, userEntity));
         log.info("Timesheet created successfully for user: {} on date: {}", currentUser.getId(), form.getWorkingDay());
         return timesheetMapping.toDto(savedEntity);
     }
 
+    /**
+     * Creates a week or month of timesheets for the current user in one transaction.
+     *
+     * <p>Entries are validated in order against one prefetched view: the user with its working
+     * projects and the locked ledger rows of every day involved. They are then written with JDBC
+     * batching. Any invalid entry rejects the whole batch.
+     */
+    @Transactional
+    public List<TimesheetDto> createTimesheets(List<CreateTimesheetRequest> forms) {
+        UserPrincipalDto currentUser = getCurrentUser();
+        log.info("Creating {} timesheets for user: {}", forms.size(), currentUser.getId());
+
+        UserEntity userEntity = requireUser(currentUser.getId());
+        Map<Long, ProjectEntity> workingProjects = userEntity.getWorkingProject().stream()
+                .collect(Collectors.toMap(ProjectEntity::getId, Function.identity()));
+        Set<LocalDate> workingDays = forms.stream()
+                .map(CreateTimesheetRequest::getWorkingDay)
+                .collect(Collectors.toSet());
+        Map<LocalDate, UserDailyHoursEntity> dailyHoursByDay = dailyHoursLedgerService.lockAll(currentUser.getId(), workingDays);
+
+        List<TimesheetEntity> timesheetEntities = new ArrayList<>(forms.size());
+        for (CreateTimesheetRequest form : forms) {
+            ProjectEntity projectEntity = workingProjects.get(form.getProjectId());
+            if (projectEntity == null) {
+                requireProject(form.getProjectId());
+                throw new BadRequestException(messageService.getMessage("error.user.not.in.project"));
+            }
+
+            UserDailyHoursEntity dailyHours = dailyHoursByDay.get(form.getWorkingDay());
+            int newMinutes = DailyHoursLedgerService.toMinutes(form.getWorkingHours());
+            if (form.getTimesheetType() == ETimesheetType.NORMAL) {
+                assertWorkingDay(currentUser.getId(), form.getWorkingDay());
+                assertCanLogNormalTimesheet(dailyHours, newMinutes);
+            }
+            dailyHours.setLoggedMinutes(dailyHours.getLoggedMinutes() + newMinutes);
+            timesheetEntities.add(buildTimesheetEntity(form, projectEntity, userEntity));
+        }
+
+        timesheetRepository.insertAll(timesheetEntities);
+        log.info("Created {} timesheets for user: {}", timesheetEntities.size(), currentUser.getId());
+        return timesheetEntities.stream().map(timesheetMapping::toDto).toList();
+    }
+
     @Transactional
     public TimesheetDto updateTimesheet(UpdateTimesheetRequest form) {
         Long timesheetId = requireId(form.getId());
         log.info("Updating timesheet with id: {}", timesheetId);
 
-        TimesheetEntity timesheetEntity = timesheetRepository.findById(timesheetId)
+        // Row lock first, ledger second: the same order as bulk approvals
+        TimesheetEntity timesheetEntity = timesheetRepository.findWithLockById(timesheetId)
                 .orElseThrow(() -> new NotFoundException(messageService.getMessage("timesheet.not.found", timesheetId)));
 
         if (timesheetEntity.getStatus() != ETimesheetStatus.PENDING) {
             throw new BadRequestException(messageService.getMessage("timesheet.cannot.update"));
         }
 
+        dailyHoursLedgerService.moveLoggedMinutes(
+                timesheetEntity.getUserEntity().getId(),
+                timesheetEntity.getWorkingDay(),
+                DailyHoursLedgerService.toMinutes(timesheetEntity.getWorkingHours()),
+                form.getWorkingDay() != null ? form.getWorkingDay() : timesheetEntity.getWorkingDay(),
+                DailyHoursLedgerService.toMinutes(form.getWorkingHours() != null ? form.getWorkingHours() : timesheetEntity.getWorkingHours()));
+
         if (form.getTitle() != null) {
             timesheetEntity.setTitle(form.getTitle());
         }
@@ -111,7 +168,8 @@ public class TimesheetCommandService {
         Long timesheetId = requireId(form.getId());
         log.info("Processing timesheet approval for id: {} with status: {}", timesheetId, form.getTimesheetStatus());
 
-        TimesheetEntity timesheetEntity = timesheetRepository.findById(timesheetId)
+        // Row lock first, ledger second: the same order as bulk approvals
+        TimesheetEntity timesheetEntity = timesheetRepository.findWithLockById(timesheetId)
                 .orElseThrow(() -> new NotFoundException(messageService.getMessage("timesheet.not.found", timesheetId)));
 
         switch (timesheetEntity.getStatus()) {
@@ -119,6 +177,12 @@ public class TimesheetCommandService {
                 if (form.getTimesheetStatus() == null) {
                     throw new BadRequestException(messageService.getMessage("timesheet.status.not.found"));
                 }
+                if (form.getTimesheetStatus() == ETimesheetStatus.REJECTED) {
+                    dailyHoursLedgerService.addLoggedMinutes(
+                            timesheetEntity.getUserEntity().getId(),
+                            timesheetEntity.getWorkingDay(),
+                            -DailyHoursLedgerService.toMinutes(timesheetEntity.getWorkingHours()));
+                }
                 timesheetEntity.setStatus(form.getTimesheetStatus());
             }
             case APPROVED, REJECTED -> throw new BadRequestException(messageService.getMessage("timesheet.cannot.change.status"));
@@ -129,6 +193,86 @@ public class TimesheetCommandService {
         return timesheetMapping.toDto(savedEntity);
     }
 
+    /**
+     * Approves or rejects every pending timesheet selected by ID or by filter with one set-based
+     * update. The timesheets must belong to projects managed by {@code managerId}; for IDs this is
+     * verified up front with one count query, for filters it is part of the update itself.
+     * Rejections first lock the selected pending rows, so the minutes released from the ledger are
+     * those of the rows the update changes.
+     */
+    @Transactional
+    public TimesheetBulkApprovalDto bulkApprovalTimesheets(BulkApprovalTimesheetRequest form, Long managerId) {
+        ETimesheetStatus newStatus = form.getTimesheetStatus();
+        if (newStatus == null || newStatus == ETimesheetStatus.PENDING) {
+            throw new BadRequestException(messageService.getMessage("timesheet.status.not.found"));
+        }
+        LocalDateTime modifiedAt = LocalDateTime.now();
+        int updatedCount;
+
+        if (form.getIds() != null && !form.getIds().isEmpty()) {
+            Set<Long> ids = new LinkedHashSet<>(form.getIds());
+            log.info("Processing bulk timesheet approval of {} ids with status: {} by manager: {}", ids.size(), newStatus, managerId);
+            if (timesheetRepository.countByIdInAndProjectManagerId(ids, managerId) != ids.size()) {
+                throw new BadRequestException(messageService.getMessage("timesheet.bulk.not.managed"));
+            }
+            updatedCount = newStatus == ETimesheetStatus.REJECTED
+                    ? reject(timesheetRepository.findByIdInAndStatusAndDeleteFalseOrderByIdAsc(ids, ETimesheetStatus.PENDING),
+                            managerId, modifiedAt)
+                    : timesheetRepository.updateStatusForIds(ids, ETimesheetStatus.PENDING, newStatus, managerId, modifiedAt);
+        } else {
+            LocalDate fromDate = form.getFromDate();
+            LocalDate toDate = form.getToDate();
+            if (fromDate == null || toDate == null || fromDate.isAfter(toDate)) {
+                throw new BadRequestException(messageService.getMessage("timesheet.bulk.selection.required"));
+            }
+            Long projectId = form.getProjectId();
+            log.info("Processing bulk timesheet approval of project: {} from {} to {} with status: {} by manager: {}",
+                    projectId, fromDate, toDate, newStatus, managerId);
+            if (projectId != null && !projectRepository.existsByIdAndProjectManagerId(projectId, managerId)) {
+                throw new BadRequestException(messageService.getMessage("timesheet.bulk.not.managed"));
+            }
+            updatedCount = newStatus == ETimesheetStatus.REJECTED
+                    ? reject(timesheetRepository.findAndLockForFilter(
+                            managerId, projectId, fromDate, toDate, ETimesheetStatus.PENDING), managerId, modifiedAt)
+                    : timesheetRepository.updateStatusForFilter(
+                            managerId, projectId, fromDate, toDate, ETimesheetStatus.PENDING, newStatus, modifiedAt);
+        }
+
+        log.info("Bulk timesheet approval updated {} timesheets to status: {}", updatedCount, newStatus);
+        return new TimesheetBulkApprovalDto(newStatus, updatedCount);
+    }
+
+    /**
+     * Rejects timesheets that are already row-locked and pending, removing exactly their minutes
+     * from the ledger. Locked rows cannot change status in between, so the update below changes
+     * the same rows the released minutes were computed from.
+     *
+     * @return number of rejected timesheets
+     */
+    private int reject(List<TimesheetEntity> lockedPending, Long managerId, LocalDateTime modifiedAt) {
+        if (lockedPending.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Map<LocalDate, Integer>> minutesByUser = new HashMap<>();
+        for (TimesheetEntity timesheet : lockedPending) {
+            minutesByUser.computeIfAbsent(timesheet.getUserEntity().getId(), userId -> new TreeMap<>())
+                    .merge(timesheet.getWorkingDay(), DailyHoursLedgerService.toMinutes(timesheet.getWorkingHours()),
+                            Integer::sum);
+        }
+        Map<Long, Set<LocalDate>> workDaysByUser = new HashMap<>();
+        minutesByUser.forEach((userId, minutes) -> workDaysByUser.put(userId, new TreeSet<>(minutes.keySet())));
+        Map<Long, Map<LocalDate, UserDailyHoursEntity>> dailyHoursByUser = dailyHoursLedgerService.lockAll(workDaysByUser);
+
+        minutesByUser.forEach((userId, minutesByDay) -> minutesByDay.forEach((workDay, minutes) -> {
+            UserDailyHoursEntity dailyHours = dailyHoursByUser.get(userId).get(workDay);
+            dailyHours.setLoggedMinutes(dailyHours.getLoggedMinutes() - minutes);
+        }));
+
+        List<Long> ids = lockedPending.stream().map(TimesheetEntity::getId).toList();
+        return timesheetRepository.updateStatusForIds(ids, ETimesheetStatus.PENDING, ETimesheetStatus.REJECTED,
+                managerId, modifiedAt);
+    }
+
     private TimesheetEntity buildTimesheetEntity(CreateTimesheetRequest form, ProjectEntity projectEntity, UserEntity userEntity) {
         TimesheetEntity timesheetEntity = new TimesheetEntity();
         timesheetEntity.setTitle(form.getTitle());
@@ -162,68 +306,20 @@ public class TimesheetCommandService {
         }
     }
 
-    private void assertNotWeekend(LocalDate workingDay) {
-        DayOfWeek dayOfWeek = workingDay.getDayOfWeek();
-        if (dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY) {
-            throw new BadRequestException(messageService.getMessage("timesheet.cannot.log.weekend"));
+    private void assertWorkingDay(Long userId, LocalDate workingDay) {
+        if (dailyHoursLedgerService.getCapacityMinutes(userId, workingDay) == 0) {
+            throw new BadRequestException(messageService.getMessage("timesheet.cannot.log.non.working.day"));
         }
     }
 
-    private void assertCanLogNormalTimesheet(Long userId, LocalDate workingDay, LocalTime newWorkingHours) {
-        double totalWorkingHours = timesheetRepository
-                .findByUserEntityIdAndWorkingDayAndStatusNot(userId, workingDay, ETimesheetStatus.REJECTED)
-                .stream()
-                .mapToDouble(projection -> TimeUtils.convertTimeToHours(projection.getWorkingHours()))
-                .sum();
-
-        double maxAllowedHours = calculateMaxAllowedHoursForDay(userId, workingDay);
-        double newHours = TimeUtils.convertTimeToHours(newWorkingHours);
-        if (totalWorkingHours + newHours > maxAllowedHours) {
-            throw new BadRequestException(messageService.getMessage("timesheet.cannot.log", maxAllowedHours));
+    private void assertCanLogNormalTimesheet(UserDailyHoursEntity dailyHours, int newMinutes) {
+        int loggableMinutes = dailyHoursLedgerService.getLoggableMinutes(dailyHours);
+        if (loggableMinutes == 0) {
+            throw new BadRequestException(messageService.getMessage("timesheet.cannot.log.full.dayoff"));
         }
-    }
-
-    private double calculateMaxAllowedHoursForDay(Long userId, LocalDate workingDay) {
-        double dailyWorkHours = workHoursCalculatorService.getDailyWorkHours();
-        LocalDateTime dayStart = workingDay.atStartOfDay();
-        LocalDateTime dayEnd = workingDay.plusDays(1).atStartOfDay();
-        Specification<DayOffEntity> spec = buildApprovedDayOffOverlapSpec(userId, dayStart, dayEnd);
-
-        double usedByDayOffHours = 0.0;
-        for (DayOffEntity dayOff : dayOffRepository.findAll(spec)) {
-            if (dayOff.getStartTime() == null || dayOff.getEndTime() == null) {
-                continue;
-            }
-
-            Map<LocalDate, Double> remainingByDate =
-                    workHoursCalculatorService.calculateRemainingHours(dayOff.getStartTime(), dayOff.getEndTime());
-            Double remaining = remainingByDate.get(workingDay);
-            if (remaining == null) {
-                continue;
-            }
-
-            double used = dailyWorkHours - remaining;
-            if (used > 0) {
-                usedByDayOffHours += used;
-                if (usedByDayOffHours >= dailyWorkHours) {
-                    return dailyWorkHours;
-                }
-            }
+        if (dailyHours.getLoggedMinutes() + newMinutes > loggableMinutes) {
+            throw new BadRequestException(messageService.getMessage("timesheet.cannot.log", loggableMinutes / 60.0));
         }
-
-        return Math.max(0.0, dailyWorkHours - usedByDayOffHours);
-    }
-
-    private Specification<DayOffEntity> buildApprovedDayOffOverlapSpec(Long userId, LocalDateTime dayStart, LocalDateTime dayEnd) {
-        return (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-            predicates.add(cb.lessThan(root.get("startTime"), dayEnd));
-            predicates.add(cb.greaterThan(root.get("endTime"), dayStart));
-            predicates.add(cb.equal(root.get("requestedBy").get("id"), userId));
-            predicates.add(cb.equal(root.get("status"), EDayOffStatus.APPROVED));
-            predicates.add(cb.equal(root.get("delete"), false));
-            return cb.and(predicates.toArray(Predicate[]::new));
-        };
     }
 
     private Long requireId(Long id) {
@@ -0,0 +1,215 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import com.minhpt.hrmtoolnextgen.component.ExportFileStore;
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportJobDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportJobStatus;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.exception.NotFoundException;
+import com.minhpt.hrmtoolnextgen.exception.RateLimitException;
+import com.minhpt.hrmtoolnextgen.repository.redis.TimesheetExportJobRedisRepository;
+import com.minhpt.hrmtoolnextgen.service.SseService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Month-end timesheet exports across all projects, run in the background so they do not hold a
+ * request thread.
+ *
+ * <p>{@link #submit} records the job in Redis and queues it on the bounded
+ * {@code exportTaskExecutor}; a full queue is answered with 429. The job streams the month into a
+ * file of the {@link ExportFileStore}, updating the row count in Redis and sending an
+ * {@value #PROGRESS_EVENT} SSE event to its owner every
+ * {@value TimesheetExportService#PROGRESS_INTERVAL} rows and when it finishes or fails. Status and
+ * download only read Redis and the store, so any node can serve them.
+ *
+ * <p>Each node heartbeats the jobs it has queued or is running every
+ * {@code hrm.export.job.heartbeat-interval}. A QUEUED or RUNNING job whose heartbeat is older
+ * than {@code hrm.export.job.stale-after} lost its node to a restart or crash; the sweep that
+ * follows every heartbeat, and one at startup, marks it FAILED so its owner can resubmit.
+ */
+@Service
+@Log4j2
+public class TimesheetExportJobService {
+
+    static final String PROGRESS_EVENT = "export-progress";
+
+    private final TimesheetExportService timesheetExportService;
+    private final TimesheetExportJobRedisRepository jobRepository;
+    private final ExportFileStore exportFileStore;
+    private final SseService sseService;
+    private final MessageService messageService;
+    private final Executor exportTaskExecutor;
+    private final Duration staleAfter;
+    // Jobs this node has accepted and not finished yet
+    private final Set<String> localJobIds = ConcurrentHashMap.newKeySet();
+
+    public TimesheetExportJobService(TimesheetExportService timesheetExportService,
+                                     TimesheetExportJobRedisRepository jobRepository,
+                                     ExportFileStore exportFileStore,
+                                     SseService sseService,
+                                     MessageService messageService,
+                                     @Qualifier("exportTaskExecutor") Executor exportTaskExecutor,
+                                     @Value("${hrm.export.job.stale-after:PT1M}") Duration staleAfter) {
+        this.timesheetExportService = timesheetExportService;
+        this.jobRepository = jobRepository;
+        this.exportFileStore = exportFileStore;
+        this.sseService = sseService;
+        this.messageService = messageService;
+        this.exportTaskExecutor = exportTaskExecutor;
+        this.staleAfter = staleAfter;
+    }
+
+    public TimesheetExportJobDto submit(Long ownerId, YearMonth month, EExportFormat format) {
+        TimesheetExportJobDto job = TimesheetExportJobDto.builder()
+                .jobId(UUID.randomUUID().toString())
+                .ownerId(ownerId)
+                .month(month.toString())
+                .format(format)
+                .status(EExportJobStatus.QUEUED)
+                .createdAt(System.currentTimeMillis())
+                .build();
+        jobRepository.save(job);
+        localJobIds.add(job.getJobId());
+        try {
+            exportTaskExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            String message = messageService.getMessage("export.job.queue.full");
+            finish(job, EExportJobStatus.FAILED, message);
+            throw new RateLimitException(message);
+        }
+        log.info("Export job {} queued by user {}: {} as {}", job.getJobId(), ownerId, month, format);
+        return job;
+    }
+
+    /**
+     * @throws NotFoundException if the job is unknown, expired or belongs to another user
+     */
+    public TimesheetExportJobDto getJob(Long ownerId, String jobId) {
+        TimesheetExportJobDto job = jobRepository.findById(jobId);
+        if (job == null || !job.getOwnerId().equals(ownerId)) {
+            throw new NotFoundException(messageService.getMessage("export.job.not.found", jobId));
+        }
+        return job;
+    }
+
+    /**
+     * @param job a job returned by {@link #getJob}
+     * @return the finished file of the job
+     * @throws BadRequestException if the job has not completed
+     * @throws NotFoundException   if its file is gone
+     */
+    public Path getDownloadFile(TimesheetExportJobDto job) {
+        if (job.getStatus() != EExportJobStatus.COMPLETED) {
+            throw new BadRequestException(messageService.getMessage("export.job.not.ready", job.getStatus()));
+        }
+        Path file = exportFileStore.resolve(job.getFileName());
+        if (!Files.isRegularFile(file)) {
+            throw new NotFoundException(messageService.getMessage("export.job.file.missing", job.getJobId()));
+        }
+        return file;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${hrm.export.job.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            for (String jobId : localJobIds) {
+                jobRepository.heartbeat(jobId, now);
+            }
+            failOrphanedJobs(now);
+        } catch (Exception e) {
+            log.error("Failed to heartbeat export jobs: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Fails the active jobs of other nodes, or of an earlier run of this one, that stopped
+     * heartbeating. The check and the update are one Redis script, so a live job is never failed
+     * and concurrent sweeps fail a job once.
+     */
+    void failOrphanedJobs(long now) {
+        long staleBefore = now - staleAfter.toMillis();
+        String message = messageService.getMessage("export.job.interrupted");
+        for (String jobId : jobRepository.findActiveJobIds()) {
+            if (localJobIds.contains(jobId) || !jobRepository.failIfStale(jobId, staleBefore, message, now)) {
+                continue;
+            }
+            log.warn("Export job {} lost its node and was marked failed", jobId);
+            TimesheetExportJobDto job = jobRepository.findById(jobId);
+            if (job != null) {
+                notifyOwner(job);
+            }
+        }
+    }
+
+    void run(TimesheetExportJobDto job) {
+        YearMonth month = YearMonth.parse(job.getMonth());
+        String fileName = "timesheets-" + month + "-" + job.getJobId() + "." + job.getFormat().getExtension();
+        Path partFile = exportFileStore.partFile(fileName);
+        try {
+            job.setStatus(EExportJobStatus.RUNNING);
+            job.setTotalRows(timesheetExportService.countMonthlyTimesheets(month));
+            jobRepository.save(job);
+            notifyOwner(job);
+
+            long rows;
+            try (OutputStream outputStream = Files.newOutputStream(partFile)) {
+                rows = timesheetExportService.exportMonthlyTimesheets(month, job.getFormat(), outputStream,
+                        processedRows -> {
+                            job.setProcessedRows(processedRows);
+                            jobRepository.updateProgress(job.getJobId(), processedRows);
+                            notifyOwner(job);
+                        });
+            }
+            Path file = exportFileStore.publish(partFile);
+            job.setProcessedRows(rows);
+            job.setFileName(fileName);
+            job.setFileSize(Files.size(file));
+            finish(job, EExportJobStatus.COMPLETED, null);
+            log.info("Export job {} completed: {} rows, {} bytes", job.getJobId(), rows, job.getFileSize());
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.getJobId(), e);
+            exportFileStore.deleteQuietly(partFile);
+            finish(job, EExportJobStatus.FAILED, messageService.getMessage("export.job.failed"));
+        }
+    }
+
+    private void finish(TimesheetExportJobDto job, EExportJobStatus status, String errorMessage) {
+        job.setStatus(status);
+        job.setErrorMessage(errorMessage);
+        job.setFinishedAt(System.currentTimeMillis());
+        try {
+            jobRepository.save(job);
+        } finally {
+            localJobIds.remove(job.getJobId());
+            notifyOwner(job);
+        }
+    }
+
+    private void notifyOwner(TimesheetExportJobDto job) {
+        try {
+            sseService.sendEvent(String.valueOf(job.getOwnerId()), PROGRESS_EVENT, job);
+        } catch (Exception e) {
+            log.warn("Failed to send progress of export job {}: {}", job.getJobId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.util.function.LongConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Monthly project timesheet exports, streamed from a forward-only cursor straight into the
+ * response. Rows are never collected, so heap use does not depend on the size of the project.
+ */
+@Service
+@RequiredArgsConstructor
+@Log4j2
+public class TimesheetExportService {
+
+    static final int PROGRESS_INTERVAL = 10_000;
+
+    private final TimesheetRepository timesheetRepository;
+    private final ProjectRepository projectRepository;
+    private final MessageService messageService;
+
+    /**
+     * Checks that {@code managerId} manages the project. Call it before committing response
+     * headers, so a refusal still reaches the client as a regular error response.
+     */
+    @Transactional(readOnly = true)
+    public void assertCanExport(Long managerId, Long projectId) {
+        if (!projectRepository.existsByIdAndProjectManagerId(projectId, managerId)) {
+            throw new BadRequestException(messageService.getMessage("timesheet.export.not.managed"));
+        }
+    }
+
+    /**
+     * Writes the project's timesheets of {@code month} to {@code outputStream}, which is flushed
+     * but not closed.
+     *
+     * @return the number of timesheet rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportMonthlyProjectTimesheets(Long projectId, YearMonth month, EExportFormat format,
+                                               OutputStream outputStream) throws IOException {
+        long startedAt = System.nanoTime();
+        long rows = export(format, outputStream, false, writer -> timesheetRepository.streamProjectTimesheets(
+                projectId, month.atDay(1), month.atEndOfMonth(), writer::write));
+        log.info("Exported {} timesheets of project {} for {} as {} in {} ms",
+                rows, projectId, month, format, (System.nanoTime() - startedAt) / 1_000_000);
+        return rows;
+    }
+
+    /**
+     * Writes the timesheets of {@code month} across all projects to {@code outputStream}, with a
+     * leading project column. {@code progressListener} receives the number of rows written so far
+     * every {@value #PROGRESS_INTERVAL} rows.
+     *
+     * @return the number of timesheet rows written
+     */
+    @Transactional(readOnly = true)
+    public long exportMonthlyTimesheets(YearMonth month, EExportFormat format, OutputStream outputStream,
+                                        LongConsumer progressListener) throws IOException {
+        long startedAt = System.nanoTime();
+        long[] written = {0};
+        long rows = export(format, outputStream, true, writer -> timesheetRepository.streamTimesheets(
+                month.atDay(1), month.atEndOfMonth(), row -> {
+                    writer.write(row);
+                    if (++written[0] % PROGRESS_INTERVAL == 0) {
+                        progressListener.accept(written[0]);
+                    }
+                }));
+        log.info("Exported {} timesheets of all projects for {} as {} in {} ms",
+                rows, month, format, (System.nanoTime() - startedAt) / 1_000_000);
+        return rows;
+    }
+
+    @Transactional(readOnly = true)
+    public long countMonthlyTimesheets(YearMonth month) {
+        return timesheetRepository.countTimesheets(month.atDay(1), month.atEndOfMonth());
+    }
+
+    private long export(EExportFormat format, OutputStream outputStream, boolean includeProject,
+                        ToLongFunction<TimesheetExportWriter> rowSource) throws IOException {
+        try (TimesheetExportWriter writer = format == EExportFormat.CSV
+                ? new CsvTimesheetExportWriter(outputStream, includeProject)
+                : new XlsxTimesheetExportWriter(outputStream, includeProject)) {
+            long rows = rowSource.applyAsLong(writer);
+            writer.finish();
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportRow;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes export rows one at a time to an output stream, keeping at most a bounded window of rows
+ * in memory.
+ */
+interface TimesheetExportWriter extends AutoCloseable {
+
+    String[] HEADERS = {"Member email", "Member name", "Working day", "Type", "Title", "Description",
+            "Working hours", "Status"};
+
+    String PROJECT_HEADER = "Project";
+
+    /**
+     * {@link #HEADERS}, preceded by {@link #PROJECT_HEADER} for exports spanning several projects.
+     */
+    static String[] headers(boolean includeProject) {
+        if (!includeProject) {
+            return HEADERS;
+        }
+        String[] headers = new String[HEADERS.length + 1];
+        headers[0] = PROJECT_HEADER;
+        System.arraycopy(HEADERS, 0, headers, 1, HEADERS.length);
+        return headers;
+    }
+
+    /**
+     * @throws UncheckedIOException if the output stream fails, so it can be called from a row callback
+     */
+    void write(TimesheetExportRow row);
+
+    /**
+     * Flushes everything written so far to the output stream, which stays open.
+     */
+    void finish() throws IOException;
+
+    /**
+     * Releases temporary resources; the output stream is not closed.
+     */
+    @Override
+    void close() throws IOException;
+}
@@ -1,24 +1,36 @@
 package com.minhpt.hrmtoolnextgen.service.timesheet;
 
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.dto.request.CursorPaginationRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.PaginationRequest;
+import com.minhpt.hrmtoolnextgen.dto.response.CursorPaginationResponse;
 import com.minhpt.hrmtoolnextgen.dto.response.PaginationResponse;
 import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
 import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
 import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
 import com.minhpt.hrmtoolnextgen.mapping.TimesheetMapping;
 import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
 import com.minhpt.hrmtoolnextgen.util.CommonUtils;
+import com.minhpt.hrmtoolnextgen.util.KeysetCursor;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -27,9 +39,13 @@ public class TimesheetQueryService {
 
     private static final String DEFAULT_SORT_BY = "createdDate";
     private static final String DEFAULT_DIRECTION = "DESC";
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Direction.DESC, "createdDate", "id");
+    // Same fetch plan as the @EntityGraph on TimesheetRepository.findAll(Specification, Pageable)
+    private static final List<String> KEYSET_FETCH_GRAPH = List.of("projectEntity", "projectEntity.projectManager", "userEntity");
 
     private final TimesheetRepository timesheetRepository;
     private final TimesheetMapping timesheetMapping;
+    private final MessageService messageService;
 
     @Transactional(readOnly = true)
     public PaginationResponse<TimesheetDto> getTimesheetsByManagerWithFilters(
@@ -56,6 +72,98 @@ public class TimesheetQueryService {
         return CommonUtils.buildPaginationResponse(dtoPage, responseRequest);
     }
 
+    /**
+     * Keyset variant of {@link #getTimesheetsByManagerWithFilters}, newest first. Each page seeks
+     * past the {@code (createdDate, id)} of the previous page's last row instead of skipping an
+     * offset, so deep pages cost the same as the first. One extra row is fetched to tell whether
+     * another page follows; the total count runs only when {@code skipCount} is not set.
+     */
+    @Transactional(readOnly = true)
+    public CursorPaginationResponse<TimesheetDto> getTimesheetsByManagerWithCursor(
+            Long managerId,
+            CursorPaginationRequest paginationRequest,
+            ETimesheetStatus status,
+            Long projectId) {
+        log.debug("Getting timesheets for manager id: {} after cursor: {} - status: {}, projectId: {}",
+                managerId, paginationRequest.getCursor(), status, projectId);
+
+        KeysetCursor cursor;
+        try {
+            cursor = KeysetCursor.decode(paginationRequest.getCursor());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(messageService.getMessage("pagination.cursor.invalid"));
+        }
+        int size = paginationRequest.getSafeSize();
+        Specification<TimesheetEntity> spec = buildManagerTimesheetSpecification(managerId, status, projectId);
+
+        List<TimesheetEntity> rows = timesheetRepository.findBy(
+                spec.and(seekAfter(cursor)),
+                query -> query.sortBy(KEYSET_SORT).project(KEYSET_FETCH_GRAPH).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<TimesheetEntity> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            TimesheetEntity last = page.getLast();
+            nextCursor = new KeysetCursor(last.getCreatedDate(), last.getId()).encode();
+        }
+
+        return CursorPaginationResponse.<TimesheetDto>builder()
+                .pageSize(size)
+                .numberOfElements(page.size())
+                .totalElements(paginationRequest.isSkipCount() ? null : timesheetRepository.count(spec))
+                .sortBy(DEFAULT_SORT_BY)
+                .direction(DEFAULT_DIRECTION)
+                .hasNext(hasNext)
+                .nextCursor(nextCursor)
+                .items(page.stream().map(timesheetMapping::toDto).toList())
+                .build();
+    }
+
+    /**
+     * Logged minutes per timesheet type for one user and date range, aggregated in the database.
+     * Types without timesheets map to {@code 0}.
+     */
+    @Transactional(readOnly = true)
+    public Map<ETimesheetType, Long> getLoggedMinutesByType(
+            Long userId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Collection<ETimesheetStatus> statuses) {
+        Map<ETimesheetType, Long> minutesByType = emptyMinutesByType();
+        timesheetRepository.sumLoggedMinutesByType(userId, fromDate, toDate, statuses)
+                .forEach(row -> minutesByType.put(row.getType(), row.getTotalMinutes() == null ? 0L : row.getTotalMinutes()));
+        return minutesByType;
+    }
+
+    /**
+     * {@link #getLoggedMinutesByType} for several users in one grouped query, keyed by user id.
+     * Every requested user is present, so exports can map members without timesheets.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Map<ETimesheetType, Long>> getLoggedMinutesByUserAndType(
+            Collection<Long> userIds,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Collection<ETimesheetStatus> statuses) {
+        Map<Long, Map<ETimesheetType, Long>> minutesByUser = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return minutesByUser;
+        }
+        userIds.forEach(userId -> minutesByUser.put(userId, emptyMinutesByType()));
+        timesheetRepository.sumLoggedMinutesByUserAndType(userIds, fromDate, toDate, statuses)
+                .forEach(row -> minutesByUser.get(row.getUserId())
+                        .put(row.getType(), row.getTotalMinutes() == null ? 0L : row.getTotalMinutes()));
+        return minutesByUser;
+    }
+
+    private static Map<ETimesheetType, Long> emptyMinutesByType() {
+        Map<ETimesheetType, Long> minutesByType = new EnumMap<>(ETimesheetType.class);
+        for (ETimesheetType type : ETimesheetType.values()) {
+            minutesByType.put(type, 0L);
+        }
+        return minutesByType;
+    }
+
     private Specification<TimesheetEntity> buildManagerTimesheetSpecification(
             Long managerId,
             ETimesheetStatus status,
@@ -78,6 +186,19 @@ public class TimesheetQueryService {
         };
     }
 
+    private Specification<TimesheetEntity> seekAfter(KeysetCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) {
+                return cb.conjunction();
+            }
+            return cb.or(
+                    cb.lessThan(root.get("createdDate"), cursor.createdDate()),
+                    cb.and(
+                            cb.equal(root.get("createdDate"), cursor.createdDate()),
+                            cb.lessThan(root.get("id"), cursor.id())));
+        };
+    }
+
     private boolean hasText(String value) {
         return value != null && !value.isBlank();
     }
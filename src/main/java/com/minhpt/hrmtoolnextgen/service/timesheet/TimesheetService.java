@@ -1,28 +1,48 @@
 package com.minhpt.hrmtoolnextgen.service.timesheet;
 
 import com.minhpt.hrmtoolnextgen.dto.request.ApprovalTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.BulkApprovalTimesheetRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.CursorPaginationRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.PaginationRequest;
 import com.minhpt.hrmtoolnextgen.dto.request.UpdateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.response.CursorPaginationResponse;
 import com.minhpt.hrmtoolnextgen.dto.response.PaginationResponse;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetBulkApprovalDto;
 import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
 import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class TimesheetService {
 
     private final TimesheetCommandService timesheetCommandService;
     private final TimesheetQueryService timesheetQueryService;
+    private final TimesheetExportService timesheetExportService;
 
     @Transactional
     public TimesheetDto createTimesheet(CreateTimesheetRequest form) {
         return timesheetCommandService.createTimesheet(form);
     }
 
+    @Transactional
+    public List<TimesheetDto> createTimesheets(List<CreateTimesheetRequest> forms) {
+        return timesheetCommandService.createTimesheets(forms);
+    }
+
     @Transactional
     public TimesheetDto updateTimesheet(UpdateTimesheetRequest form) {
         return timesheetCommandService.updateTimesheet(form);
@@ -33,6 +53,11 @@ public class TimesheetService {
         return timesheetCommandService.approvalTimesheet(form);
     }
 
+    @Transactional
+    public TimesheetBulkApprovalDto bulkApprovalTimesheets(BulkApprovalTimesheetRequest form, Long managerId) {
+        return timesheetCommandService.bulkApprovalTimesheets(form, managerId);
+    }
+
     @Transactional(readOnly = true)
     public PaginationResponse<TimesheetDto> getTimesheetsByManagerWithFilters(
             Long managerId,
@@ -41,4 +66,42 @@ public class TimesheetService {
             Long projectId) {
         return timesheetQueryService.getTimesheetsByManagerWithFilters(managerId, paginationRequest, status, projectId);
     }
+
+    @Transactional(readOnly = true)
+    public CursorPaginationResponse<TimesheetDto> getTimesheetsByManagerWithCursor(
+            Long managerId,
+            CursorPaginationRequest paginationRequest,
+            ETimesheetStatus status,
+            Long projectId) {
+        return timesheetQueryService.getTimesheetsByManagerWithCursor(managerId, paginationRequest, status, projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<ETimesheetType, Long> getLoggedMinutesByType(
+            Long userId,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Collection<ETimesheetStatus> statuses) {
+        return timesheetQueryService.getLoggedMinutesByType(userId, fromDate, toDate, statuses);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Map<ETimesheetType, Long>> getLoggedMinutesByUserAndType(
+            Collection<Long> userIds,
+            LocalDate fromDate,
+            LocalDate toDate,
+            Collection<ETimesheetStatus> statuses) {
+        return timesheetQueryService.getLoggedMinutesByUserAndType(userIds, fromDate, toDate, statuses);
+    }
+
+    @Transactional(readOnly = true)
+    public void assertCanExportTimesheets(Long managerId, Long projectId) {
+        timesheetExportService.assertCanExport(managerId, projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportMonthlyProjectTimesheets(Long projectId, YearMonth month, EExportFormat format,
+                                               OutputStream outputStream) throws IOException {
+        return timesheetExportService.exportMonthlyProjectTimesheets(projectId, month, format, outputStream);
+    }
 }
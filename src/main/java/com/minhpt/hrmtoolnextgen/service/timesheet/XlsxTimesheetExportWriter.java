@@ -0,0 +1,113 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportRow;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streaming {@code .xlsx} through POI's {@link SXSSFWorkbook}: only the last
+ * {@value #ROW_WINDOW} rows stay in memory, older ones are flushed to a compressed temporary file
+ * that is zipped into the output by {@link #finish()}. A sheet that reaches the Excel row limit
+ * continues on a new sheet.
+ */
+class XlsxTimesheetExportWriter implements TimesheetExportWriter {
+
+    private static final int ROW_WINDOW = 100;
+    private static final int MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final String SHEET_NAME = "Timesheets";
+
+    private final OutputStream outputStream;
+    private final SXSSFWorkbook workbook;
+    private final CellStyle headerStyle;
+    private final CellStyle dateStyle;
+    private final CellStyle hoursStyle;
+    private final String[] headers;
+    private final int firstColumn;
+    private SXSSFSheet sheet;
+    private int nextRow;
+
+    XlsxTimesheetExportWriter(OutputStream outputStream, boolean includeProject) {
+        this.outputStream = outputStream;
+        this.headers = TimesheetExportWriter.headers(includeProject);
+        this.firstColumn = includeProject ? 1 : 0;
+        this.workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(bold);
+        dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
+        hoursStyle = workbook.createCellStyle();
+        hoursStyle.setDataFormat(workbook.createDataFormat().getFormat("[h]:mm"));
+        newSheet();
+    }
+
+    @Override
+    public void write(TimesheetExportRow row) {
+        if (nextRow == MAX_ROWS) {
+            newSheet();
+        }
+        Row sheetRow = sheet.createRow(nextRow++);
+        int column = firstColumn;
+        if (column == 1) {
+            setText(sheetRow, 0, row.projectName());
+        }
+        setText(sheetRow, column, row.memberEmail());
+        setText(sheetRow, column + 1, row.memberName());
+        if (row.workingDay() != null) {
+            Cell cell = sheetRow.createCell(column + 2);
+            cell.setCellValue(row.workingDay());
+            cell.setCellStyle(dateStyle);
+        }
+        setText(sheetRow, column + 3, row.type() == null ? null : row.type().name());
+        setText(sheetRow, column + 4, row.title());
+        setText(sheetRow, column + 5, row.description());
+        if (row.workingHours() != null) {
+            // Stored as a fraction of a day so Excel can sum the column
+            Cell cell = sheetRow.createCell(column + 6);
+            cell.setCellValue(row.workingHours().toSecondOfDay() / 86_400d);
+            cell.setCellStyle(hoursStyle);
+        }
+        setText(sheetRow, column + 7, row.status() == null ? null : row.status().name());
+    }
+
+    @Override
+    public void finish() throws IOException {
+        workbook.write(outputStream);
+        outputStream.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
+    private void newSheet() {
+        int sheetCount = workbook.getNumberOfSheets();
+        sheet = workbook.createSheet(sheetCount == 0 ? SHEET_NAME : SHEET_NAME + " (" + (sheetCount + 1) + ")");
+        Row header = sheet.createRow(0);
+        for (int column = 0; column < headers.length; column++) {
+            Cell cell = header.createCell(column);
+            cell.setCellValue(headers[column]);
+            cell.setCellStyle(headerStyle);
+        }
+        nextRow = 1;
+    }
+
+    private static void setText(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+        }
+    }
+}
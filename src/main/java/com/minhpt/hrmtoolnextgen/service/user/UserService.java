@@ -6,6 +6,7 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 
 import com.minhpt.hrmtoolnextgen.service.EmailService;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -26,11 +27,13 @@ import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
 import com.minhpt.hrmtoolnextgen.enumeration.EUserLevel;
 import com.minhpt.hrmtoolnextgen.enumeration.EUserPosition;
 import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.event.UserActivityChangedEvent;
 import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
 import com.minhpt.hrmtoolnextgen.exception.NotFoundException;
 import com.minhpt.hrmtoolnextgen.mapping.UserMapping;
 import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.security.UserPrincipalCache;
 import com.minhpt.hrmtoolnextgen.util.CommonUtils;
 
 import jakarta.persistence.criteria.Predicate;
@@ -47,6 +50,8 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final MessageService messageService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public UserEntity findUserByEmail(String email) {
         log.debug("Finding user by email: {}", email);
@@ -185,6 +190,7 @@ public class UserService {
         }
 
         UserEntity savedEntity = userRepository.save(userEntity);
+        publishActivityChange(savedEntity, false);
         log.info("Created user with id: {} and email: {}", savedEntity.getId(), savedEntity.getEmail());
 
         // Send welcome email with credentials
@@ -200,6 +206,7 @@ public class UserService {
     public UserDto updateUser(Long id, UpdateUserRequest request) {
         log.info("Updating user with id: {}", id);
         UserEntity userEntity = findUserById(id);
+        boolean wasActive = isActiveEmployee(userEntity);
 
         // Check if email already exists (excluding current user)
         if (request.getEmail() != null && !request.getEmail().equals(userEntity.getEmail())) {
@@ -266,6 +273,8 @@ public class UserService {
         }
 
         UserEntity updatedEntity = userRepository.save(Objects.requireNonNull(userEntity));
+        publishActivityChange(updatedEntity, wasActive);
+        userPrincipalCache.evict(updatedEntity.getId());
         log.info("Updated user with id: {}", updatedEntity.getId());
         return userMapping.toDto(updatedEntity);
     }
@@ -274,17 +283,32 @@ public class UserService {
     public void deleteUser(Long id) {
         log.info("Deactivating user with id: {}", id);
         UserEntity userEntity = findUserById(id);
+        boolean wasActive = isActiveEmployee(userEntity);
         userEntity.setActive(false);
         userRepository.save(userEntity);
+        publishActivityChange(userEntity, wasActive);
+        userPrincipalCache.evict(id);
         log.info("Deactivated user with id: {}", id);
     }
 
+    private void publishActivityChange(UserEntity userEntity, boolean wasActive) {
+        boolean active = isActiveEmployee(userEntity);
+        if (active != wasActive) {
+            eventPublisher.publishEvent(new UserActivityChangedEvent(userEntity.getId(), active));
+        }
+    }
+
+    private static boolean isActiveEmployee(UserEntity userEntity) {
+        return userEntity.isActive() && !userEntity.isDelete();
+    }
+
     @Transactional
     public void setUserPassword(Long id, String newPassword) {
         log.info("Setting password for user with id: {}", id);
         UserEntity userEntity = findUserById(id);
         userEntity.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(userEntity);
+        userPrincipalCache.evict(id);
         log.info("Password updated for user with id: {}", id);
     }
 
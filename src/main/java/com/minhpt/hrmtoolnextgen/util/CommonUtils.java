@@ -13,6 +13,8 @@ import org.springframework.data.domain.Sort.Direction;
 
 import java.util.Currency;
 import java.util.Locale;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
 public class CommonUtils {
@@ -101,6 +103,19 @@ public class CommonUtils {
                 .build();
     }
 
+    /**
+     * Joins the non-blank name parts with single spaces.
+     *
+     * @return the full name, or {@code null} when every part is blank
+     */
+    public static String fullName(String firstName, String lastName) {
+        String joined = Stream.of(firstName, lastName)
+                .filter(part -> part != null && !part.isBlank())
+                .map(String::trim)
+                .collect(Collectors.joining(" "));
+        return joined.isEmpty() ? null : joined;
+    }
+
     public static String randomPassword(int length) {
         return RandomStringUtils.secure().nextAlphanumeric(length);
     }
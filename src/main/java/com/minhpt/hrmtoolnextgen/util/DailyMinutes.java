@@ -0,0 +1,68 @@
+package com.minhpt.hrmtoolnextgen.util;
+
+import java.time.LocalDate;
+
+/**
+ * Minutes per day over a run of consecutive days, backed by one {@code int[]}.
+ *
+ * <p>Days are identified by epoch day; days outside the run read as 0. Instances are not
+ * modified after they are returned.
+ */
+public final class DailyMinutes {
+
+    private static final DailyMinutes EMPTY = new DailyMinutes(0, new int[0]);
+
+    private final long firstEpochDay;
+    private final int[] minutes;
+
+    public DailyMinutes(long firstEpochDay, int[] minutes) {
+        this.firstEpochDay = firstEpochDay;
+        this.minutes = minutes;
+    }
+
+    public static DailyMinutes empty() {
+        return EMPTY;
+    }
+
+    public long getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    /**
+     * @return the number of days in the run
+     */
+    public int size() {
+        return minutes.length;
+    }
+
+    public int get(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        return index >= 0 && index < minutes.length ? minutes[(int) index] : 0;
+    }
+
+    public int get(LocalDate date) {
+        return get(date.toEpochDay());
+    }
+
+    public long total() {
+        long total = 0;
+        for (int value : minutes) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * Calls {@code consumer} for every day of the run in date order.
+     */
+    public void forEach(DayConsumer consumer) {
+        for (int index = 0; index < minutes.length; index++) {
+            consumer.accept(firstEpochDay + index, minutes[index]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface DayConsumer {
+        void accept(long epochDay, int minutes);
+    }
+}
@@ -0,0 +1,115 @@
+package com.minhpt.hrmtoolnextgen.util;
+
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable holiday calendar of one year.
+ *
+ * <p>Holiday dates are held as a bit per day of the year, so {@link #isHoliday(long)} is a bounds
+ * check and a bit test that allocates nothing and can be called for every day of a loop. Days
+ * outside the year are never holidays of this calendar.
+ *
+ * <p>The {@link HolidayDto}s returned by {@link #getHolidays()} are shared by every caller and must
+ * not be modified.
+ *
+ * <p>A {@link #isProvisional() provisional} calendar stands in, without holidays, for a year whose
+ * holidays are still being fetched.
+ */
+public final class HolidayCalendar {
+
+    private final int year;
+    private final long firstEpochDay;
+    private final int length;
+    private final BitSet days;
+    private final List<HolidayDto> holidays;
+    private final boolean provisional;
+
+    private HolidayCalendar(int year, BitSet days, List<HolidayDto> holidays, boolean provisional) {
+        this.year = year;
+        this.firstEpochDay = LocalDate.of(year, 1, 1).toEpochDay();
+        this.length = Year.of(year).length();
+        this.days = days;
+        this.holidays = holidays;
+        this.provisional = provisional;
+    }
+
+    /**
+     * Builds the calendar of {@code year} from its holidays; holidays without a date or dated in
+     * another year are ignored.
+     */
+    public static HolidayCalendar of(int year, List<HolidayDto> holidays) {
+        long firstEpochDay = LocalDate.of(year, 1, 1).toEpochDay();
+        BitSet days = new BitSet(Year.of(year).length());
+        List<HolidayDto> inYear = new ArrayList<>();
+        for (HolidayDto holiday : holidays) {
+            if (holiday.getDate() != null && holiday.getDate().getYear() == year) {
+                days.set((int) (holiday.getDate().toEpochDay() - firstEpochDay));
+                inYear.add(holiday);
+            }
+        }
+        inYear.sort(Comparator.comparing(HolidayDto::getDate));
+        return new HolidayCalendar(year, days, List.copyOf(inYear), false);
+    }
+
+    public static HolidayCalendar empty(int year) {
+        return new HolidayCalendar(year, new BitSet(), List.of(), false);
+    }
+
+    /**
+     * @return an empty calendar standing in for {@code year} until its holidays are known
+     */
+    public static HolidayCalendar provisional(int year) {
+        return new HolidayCalendar(year, new BitSet(), List.of(), true);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public boolean isProvisional() {
+        return provisional;
+    }
+
+    /**
+     * @return whether both calendars are of the same year and have holidays on the same days
+     */
+    public boolean hasSameDays(HolidayCalendar other) {
+        return year == other.year && days.equals(other.days);
+    }
+
+    public boolean isHoliday(LocalDate date) {
+        return isHoliday(date.toEpochDay());
+    }
+
+    public boolean isHoliday(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        return index >= 0 && index < length && days.get((int) index);
+    }
+
+    /**
+     * @return the holidays of the year ordered by date
+     */
+    public List<HolidayDto> getHolidays() {
+        return holidays;
+    }
+
+    /**
+     * @return the holidays between both dates (inclusive) ordered by date
+     */
+    public List<HolidayDto> getHolidays(LocalDate startDate, LocalDate endDate) {
+        List<HolidayDto> between = new ArrayList<>();
+        for (HolidayDto holiday : holidays) {
+            if (!holiday.getDate().isBefore(startDate) && !holiday.getDate().isAfter(endDate)) {
+                between.add(holiday);
+            }
+        }
+        return between;
+    }
+}
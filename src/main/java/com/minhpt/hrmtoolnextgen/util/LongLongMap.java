@@ -0,0 +1,128 @@
+package com.minhpt.hrmtoolnextgen.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from {@code long} keys to {@code long} values, for accumulating totals
+ * per id without boxing either side. Absent keys read as 0.
+ *
+ * <p>{@link Long#MIN_VALUE} marks free slots and cannot be used as a key. Not thread-safe.
+ */
+public final class LongLongMap {
+
+    private static final long FREE = Long.MIN_VALUE;
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private long[] keys;
+    private long[] values;
+    private int shift;
+    private int size;
+
+    public LongLongMap() {
+        this(16);
+    }
+
+    public LongLongMap(int expectedSize) {
+        allocate(Math.max(4, Integer.highestOneBit(Math.max(1, expectedSize) * 2 - 1) << 1));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean containsKey(long key) {
+        return keys[slot(key)] == key;
+    }
+
+    public long get(long key) {
+        int slot = slot(key);
+        return keys[slot] == key ? values[slot] : 0;
+    }
+
+    public void put(long key, long value) {
+        values[insert(key)] = value;
+    }
+
+    /**
+     * Adds {@code delta} to the value of {@code key}, inserting the key if absent.
+     */
+    public void add(long key, long delta) {
+        values[insert(key)] += delta;
+    }
+
+    /**
+     * @return the keys in ascending order
+     */
+    public long[] sortedKeys() {
+        long[] sorted = new long[size];
+        int index = 0;
+        for (long key : keys) {
+            if (key != FREE) {
+                sorted[index++] = key;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long key, long value);
+    }
+
+    private int insert(long key) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Long.MIN_VALUE cannot be used as a key");
+        }
+        int slot = slot(key);
+        if (keys[slot] != key) {
+            if (size + 1 > keys.length * 3 / 4) {
+                grow();
+                slot = slot(key);
+            }
+            keys[slot] = key;
+            size++;
+        }
+        return slot;
+    }
+
+    /**
+     * @return the slot holding {@code key}, or the free slot where it would be inserted
+     */
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * GOLDEN_RATIO) >>> shift);
+        while (keys[slot] != FREE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != FREE) {
+                int target = slot(oldKeys[slot]);
+                keys[target] = oldKeys[slot];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        values = new long[capacity];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+    }
+}
@@ -0,0 +1,167 @@
+package com.minhpt.hrmtoolnextgen.util;
+
+import java.time.LocalDate;
+import java.time.Year;
+
+/**
+ * Immutable minute capacity of every day of one year under one version of a work calendar.
+ *
+ * <p>The table is compiled once from the calendar's working days, work windows and holidays and
+ * holds one {@code short} per day, so capacity lookups are an array read. Non-working days and
+ * holidays have a capacity of 0. Work windows are half-open minute-of-day ranges, compared against
+ * day-offs given in epoch minutes (minutes since 1970-01-01T00:00 in local time).
+ *
+ * <p>Lookups take an epoch day that must fall within {@link #getYear()}.
+ */
+public final class WorkCapacityTable {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final long calendarId;
+    private final long version;
+    private final int year;
+    private final long firstEpochDay;
+    private final int[] windowStarts;
+    private final int[] windowEnds;
+    private final int dailyWorkMinutes;
+    private final short[] capacity;
+
+    private WorkCapacityTable(long calendarId, long version, int year, int[] windowStarts, int[] windowEnds,
+                              int dailyWorkMinutes, short[] capacity) {
+        this.calendarId = calendarId;
+        this.version = version;
+        this.year = year;
+        this.firstEpochDay = LocalDate.of(year, 1, 1).toEpochDay();
+        this.windowStarts = windowStarts;
+        this.windowEnds = windowEnds;
+        this.dailyWorkMinutes = dailyWorkMinutes;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Compiles the table of {@code year}.
+     *
+     * @param workingDays  bit {@code n} set when {@code DayOfWeek.of(n + 1)} is a working day
+     * @param windowStarts minute of day at which each work window starts, in order
+     * @param windowEnds   minute of day at which each work window ends
+     * @param holidays     holidays of the calendar's country for {@code year}
+     */
+    public static WorkCapacityTable compile(long calendarId, long version, int year, int workingDays,
+                                            int[] windowStarts, int[] windowEnds, HolidayCalendar holidays) {
+        int dailyWorkMinutes = 0;
+        for (int window = 0; window < windowStarts.length; window++) {
+            dailyWorkMinutes += windowEnds[window] - windowStarts[window];
+        }
+        long firstEpochDay = LocalDate.of(year, 1, 1).toEpochDay();
+        short[] capacity = new short[Year.of(year).length()];
+        for (int index = 0; index < capacity.length; index++) {
+            long epochDay = firstEpochDay + index;
+            if ((workingDays & 1 << dayOfWeekIndex(epochDay)) != 0 && !holidays.isHoliday(epochDay)) {
+                capacity[index] = (short) dailyWorkMinutes;
+            }
+        }
+        return new WorkCapacityTable(calendarId, version, year, windowStarts.clone(), windowEnds.clone(),
+                dailyWorkMinutes, capacity);
+    }
+
+    public long getCalendarId() {
+        return calendarId;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * @return minutes of a full working day under this calendar
+     */
+    public int getDailyWorkMinutes() {
+        return dailyWorkMinutes;
+    }
+
+    public boolean contains(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        return index >= 0 && index < capacity.length;
+    }
+
+    /**
+     * @return minutes that can be worked on {@code epochDay}; 0 on non-working days and holidays
+     */
+    public int getCapacity(long epochDay) {
+        return capacity[index(epochDay)];
+    }
+
+    /**
+     * @return the capacity summed over the days between both epoch days (inclusive), clipped to the year
+     */
+    public long sumCapacity(long fromEpochDay, long toEpochDay) {
+        long total = 0;
+        long last = Math.min(toEpochDay, firstEpochDay + capacity.length - 1) - firstEpochDay;
+        for (long index = Math.max(fromEpochDay - firstEpochDay, 0); index <= last; index++) {
+            total += capacity[(int) index];
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of days with capacity between both epoch days (inclusive), clipped to the year
+     */
+    public int countWorkingDays(long fromEpochDay, long toEpochDay) {
+        int days = 0;
+        long last = Math.min(toEpochDay, firstEpochDay + capacity.length - 1) - firstEpochDay;
+        for (long index = Math.max(fromEpochDay - firstEpochDay, 0); index <= last; index++) {
+            if (capacity[(int) index] > 0) {
+                days++;
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Minutes of {@code epochDay} still loggable under the day-off {@code [startMinute, endMinute)}.
+     */
+    public int remainingMinutes(long startMinute, long endMinute, long epochDay) {
+        int dayCapacity = getCapacity(epochDay);
+        return dayCapacity == 0 ? 0 : Math.max(0, dayCapacity - overlapMinutes(startMinute, endMinute, epochDay));
+    }
+
+    /**
+     * Minutes of {@code epochDay} taken by the day-off {@code [startMinute, endMinute)}; 0 on days
+     * without capacity.
+     */
+    public int dayOffMinutes(long startMinute, long endMinute, long epochDay) {
+        int dayCapacity = getCapacity(epochDay);
+        return dayCapacity == 0 ? 0 : Math.min(dayCapacity, overlapMinutes(startMinute, endMinute, epochDay));
+    }
+
+    private int overlapMinutes(long startMinute, long endMinute, long epochDay) {
+        long dayStart = epochDay * MINUTES_PER_DAY;
+        int overlap = 0;
+        for (int window = 0; window < windowStarts.length; window++) {
+            long overlapStart = Math.max(dayStart + windowStarts[window], startMinute);
+            long overlapEnd = Math.min(dayStart + windowEnds[window], endMinute);
+            if (overlapEnd > overlapStart) {
+                overlap += (int) (overlapEnd - overlapStart);
+            }
+        }
+        return overlap;
+    }
+
+    private int index(long epochDay) {
+        if (!contains(epochDay)) {
+            throw new IllegalArgumentException("Day " + LocalDate.ofEpochDay(epochDay) + " is not in " + year);
+        }
+        return (int) (epochDay - firstEpochDay);
+    }
+
+    /**
+     * Epoch day 0 was a Thursday, so Monday..Sunday map to 0..6.
+     */
+    private static int dayOfWeekIndex(long epochDay) {
+        return (int) Math.floorMod(epochDay + 3, 7);
+    }
+}
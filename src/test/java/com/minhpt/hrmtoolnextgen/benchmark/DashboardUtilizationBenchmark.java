@@ -0,0 +1,181 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.UtilizationDto;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.HolidayService;
+import com.minhpt.hrmtoolnextgen.service.UtilizationService;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+
+/**
+ * Latency of the monthly dashboard utilization call with {@value #USERS} employees in
+ * {@value #PROJECTS} projects and two years (2025–2026) of timesheets, against the in-memory H2
+ * test database. Every employee logs 8 hours each weekday, one day in 20 is still pending and one
+ * in 40 is also an approved full-day day-off: about 260 000 timesheets and 6 500 day-offs.
+ *
+ * <p>{@code uncachedMonth} recomputes the month on every call and must stay under the budget of
+ * {@value #LATENCY_BUDGET_MS} ms; {@code cachedMonth} is what a dashboard refresh costs within the
+ * cache TTL.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+// A system property, so it takes precedence over the test application.yaml. Without
+// OPTIMIZE_REUSE_RESULTS=FALSE, H2 hands back the previous result of an identical query.
+@Fork(value = 1, jvmArgs = {"-Xmx3g",
+        "-Dspring.datasource.url=jdbc:h2:mem:hrm-utilization;MODE=MySQL;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE"})
+@State(Scope.Benchmark)
+public class DashboardUtilizationBenchmark {
+
+    static final int LATENCY_BUDGET_MS = 250;
+
+    private static final int USERS = 500;
+    private static final int PROJECTS = 10;
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 1, 1);
+    private static final int DAYS = 730;
+    private static final YearMonth MONTH = YearMonth.of(2026, 3);
+
+    private ConfigurableApplicationContext context;
+    private UtilizationService utilizationService;
+
+    @Configuration
+    static class StubConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+
+        // No holidays, and no Redis round trip for the holiday cache
+        @Bean
+        HolidayService holidayService() {
+            HolidayService holidayService = mock(HolidayService.class);
+            when(holidayService.getCalendar(anyInt(), anyString()))
+                    .thenAnswer(invocation -> HolidayCalendar.empty(invocation.getArgument(0)));
+            return holidayService;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HrmToolNextGenApplication.class, StubConfig.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        utilizationService = context.getBean(UtilizationService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Long> projectIds = new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .execute(status -> createProjectsWithMembers());
+        for (Long projectId : projectIds) {
+            jdbcTemplate.update("""
+                    INSERT INTO timesheets (create_date, create_by, is_delete, is_active, title, working_hours,
+                                            type, working_day, status, project_id, user_id)
+                    SELECT CURRENT_TIMESTAMP, m.user_id, FALSE, TRUE, 'Benchmark', TIME '08:00:00', 'NORMAL',
+                           DATEADD('DAY', d.X, CAST(? AS DATE)),
+                           CASE WHEN MOD(d.X + m.user_id, 20) = 0 THEN 'PENDING' ELSE 'APPROVED' END,
+                           m.project_id, m.user_id
+                    FROM users_projects_working m CROSS JOIN SYSTEM_RANGE(0, CAST(? AS INT)) d
+                    WHERE m.project_id = ? AND ISO_DAY_OF_WEEK(DATEADD('DAY', d.X, CAST(? AS DATE))) <= 5
+                    """, FIRST_DAY, DAYS - 1, projectId, FIRST_DAY);
+        }
+        jdbcTemplate.update("""
+                INSERT INTO day_offs (create_date, create_by, is_delete, is_active, title, start_time, end_time,
+                                      status, requested_by)
+                SELECT CURRENT_TIMESTAMP, user_id, FALSE, TRUE, 'Benchmark', CAST(working_day AS TIMESTAMP),
+                       DATEADD('DAY', 1, CAST(working_day AS TIMESTAMP)), 'APPROVED', user_id
+                FROM timesheets
+                WHERE title = 'Benchmark' AND MOD(DATEDIFF('DAY', CAST(? AS DATE), working_day) + user_id, 40) = 0
+                """, FIRST_DAY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UtilizationDto uncachedMonth() {
+        return utilizationService.calculate(MONTH);
+    }
+
+    @Benchmark
+    public UtilizationDto cachedMonth() {
+        return utilizationService.getUtilization(MONTH);
+    }
+
+    private List<Long> createProjectsWithMembers() {
+        long uniqueSeed = System.nanoTime();
+        RoleEntity userRole = context.getBean(RoleRepository.class).findByUserRole(EUserRole.USER);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+
+        List<ProjectEntity> projects = new ArrayList<>();
+        for (int index = 0; index < USERS; index++) {
+            UserInfoEntity userInfo = new UserInfoEntity();
+            userInfo.setFirstName("Bench");
+            userInfo.setLastName("Employee " + index);
+            userInfo.setIdentityCard("ID-" + uniqueSeed + "-" + index);
+            userInfo.setPhoneNumber1(String.format("09%08d", (uniqueSeed + index) % 100000000L));
+            userInfo.setOnboardDate(FIRST_DAY);
+
+            UserEntity user = new UserEntity();
+            user.setEmail("utilization-benchmark-" + uniqueSeed + "-" + index + "@example.com");
+            user.setPassword("encoded-password");
+            user.setActive(true);
+            user.setUserInfo(userInfo);
+            user.setRoles(List.of(userRole));
+            user = userRepository.save(user);
+
+            if (index < PROJECTS) {
+                ProjectEntity project = new ProjectEntity();
+                project.setName("Utilization Project " + index + "-" + uniqueSeed);
+                project.setProjectStatus(EProjectStatus.RUNNING);
+                project.setProjectManager(user);
+                projects.add(project);
+            }
+            projects.get(index % PROJECTS).addMemberToProject(user);
+        }
+        return projectRepository.saveAll(projects).stream().map(ProjectEntity::getId).toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import com.minhpt.hrmtoolnextgen.config.CacheConfig;
+import com.minhpt.hrmtoolnextgen.config.CacheProperties;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+
+import redis.embedded.RedisServer;
+
+/**
+ * Read latency of the {@code holidays} cache, as configured in {@code application.yaml} (typed
+ * JSON, 7-day TTL), against an embedded Redis server holding one year of {@value #HOLIDAYS}
+ * holidays. {@code REDIS} is the cache without a local tier: a Redis round trip and JSON
+ * deserialization per read. {@code TWO_LEVEL} adds the in-process tier, so reads after the first
+ * one are local.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HolidaysCacheReadBenchmark {
+
+    private static final int HOLIDAYS = 30;
+    private static final String KEY = "VN:2026";
+
+    @Param({"REDIS", "TWO_LEVEL"})
+    private String tiers;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private Cache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int port = Integer.getInteger("redis.port", 6390);
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+
+        CacheProperties.Policy policy = new CacheProperties.Policy();
+        policy.setTtl(Duration.ofDays(7));
+        policy.setSerializer(CacheProperties.Serializer.JSON);
+        policy.setValueType("java.util.List<com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto>");
+        policy.setLocalMaxSize("TWO_LEVEL".equals(tiers) ? 32 : 0);
+        policy.setLocalTtl(Duration.ofMinutes(10));
+        CacheProperties properties = new CacheProperties();
+        properties.getCaches().put("holidays", policy);
+
+        cache = new CacheConfig().cacheManager(connectionFactory, properties, new StringRedisTemplate(connectionFactory),
+                container).getCache("holidays");
+        cache.put(KEY, holidays());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try {
+            cache.clear();
+            connectionFactory.destroy();
+        } finally {
+            redisServer.stop();
+        }
+    }
+
+    @Benchmark
+    public Object read() {
+        return cache.get(KEY).get();
+    }
+
+    private static List<HolidayDto> holidays() {
+        List<HolidayDto> holidays = new ArrayList<>(HOLIDAYS);
+        LocalDate date = LocalDate.of(2026, 1, 1);
+        for (int i = 0; i < HOLIDAYS; i++) {
+            holidays.add(new HolidayDto("Holiday " + i, "Observed public holiday number " + i + " of the year",
+                    date.plusDays(i * 12L), "National holiday", true, "VN", List.of("All")));
+        }
+        return holidays;
+    }
+}
@@ -0,0 +1,63 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.minhpt.hrmtoolnextgen.component.jwt.JwtProvider;
+import com.minhpt.hrmtoolnextgen.component.jwt.VerifiedToken;
+
+/**
+ * Compares the legacy per-claim token inspection used by {@code JwtAuthTokenFilter}
+ * (five full verifications per request) with a single {@link JwtProvider#verifyToken(String)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private JwtProvider jwtProvider;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider();
+        ReflectionTestUtils.setField(jwtProvider, "jwtSecret", "benchmark-jwt-secret-with-at-least-32-bytes");
+        ReflectionTestUtils.setField(jwtProvider, "jwtSecretPrevious", "benchmark-previous-secret-with-32-bytes!!");
+        ReflectionTestUtils.setField(jwtProvider, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtProvider, "refreshTokenExpiration", 86_400_000L);
+        accessToken = jwtProvider.generateTokenFromEmail("user@example.com", 1L);
+    }
+
+    @Benchmark
+    public void legacyPerClaimParsing(Blackhole blackhole) {
+        blackhole.consume(jwtProvider.validateJwtToken(accessToken));
+        blackhole.consume(jwtProvider.isAccessToken(accessToken));
+        blackhole.consume(jwtProvider.getEmailFromJwtToken(accessToken));
+        blackhole.consume(jwtProvider.getIdFromJwtToken(accessToken));
+        blackhole.consume(jwtProvider.getRemainTimeFromJwtToken(accessToken));
+    }
+
+    @Benchmark
+    public void singleVerification(Blackhole blackhole) {
+        VerifiedToken verifiedToken = jwtProvider.verifyToken(accessToken).orElseThrow();
+        blackhole.consume(verifiedToken.isAccessToken());
+        blackhole.consume(verifiedToken.email());
+        blackhole.consume(verifiedToken.userId());
+        blackhole.consume(verifiedToken.getRemainTime());
+    }
+}
@@ -0,0 +1,116 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.minhpt.hrmtoolnextgen.annotation.RateLimit;
+import com.minhpt.hrmtoolnextgen.component.GcraRateLimiter;
+import com.minhpt.hrmtoolnextgen.component.RateLimitAlgorithm;
+import com.minhpt.hrmtoolnextgen.component.SlidingWindowLogRateLimiter;
+import com.minhpt.hrmtoolnextgen.component.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import redis.embedded.RedisServer;
+
+/**
+ * Compares the {@link RateLimit.Algorithm} implementations against an embedded Redis server,
+ * simulating a credential-stuffing burst on {@code /auth/login}: requests rotate over
+ * {@code clients} IP keys with the login limit (capacity 10, 10/min), so most are rejected.
+ *
+ * <p>The Redis memory used per limited key is printed at the end of each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitAlgorithmBenchmark {
+
+    private static final int CAPACITY = 10;
+    private static final int REFILL_RATE = 10;
+    private static final DefaultRedisScript<Long> MEMORY_USAGE_SCRIPT =
+            new DefaultRedisScript<>("return redis.call('MEMORY', 'USAGE', KEYS[1])", Long.class);
+
+    @Param({"TOKEN_BUCKET", "GCRA", "SLIDING_WINDOW_LOG"})
+    private RateLimit.Algorithm algorithm;
+
+    @Param({"1000"})
+    private int clients;
+
+    private RedisServer redisServer;
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate template;
+    private RateLimitAlgorithm limiter;
+    private String[] keys;
+    private final AtomicInteger next = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        int port = Integer.getInteger("redis.port", 6390);
+        redisServer = new RedisServer(port);
+        redisServer.start();
+
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+
+        limiter = switch (algorithm) {
+            case TOKEN_BUCKET -> {
+                TokenBucketRateLimiter tokenBucket =
+                        new TokenBucketRateLimiter(template, Runnable::run, new SimpleMeterRegistry());
+                ReflectionTestUtils.setField(tokenBucket, "maxLeaseFraction", 0.2);
+                ReflectionTestUtils.setField(tokenBucket, "maxLeaseSize", 50);
+                ReflectionTestUtils.setField(tokenBucket, "leaseTtl", Duration.ofSeconds(5));
+                yield tokenBucket;
+            }
+            case GCRA -> new GcraRateLimiter(template);
+            case SLIDING_WINDOW_LOG -> new SlidingWindowLogRateLimiter(template);
+        };
+
+        keys = new String[clients];
+        for (int i = 0; i < clients; i++) {
+            keys[i] = "ratelimit:login:10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try {
+            Long bytes = template.execute(MEMORY_USAGE_SCRIPT, List.of(keys[0]));
+            System.out.printf("%n%s: %s bytes of Redis memory per limited key%n", algorithm, bytes);
+        } finally {
+            connectionFactory.destroy();
+            redisServer.stop();
+        }
+    }
+
+    @Benchmark
+    public boolean tryConsume() {
+        String key = keys[Math.floorMod(next.getAndIncrement(), clients)];
+        return limiter.tryConsume(key, CAPACITY, REFILL_RATE);
+    }
+}
@@ -0,0 +1,167 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.aspectj.lang.reflect.SourceLocation;
+import org.aspectj.runtime.internal.AroundClosure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.minhpt.hrmtoolnextgen.annotation.RateLimit;
+import com.minhpt.hrmtoolnextgen.component.ClientIpResolver;
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.component.RateLimitAlgorithm;
+import com.minhpt.hrmtoolnextgen.component.RateLimitingAspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Measures the allowed path of {@link RateLimitingAspect} with a limiter that always grants, so
+ * only key resolution and metering remain. Run with {@code -prof gc}: {@code globalAllowed}
+ * should report ~0 B/op and {@code ipAllowed} only the bucket key string.
+ *
+ * <p>{@code legacyIpKeyResolution} repeats what the aspect did per request before metadata was
+ * cached per method: split {@code X-Forwarded-For}, concatenate the key and look the timer up
+ * in the registry by name and tags.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RateLimitKeyResolutionBenchmark {
+
+    private RateLimitingAspect aspect;
+    private MeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+
+    private StubJoinPoint ipJoinPoint;
+    private StubJoinPoint globalJoinPoint;
+    private RateLimit ipRateLimit;
+    private RateLimit globalRateLimit;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitAlgorithm alwaysAllow = new RateLimitAlgorithm() {
+            @Override
+            public RateLimit.Algorithm algorithm() {
+                return RateLimit.Algorithm.TOKEN_BUCKET;
+            }
+
+            @Override
+            public boolean tryConsume(String key, int capacity, int refillRate) {
+                return key != null;
+            }
+        };
+        aspect = new RateLimitingAspect(null, List.of(alwaysAllow),
+                new ClientIpResolver(List.of("127.0.0.0/8", "10.0.0.0/8", "172.16.0.0/12", "192.168.0.0/16")),
+                (MessageService) null, meterRegistry);
+
+        request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.12");
+        request.addHeader("X-Forwarded-For", "203.0.113.77, 10.0.0.3");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        Method login = Endpoints.class.getMethod("login");
+        Method export = Endpoints.class.getMethod("export");
+        ipRateLimit = login.getAnnotation(RateLimit.class);
+        globalRateLimit = export.getAnnotation(RateLimit.class);
+        ipJoinPoint = new StubJoinPoint(login);
+        globalJoinPoint = new StubJoinPoint(export);
+    }
+
+    @TearDown
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public Object ipAllowed() throws Throwable {
+        return aspect.enforce(ipJoinPoint, ipRateLimit);
+    }
+
+    @Benchmark
+    public Object globalAllowed() throws Throwable {
+        return aspect.enforce(globalJoinPoint, globalRateLimit);
+    }
+
+    @Benchmark
+    public void legacyIpKeyResolution(Blackhole blackhole) {
+        String clientIp = request.getHeader("X-Forwarded-For").split(",")[0].trim();
+        String redisKey = ipRateLimit.keyPrefix() + ":" + clientIp;
+        Timer timer = meterRegistry.timer(
+                "hrm.rate_limit.latency",
+                "key_prefix", ipRateLimit.keyPrefix(),
+                "strategy", ipRateLimit.strategy().name(),
+                "method", ipJoinPoint.getSignature().getName());
+        blackhole.consume(redisKey);
+        blackhole.consume(timer);
+    }
+
+    public static class Endpoints {
+        @RateLimit(capacity = 10, refillRate = 10, keyPrefix = "ratelimit:login")
+        public String login() {
+            return "ok";
+        }
+
+        @RateLimit(capacity = 5, refillRate = 5, keyPrefix = "ratelimit:export", strategy = RateLimit.RateLimitStrategy.GLOBAL)
+        public String export() {
+            return "ok";
+        }
+    }
+
+    /**
+     * Reusable join point, so the benchmark measures the aspect rather than proxy plumbing.
+     */
+    private static final class StubJoinPoint implements ProceedingJoinPoint, MethodSignature {
+        private final Method method;
+
+        StubJoinPoint(Method method) {
+            this.method = method;
+        }
+
+        @Override public Object proceed() { return "ok"; }
+        @Override public Object proceed(Object[] args) { return "ok"; }
+        @Override public void set$AroundClosure(AroundClosure arc) { }
+        @Override public Signature getSignature() { return this; }
+        @Override public Method getMethod() { return method; }
+        @Override public String getName() { return method.getName(); }
+        @Override public String toShortString() { return "Endpoints." + method.getName() + "()"; }
+        @Override public String toLongString() { return method.toString(); }
+        @Override public Object getThis() { return null; }
+        @Override public Object getTarget() { return null; }
+        @Override public Object[] getArgs() { return new Object[0]; }
+        @Override public SourceLocation getSourceLocation() { return null; }
+        @Override public String getKind() { return METHOD_EXECUTION; }
+        @Override public StaticPart getStaticPart() { return null; }
+        @Override public Class getReturnType() { return method.getReturnType(); }
+        @Override public Class[] getParameterTypes() { return method.getParameterTypes(); }
+        @Override public String[] getParameterNames() { return new String[0]; }
+        @Override public Class[] getExceptionTypes() { return method.getExceptionTypes(); }
+        @Override public int getModifiers() { return method.getModifiers(); }
+        @Override public Class getDeclaringType() { return method.getDeclaringClass(); }
+        @Override public String getDeclaringTypeName() { return method.getDeclaringClass().getName(); }
+    }
+}
@@ -0,0 +1,81 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import com.minhpt.hrmtoolnextgen.repository.redis.ResetPasswordTokenRedisRepository;
+
+/**
+ * Issue + consume round trip of a reset-password token with {@code outstanding} other
+ * tokens already stored. Latency should stay flat as {@code outstanding} grows.
+ *
+ * <p>Requires a disposable Redis at {@code -Dredis.host}/{@code -Dredis.port}
+ * (default {@code localhost:6379}); the benchmark flushes the selected database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResetPasswordTokenBenchmark {
+
+    private static final long TTL_MS = 3_600_000L;
+
+    @Param({"100", "1000", "10000"})
+    private int outstanding;
+
+    private LettuceConnectionFactory connectionFactory;
+    private ResetPasswordTokenRedisRepository repository;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        template.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+
+        repository = new ResetPasswordTokenRedisRepository(template);
+        for (long userId = 1; userId <= outstanding; userId++) {
+            repository.save(userId, "outstanding-token-" + userId, TTL_MS);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public Long issueAndConsume() {
+        long n = sequence.incrementAndGet();
+        String token = "benchmark-token-" + n;
+        repository.save(-n, token, TTL_MS);
+        return repository.consume(token);
+    }
+}
@@ -0,0 +1,135 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.minhpt.hrmtoolnextgen.dto.sse.SseEventDto;
+import com.minhpt.hrmtoolnextgen.service.SseService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Load test for {@link SseService#broadcastEvent(SseEventDto)}: one broadcast to
+ * {@code connections} in-memory emitters, measured until every healthy connection has received
+ * it. {@code slowConsumers} of the connections never return from a write, like a client whose
+ * TCP window is full; they park one virtual thread each until evicted at the high-water mark and
+ * must not delay the others.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SseBroadcastBenchmark {
+
+    @Param({"500", "5000"})
+    public int connections;
+
+    @Param({"0", "100"})
+    public int slowConsumers;
+
+    private final AtomicReference<CountDownLatch> pendingDeliveries = new AtomicReference<>();
+    private final CountDownLatch releaseSlowConsumers = new CountDownLatch(1);
+    private SseService sseService;
+    private SseEventDto event;
+    private int created;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("sse-delivery-");
+        executor.setVirtualThreads(true);
+        StringRedisTemplate noRelay = new StringRedisTemplate() {
+            @Override
+            public Long convertAndSend(String channel, Object message) {
+                return 0L;
+            }
+        };
+        sseService = new SseService(noRelay, new ObjectMapper().findAndRegisterModules(), new RedisMessageListenerContainer(),
+                executor, new SimpleMeterRegistry()) {
+            @Override
+            protected SseEmitter newEmitter() {
+                return created++ < slowConsumers ? new StalledEmitter() : new CountingEmitter();
+            }
+        };
+        ReflectionTestUtils.setField(sseService, "defaultTimeout", 0L);
+        ReflectionTestUtils.setField(sseService, "highWaterMark", 256);
+        ReflectionTestUtils.setField(sseService, "maxConnectionsPerUser", 1);
+        ReflectionTestUtils.setField(sseService, "heartbeatInterval", Duration.ofSeconds(15));
+        ReflectionTestUtils.setField(sseService, "replayBufferSize", 100);
+        ReflectionTestUtils.setField(sseService, "replayTtl", Duration.ofMinutes(5));
+        ReflectionTestUtils.invokeMethod(sseService, "init");
+        for (int i = 0; i < connections; i++) {
+            sseService.createConnection(String.valueOf(i));
+        }
+        event = SseEventDto.create("announcement", Map.of("message", "Office closed on Friday", "priority", 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        releaseSlowConsumers.countDown();
+    }
+
+    @Benchmark
+    public void broadcastToAll() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(connections - slowConsumers);
+        pendingDeliveries.set(latch);
+        sseService.broadcastEvent(event);
+        if (!latch.await(10, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Broadcast not delivered within 10s: " + latch.getCount() + " missing");
+        }
+    }
+
+    private final class CountingEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) {
+            // initial connection event
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            pendingDeliveries.get().countDown();
+        }
+    }
+
+    private final class StalledEmitter extends SseEmitter {
+        @Override
+        public void send(SseEventBuilder builder) {
+            // initial connection event
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws java.io.IOException {
+            try {
+                releaseSlowConsumers.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new java.io.IOException(e);
+            }
+        }
+    }
+}
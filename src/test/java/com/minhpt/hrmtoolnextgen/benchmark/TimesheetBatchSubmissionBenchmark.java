@@ -0,0 +1,158 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.timesheet.TimesheetService;
+
+/**
+ * Submitting a full week (5 days x 4 projects = 20 entries) as 20 single creates versus one
+ * batch create, through {@link TimesheetService} against the in-memory H2 test database.
+ *
+ * <p>Each invocation starts from an empty week: the timesheets are deleted and the ledger rows
+ * are reset to zero logged minutes beforehand.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimesheetBatchSubmissionBenchmark {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    private ConfigurableApplicationContext context;
+    private TimesheetService timesheetService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private final List<CreateTimesheetRequest> week = new ArrayList<>();
+
+    @Configuration
+    static class MailStubConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HrmToolNextGenApplication.class, MailStubConfig.class)
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        timesheetService = context.getBean(TimesheetService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Long> projectIds = new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .execute(status -> createUserWithProjects(4));
+        for (int day = 0; day < 5; day++) {
+            for (Long projectId : projectIds) {
+                week.add(new CreateTimesheetRequest("Benchmark", null, projectId, LocalTime.of(2, 0),
+                        ETimesheetType.NORMAL, MONDAY.plusDays(day)));
+            }
+        }
+
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                UserPrincipalDto.internalBuilder().id(userId).build(), null, List.of()));
+    }
+
+    @Setup(Level.Invocation)
+    public void resetWeek() {
+        jdbcTemplate.update("DELETE FROM timesheets WHERE user_id = ?", userId);
+        jdbcTemplate.update("UPDATE user_daily_hours SET logged_minutes = 0 WHERE user_id = ?", userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public int singlePosts() {
+        int created = 0;
+        for (CreateTimesheetRequest entry : week) {
+            created += timesheetService.createTimesheet(entry) != null ? 1 : 0;
+        }
+        return created;
+    }
+
+    @Benchmark
+    public List<TimesheetDto> batchPost() {
+        return timesheetService.createTimesheets(week);
+    }
+
+    private List<Long> createUserWithProjects(int projects) {
+        long uniqueSeed = System.nanoTime();
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Bench");
+        userInfo.setLastName("Mark");
+        userInfo.setIdentityCard("ID-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity user = new UserEntity();
+        user.setEmail("timesheet-benchmark-" + uniqueSeed + "@example.com");
+        user.setPassword("encoded-password");
+        user.setActive(true);
+        user.setUserInfo(userInfo);
+        user.setRoles(List.of(context.getBean(RoleRepository.class).findByUserRole(EUserRole.USER)));
+        user = context.getBean(UserRepository.class).save(user);
+        userId = user.getId();
+
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        List<Long> projectIds = new ArrayList<>();
+        for (int index = 0; index < projects; index++) {
+            ProjectEntity project = new ProjectEntity();
+            project.setName("Benchmark Project " + index + "-" + uniqueSeed);
+            project.setProjectStatus(EProjectStatus.RUNNING);
+            project.setProjectManager(user);
+            project.addMemberToProject(user);
+            projectIds.add(projectRepository.save(project).getId());
+        }
+        return projectIds;
+    }
+}
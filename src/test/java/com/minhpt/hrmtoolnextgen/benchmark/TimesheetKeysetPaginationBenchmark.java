@@ -0,0 +1,172 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.request.CursorPaginationRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.PaginationRequest;
+import com.minhpt.hrmtoolnextgen.dto.response.CursorPaginationResponse;
+import com.minhpt.hrmtoolnextgen.dto.response.PaginationResponse;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.timesheet.TimesheetService;
+import com.minhpt.hrmtoolnextgen.util.KeysetCursor;
+
+/**
+ * Latency of page 500 (20 rows per page) of the manager timesheet listing over {@code rows}
+ * timesheets, with offset pagination versus keyset pagination, against the in-memory H2 test
+ * database.
+ *
+ * <p>The rows are spread over 10 projects of one manager, two rows per created second so the
+ * {@code id} tie-break is exercised. The keyset cursor of page 500 is looked up once in setup,
+ * as a client walking the pages would have received it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 6, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+@State(Scope.Benchmark)
+public class TimesheetKeysetPaginationBenchmark {
+
+    private static final int PAGE = 500;
+    private static final int PAGE_SIZE = 20;
+    private static final LocalDateTime FIRST_CREATED = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Param({"1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private TimesheetService timesheetService;
+    private Long managerId;
+    private String page500Cursor;
+
+    @Configuration
+    static class MailStubConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(HrmToolNextGenApplication.class, MailStubConfig.class)
+                .properties("server.port=0", "logging.level.root=WARN",
+                        "spring.jpa.properties.hibernate.generate_statistics=false")
+                .run();
+        timesheetService = context.getBean(TimesheetService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Long> projectIds = new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                .execute(status -> createManagerWithProjects(10));
+        for (int index = 0; index < projectIds.size(); index++) {
+            // Row n of the whole set is X * projects + index; created two per second
+            jdbcTemplate.update("""
+                    INSERT INTO timesheets (create_date, create_by, is_delete, is_active, title, working_hours,
+                                            type, working_day, status, project_id, user_id)
+                    SELECT DATEADD('SECOND', (X * CAST(? AS INT) + CAST(? AS INT)) / 2, CAST(? AS TIMESTAMP)),
+                           CAST(? AS BIGINT), FALSE, TRUE, 'Benchmark', TIME '01:00:00', 'NORMAL',
+                           DATEADD('DAY', MOD(X, 365), DATE '2026-01-01'), 'PENDING', CAST(? AS BIGINT), CAST(? AS BIGINT)
+                    FROM SYSTEM_RANGE(0, CAST(? AS INT))
+                    """, projectIds.size(), index, FIRST_CREATED, managerId, projectIds.get(index), managerId,
+                    rows / projectIds.size() - 1);
+        }
+
+        page500Cursor = jdbcTemplate.queryForObject(
+                "SELECT create_date, id FROM timesheets WHERE user_id = ? ORDER BY create_date DESC, id DESC "
+                        + "OFFSET ? ROWS FETCH NEXT 1 ROWS ONLY",
+                (rs, rowNum) -> new KeysetCursor(rs.getTimestamp(1).toLocalDateTime(), rs.getLong(2)).encode(),
+                managerId, (PAGE - 1) * PAGE_SIZE - 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PaginationResponse<TimesheetDto> offsetPage500() {
+        return timesheetService.getTimesheetsByManagerWithFilters(managerId,
+                PaginationRequest.builder().page(PAGE - 1).size(PAGE_SIZE).build(), null, null);
+    }
+
+    @Benchmark
+    public CursorPaginationResponse<TimesheetDto> keysetPage500() {
+        return timesheetService.getTimesheetsByManagerWithCursor(managerId,
+                CursorPaginationRequest.builder().cursor(page500Cursor).size(PAGE_SIZE).skipCount(true).build(),
+                null, null);
+    }
+
+    @Benchmark
+    public CursorPaginationResponse<TimesheetDto> keysetPage500WithCount() {
+        return timesheetService.getTimesheetsByManagerWithCursor(managerId,
+                CursorPaginationRequest.builder().cursor(page500Cursor).size(PAGE_SIZE).build(),
+                null, null);
+    }
+
+    private List<Long> createManagerWithProjects(int projects) {
+        long uniqueSeed = System.nanoTime();
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Bench");
+        userInfo.setLastName("Manager");
+        userInfo.setIdentityCard("ID-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity manager = new UserEntity();
+        manager.setEmail("keyset-benchmark-" + uniqueSeed + "@example.com");
+        manager.setPassword("encoded-password");
+        manager.setActive(true);
+        manager.setUserInfo(userInfo);
+        manager.setRoles(List.of(context.getBean(RoleRepository.class).findByUserRole(EUserRole.USER)));
+        manager = context.getBean(UserRepository.class).save(manager);
+        managerId = manager.getId();
+
+        ProjectRepository projectRepository = context.getBean(ProjectRepository.class);
+        List<Long> projectIds = new ArrayList<>();
+        for (int index = 0; index < projects; index++) {
+            ProjectEntity project = new ProjectEntity();
+            project.setName("Keyset Project " + index + "-" + uniqueSeed);
+            project.setProjectStatus(EProjectStatus.RUNNING);
+            project.setProjectManager(manager);
+            projectIds.add(projectRepository.save(project).getId());
+        }
+        return projectIds;
+    }
+}
@@ -0,0 +1,165 @@
+package com.minhpt.hrmtoolnextgen.benchmark;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.minhpt.hrmtoolnextgen.service.WorkCalendarService;
+import com.minhpt.hrmtoolnextgen.service.WorkHoursCalculatorService;
+import com.minhpt.hrmtoolnextgen.util.DailyMinutes;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+import com.minhpt.hrmtoolnextgen.util.WorkCapacityTable;
+
+/**
+ * Remaining loggable minutes for a day-off of {@code days} days, starting mid-morning and ending
+ * mid-afternoon:
+ *
+ * <ul>
+ *   <li>{@code legacyRemainingHours} – the previous day-by-day walk building a
+ *       {@code LinkedHashMap<LocalDate, Double>} from {@code LocalDateTime} comparisons;</li>
+ *   <li>{@code remainingMinutesByDay} – the epoch-minute engine filling a {@link DailyMinutes} from
+ *       the compiled {@link WorkCapacityTable} of the standard calendar;</li>
+ *   <li>{@code remainingMinutesOfLastDay} – the single-date lookup the ledger needs to validate one
+ *       timesheet, which the legacy code answered by computing the whole interval.</li>
+ * </ul>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WorkHoursCalculatorBenchmark {
+
+    @Param({"1", "30", "365"})
+    public int days;
+
+    private static final Long USER_ID = 1L;
+
+    private WorkHoursCalculatorService calculator;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private LocalDate lastDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        calculator = new WorkHoursCalculatorService(new StandardCalendar());
+        start = LocalDateTime.of(2026, 3, 2, 10, 15);
+        lastDay = start.toLocalDate().plusDays(days - 1L);
+        end = lastDay.atTime(15, 45);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Double> legacyRemainingHours() {
+        return LegacyCalculator.calculateRemainingHours(start, end);
+    }
+
+    @Benchmark
+    public DailyMinutes remainingMinutesByDay() {
+        return calculator.calculateRemainingMinutes(USER_ID, start, end);
+    }
+
+    @Benchmark
+    public int remainingMinutesOfLastDay() {
+        return calculator.calculateRemainingMinutes(USER_ID, start, end, lastDay);
+    }
+
+    /**
+     * The standard calendar (Monday to Friday, 09:00-12:00 and 13:30-18:30) without holidays,
+     * answering from its tables directly like a warm cache.
+     */
+    static final class StandardCalendar extends WorkCalendarService {
+
+        private final WorkCapacityTable[] tables = {table(2026), table(2027)};
+
+        StandardCalendar() {
+            super(null, null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public long resolveCalendarId(Long userId) {
+            return 1L;
+        }
+
+        @Override
+        public WorkCapacityTable getCalendarTable(long calendarId, int year) {
+            return tables[year - 2026];
+        }
+
+        @Override
+        public WorkCapacityTable getTable(Long userId, int year) {
+            return tables[year - 2026];
+        }
+
+        private static WorkCapacityTable table(int year) {
+            return WorkCapacityTable.compile(1L, 0L, year, 0b11111, new int[]{540, 810}, new int[]{720, 1110},
+                    HolidayCalendar.empty(year));
+        }
+    }
+
+    /**
+     * The implementation replaced by the epoch-minute engine, kept here as the baseline.
+     */
+    static final class LegacyCalculator {
+
+        private static final List<LocalTime[]> WORK_WINDOWS = List.of(
+                new LocalTime[]{LocalTime.of(9, 0), LocalTime.of(12, 0)},
+                new LocalTime[]{LocalTime.of(13, 30), LocalTime.of(18, 30)});
+        private static final double DAILY_WORK_HOURS = 8.0;
+
+        static Map<LocalDate, Double> calculateRemainingHours(LocalDateTime dayOffStart, LocalDateTime dayOffEnd) {
+            Map<LocalDate, Double> remainingByDate = new LinkedHashMap<>();
+            LocalDate current = dayOffStart.toLocalDate();
+            LocalDate endDate = dayOffEnd.toLocalDate();
+            while (!current.isAfter(endDate)) {
+                DayOfWeek dow = current.getDayOfWeek();
+                if (dow == DayOfWeek.SATURDAY || dow == DayOfWeek.SUNDAY) {
+                    remainingByDate.put(current, 0.0);
+                } else {
+                    remainingByDate.put(current, remainingHoursForDate(current, dayOffStart, dayOffEnd));
+                }
+                current = current.plusDays(1);
+            }
+            return remainingByDate;
+        }
+
+        private static double remainingHoursForDate(LocalDate date, LocalDateTime dayOffStart, LocalDateTime dayOffEnd) {
+            LocalDateTime dayStart = date.atTime(WORK_WINDOWS.getFirst()[0]);
+            LocalDateTime dayEnd = date.atTime(WORK_WINDOWS.getLast()[1]);
+            if (dayOffEnd.isBefore(dayStart) || dayOffStart.isAfter(dayEnd)) {
+                return DAILY_WORK_HOURS;
+            }
+            long overlapSeconds = 0;
+            for (LocalTime[] window : WORK_WINDOWS) {
+                LocalDateTime windowStart = date.atTime(window[0]);
+                LocalDateTime windowEnd = date.atTime(window[1]);
+                LocalDateTime overlapStart = windowStart.isAfter(dayOffStart) ? windowStart : dayOffStart;
+                LocalDateTime overlapEnd = windowEnd.isBefore(dayOffEnd) ? windowEnd : dayOffEnd;
+                if (overlapEnd.isAfter(overlapStart)) {
+                    overlapSeconds += Duration.between(overlapStart, overlapEnd).getSeconds();
+                }
+            }
+            double remaining = DAILY_WORK_HOURS - overlapSeconds / 3600.0;
+            return remaining < 0 ? 0 : remaining;
+        }
+    }
+}
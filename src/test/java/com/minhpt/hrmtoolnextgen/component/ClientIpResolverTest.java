@@ -0,0 +1,79 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver = new ClientIpResolver(
+            List.of("10.0.0.0/8", "192.168.1.0/24", "2001:db8::/32", "127.0.0.1"));
+
+    @Test
+    void shouldRejectOutOfRangePrefixLengths() {
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("10.0.0.0/33")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("10.0.0.0/-1")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("2001:db8::/129")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("10.0.0.0/x")));
+        assertThrows(IllegalArgumentException.class, () -> new ClientIpResolver(List.of("10.0.0.0/")));
+        assertTrue(new ClientIpResolver(List.of("0.0.0.0/0", "::/0", "::1/128")).isTrusted("8.8.8.8", 0, 7));
+    }
+
+    @Test
+    void shouldIgnoreForwardingHeadersFromUntrustedPeer() {
+        MockHttpServletRequest request = request("203.0.113.5");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+        request.addHeader("X-Real-IP", "198.51.100.2");
+
+        assertEquals("203.0.113.5", resolver.resolve(request));
+    }
+
+    @Test
+    void shouldReturnRightMostUntrustedForwardedAddress() {
+        MockHttpServletRequest request = request("10.0.0.1");
+        request.addHeader("X-Forwarded-For", " 1.1.1.1 ,198.51.100.7,  192.168.1.20 ,10.2.3.4");
+
+        assertEquals("198.51.100.7", resolver.resolve(request));
+    }
+
+    @Test
+    void shouldFallBackToLeftMostHopWhenAllHopsAreTrusted() {
+        MockHttpServletRequest request = request("127.0.0.1");
+        request.addHeader("X-Forwarded-For", "10.9.9.9, 2001:db8::1");
+
+        assertEquals("10.9.9.9", resolver.resolve(request));
+    }
+
+    @Test
+    void shouldUseRealIpHeaderOrRemoteAddressWithoutForwardedFor() {
+        MockHttpServletRequest withRealIp = request("10.0.0.1");
+        withRealIp.addHeader("X-Real-IP", " 198.51.100.3 ");
+
+        assertEquals("198.51.100.3", resolver.resolve(withRealIp));
+        assertEquals("10.0.0.1", resolver.resolve(request("10.0.0.1")));
+    }
+
+    @Test
+    void shouldMatchCidrBlocksForIpv4AndIpv6Literals() {
+        assertTrue(resolver.isTrusted("192.168.1.255", 0, 13));
+        assertFalse(resolver.isTrusted("192.168.2.1", 0, 11));
+        assertTrue(resolver.isTrusted("2001:db8:ffff::ffff", 0, 19));
+        assertFalse(resolver.isTrusted("::ffff:127.0.0.1", 0, 16));
+        assertFalse(resolver.isTrusted("2001:db9::1", 0, 11));
+        assertFalse(resolver.isTrusted("localhost", 0, 9));
+        assertFalse(resolver.isTrusted("10.0.0.256", 0, 10));
+        assertFalse(resolver.isTrusted("1:2:3:4:5:6:7:8:9", 0, 17));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
@@ -0,0 +1,68 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidaySnapshot;
+
+class HolidaySnapshotStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void savedSnapshotShouldBeLoadedOnTheNextStart() {
+        HolidayDto holiday = new HolidayDto();
+        holiday.setName("Reunification Day");
+        holiday.setDate(LocalDate.of(2026, 4, 30));
+        newStore().save(new HolidaySnapshot("VN", 2026, Instant.now(), List.of(holiday)));
+
+        HolidaySnapshotStore restarted = newStore();
+
+        HolidaySnapshot snapshot = restarted.find("VN", 2026).orElseThrow();
+        assertEquals(LocalDate.of(2026, 4, 30), snapshot.getHolidays().getFirst().getDate());
+        assertFalse(restarted.find("VN", 2027).isPresent());
+        assertTrue(Files.exists(directory.resolve("VN-2026.json")));
+    }
+
+    @Test
+    void unreadableFilesAndInvalidCountriesShouldBeSkipped() throws IOException {
+        Files.writeString(directory.resolve("broken.json"), "{not json");
+        HolidaySnapshotStore store = newStore();
+
+        store.save(new HolidaySnapshot("../x", 2026, Instant.now(), List.of()));
+
+        assertFalse(store.find("../x", 2026).isPresent());
+        try (var files = Files.list(directory)) {
+            assertEquals(List.of(directory.resolve("broken.json")), files.toList());
+        }
+    }
+
+    @Test
+    void bundledSnapshotsShouldCoverTheCurrentAndNextYear() {
+        HolidaySnapshotStore store = new HolidaySnapshotStore(new PathMatchingResourcePatternResolver(),
+                "classpath*:holidays/*.json", "");
+
+        HolidaySnapshot current = store.find("VN", 2026).orElseThrow();
+        assertTrue(current.getHolidays().stream()
+                .anyMatch(holiday -> LocalDate.of(2026, 9, 2).equals(holiday.getDate())));
+        assertTrue(store.find("VN", 2027).isPresent());
+    }
+
+    private HolidaySnapshotStore newStore() {
+        return new HolidaySnapshotStore(new PathMatchingResourcePatternResolver(), "", directory.toString());
+    }
+}
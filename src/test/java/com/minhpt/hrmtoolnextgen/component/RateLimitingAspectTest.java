@@ -5,12 +5,21 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.minhpt.hrmtoolnextgen.annotation.RateLimit;
 import com.minhpt.hrmtoolnextgen.exception.RateLimitException;
@@ -23,22 +32,32 @@ import org.mockito.Mockito;
 class RateLimitingAspectTest {
 
     private final TokenBucketRateLimiter rateLimiter = Mockito.mock(TokenBucketRateLimiter.class);
+    private final SlidingWindowLogRateLimiter slidingWindowRateLimiter = Mockito.mock(SlidingWindowLogRateLimiter.class);
     private final MessageService messageService = Mockito.mock(MessageService.class);
+    private final ClientIpResolver clientIpResolver = new ClientIpResolver(List.of("10.0.0.0/8"));
     private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     private RateLimitingAspect aspect;
 
     @BeforeEach
     void setUp() {
-        aspect = new RateLimitingAspect(rateLimiter, messageService, meterRegistry);
+        when(slidingWindowRateLimiter.algorithm()).thenReturn(RateLimit.Algorithm.SLIDING_WINDOW_LOG);
+        aspect = new RateLimitingAspect(rateLimiter, List.of(rateLimiter, slidingWindowRateLimiter), clientIpResolver,
+                messageService, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
     }
 
     @Test
     void shouldProceedWhenRateLimitAllowsRequest() throws Throwable {
         ProceedingJoinPoint pjp = Mockito.mock(ProceedingJoinPoint.class);
         Signature signature = Mockito.mock(Signature.class);
-        RateLimit rateLimit = createRateLimit("ratelimit:login", 10, 10, RateLimit.RateLimitStrategy.IP);
+        RateLimit rateLimit = createRateLimit("ratelimit:login", 10, 10, RateLimit.RateLimitStrategy.IP, RateLimit.Algorithm.TOKEN_BUCKET);
 
         when(signature.toShortString()).thenReturn("AuthController.login(..)");
+        when(signature.getName()).thenReturn("login");
         when(pjp.getSignature()).thenReturn(signature);
         when(rateLimiter.tryConsume(anyString(), anyInt(), anyInt())).thenReturn(true);
         when(pjp.proceed()).thenReturn("ok");
@@ -47,13 +66,14 @@ class RateLimitingAspectTest {
 
         assertEquals("ok", result);
         verify(pjp).proceed();
+        assertEquals(1L, meterRegistry.get("hrm.rate_limit.latency").tag("method", "login").timer().count());
     }
 
     @Test
     void shouldThrowLocalizedRateLimitExceptionAndIncrementMetric() throws Throwable {
         ProceedingJoinPoint pjp = Mockito.mock(ProceedingJoinPoint.class);
         Signature signature = Mockito.mock(Signature.class);
-        RateLimit rateLimit = createRateLimit("ratelimit:login", 10, 10, RateLimit.RateLimitStrategy.GLOBAL);
+        RateLimit rateLimit = createRateLimit("ratelimit:login", 10, 10, RateLimit.RateLimitStrategy.GLOBAL, RateLimit.Algorithm.TOKEN_BUCKET);
 
         when(signature.toShortString()).thenReturn("AuthController.login(..)");
         when(signature.getName()).thenReturn("login");
@@ -72,7 +92,66 @@ class RateLimitingAspectTest {
         assertEquals(1.0, counter == null ? null : counter.count());
     }
 
-    private RateLimit createRateLimit(String keyPrefix, int capacity, int refillRate, RateLimit.RateLimitStrategy strategy) {
+    @Test
+    void shouldDispatchToAlgorithmSelectedByAnnotation() throws Throwable {
+        ProceedingJoinPoint pjp = Mockito.mock(ProceedingJoinPoint.class);
+        Signature signature = Mockito.mock(Signature.class);
+        RateLimit rateLimit = createRateLimit("ratelimit:login", 10, 10, RateLimit.RateLimitStrategy.GLOBAL,
+                RateLimit.Algorithm.SLIDING_WINDOW_LOG);
+
+        when(signature.toShortString()).thenReturn("AuthController.login(..)");
+        when(signature.getName()).thenReturn("login");
+        when(pjp.getSignature()).thenReturn(signature);
+        when(slidingWindowRateLimiter.tryConsume(anyString(), anyInt(), anyInt())).thenReturn(true);
+        when(pjp.proceed()).thenReturn("ok");
+
+        assertEquals("ok", aspect.enforce(pjp, rateLimit));
+        verify(slidingWindowRateLimiter).tryConsume("ratelimit:login:sliding_window_log:AuthController.login(..)", 10, 10);
+        verify(rateLimiter, never()).tryConsume(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldKeyUnimplementedAlgorithmInTokenBucketNamespace() throws Throwable {
+        ProceedingJoinPoint pjp = Mockito.mock(ProceedingJoinPoint.class);
+        Signature signature = Mockito.mock(Signature.class);
+        RateLimit rateLimit = createRateLimit("ratelimit:login", 10, 10, RateLimit.RateLimitStrategy.GLOBAL,
+                RateLimit.Algorithm.GCRA);
+
+        when(signature.toShortString()).thenReturn("AuthController.login(..)");
+        when(signature.getName()).thenReturn("login");
+        when(pjp.getSignature()).thenReturn(signature);
+        when(rateLimiter.tryConsume(anyString(), anyInt(), anyInt())).thenReturn(true);
+
+        aspect.enforce(pjp, rateLimit);
+
+        verify(rateLimiter).tryConsume("ratelimit:login:token_bucket:AuthController.login(..)", 10, 10);
+    }
+
+    @Test
+    void shouldResolveMetadataOncePerMethodAndKeyByResolvedClientIp() throws Throwable {
+        ProceedingJoinPoint pjp = Mockito.mock(ProceedingJoinPoint.class);
+        MethodSignature signature = Mockito.mock(MethodSignature.class);
+        RateLimit rateLimit = createRateLimit("ratelimit:login", 10, 10, RateLimit.RateLimitStrategy.IP, RateLimit.Algorithm.TOKEN_BUCKET);
+
+        when(signature.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        when(signature.getName()).thenReturn("login");
+        when(pjp.getSignature()).thenReturn(signature);
+        when(rateLimiter.tryConsume(anyString(), anyInt(), anyInt())).thenReturn(true);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.1.2.3");
+        request.addHeader("X-Forwarded-For", "198.51.100.1, 203.0.113.9, 10.0.0.7");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        aspect.enforce(pjp, rateLimit);
+        aspect.enforce(pjp, rateLimit);
+
+        verify(rateLimiter, times(2)).tryConsume("ratelimit:login:token_bucket:203.0.113.9", 10, 10);
+        verify(signature, times(1)).getName();
+    }
+
+    private RateLimit createRateLimit(String keyPrefix, int capacity, int refillRate,
+                                      RateLimit.RateLimitStrategy strategy, RateLimit.Algorithm algorithm) {
         return new RateLimit() {
             @Override
             public Class<? extends java.lang.annotation.Annotation> annotationType() {
@@ -98,6 +177,11 @@ class RateLimitingAspectTest {
             public RateLimit.RateLimitStrategy strategy() {
                 return strategy;
             }
+
+            @Override
+            public RateLimit.Algorithm algorithm() {
+                return algorithm;
+            }
         };
     }
 }
\ No newline at end of file
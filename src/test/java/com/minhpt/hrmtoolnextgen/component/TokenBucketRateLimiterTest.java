@@ -0,0 +1,111 @@
+package com.minhpt.hrmtoolnextgen.component;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TokenBucketRateLimiterTest {
+
+    private final StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = new TokenBucketRateLimiter(stringRedisTemplate, Runnable::run, meterRegistry);
+        ReflectionTestUtils.setField(rateLimiter, "maxLeaseFraction", 0.2);
+        ReflectionTestUtils.setField(rateLimiter, "maxLeaseSize", 50);
+        ReflectionTestUtils.setField(rateLimiter, "leaseTtl", Duration.ofSeconds(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSpendLeasedTokensLocally() {
+        // capacity 100 -> lease of 20 tokens
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(20L);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(0L));
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryConsume("ratelimit:test:global", 100, 100));
+        }
+
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("ratelimit:test:global")),
+                any(Object[].class));
+        assertEquals(9.0, meterRegistry.get("hrm.rate_limit.lease").tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get("hrm.rate_limit.lease").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRejectWhenRedisGrantsNoTokens() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(0L);
+
+        assertFalse(rateLimiter.tryConsume("ratelimit:test:global", 100, 100));
+        assertFalse(rateLimiter.tryConsume("ratelimit:test:small", 5, 5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFailOpenWhenRedisIsUnavailable() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new IllegalStateException("connection refused"));
+
+        assertTrue(rateLimiter.tryConsume("ratelimit:test:global", 100, 100));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRetryOnlyRefillsRejectedWithNoScript() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(20L);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenThrow(new RedisPipelineException(
+                "pipeline failed", List.of(new InvalidDataAccessApiUsageException("NOSCRIPT No matching script"))));
+
+        spendHalfLease("ratelimit:test:global");
+
+        // initial lease + one re-run of the refill that never executed
+        verify(stringRedisTemplate, times(2)).execute(any(RedisScript.class), eq(List.of("ratelimit:test:global")),
+                any(Object[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotRetryRefillsWithUnknownOutcome() {
+        when(stringRedisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(20L);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("connection reset"));
+
+        spendHalfLease("ratelimit:test:global");
+
+        verify(stringRedisTemplate, times(1)).execute(any(RedisScript.class), eq(List.of("ratelimit:test:global")),
+                any(Object[].class));
+    }
+
+    private void spendHalfLease(String key) {
+        // capacity 100 -> lease of 20 tokens, refilled once 10 or fewer remain
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryConsume(key, 100, 100));
+        }
+    }
+}
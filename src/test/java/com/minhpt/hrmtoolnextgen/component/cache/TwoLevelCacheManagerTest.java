@@ -0,0 +1,135 @@
+package com.minhpt.hrmtoolnextgen.component.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TwoLevelCacheManagerTest {
+
+    private static final String KEY = "VN:2026";
+
+    private RedisCache remote;
+    private RedisCache remoteOnly;
+    private StringRedisTemplate stringRedisTemplate;
+    private TwoLevelCacheManager cacheManager;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = mock(RedisCache.class);
+        remoteOnly = mock(RedisCache.class);
+        when(remote.getName()).thenReturn("holidays");
+        when(remote.getStatistics()).thenReturn(mock(CacheStatistics.class));
+        RedisCacheManager redisCacheManager = mock(RedisCacheManager.class);
+        when(redisCacheManager.getCache("holidays")).thenReturn(remote);
+        when(redisCacheManager.getCache("other")).thenReturn(remoteOnly);
+        stringRedisTemplate = mock(StringRedisTemplate.class);
+        cacheManager = new TwoLevelCacheManager(redisCacheManager,
+                Map.of("holidays", new TwoLevelCacheManager.LocalTier(10, Duration.ofMinutes(5))), stringRedisTemplate);
+        cache = (TwoLevelCache) cacheManager.getCache("holidays");
+    }
+
+    @Test
+    void onlyCachesWithALocalTierShouldBeWrapped() {
+        assertSame(remoteOnly, cacheManager.getCache("other"));
+        assertSame(cache, cacheManager.getCache("holidays"));
+        assertNull(cacheManager.getCache("missing"));
+    }
+
+    @Test
+    void repeatedReadsShouldBeServedLocallyAndCountedPerTier() {
+        when(remote.get(KEY)).thenReturn(new SimpleValueWrapper(List.of("New Year's Day")));
+
+        cache.get(KEY);
+        Cache.ValueWrapper second = cache.get(KEY);
+
+        assertEquals(List.of("New Year's Day"), second.get());
+        verify(remote, times(1)).get(KEY);
+        assertEquals(1, cache.getLocalHits());
+        assertEquals(1, cache.getLocalMisses());
+        assertEquals(1, cache.getRemoteHits());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new TwoLevelCacheMetrics(cache, List.of()).bindTo(registry);
+        assertEquals(0.5, registry.get("cache.tier.hit.ratio").tag("tier", "local").gauge().value());
+        assertEquals(1.0, registry.get("cache.tier.gets").tag("tier", "redis").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void writesShouldUpdateBothTiersAndBeBroadcast() {
+        cache.put(KEY, List.of("Independence Day"));
+
+        assertEquals(List.of("Independence Day"), cache.get(KEY).get());
+        verify(remote).put(KEY, List.of("Independence Day"));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), message.capture());
+        assertEquals("holidays|E|" + KEY, message.getValue().substring(message.getValue().indexOf('|') + 1));
+    }
+
+    @Test
+    void invalidationFromAnotherNodeShouldDropTheLocalCopyOnly() {
+        cache.put(KEY, List.of("Stale"));
+        when(remote.get(KEY)).thenReturn(new SimpleValueWrapper(List.of("Fresh")));
+
+        cacheManager.onMessage(message("other-node|holidays|E|" + KEY), null);
+
+        assertEquals(List.of("Fresh"), cache.get(KEY).get());
+        cacheManager.onMessage(message("other-node|holidays|C|"), null);
+        assertEquals(0, cache.getLocalSize());
+    }
+
+    @Test
+    void ownInvalidationsShouldBeIgnored() {
+        cache.put(KEY, List.of("Independence Day"));
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), published.capture());
+
+        cacheManager.onMessage(message(published.getValue()), null);
+
+        assertEquals(List.of("Independence Day"), cache.get(KEY).get());
+        verify(remote, times(0)).get(KEY);
+    }
+
+    @Test
+    void evictionShouldBeBroadcastEvenWhenRedisFails() {
+        cache.put(KEY, List.of("Independence Day"));
+        doThrow(new RedisConnectionFailureException("down")).when(remote).evict(KEY);
+
+        assertThrows(RedisConnectionFailureException.class, () -> cache.evict(KEY));
+
+        assertEquals(0, cache.getLocalSize());
+        verify(stringRedisTemplate, times(2)).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), anyString());
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
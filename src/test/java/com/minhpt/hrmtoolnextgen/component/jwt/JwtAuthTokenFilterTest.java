@@ -4,9 +4,11 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
@@ -36,8 +38,9 @@ class JwtAuthTokenFilterTest {
         JwtProvider jwtProvider = Mockito.mock(JwtProvider.class);
         UserDetailsServiceImpl userDetailsService = Mockito.mock(UserDetailsServiceImpl.class);
         UserTokenRedisRepository tokenRepository = Mockito.mock(UserTokenRedisRepository.class);
+        TokenRevocationRegistry revocationRegistry = Mockito.mock(TokenRevocationRegistry.class);
         FilterChain filterChain = Mockito.mock(FilterChain.class);
-        JwtAuthTokenFilter filter = new JwtAuthTokenFilter(jwtProvider, userDetailsService, tokenRepository);
+        JwtAuthTokenFilter filter = new JwtAuthTokenFilter(jwtProvider, userDetailsService, tokenRepository, revocationRegistry);
 
         MockHttpServletRequest request = new MockHttpServletRequest();
         MockHttpServletResponse response = new MockHttpServletResponse();
@@ -55,11 +58,10 @@ class JwtAuthTokenFilterTest {
                 .authorities(List.of(new SimpleGrantedAuthority("USER")))
                 .build();
 
-        when(jwtProvider.validateJwtToken("valid-token")).thenReturn(true);
-        when(jwtProvider.isAccessToken("valid-token")).thenReturn(true);
-        when(jwtProvider.getEmailFromJwtToken("valid-token")).thenReturn("user@example.com");
-        when(jwtProvider.getIdFromJwtToken("valid-token")).thenReturn(1L);
-        when(jwtProvider.getRemainTimeFromJwtToken("valid-token")).thenReturn(60_000L);
+        VerifiedToken verifiedToken = new VerifiedToken(
+                "valid-token", 1L, "user@example.com", VerifiedToken.ACCESS_TOKEN_TYPE,
+                System.currentTimeMillis() + 60_000L, 0L);
+        when(jwtProvider.verifyToken("valid-token")).thenReturn(Optional.of(verifiedToken));
         when(tokenRepository.findUserByUserIdAndTokenType(1L, EUserTokenType.ACCESS_TOKEN)).thenReturn(storedToken);
         when(userDetailsService.loadUserByUsername("user@example.com")).thenReturn(principal);
 
@@ -70,13 +72,41 @@ class JwtAuthTokenFilterTest {
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    void statelessModeShouldRejectRevokedTokenWithoutRedisLookup() throws Exception {
+        JwtProvider jwtProvider = Mockito.mock(JwtProvider.class);
+        UserDetailsServiceImpl userDetailsService = Mockito.mock(UserDetailsServiceImpl.class);
+        UserTokenRedisRepository tokenRepository = Mockito.mock(UserTokenRedisRepository.class);
+        TokenRevocationRegistry revocationRegistry = Mockito.mock(TokenRevocationRegistry.class);
+        FilterChain filterChain = Mockito.mock(FilterChain.class);
+        JwtAuthTokenFilter filter = new JwtAuthTokenFilter(jwtProvider, userDetailsService, tokenRepository, revocationRegistry);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.addHeader("Authorization", "Bearer revoked-token");
+
+        VerifiedToken verifiedToken = new VerifiedToken(
+                "revoked-token", 1L, "user@example.com", VerifiedToken.ACCESS_TOKEN_TYPE,
+                System.currentTimeMillis() + 60_000L, 1L);
+        when(jwtProvider.verifyToken("revoked-token")).thenReturn(Optional.of(verifiedToken));
+        when(revocationRegistry.isStateless()).thenReturn(true);
+        when(revocationRegistry.isRevoked(verifiedToken)).thenReturn(true);
+
+        filter.doFilter(request, response, filterChain);
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verifyNoInteractions(tokenRepository, userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+
     @Test
     void shouldSkipAuthenticationForInvalidAuthorizationHeader() throws Exception {
         JwtProvider jwtProvider = Mockito.mock(JwtProvider.class);
         UserDetailsServiceImpl userDetailsService = Mockito.mock(UserDetailsServiceImpl.class);
         UserTokenRedisRepository tokenRepository = Mockito.mock(UserTokenRedisRepository.class);
+        TokenRevocationRegistry revocationRegistry = Mockito.mock(TokenRevocationRegistry.class);
         FilterChain filterChain = Mockito.mock(FilterChain.class);
-        JwtAuthTokenFilter filter = new JwtAuthTokenFilter(jwtProvider, userDetailsService, tokenRepository);
+        JwtAuthTokenFilter filter = new JwtAuthTokenFilter(jwtProvider, userDetailsService, tokenRepository, revocationRegistry);
 
         MockHttpServletRequest request = new MockHttpServletRequest();
         MockHttpServletResponse response = new MockHttpServletResponse();
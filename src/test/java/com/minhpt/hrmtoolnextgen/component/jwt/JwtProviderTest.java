@@ -0,0 +1,79 @@
+package com.minhpt.hrmtoolnextgen.component.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtProviderTest {
+
+    private static final String CURRENT_SECRET = "current-test-secret-with-at-least-32-bytes";
+    private static final String PREVIOUS_SECRET = "previous-test-secret-with-at-least-32-bytes";
+
+    @Test
+    void verifyTokenShouldExposeAllClaimsFromSingleParse() {
+        JwtProvider jwtProvider = newProvider(CURRENT_SECRET, "");
+
+        String token = jwtProvider.generateTokenFromEmail("user@example.com", 7L);
+        VerifiedToken verifiedToken = jwtProvider.verifyToken(token).orElseThrow();
+
+        assertEquals(7L, verifiedToken.userId());
+        assertEquals("user@example.com", verifiedToken.email());
+        assertTrue(verifiedToken.isAccessToken());
+        assertTrue(verifiedToken.getRemainTime() > 0);
+    }
+
+    @Test
+    void verifyTokenShouldDistinguishRefreshTokens() {
+        JwtProvider jwtProvider = newProvider(CURRENT_SECRET, "");
+
+        String token = jwtProvider.generateRefreshToken("user@example.com", 7L);
+        VerifiedToken verifiedToken = jwtProvider.verifyToken(token).orElseThrow();
+
+        assertTrue(verifiedToken.isRefreshToken());
+        assertFalse(verifiedToken.isAccessToken());
+    }
+
+    @Test
+    void verifyTokenShouldExposeTokenEpoch() {
+        JwtProvider jwtProvider = newProvider(CURRENT_SECRET, "");
+
+        assertEquals(3L, jwtProvider.verifyToken(jwtProvider.generateTokenFromEmail("user@example.com", 7L, 3L))
+                .orElseThrow().tokenEpoch());
+        assertEquals(0L, jwtProvider.verifyToken(jwtProvider.generateTokenFromEmail("user@example.com", 7L))
+                .orElseThrow().tokenEpoch());
+    }
+
+    @Test
+    void verifyTokenShouldAcceptTokensSignedWithPreviousSecret() {
+        String token = newProvider(PREVIOUS_SECRET, "").generateTokenFromEmail("user@example.com", 7L);
+
+        JwtProvider rotatedProvider = newProvider(CURRENT_SECRET, PREVIOUS_SECRET);
+
+        assertTrue(rotatedProvider.verifyToken(token).isPresent());
+        assertTrue(newProvider(CURRENT_SECRET, "").verifyToken(token).isEmpty());
+    }
+
+    @Test
+    void verifyTokenShouldRejectExpiredAndMalformedTokens() {
+        JwtProvider jwtProvider = newProvider(CURRENT_SECRET, "");
+        ReflectionTestUtils.setField(jwtProvider, "jwtExpiration", -1_000L);
+
+        String expired = jwtProvider.generateTokenFromEmail("user@example.com", 7L);
+
+        assertTrue(jwtProvider.verifyToken(expired).isEmpty());
+        assertTrue(jwtProvider.verifyToken("not-a-jwt").isEmpty());
+        assertTrue(jwtProvider.verifyToken(" ").isEmpty());
+    }
+
+    private static JwtProvider newProvider(String secret, String previousSecret) {
+        JwtProvider jwtProvider = new JwtProvider();
+        ReflectionTestUtils.setField(jwtProvider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtProvider, "jwtSecretPrevious", previousSecret);
+        ReflectionTestUtils.setField(jwtProvider, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(jwtProvider, "refreshTokenExpiration", 120_000L);
+        return jwtProvider;
+    }
+}
@@ -0,0 +1,92 @@
+package com.minhpt.hrmtoolnextgen.component.jwt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.minhpt.hrmtoolnextgen.util.DateUtils;
+
+class TokenRevocationRegistryTest {
+
+    private static final Long USER_ID = 7L;
+
+    private HashOperations<String, Object, Object> hashOperations;
+    private StringRedisTemplate stringRedisTemplate;
+    private TokenRevocationRegistry registry;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        hashOperations = Mockito.mock(HashOperations.class);
+        when(stringRedisTemplate.<Object, Object>opsForHash()).thenReturn(hashOperations);
+        registry = new TokenRevocationRegistry(stringRedisTemplate, Mockito.mock(RedisMessageListenerContainer.class));
+        ReflectionTestUtils.setField(registry, "stateless", true);
+        registry.init();
+    }
+
+    @Test
+    void revokeShouldRejectTokensOfOlderEpochsOnly() {
+        when(hashOperations.increment(TokenRevocationRegistry.EPOCHS_KEY, "7", 1L)).thenReturn(1L);
+
+        assertFalse(registry.isRevoked(token(0)));
+        long epoch = registry.revoke(USER_ID);
+
+        assertEquals(1, epoch);
+        assertEquals(1, registry.currentEpoch(USER_ID));
+        assertTrue(registry.isRevoked(token(0)));
+        assertFalse(registry.isRevoked(token(1)));
+        verify(stringRedisTemplate).convertAndSend(TokenRevocationRegistry.REVOCATION_CHANNEL, "7:1");
+    }
+
+    @Test
+    void revocationFromAnotherNodeShouldApplyAndNeverMoveTheEpochBack() {
+        registry.onMessage(message("7:3"), null);
+        registry.onMessage(message("7:2"), null);
+        registry.onMessage(message("malformed"), null);
+
+        assertEquals(3, registry.currentEpoch(USER_ID));
+        assertTrue(registry.isRevoked(token(2)));
+    }
+
+    @Test
+    void resyncShouldRecoverRevocationsWhoseMessageWasLost() {
+        when(hashOperations.entries(TokenRevocationRegistry.EPOCHS_KEY)).thenReturn(Map.of("7", "2"));
+
+        assertFalse(registry.isRevoked(token(1)));
+        registry.resync();
+
+        assertTrue(registry.isRevoked(token(1)));
+        assertEquals(0, registry.currentEpoch(8L));
+    }
+
+    @Test
+    void tokensWithoutUserShouldBeRevoked() {
+        assertTrue(registry.isRevoked(new VerifiedToken("token", null, "user@example.com",
+                VerifiedToken.ACCESS_TOKEN_TYPE, DateUtils.getInstantLong() + 60_000, 0)));
+    }
+
+    private static VerifiedToken token(long epoch) {
+        return new VerifiedToken("token", USER_ID, "user@example.com", VerifiedToken.ACCESS_TOKEN_TYPE,
+                DateUtils.getInstantLong() + 60_000, epoch);
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage(TokenRevocationRegistry.REVOCATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
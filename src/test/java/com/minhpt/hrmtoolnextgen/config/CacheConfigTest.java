@@ -0,0 +1,76 @@
+package com.minhpt.hrmtoolnextgen.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+
+class CacheConfigTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void typedPolicyShouldStoreCompactJsonReadBackAsItsType() {
+        CacheProperties properties = new CacheProperties();
+        CacheProperties.Policy policy = holidaysPolicy();
+
+        RedisCacheConfiguration configuration = CacheConfig.configuration("holidays", policy, properties, objectMapper);
+
+        HolidayDto holiday = new HolidayDto();
+        holiday.setName("New Year's Day");
+        holiday.setDate(LocalDate.of(2026, 1, 1));
+        ByteBuffer written = configuration.getValueSerializationPair().write(List.of(holiday));
+        String json = StandardCharsets.UTF_8.decode(written.duplicate()).toString();
+        Object read = configuration.getValueSerializationPair().read(written);
+
+        assertFalse(json.contains("@class"));
+        assertTrue(json.contains("\"2026-01-01\""));
+        assertEquals(LocalDate.of(2026, 1, 1), ((HolidayDto) ((List<?>) read).getFirst()).getDate());
+        assertEquals(Duration.ofDays(7), configuration.getTtlFunction().getTimeToLive(holiday, List.of(holiday)));
+    }
+
+    @Test
+    void keysShouldCarryThePrefixAndTheCacheVersionOverTheGlobalOne() {
+        CacheProperties properties = new CacheProperties();
+        properties.setVersion(3);
+        CacheProperties.Policy policy = holidaysPolicy();
+
+        assertEquals("hrm:v3:holidays::", CacheConfig.configuration("holidays", policy, properties, objectMapper)
+                .getKeyPrefixFor("holidays"));
+        policy.setVersion(4);
+        assertEquals("hrm:v4:holidays::", CacheConfig.configuration("holidays", policy, properties, objectMapper)
+                .getKeyPrefixFor("holidays"));
+    }
+
+    @Test
+    void typedPolicyWithoutValueTypeShouldFailAtStartup() {
+        CacheProperties.Policy policy = new CacheProperties.Policy();
+        policy.setSerializer(CacheProperties.Serializer.JSON);
+
+        assertThrows(IllegalStateException.class,
+                () -> CacheConfig.configuration("holidays", policy, new CacheProperties(), objectMapper));
+    }
+
+    private static CacheProperties.Policy holidaysPolicy() {
+        CacheProperties.Policy policy = new CacheProperties.Policy();
+        policy.setTtl(Duration.ofDays(7));
+        policy.setSerializer(CacheProperties.Serializer.JSON);
+        policy.setValueType("java.util.List<com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto>");
+        return policy;
+    }
+}
@@ -41,6 +41,17 @@ class PrometheusEndpointIntegrationTest {
                 .andExpect(result -> assertTrue(result.getResponse().getContentAsString().contains("# HELP")));
     }
 
+    @Test
+    @WithMockUser(authorities = ADMIN)
+    void configuredRedisCachesShouldExposeStatistics() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(result -> assertTrue(result.getResponse().getContentAsString()
+                        .contains("cache_gets_total{cache=\"holidays\",result=\"miss\"}")))
+                .andExpect(result -> assertTrue(result.getResponse().getContentAsString()
+                        .contains("cache_tier_gets_total{cache=\"holidays\",result=\"hit\",tier=\"local\"}")));
+    }
+
     @Test
     @WithMockUser
     void regularAuthenticatedUserShouldNotAccessPrometheusEndpoint() throws Exception {
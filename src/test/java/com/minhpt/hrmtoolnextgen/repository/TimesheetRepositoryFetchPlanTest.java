@@ -0,0 +1,241 @@
+package com.minhpt.hrmtoolnextgen.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.project.ProjectExcelDto;
+import com.minhpt.hrmtoolnextgen.dto.request.CursorPaginationRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.PaginationRequest;
+import com.minhpt.hrmtoolnextgen.dto.response.CursorPaginationResponse;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
+import com.minhpt.hrmtoolnextgen.dto.user.UserExcelDto;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.mapping.excel.ProjectExcelMapping;
+import com.minhpt.hrmtoolnextgen.projection.TimesheetHoursAggregateProjection;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.timesheet.TimesheetService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(classes = {HrmToolNextGenApplication.class, TimesheetRepositoryFetchPlanTest.MailTestConfig.class})
+@Transactional
+class TimesheetRepositoryFetchPlanTest {
+
+    private static final LocalDate MARCH_START = LocalDate.of(2026, 3, 1);
+    private static final LocalDate MARCH_END = LocalDate.of(2026, 3, 31);
+
+    @SuppressWarnings("unused")
+    @TestConfiguration
+    static class MailTestConfig {
+        @SuppressWarnings("unused")
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Autowired
+    private TimesheetRepository timesheetRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TimesheetService timesheetService;
+
+    @Autowired
+    private ProjectExcelMapping projectExcelMapping;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long projectId;
+
+    private Long managerId;
+
+    private Long memberId;
+
+    private Statistics statistics;
+
+    /**
+     * Saves a project with two members. The first has timesheets in March 2026 (one rejected, one
+     * outside the month); the second has none. Statistics are off in the shared test context, so
+     * they are switched on for each test here and off again afterwards.
+     */
+    @BeforeEach
+    void setUp() {
+        RoleEntity userRole = roleRepository.findByUserRole(EUserRole.USER);
+        if (userRole == null) {
+            userRole = new RoleEntity();
+            userRole.setUserRole(EUserRole.USER);
+            userRole = roleRepository.save(userRole);
+        }
+
+        UserEntity manager = userRepository.save(createUser(userRole, "manager"));
+        UserEntity member = userRepository.save(createUser(userRole, "member"));
+        UserEntity idleMember = userRepository.save(createUser(userRole, "idle"));
+
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Timesheet Fetch Plan " + System.nanoTime());
+        project.setClientName("Client");
+        project.setDescription("Timesheet fetch plan test");
+        project.setProjectStatus(EProjectStatus.RUNNING);
+        project.setStartTime(LocalDate.of(2026, 1, 1));
+        project.setEndTime(LocalDate.of(2026, 12, 31));
+        project.setProjectManager(manager);
+        project.addMemberToProject(member);
+        project.addMemberToProject(idleMember);
+        project = projectRepository.save(project);
+
+        timesheetRepository.saveAll(List.of(
+                createTimesheet(project, member, ETimesheetType.NORMAL, LocalTime.of(8, 0), LocalDate.of(2026, 3, 2), ETimesheetStatus.APPROVED),
+                createTimesheet(project, member, ETimesheetType.NORMAL, LocalTime.of(4, 30), LocalDate.of(2026, 3, 3), ETimesheetStatus.PENDING),
+                createTimesheet(project, member, ETimesheetType.OVERTIME, LocalTime.of(1, 30), LocalDate.of(2026, 3, 3), ETimesheetStatus.APPROVED),
+                createTimesheet(project, member, ETimesheetType.NORMAL, LocalTime.of(2, 0), LocalDate.of(2026, 3, 4), ETimesheetStatus.REJECTED),
+                createTimesheet(project, member, ETimesheetType.NORMAL, LocalTime.of(8, 0), LocalDate.of(2026, 4, 1), ETimesheetStatus.APPROVED)));
+        timesheetRepository.flush();
+
+        projectId = project.getId();
+        managerId = manager.getId();
+        memberId = member.getId();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void sumLoggedMinutesByTypeShouldAggregateWithoutLoadingTimesheets() {
+        Map<ETimesheetType, Long> minutesByType = timesheetRepository.sumLoggedMinutesByType(
+                        memberId,
+                        MARCH_START,
+                        MARCH_END,
+                        EnumSet.of(ETimesheetStatus.PENDING, ETimesheetStatus.APPROVED))
+                .stream()
+                .collect(Collectors.toMap(TimesheetHoursAggregateProjection::getType,
+                        TimesheetHoursAggregateProjection::getTotalMinutes));
+
+        assertEquals(Map.of(ETimesheetType.NORMAL, 750L, ETimesheetType.OVERTIME, 90L), minutesByType);
+        assertEquals(0, statistics.getEntityStatistics(TimesheetEntity.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void projectExcelExportShouldFillMemberHoursFromOneAggregateQuery() {
+        ProjectEntity project = projectRepository.findById(projectId).orElseThrow();
+        List<Long> memberIds = project.getMembers().stream().map(UserEntity::getId).toList();
+        statistics.clear();
+
+        Map<Long, Map<ETimesheetType, Long>> loggedMinutes = timesheetService.getLoggedMinutesByUserAndType(
+                memberIds, MARCH_START, MARCH_END, EnumSet.of(ETimesheetStatus.PENDING, ETimesheetStatus.APPROVED));
+        ProjectExcelDto dto = projectExcelMapping.toExcelDto(project, loggedMinutes);
+
+        Map<String, UserExcelDto> members = dto.getMembers().stream()
+                .collect(Collectors.toMap(UserExcelDto::getName, member -> member));
+        UserExcelDto member = members.get("Fetchmember");
+        UserExcelDto idleMember = members.get("Fetchidle");
+        assertEquals(12.5, member.getNormalHours());
+        assertEquals(1.5, member.getOvertimeHours());
+        assertEquals(0d, idleMember.getNormalHours());
+        assertEquals(0d, idleMember.getOvertimeHours());
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(0, statistics.getEntityStatistics(TimesheetEntity.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void cursorPageShouldFetchProjectManagerAndUserWithTheRows() {
+        CursorPaginationResponse<TimesheetDto> page = timesheetService.getTimesheetsByManagerWithCursor(
+                managerId, CursorPaginationRequest.builder().size(10).skipCount(true).build(), null, projectId);
+        long cursorStatements = statistics.getPrepareStatementCount();
+
+        assertEquals(5, page.getNumberOfElements());
+        page.getItems().forEach(item -> assertEquals(projectId, item.getProjectEntity().getId()));
+        page.getItems().forEach(item -> assertEquals(memberId, item.getUserEntity().getId()));
+        assertEquals(0, statistics.getEntityStatistics(ProjectEntity.class.getName()).getFetchCount());
+        assertEquals(0, statistics.getEntityStatistics(UserEntity.class.getName()).getFetchCount());
+
+        // The offset page loads the same graph through @EntityGraph and skips its count on a short page
+        entityManager.clear();
+        statistics.clear();
+        timesheetService.getTimesheetsByManagerWithFilters(managerId, new PaginationRequest(), null, projectId);
+        assertEquals(statistics.getPrepareStatementCount(), cursorStatements);
+    }
+
+    private TimesheetEntity createTimesheet(ProjectEntity project, UserEntity user, ETimesheetType type,
+                                            LocalTime workingHours, LocalDate workingDay, ETimesheetStatus status) {
+        TimesheetEntity timesheet = new TimesheetEntity();
+        timesheet.setTitle("Fetch plan " + type);
+        timesheet.setProjectEntity(project);
+        timesheet.setUserEntity(user);
+        timesheet.setType(type);
+        timesheet.setWorkingHours(workingHours);
+        timesheet.setWorkingDay(workingDay);
+        timesheet.setStatus(status);
+        return timesheet;
+    }
+
+    private UserEntity createUser(RoleEntity userRole, String suffix) {
+        long uniqueSeed = System.nanoTime();
+
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Fetch" + suffix);
+        userInfo.setLastName("Timesheet" + suffix);
+        userInfo.setIdentityCard("TID-" + suffix + "-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setCurrentAddress("Hanoi");
+        userInfo.setPermanentAddress("Hanoi");
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity user = new UserEntity();
+        user.setEmail("timesheet-fetch-" + suffix + "-" + uniqueSeed + "@example.com");
+        user.setPassword("encoded-password");
+        user.setActive(true);
+        user.setUserInfo(userInfo);
+        user.setRoles(List.of(userRole));
+        return user;
+    }
+}
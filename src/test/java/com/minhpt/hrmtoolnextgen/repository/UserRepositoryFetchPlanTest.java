@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,11 +28,14 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
 import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
 import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
 import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
 import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
 import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.security.UserDetailsServiceImpl;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
@@ -56,6 +60,12 @@ class UserRepositoryFetchPlanTest {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private TimesheetRepository timesheetRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
     @PersistenceContext
     private EntityManager entityManager;
 
@@ -120,6 +130,29 @@ class UserRepositoryFetchPlanTest {
         assertTrue(statistics.getPrepareStatementCount() <= 4);
     }
 
+    @Test
+    void authenticationShouldNotLoadTimesheets() {
+        UserEntity user = userRepository.findById(savedUserIds.get(0)).orElseThrow();
+        TimesheetEntity timesheet = new TimesheetEntity();
+        timesheet.setTitle("Fetch plan timesheet");
+        timesheet.setUserEntity(user);
+        timesheet.setWorkingHours(LocalTime.of(8, 0));
+        timesheet.setWorkingDay(LocalDate.of(2026, 3, 2));
+        timesheetRepository.saveAndFlush(timesheet);
+        entityManager.clear();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            userDetailsService.loadUserByUsername(user.getEmail());
+
+            assertEquals(0, statistics.getEntityStatistics(TimesheetEntity.class.getName()).getLoadCount());
+            assertEquals(0, statistics.getCollectionStatistics(UserEntity.class.getName() + ".timesheets").getFetchCount());
+            assertTrue(statistics.getEntityStatistics(UserEntity.class.getName()).getLoadCount() > 0);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     private UserEntity createUser(RoleEntity userRole, int index) {
         long uniqueSeed = System.nanoTime() + index;
 
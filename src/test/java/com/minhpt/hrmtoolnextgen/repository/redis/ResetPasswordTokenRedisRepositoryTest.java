@@ -0,0 +1,113 @@
+package com.minhpt.hrmtoolnextgen.repository.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import redis.embedded.RedisServer;
+
+class ResetPasswordTokenRedisRepositoryTest {
+
+    private static final int PORT = Integer.getInteger("redis.test.port", 6392);
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+    private static StringRedisTemplate template;
+
+    private ResetPasswordTokenRedisRepository repository;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(PORT);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", PORT));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        template.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+        repository = new ResetPasswordTokenRedisRepository(template);
+    }
+
+    @Test
+    void issuedTokenIsFoundWithoutBeingConsumed() {
+        repository.save(7L, "raw-token", 60_000);
+
+        assertEquals(7L, repository.find("raw-token"));
+        assertEquals(7L, repository.find("raw-token"));
+        assertNull(repository.find("other-token"));
+    }
+
+    @Test
+    void tokenIsStoredHashedUnderOneClusterSlot() {
+        repository.save(7L, "raw-token", 60_000);
+
+        Set<String> keys = template.keys("*");
+        assertEquals(2, keys.size());
+        assertTrue(keys.stream().allMatch(key -> key.startsWith("{reset_password_token}:")));
+        assertFalse(keys.stream().anyMatch(key -> key.contains("raw-token")));
+    }
+
+    @Test
+    void consumeIsSingleUse() {
+        repository.save(7L, "raw-token", 60_000);
+
+        assertEquals(7L, repository.consume("raw-token"));
+        assertNull(repository.consume("raw-token"));
+        assertNull(repository.find("raw-token"));
+    }
+
+    @Test
+    void newTokenReplacesThePreviousOneOfTheSameUser() {
+        repository.save(7L, "first-token", 60_000);
+        repository.save(8L, "other-user-token", 60_000);
+        repository.save(7L, "second-token", 60_000);
+
+        assertNull(repository.consume("first-token"));
+        assertEquals(8L, repository.consume("other-user-token"));
+        assertEquals(7L, repository.consume("second-token"));
+    }
+
+    @Test
+    void reissuingTheSameTokenKeepsIt() {
+        repository.save(7L, "raw-token", 60_000);
+        repository.save(7L, "raw-token", 60_000);
+
+        assertEquals(7L, repository.consume("raw-token"));
+    }
+
+    @Test
+    void tokenExpiresWithItsTtl() throws InterruptedException {
+        repository.save(7L, "raw-token", 50);
+
+        Thread.sleep(150);
+
+        assertNull(repository.find("raw-token"));
+        assertNull(repository.consume("raw-token"));
+        assertTrue(template.keys("*").isEmpty());
+    }
+}
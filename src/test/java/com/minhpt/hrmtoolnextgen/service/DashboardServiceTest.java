@@ -0,0 +1,110 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.minhpt.hrmtoolnextgen.dto.dashboard.DashboardSummaryDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.ProjectStatusCountDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.event.ProjectStatusChangedEvent;
+import com.minhpt.hrmtoolnextgen.event.UserActivityChangedEvent;
+import com.minhpt.hrmtoolnextgen.projection.ProjectStatusCountProjection;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+
+class DashboardServiceTest {
+
+    private final ProjectRepository projectRepository = mock(ProjectRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private DashboardService dashboardService;
+
+    @BeforeEach
+    void setUp() {
+        when(projectRepository.countProjectsByStatus()).thenReturn(List.of(
+                count(EProjectStatus.RUNNING, 3), count(EProjectStatus.INCOMING, 1)));
+        when(userRepository.countByActiveTrueAndDeleteFalse()).thenReturn(10L);
+        dashboardService = new DashboardService(projectRepository, userRepository);
+    }
+
+    @Test
+    void eventsShouldAdjustSnapshotWithoutQueries() {
+        DashboardSummaryDto initial = dashboardService.getDashboardSummary();
+
+        dashboardService.onProjectStatusChanged(new ProjectStatusChangedEvent(1L, null, EProjectStatus.INCOMING));
+        dashboardService.onProjectStatusChanged(
+                new ProjectStatusChangedEvent(2L, EProjectStatus.INCOMING, EProjectStatus.RUNNING));
+        dashboardService.onProjectStatusChanged(new ProjectStatusChangedEvent(3L, EProjectStatus.RUNNING, null));
+        dashboardService.onUserActivityChanged(new UserActivityChangedEvent(4L, true));
+        dashboardService.onUserActivityChanged(new UserActivityChangedEvent(5L, true));
+        dashboardService.onUserActivityChanged(new UserActivityChangedEvent(6L, false));
+        DashboardSummaryDto summary = dashboardService.getDashboardSummary();
+
+        assertEquals(Map.of(EProjectStatus.RUNNING, 3L, EProjectStatus.INCOMING, 1L), nonZeroCounts(summary));
+        assertEquals(11L, summary.getActiveEmployeeCount());
+        assertEquals(EProjectStatus.values().length, summary.getProjectStatusCounts().size());
+        assertTrue(summary.getAsOf() >= initial.getAsOf());
+        verify(projectRepository, times(1)).countProjectsByStatus();
+        verify(userRepository, times(1)).countByActiveTrueAndDeleteFalse();
+    }
+
+    @Test
+    void reconcileShouldReplaceDriftedCounts() {
+        dashboardService.getDashboardSummary();
+        dashboardService.onUserActivityChanged(new UserActivityChangedEvent(4L, true));
+        when(projectRepository.countProjectsByStatus()).thenReturn(List.of(count(EProjectStatus.RUNNING, 5)));
+        when(userRepository.countByActiveTrueAndDeleteFalse()).thenReturn(8L);
+
+        dashboardService.reconcile();
+        DashboardSummaryDto summary = dashboardService.getDashboardSummary();
+
+        assertEquals(Map.of(EProjectStatus.RUNNING, 5L), nonZeroCounts(summary));
+        assertEquals(8L, summary.getActiveEmployeeCount());
+    }
+
+    @Test
+    void eventAppliedDuringReconcileShouldNotBeLost() {
+        dashboardService.getDashboardSummary();
+        // The first read of the reconciliation races with a committed activation; the second sees it
+        when(userRepository.countByActiveTrueAndDeleteFalse())
+                .thenAnswer(invocation -> {
+                    dashboardService.onUserActivityChanged(new UserActivityChangedEvent(4L, true));
+                    return 10L;
+                })
+                .thenReturn(11L);
+
+        dashboardService.reconcile();
+
+        assertEquals(11L, dashboardService.getDashboardSummary().getActiveEmployeeCount());
+    }
+
+    private static Map<EProjectStatus, Long> nonZeroCounts(DashboardSummaryDto summary) {
+        return summary.getProjectStatusCounts().stream()
+                .filter(count -> count.getTotal() != 0)
+                .collect(Collectors.toMap(ProjectStatusCountDto::getStatus, ProjectStatusCountDto::getTotal));
+    }
+
+    private static ProjectStatusCountProjection count(EProjectStatus status, long total) {
+        return new ProjectStatusCountProjection() {
+            @Override
+            public EProjectStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public Long getTotal() {
+                return total;
+            }
+        };
+    }
+}
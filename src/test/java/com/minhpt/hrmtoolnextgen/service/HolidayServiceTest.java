@@ -0,0 +1,193 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.minhpt.hrmtoolnextgen.component.HolidaySnapshotStore;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidaySnapshot;
+import com.minhpt.hrmtoolnextgen.event.HolidayCalendarChangedEvent;
+import com.minhpt.hrmtoolnextgen.exception.InternalServerException;
+import com.minhpt.hrmtoolnextgen.repository.jpa.WorkCalendarRepository;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HolidayServiceTest {
+
+    private final Deque<Runnable> backgroundTasks = new ArrayDeque<>();
+
+    private CalendarificService calendarificService;
+    private HolidaySnapshotStore snapshotStore;
+    private WorkCalendarRepository workCalendarRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
+    private HolidayService holidayService;
+
+    @BeforeEach
+    void setUp() {
+        calendarificService = Mockito.mock(CalendarificService.class);
+        snapshotStore = Mockito.mock(HolidaySnapshotStore.class);
+        workCalendarRepository = Mockito.mock(WorkCalendarRepository.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        holidayService = new HolidayService(calendarificService, snapshotStore, workCalendarRepository,
+                eventPublisher, meterRegistry, backgroundTasks::add);
+        ReflectionTestUtils.setField(holidayService, "calendarTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(holidayService, "retryInterval", Duration.ofHours(1));
+        ReflectionTestUtils.setField(holidayService, "defaultCountryCode", "VN");
+        holidayService.init();
+
+        when(calendarificService.isConfigured()).thenReturn(true);
+        when(snapshotStore.find(anyString(), anyInt())).thenReturn(Optional.empty());
+        when(calendarificService.getHolidays(2026, "VN")).thenReturn(List.of(
+                holiday("Independence Day", LocalDate.of(2026, 9, 2)),
+                holiday("New Year's Day", LocalDate.of(2026, 1, 1)),
+                holiday("Misdated", LocalDate.of(2025, 12, 31))));
+        when(calendarificService.getHolidays(2027, "VN")).thenReturn(List.of(
+                holiday("New Year's Day", LocalDate.of(2027, 1, 1))));
+    }
+
+    @Test
+    void unknownYearShouldBeServedProvisionallyWhileFetchedInTheBackground() {
+        HolidayCalendar provisional = holidayService.getCalendar(2026);
+
+        assertTrue(provisional.isProvisional());
+        assertFalse(provisional.isHoliday(LocalDate.of(2026, 1, 1)));
+        verify(calendarificService, never()).getHolidays(anyInt(), anyString());
+
+        runBackgroundTasks();
+
+        assertTrue(holidayService.isHoliday(LocalDate.of(2026, 1, 1)));
+        assertTrue(holidayService.isHoliday(LocalDate.of(2026, 9, 2)));
+        assertFalse(holidayService.isHoliday(LocalDate.of(2026, 9, 3)));
+        assertEquals(2, holidayService.getHolidaysByYear(2026).size());
+        verify(calendarificService, times(1)).getHolidays(2026, "VN");
+        verify(eventPublisher).publishEvent(new HolidayCalendarChangedEvent("VN", 2026));
+        verify(snapshotStore).save(any(HolidaySnapshot.class));
+        assertEquals(4.0, meterRegistry.get("cache.gets").tag("cache", "holiday_calendars").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void snapshotShouldBeServedWithoutCallingTheApi() {
+        when(snapshotStore.find("VN", 2026)).thenReturn(Optional.of(new HolidaySnapshot("VN", 2026, null,
+                List.of(holiday("Reunification Day", LocalDate.of(2026, 4, 30))))));
+
+        assertTrue(holidayService.isHoliday(LocalDate.of(2026, 4, 30)));
+        assertFalse(holidayService.getCalendar(2026).isProvisional());
+        runBackgroundTasks();
+        verify(calendarificService, never()).getHolidays(anyInt(), anyString());
+    }
+
+    @Test
+    void failedFetchShouldKeepTheProvisionalCalendarAndNotBeRetriedBeforeTheInterval() {
+        when(calendarificService.getHolidays(2026, "VN")).thenThrow(new InternalServerException());
+
+        holidayService.getCalendar(2026);
+        runBackgroundTasks();
+
+        assertTrue(holidayService.getCalendar(2026).isProvisional());
+        runBackgroundTasks();
+        verify(calendarificService, times(1)).getHolidays(2026, "VN");
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void withoutApiKeyNoHolidaysShouldBeFinal() {
+        when(calendarificService.isConfigured()).thenReturn(false);
+
+        HolidayCalendar calendar = holidayService.getCalendar(2026);
+
+        assertFalse(calendar.isProvisional());
+        assertTrue(calendar.getHolidays().isEmpty());
+        holidayService.prefetch();
+        runBackgroundTasks();
+        verify(calendarificService, never()).refreshHolidays(anyInt(), anyString());
+        verify(calendarificService, never()).getHolidays(anyInt(), anyString());
+    }
+
+    @Test
+    void prefetchShouldBypassRedisForTheCurrentAndNextYearOfEveryCountryInUse() {
+        int year = LocalDate.now().getYear();
+        when(workCalendarRepository.findDistinctCountryCodes()).thenReturn(List.of("VN", "SG"));
+        when(calendarificService.refreshHolidays(anyInt(), anyString())).thenReturn(List.of());
+        when(calendarificService.refreshHolidays(year, "SG")).thenReturn(List.of(
+                holiday("New Year's Day", LocalDate.of(year, 1, 1))));
+
+        holidayService.prefetch();
+        runBackgroundTasks();
+
+        verify(calendarificService).refreshHolidays(year, "VN");
+        verify(calendarificService).refreshHolidays(year + 1, "VN");
+        verify(calendarificService).refreshHolidays(year, "SG");
+        verify(calendarificService).refreshHolidays(year + 1, "SG");
+        verify(calendarificService, never()).getHolidays(anyInt(), anyString());
+        ArgumentCaptor<HolidaySnapshot> snapshots = ArgumentCaptor.forClass(HolidaySnapshot.class);
+        verify(snapshotStore, times(4)).save(snapshots.capture());
+        assertTrue(holidayService.getCalendar(year, "SG").isHoliday(LocalDate.of(year, 1, 1)));
+        assertFalse(holidayService.getCalendar(year + 1, "SG").isProvisional());
+    }
+
+    @Test
+    void calendarShouldOnlyHoldDaysOfItsYearInDateOrder() {
+        HolidayCalendar calendar = loaded(2026);
+
+        assertEquals(List.of(LocalDate.of(2026, 1, 1), LocalDate.of(2026, 9, 2)),
+                calendar.getHolidays().stream().map(HolidayDto::getDate).toList());
+        assertFalse(calendar.isHoliday(LocalDate.of(2025, 12, 31)));
+        assertFalse(calendar.isHoliday(LocalDate.of(2027, 1, 1)));
+    }
+
+    @Test
+    void rangeShouldSpanYearsInclusively() {
+        loaded(2026);
+        loaded(2027);
+
+        List<HolidayDto> holidays = holidayService.getHolidaysByRange(LocalDate.of(2026, 9, 2), LocalDate.of(2027, 1, 1));
+
+        assertEquals(List.of(LocalDate.of(2026, 9, 2), LocalDate.of(2027, 1, 1)),
+                holidays.stream().map(HolidayDto::getDate).toList());
+    }
+
+    private HolidayCalendar loaded(int year) {
+        holidayService.getCalendar(year);
+        runBackgroundTasks();
+        return holidayService.getCalendar(year);
+    }
+
+    private void runBackgroundTasks() {
+        while (!backgroundTasks.isEmpty()) {
+            backgroundTasks.poll().run();
+        }
+    }
+
+    private static HolidayDto holiday(String name, LocalDate date) {
+        HolidayDto holiday = new HolidayDto();
+        holiday.setName(name);
+        holiday.setDate(date);
+        return holiday;
+    }
+}
@@ -0,0 +1,271 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.minhpt.hrmtoolnextgen.dto.sse.SseEventDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SseServiceTest {
+
+    private StringRedisTemplate stringRedisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private List<RecordingEmitter> emitters;
+    private SseService sseService;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        emitters = new ArrayList<>();
+        sseService = createService(Runnable::run);
+    }
+
+    private SseService createService(Executor executor) {
+        return createService(executor, new ObjectMapper().findAndRegisterModules());
+    }
+
+    private SseService createService(Executor executor, ObjectMapper objectMapper) {
+        SseService service = new SseService(stringRedisTemplate, objectMapper,
+                Mockito.mock(RedisMessageListenerContainer.class), executor, meterRegistry) {
+            @Override
+            protected SseEmitter newEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+        ReflectionTestUtils.setField(service, "defaultTimeout", 60_000L);
+        ReflectionTestUtils.setField(service, "highWaterMark", 4);
+        ReflectionTestUtils.setField(service, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(service, "heartbeatInterval", Duration.ofSeconds(2));
+        ReflectionTestUtils.setField(service, "replayBufferSize", 3);
+        ReflectionTestUtils.setField(service, "replayTtl", Duration.ofMinutes(5));
+        service.init();
+        return service;
+    }
+
+    @Test
+    void shouldDeliverToEveryConnectionOfUserAndRelayToOtherNodes() {
+        sseService.createConnection("1");
+        sseService.createConnection("1");
+        sseService.createConnection("2");
+
+        sseService.sendEvent("1", "notification", Map.of("message", "hello"));
+
+        assertEquals(2, emitters.get(0).sent);
+        assertEquals(2, emitters.get(1).sent);
+        assertEquals(1, emitters.get(2).sent);
+        assertEquals(3, sseService.getActiveConnectionCount());
+        assertEquals(3.0, meterRegistry.get("hrm.sse.connections").gauge().value());
+        assertEquals(2.0, meterRegistry.get("hrm.sse.events").tag("result", "delivered").counter().count());
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(SseService.RELAY_CHANNEL), payload.capture());
+        assertTrue(payload.getValue().contains("\"userId\":\"1\""));
+    }
+
+    @Test
+    void shouldDeliverRelayedEventsFromOtherNodesOnly() throws Exception {
+        sseService.createConnection("1");
+
+        sseService.onMessage(relayMessage("other-node", "1"), null);
+        assertEquals(2, emitters.get(0).sent);
+
+        String ownNodeId = (String) ReflectionTestUtils.getField(sseService, "nodeId");
+        sseService.onMessage(relayMessage(ownNodeId, "1"), null);
+        assertEquals(2, emitters.get(0).sent);
+    }
+
+    @Test
+    void shouldRelayWithApplicationObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+        SseService service = createService(Runnable::run, objectMapper);
+        service.createConnection("1");
+
+        service.sendEvent("1", "notification", "hello");
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(stringRedisTemplate).convertAndSend(eq(SseService.RELAY_CHANNEL), payload.capture());
+        assertTrue(payload.getValue().contains("\"origin_node_id\""));
+        service.onMessage(new DefaultMessage(SseService.RELAY_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                payload.getValue().replace(
+                        (String) ReflectionTestUtils.getField(service, "nodeId"), "other-node")
+                        .getBytes(StandardCharsets.UTF_8)), null);
+        assertEquals(3, emitters.get(0).sent);
+    }
+
+    @Test
+    void shouldCloseOldestConnectionOverPerUserLimit() {
+        sseService.createConnection("1");
+        sseService.createConnection("1");
+        sseService.createConnection("1");
+
+        sseService.broadcastEvent("announcement", "hi");
+
+        assertEquals(1, emitters.get(0).sent);
+        assertEquals(2, emitters.get(1).sent);
+        assertEquals(2, emitters.get(2).sent);
+        assertEquals(2, sseService.getActiveConnectionCount());
+    }
+
+    @Test
+    void shouldRemoveConnectionWhenSendFails() {
+        sseService.createConnection("1");
+        emitters.get(0).failing = true;
+
+        sseService.sendEventToUser("1", SseEventDto.create("notification", "x"));
+
+        assertFalse(sseService.hasActiveConnection("1"));
+        assertEquals(1.0, meterRegistry.get("hrm.sse.events").tag("result", "failed").counter().count());
+    }
+
+    @Test
+    void shouldSerializeBroadcastOnceAndShareFrameAcrossConnections() {
+        sseService.createConnection("1");
+        sseService.createConnection("2");
+
+        sseService.broadcastEvent(SseEventDto.create("42", "announcement", Map.of("message", "hi")));
+
+        assertSame(emitters.get(0).lastFrame, emitters.get(1).lastFrame);
+        assertEquals("id:42\nevent:announcement\ndata:{\"message\":\"hi\"}\n\n",
+                new String((byte[]) emitters.get(0).lastFrame.iterator().next().getData(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldDeliverUserEventsAndBroadcastsInPublicationOrder() {
+        List<Runnable> pending = new ArrayList<>();
+        SseService deferred = createService(pending::add);
+        deferred.createConnection("1");
+
+        deferred.sendEvent("1", "notification", "first");
+        deferred.broadcastEvent("announcement", "second");
+        deferred.sendEvent("1", "notification", "third");
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+
+        List<String> frames = emitters.get(0).frameTexts;
+        assertEquals(4, frames.size());
+        assertTrue(frames.get(1).contains("data:first"));
+        assertTrue(frames.get(2).contains("data:second"));
+        assertTrue(frames.get(3).contains("data:third"));
+    }
+
+    @Test
+    void shouldEvictConnectionWhoseQueueReachesHighWaterMark() {
+        List<Runnable> pending = new ArrayList<>();
+        SseService stalled = createService(pending::add);
+        stalled.createConnection("1");
+
+        for (int i = 0; i < 5; i++) {
+            stalled.sendEvent("1", "notification", i);
+        }
+        pending.remove(0).run(); // the dispatch; the connection's drain stays queued
+
+        assertFalse(stalled.hasActiveConnection("1"));
+        assertEquals(1.0, meterRegistry.get("hrm.sse.events").tag("result", "evicted").counter().count());
+    }
+
+    @Test
+    void shouldReplayEventsMissedSinceLastEventId() {
+        sseService.createConnection("1");
+        SseEventDto first = SseEventDto.create("notification", "first");
+        sseService.sendEventToUser("1", first);
+        sseService.sendEvent("1", "notification", "second");
+        sseService.broadcastEvent("announcement", "third");
+        sseService.closeConnection("1");
+
+        sseService.createConnection("1", first.getId());
+
+        RecordingEmitter reconnected = emitters.get(1);
+        assertEquals(3, reconnected.sent);
+        assertTrue(reconnected.lastFrameText().contains("data:third"));
+    }
+
+    @Test
+    void shouldRequestResyncWhenLastEventIdIsNoLongerBuffered() {
+        sseService.createConnection("1", "unknown-id");
+
+        assertEquals(2, emitters.get(0).sent);
+        assertTrue(emitters.get(0).lastFrameText().contains("event:resync"));
+    }
+
+    @Test
+    void shouldSendHeartbeatToIdleConnectionsFromSharedWheel() throws InterruptedException {
+        sseService.createConnection("1");
+        ReflectionTestUtils.setField(sseService, "heartbeatInterval", Duration.ofSeconds(1));
+        Thread.sleep(5);
+
+        sseService.heartbeat();
+        sseService.heartbeat();
+
+        assertEquals(2, emitters.get(0).sent);
+        assertEquals(":heartbeat\n\n", emitters.get(0).lastFrameText());
+    }
+
+    private static DefaultMessage relayMessage(String originNodeId, String userId) {
+        String body = """
+                {"originNodeId":"%s","userId":"%s","event":{"event":"notification","data":{"message":"hi"}},"publishedAt":%d}
+                """.formatted(originNodeId, userId, System.currentTimeMillis());
+        return new DefaultMessage(SseService.RELAY_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Counts events written, including the initial {@code connection} event.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+        private int sent;
+        private boolean failing;
+        private Set<DataWithMediaType> lastFrame;
+        private final List<String> frameTexts = new ArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            send(builder.build());
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            if (failing) {
+                throw new IOException("broken pipe");
+            }
+            sent++;
+            lastFrame = items;
+            frameTexts.add(lastFrameText());
+        }
+
+        private String lastFrameText() {
+            Object data = lastFrame.iterator().next().getData();
+            return data instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : String.valueOf(data);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.ManagerPendingApprovalDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.ProjectUtilizationDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.UserUtilizationDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.UtilizationDto;
+import com.minhpt.hrmtoolnextgen.dto.dashboard.WeeklyDayOffLoadDto;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.timesheet.TimesheetCommandService;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(classes = {HrmToolNextGenApplication.class, UtilizationServiceTest.TestConfig.class})
+@Transactional
+class UtilizationServiceTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2026, 3);
+
+    @SuppressWarnings("unused")
+    @TestConfiguration
+    static class TestConfig {
+        @SuppressWarnings("unused")
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+
+        @SuppressWarnings("unused")
+        @Bean
+        HolidayService holidayService() {
+            HolidayDto holiday = new HolidayDto();
+            holiday.setDate(LocalDate.of(2026, 3, 10));
+            HolidayService holidayService = mock(HolidayService.class);
+            when(holidayService.getCalendar(anyInt(), anyString()))
+                    .thenAnswer(invocation -> HolidayCalendar.of(invocation.getArgument(0), List.of(holiday)));
+            return holidayService;
+        }
+    }
+
+    @Autowired
+    private UtilizationService utilizationService;
+
+    @Autowired
+    private TimesheetCommandService timesheetCommandService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long managerId;
+    private Long projectId;
+
+    @SuppressWarnings("unused")
+    @BeforeEach
+    void setUp() {
+        UserEntity manager = userRepository.save(createUser());
+        ProjectEntity project = createProject(manager);
+        project.addMemberToProject(manager);
+        projectId = projectRepository.save(project).getId();
+        managerId = manager.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        UserPrincipalDto principal = UserPrincipalDto.internalBuilder().id(managerId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @SuppressWarnings("unused")
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void utilizationShouldCompareLoggedHoursWithCapacityNetOfHolidaysAndDayOffs() {
+        timesheetCommandService.createTimesheets(List.of(
+                entry("Planning", ETimesheetType.NORMAL, LocalDate.of(2026, 3, 2), LocalTime.of(4, 0)),
+                entry("Release", ETimesheetType.OVERTIME, LocalDate.of(2026, 3, 3), LocalTime.of(2, 0)),
+                entry("Rejected", ETimesheetType.NORMAL, LocalDate.of(2026, 3, 3), LocalTime.of(1, 0)),
+                entry("Next month", ETimesheetType.NORMAL, LocalDate.of(2026, 4, 1), LocalTime.of(8, 0))));
+        jdbcTemplate.update("UPDATE timesheets SET status = 'REJECTED' WHERE user_id = ? AND title = 'Rejected'",
+                managerId);
+        // Half a day on the 4th and a full day on the 5th, with no ledger rows for either day
+        jdbcTemplate.update("""
+                INSERT INTO day_offs (create_date, create_by, is_delete, is_active, title, start_time, end_time,
+                                      status, requested_by)
+                VALUES (CURRENT_TIMESTAMP, 0, FALSE, TRUE, 'Morning', TIMESTAMP '2026-03-04 09:00:00',
+                        TIMESTAMP '2026-03-04 14:30:00', 'APPROVED', ?),
+                       (CURRENT_TIMESTAMP, 0, FALSE, TRUE, 'Full day', TIMESTAMP '2026-03-05 00:00:00',
+                        TIMESTAMP '2026-03-06 00:00:00', 'APPROVED', ?),
+                       (CURRENT_TIMESTAMP, 0, FALSE, TRUE, 'Pending', TIMESTAMP '2026-03-06 00:00:00',
+                        TIMESTAMP '2026-03-07 00:00:00', 'PENDING', ?)
+                """, managerId, managerId, managerId);
+
+        UtilizationDto utilization = utilizationService.calculate(MARCH);
+
+        // 22 weekdays in March 2026, less the stubbed holiday on the 10th
+        assertEquals(21, utilization.getWorkingDays());
+        assertEquals(168.0, utilization.getCapacityHoursPerEmployee());
+
+        UserUtilizationDto user = utilization.getUsers().stream()
+                .filter(candidate -> candidate.getUserId().equals(managerId)).findFirst().orElseThrow();
+        assertEquals(6.0, user.getLoggedHours());
+        assertEquals(2.0, user.getOvertimeHours());
+        assertEquals(12.0, user.getDayOffHours());
+        assertEquals(156.0, user.getCapacityHours());
+        assertEquals(0.038, user.getUtilization());
+
+        ProjectUtilizationDto project = utilization.getProjects().stream()
+                .filter(candidate -> candidate.getProjectId().equals(projectId)).findFirst().orElseThrow();
+        assertEquals(6.0, project.getLoggedHours());
+        assertEquals(156.0, project.getCapacityHours());
+
+        ManagerPendingApprovalDto pending = utilization.getPendingApprovals().stream()
+                .filter(candidate -> candidate.getManagerId().equals(managerId)).findFirst().orElseThrow();
+        assertEquals(2L, pending.getPendingTimesheets());
+        assertEquals(6.0, pending.getPendingHours());
+        assertEquals("Utilization Manager", pending.getManagerName());
+
+        List<WeeklyDayOffLoadDto> weeks = utilization.getDayOffLoad();
+        assertEquals(List.of("2026-02-23", "2026-03-02", "2026-03-09", "2026-03-16", "2026-03-23", "2026-03-30"),
+                weeks.stream().map(WeeklyDayOffLoadDto::getWeekStart).toList());
+        assertEquals(12.0, weeks.get(1).getDayOffHours());
+        assertEquals(1L, weeks.get(1).getEmployeesOff());
+    }
+
+    @Test
+    void memberOfTwoProjectsShouldSplitTheirCapacityBetweenThem() {
+        UserEntity manager = userRepository.findById(managerId).orElseThrow();
+        ProjectEntity secondProject = createProject(manager);
+        secondProject.addMemberToProject(manager);
+        Long secondProjectId = projectRepository.save(secondProject).getId();
+        entityManager.flush();
+
+        UtilizationDto utilization = utilizationService.calculate(MARCH);
+
+        Map<Long, Double> capacityByProject = utilization.getProjects().stream()
+                .collect(Collectors.toMap(ProjectUtilizationDto::getProjectId, ProjectUtilizationDto::getCapacityHours));
+        assertEquals(84.0, capacityByProject.get(projectId));
+        assertEquals(84.0, capacityByProject.get(secondProjectId));
+    }
+
+    @Test
+    void utilizationShouldBeCachedPerMonth() {
+        UtilizationDto first = utilizationService.getUtilization(MARCH);
+
+        assertSame(first, utilizationService.getUtilization(MARCH));
+        assertEquals("2026-04", utilizationService.getUtilization(MARCH.plusMonths(1)).getPeriod());
+    }
+
+    private CreateTimesheetRequest entry(String title, ETimesheetType type, LocalDate workingDay,
+                                         LocalTime workingHours) {
+        return new CreateTimesheetRequest(title, null, projectId, workingHours, type, workingDay);
+    }
+
+    private ProjectEntity createProject(UserEntity manager) {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Utilization Project " + System.nanoTime());
+        project.setClientName("Client");
+        project.setProjectStatus(EProjectStatus.RUNNING);
+        project.setStartTime(LocalDate.of(2026, 1, 1));
+        project.setEndTime(LocalDate.of(2026, 12, 31));
+        project.setProjectManager(manager);
+        return project;
+    }
+
+    private UserEntity createUser() {
+        RoleEntity userRole = roleRepository.findByUserRole(EUserRole.USER);
+        if (userRole == null) {
+            userRole = new RoleEntity();
+            userRole.setUserRole(EUserRole.USER);
+            userRole = roleRepository.save(userRole);
+        }
+        long uniqueSeed = System.nanoTime();
+
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Utilization");
+        userInfo.setLastName("Manager");
+        userInfo.setIdentityCard("ID-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setCurrentAddress("Hanoi");
+        userInfo.setPermanentAddress("Hanoi");
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity user = new UserEntity();
+        user.setEmail("utilization-manager-" + uniqueSeed + "@example.com");
+        user.setPassword("encoded-password");
+        user.setActive(true);
+        user.setUserInfo(userInfo);
+        user.setRoles(List.of(userRole));
+        return user;
+    }
+}
@@ -0,0 +1,218 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+import com.minhpt.hrmtoolnextgen.dto.request.WorkCalendarRequest;
+import com.minhpt.hrmtoolnextgen.entity.jpa.calendar.WorkCalendarEntity;
+import com.minhpt.hrmtoolnextgen.event.HolidayCalendarChangedEvent;
+import com.minhpt.hrmtoolnextgen.event.WorkCalendarAssignedEvent;
+import com.minhpt.hrmtoolnextgen.event.WorkCalendarChangedEvent;
+import com.minhpt.hrmtoolnextgen.event.WorkCapacityChangedEvent;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.projection.UserWorkCalendarProjection;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.WorkCalendarRepository;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+import com.minhpt.hrmtoolnextgen.util.WorkCapacityTable;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class WorkCalendarServiceTest {
+
+    // Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+    private static final LocalDate HOLIDAY = MONDAY.plusDays(1);
+
+    private WorkCalendarRepository workCalendarRepository;
+    private HolidayService holidayService;
+    private ApplicationEventPublisher eventPublisher;
+    private WorkCalendarService workCalendarService;
+    private WorkCalendarEntity standard;
+    private WorkCalendarEntity partTime;
+
+    @BeforeEach
+    void setUp() {
+        workCalendarRepository = mock(WorkCalendarRepository.class);
+        holidayService = mock(HolidayService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        MessageService messageService = mock(MessageService.class);
+        when(messageService.getMessage(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(messageService.getMessage(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+        workCalendarService = new WorkCalendarService(workCalendarRepository, mock(UserRepository.class),
+                mock(ProjectRepository.class), holidayService, messageService, eventPublisher,
+                new SimpleMeterRegistry(), Runnable::run);
+        ReflectionTestUtils.setField(workCalendarService, "cacheTtl", Duration.ofHours(1));
+        ReflectionTestUtils.setField(workCalendarService, "userCacheSize", 100L);
+        ReflectionTestUtils.setField(workCalendarService, "provisionalTtl", Duration.ofMinutes(1));
+        workCalendarService.init();
+
+        standard = calendar(1L, "Standard", 0b11111, LocalTime.of(9, 0), LocalTime.of(12, 0),
+                LocalTime.of(13, 30), LocalTime.of(18, 30));
+        standard.setDefaultCalendar(true);
+        // Monday to Wednesday mornings, in another country
+        partTime = calendar(2L, "Part-time", 0b111, LocalTime.of(8, 0), null, null, LocalTime.of(12, 0));
+        partTime.setCountryCode("SG");
+        when(workCalendarRepository.findById(1L)).thenReturn(Optional.of(standard));
+        when(workCalendarRepository.findById(2L)).thenReturn(Optional.of(partTime));
+        when(workCalendarRepository.findFirstByDefaultCalendarTrue()).thenReturn(Optional.of(standard));
+
+        HolidayDto holiday = new HolidayDto();
+        holiday.setDate(HOLIDAY);
+        when(holidayService.getCalendar(2026, "VN")).thenReturn(HolidayCalendar.of(2026, List.of(holiday)));
+        when(holidayService.getCalendar(2026, "SG")).thenReturn(HolidayCalendar.empty(2026));
+    }
+
+    @Test
+    void tableShouldFollowWorkingDaysHoursAndHolidaysOfTheCalendarCountry() {
+        WorkCapacityTable table = workCalendarService.getCalendarTable(2L, 2026);
+
+        assertEquals(240, table.getDailyWorkMinutes());
+        assertEquals(List.of(240, 240, 240, 0, 0, 0, 0), capacities(table, MONDAY, 7));
+        assertEquals(List.of(480, 0, 480, 480, 480, 0, 0), capacities(workCalendarService.getCalendarTable(1L, 2026), MONDAY, 7));
+        assertEquals(4 * 480, workCalendarService.getCalendarTable(1L, 2026)
+                .sumCapacity(MONDAY.toEpochDay(), MONDAY.plusDays(6).toEpochDay()));
+    }
+
+    @Test
+    void usersWithoutCalendarShouldFollowTheDefaultOneAndBeResolvedOnce() {
+        when(workCalendarRepository.findWorkCalendarIdByUserId(5L)).thenReturn(Optional.of(2L));
+        when(workCalendarRepository.findWorkCalendarIdByUserId(6L)).thenReturn(Optional.empty());
+
+        assertEquals(240, workCalendarService.getCapacityMinutes(5L, MONDAY));
+        assertEquals(480, workCalendarService.getCapacityMinutes(6L, MONDAY));
+        assertEquals(0, workCalendarService.getCapacityMinutes(6L, HOLIDAY));
+
+        verify(workCalendarRepository, times(1)).findWorkCalendarIdByUserId(6L);
+        verify(workCalendarRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void editShouldDropTheCompiledTablesOfThatCalendarOnly() {
+        workCalendarService.getCalendarTable(1L, 2026);
+        workCalendarService.getCalendarTable(2L, 2026);
+        partTime.setWorkEnd(LocalTime.of(13, 0));
+        partTime.setVersion(1);
+
+        workCalendarService.onCalendarChanged(new WorkCalendarChangedEvent(2L, false));
+        WorkCapacityTable table = workCalendarService.getCalendarTable(2L, 2026);
+
+        assertEquals(1, table.getVersion());
+        assertEquals(300, table.getCapacity(MONDAY.toEpochDay()));
+        workCalendarService.getCalendarTable(1L, 2026);
+        verify(workCalendarRepository, times(1)).findById(1L);
+        verify(workCalendarRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void editDuringACompileShouldDropTheTableCompiledFromTheOldVersion() throws Exception {
+        Thread[] invalidation = new Thread[1];
+        when(workCalendarRepository.findById(2L)).thenAnswer(invocation -> {
+            if (invalidation[0] == null) {
+                // The edit commits while this compile still holds the old version
+                invalidation[0] = new Thread(() -> workCalendarService.onCalendarChanged(new WorkCalendarChangedEvent(2L, false)));
+                invalidation[0].start();
+                invalidation[0].join(200);
+            }
+            return Optional.of(partTime);
+        });
+
+        workCalendarService.getCalendarTable(2L, 2026);
+        invalidation[0].join();
+        workCalendarService.getCalendarTable(2L, 2026);
+
+        verify(workCalendarRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void tableCompiledWithoutHolidaysShouldBeCachedUntilTheHolidaysArrive() {
+        when(holidayService.getCalendar(2027, "VN")).thenThrow(new IllegalStateException("provider down"))
+                .thenReturn(HolidayCalendar.empty(2027));
+
+        assertEquals(480, workCalendarService.getCalendarTable(1L, 2027).getCapacity(LocalDate.of(2027, 1, 1).toEpochDay()));
+        workCalendarService.getCalendarTable(1L, 2027);
+        verify(holidayService, times(1)).getCalendar(2027, "VN");
+        verify(workCalendarRepository, times(1)).findById(1L);
+
+        workCalendarService.onHolidaysChanged(new HolidayCalendarChangedEvent("VN", 2027));
+        workCalendarService.getCalendarTable(1L, 2027);
+        workCalendarService.getCalendarTable(1L, 2027);
+
+        verify(holidayService, times(2)).getCalendar(2027, "VN");
+    }
+
+    @Test
+    void invalidationShouldNameTheUsersWhoseCapacityMayHaveChanged() {
+        List<UserWorkCalendarProjection> userCalendars = List.of(
+                userCalendar(5L, 2L), userCalendar(6L, null), userCalendar(7L, 2L));
+        when(workCalendarRepository.findAllUserWorkCalendarIds()).thenReturn(userCalendars);
+        when(workCalendarRepository.findIdsByCountryCode("VN")).thenReturn(List.of(1L));
+
+        workCalendarService.onCalendarChanged(new WorkCalendarChangedEvent(2L, false));
+        workCalendarService.onHolidaysChanged(new HolidayCalendarChangedEvent("VN", 2026));
+        workCalendarService.onCalendarAssigned(new WorkCalendarAssignedEvent(9L));
+
+        verify(eventPublisher).publishEvent(new WorkCapacityChangedEvent(Set.of(5L, 7L), null));
+        verify(eventPublisher).publishEvent(new WorkCapacityChangedEvent(Set.of(6L), 2026));
+        verify(eventPublisher).publishEvent(new WorkCapacityChangedEvent(Set.of(9L), null));
+    }
+
+    @Test
+    void hoursOutOfOrderOrHalfALunchBreakShouldBeRejected() {
+        WorkCalendarRequest request = new WorkCalendarRequest("Night", "VN", Set.of(DayOfWeek.MONDAY),
+                "18:00", null, null, "09:00", false);
+        assertThrows(BadRequestException.class, () -> workCalendarService.createCalendar(request));
+
+        request.setWorkStart("09:00");
+        request.setWorkEnd("18:00");
+        request.setLunchStart("12:00");
+        assertThrows(BadRequestException.class, () -> workCalendarService.createCalendar(request));
+    }
+
+    private static WorkCalendarEntity calendar(Long id, String name, int workingDays, LocalTime workStart,
+                                               LocalTime lunchStart, LocalTime lunchEnd, LocalTime workEnd) {
+        WorkCalendarEntity calendar = new WorkCalendarEntity();
+        calendar.setId(id);
+        calendar.setName(name);
+        calendar.setCountryCode("VN");
+        calendar.setWorkingDays(workingDays);
+        calendar.setWorkStart(workStart);
+        calendar.setLunchStart(lunchStart);
+        calendar.setLunchEnd(lunchEnd);
+        calendar.setWorkEnd(workEnd);
+        return calendar;
+    }
+
+    private static UserWorkCalendarProjection userCalendar(Long userId, Long calendarId) {
+        UserWorkCalendarProjection projection = mock(UserWorkCalendarProjection.class);
+        when(projection.getUserId()).thenReturn(userId);
+        when(projection.getWorkCalendarId()).thenReturn(calendarId);
+        return projection;
+    }
+
+    private static List<Integer> capacities(WorkCapacityTable table, LocalDate from, int days) {
+        return from.datesUntil(from.plusDays(days)).map(day -> table.getCapacity(day.toEpochDay())).toList();
+    }
+}
@@ -0,0 +1,122 @@
+package com.minhpt.hrmtoolnextgen.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.minhpt.hrmtoolnextgen.dto.holiday.HolidayDto;
+import com.minhpt.hrmtoolnextgen.util.DailyMinutes;
+import com.minhpt.hrmtoolnextgen.util.HolidayCalendar;
+import com.minhpt.hrmtoolnextgen.util.WorkCapacityTable;
+
+class WorkHoursCalculatorServiceTest {
+
+    private static final Long USER_ID = 7L;
+    // Friday
+    private static final LocalDate FRIDAY = LocalDate.of(2026, 3, 6);
+    // Tuesday
+    private static final LocalDate HOLIDAY = LocalDate.of(2026, 3, 10);
+
+    private final WorkCalendarService workCalendarService = Mockito.mock(WorkCalendarService.class);
+    private final WorkHoursCalculatorService calculator = new WorkHoursCalculatorService(workCalendarService);
+
+    @BeforeEach
+    void setUp() {
+        // 09:00-12:00 and 13:30-18:30, Monday to Friday
+        when(workCalendarService.resolveCalendarId(anyLong())).thenReturn(1L);
+        when(workCalendarService.getCalendarTable(anyLong(), anyInt())).thenAnswer(inv -> table(inv.getArgument(1)));
+        when(workCalendarService.getTable(anyLong(), anyInt())).thenAnswer(inv -> table(inv.getArgument(1)));
+    }
+
+    @Test
+    void partialDayOffShouldOnlyTakeTheOverlappingWorkWindows() {
+        // 10:00-14:00 takes 2h of the morning window and 30 min of the afternoon window
+        DailyMinutes remaining = calculator.calculateRemainingMinutes(USER_ID,
+                FRIDAY.atTime(10, 0), FRIDAY.atTime(14, 0));
+
+        assertEquals(1, remaining.size());
+        assertEquals(480 - 150, remaining.get(FRIDAY));
+    }
+
+    @Test
+    void multiDayDayOffShouldCoverEveryDayWithWeekendsAtZero() {
+        DailyMinutes remaining = calculator.calculateRemainingMinutes(USER_ID,
+                FRIDAY.atTime(13, 30), FRIDAY.plusDays(3).atTime(12, 0));
+
+        assertEquals(FRIDAY.toEpochDay(), remaining.getFirstEpochDay());
+        assertEquals(4, remaining.size());
+        assertEquals(180, remaining.get(FRIDAY));
+        assertEquals(0, remaining.get(FRIDAY.plusDays(1)));
+        assertEquals(0, remaining.get(FRIDAY.plusDays(2)));
+        assertEquals(300, remaining.get(FRIDAY.plusDays(3)));
+        assertEquals(0, remaining.get(FRIDAY.plusDays(4)));
+    }
+
+    @Test
+    void singleDateAndClippedRangeShouldMatchTheFullInterval() {
+        LocalDateTime start = FRIDAY.atTime(11, 0);
+        LocalDateTime end = FRIDAY.plusDays(60).atTime(17, 0);
+        DailyMinutes full = calculator.calculateRemainingMinutes(USER_ID, start, end);
+        LocalDate from = FRIDAY.plusDays(20);
+        LocalDate to = FRIDAY.plusDays(70);
+
+        DailyMinutes clipped = calculator.calculateRemainingMinutes(USER_ID, start, end, from, to);
+
+        assertEquals(from.toEpochDay(), clipped.getFirstEpochDay());
+        assertEquals(41, clipped.size());
+        full.forEach((epochDay, minutes) -> {
+            assertEquals(minutes, calculator.calculateRemainingMinutes(USER_ID, start, end, LocalDate.ofEpochDay(epochDay)));
+            if (epochDay >= from.toEpochDay()) {
+                assertEquals(minutes, clipped.get(epochDay));
+            }
+        });
+        // Tuesday, off from 09:00 to 17:00
+        assertEquals(90, calculator.calculateRemainingMinutes(USER_ID, start, end, FRIDAY.plusDays(60)));
+    }
+
+    @Test
+    void dayOffShouldTakeNothingOnWeekendsAndHolidays() {
+        LocalDateTime start = FRIDAY.atTime(9, 0);
+        LocalDateTime end = HOLIDAY.atTime(18, 30);
+
+        DailyMinutes taken = calculator.calculateDayOffMinutes(USER_ID, start, end);
+
+        assertEquals(List.of(480, 0, 0, 480, 0),
+                List.of(taken.get(FRIDAY), taken.get(FRIDAY.plusDays(1)), taken.get(FRIDAY.plusDays(2)),
+                        taken.get(FRIDAY.plusDays(3)), taken.get(HOLIDAY)));
+        assertEquals(0, calculator.calculateRemainingMinutes(USER_ID, start, end, HOLIDAY));
+    }
+
+    @Test
+    void intervalAcrossNewYearShouldUseTheTableOfEachYear() {
+        // Wednesday 2026-12-30 to Friday 2027-01-01
+        DailyMinutes taken = calculator.calculateDayOffMinutes(USER_ID,
+                LocalDate.of(2026, 12, 30).atTime(13, 30), LocalDate.of(2027, 1, 1).atTime(12, 0));
+
+        assertEquals(LocalDate.of(2026, 12, 30).toEpochDay(), taken.getFirstEpochDay());
+        assertEquals(300 + 480 + 180, taken.total());
+    }
+
+    @Test
+    void emptyOrReversedIntervalShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculateRemainingMinutes(USER_ID, FRIDAY.atTime(9, 0), FRIDAY.atTime(9, 0)));
+    }
+
+    private static WorkCapacityTable table(int year) {
+        HolidayDto holiday = new HolidayDto();
+        holiday.setDate(HOLIDAY);
+        return WorkCapacityTable.compile(1L, 0L, year, 0b11111, new int[]{540, 810}, new int[]{720, 1110},
+                HolidayCalendar.of(year, List.of(holiday)));
+    }
+}
@@ -0,0 +1,150 @@
+package com.minhpt.hrmtoolnextgen.service.auth;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.dto.request.RegisterRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.ResetPasswordRequest;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.entity.redis.UserTokenRedisEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserTokenType;
+import com.minhpt.hrmtoolnextgen.event.UserActivityChangedEvent;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.mapping.UserMapping;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.repository.redis.ResetPasswordTokenRedisRepository;
+import com.minhpt.hrmtoolnextgen.repository.redis.UserTokenRedisRepository;
+import com.minhpt.hrmtoolnextgen.service.EmailService;
+import com.minhpt.hrmtoolnextgen.service.security.UserPrincipalCache;
+
+class AuthAccountServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final ResetPasswordTokenRedisRepository resetPasswordTokenRedisRepository =
+            mock(ResetPasswordTokenRedisRepository.class);
+    private final UserTokenRedisRepository userTokenRedisRepository = mock(UserTokenRedisRepository.class);
+    private final MessageService messageService = mock(MessageService.class);
+    private final UserPrincipalCache userPrincipalCache = mock(UserPrincipalCache.class);
+    private final UserMapping userMapping = mock(UserMapping.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private AuthAccountService authAccountService;
+
+    @BeforeEach
+    void setUp() {
+        when(messageService.getMessage(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(passwordEncoder.encode(anyString())).thenReturn("encoded");
+        authAccountService = new AuthAccountService(userRepository, passwordEncoder, userMapping,
+                roleRepository, resetPasswordTokenRedisRepository, userTokenRedisRepository,
+                mock(EmailService.class), messageService, userPrincipalCache, eventPublisher);
+    }
+
+    @Test
+    void registerPublishesActivityChange() {
+        RegisterRequest request = new RegisterRequest();
+        request.setEmail("new@example.com");
+        request.setRoles(List.of());
+        UserEntity created = user(null, false);
+        created.setUserInfo(new UserInfoEntity());
+        when(userRepository.findByEmail("new@example.com")).thenReturn(Optional.empty());
+        when(userMapping.createUser(request)).thenReturn(created);
+        when(userRepository.save(created)).thenAnswer(invocation -> {
+            created.setId(9L);
+            return created;
+        });
+
+        authAccountService.register(request, null);
+
+        verify(eventPublisher).publishEvent(new UserActivityChangedEvent(9L, true));
+    }
+
+    @Test
+    void resetPasswordConsumesTokenAfterAccountChecks() {
+        UserEntity user = user(7L, true);
+        when(resetPasswordTokenRedisRepository.find("token")).thenReturn(7L);
+        when(resetPasswordTokenRedisRepository.consume("token")).thenReturn(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        authAccountService.resetPassword(new ResetPasswordRequest("token", "newPassword123!"));
+
+        verify(resetPasswordTokenRedisRepository).consume("token");
+        verify(userRepository).save(user);
+        verify(userPrincipalCache).evict(7L);
+    }
+
+    @Test
+    void rejectedResetKeepsToken() {
+        when(resetPasswordTokenRedisRepository.find("token")).thenReturn(7L);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(7L, false)));
+
+        assertThrows(BadRequestException.class,
+                () -> authAccountService.resetPassword(new ResetPasswordRequest("token", "newPassword123!")));
+
+        verify(resetPasswordTokenRedisRepository, never()).consume(anyString());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void tokenConsumedConcurrentlyIsRejected() {
+        when(resetPasswordTokenRedisRepository.find("token")).thenReturn(7L);
+        when(resetPasswordTokenRedisRepository.consume("token")).thenReturn(null);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user(7L, true)));
+
+        assertThrows(BadRequestException.class,
+                () -> authAccountService.resetPassword(new ResetPasswordRequest("token", "newPassword123!")));
+
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void legacyTokensAreMovedWithTheirRemainingLifetime() {
+        UserTokenRedisEntity live = new UserTokenRedisEntity("7:RESET_PASSWORD_TOKEN", 7L,
+                EUserTokenType.RESET_PASSWORD_TOKEN, "legacy-token", 120_000L);
+        UserTokenRedisEntity expiring = new UserTokenRedisEntity("8:RESET_PASSWORD_TOKEN", 8L,
+                EUserTokenType.RESET_PASSWORD_TOKEN, "expiring-token", -1L);
+        when(userTokenRedisRepository.findAllByTokenType(EUserTokenType.RESET_PASSWORD_TOKEN))
+                .thenReturn(Arrays.asList(live, null, expiring));
+
+        authAccountService.migrateLegacyResetPasswordTokens();
+
+        verify(resetPasswordTokenRedisRepository).save(7L, "legacy-token", 120_000L);
+        verify(resetPasswordTokenRedisRepository, never()).save(8L, "expiring-token", -1L);
+        verify(userTokenRedisRepository).delete(live);
+        verify(userTokenRedisRepository).delete(expiring);
+    }
+
+    @Test
+    void legacyMigrationFailureDoesNotPropagate() {
+        when(userTokenRedisRepository.findAllByTokenType(any())).thenThrow(new IllegalStateException("down"));
+
+        authAccountService.migrateLegacyResetPasswordTokens();
+
+        verify(resetPasswordTokenRedisRepository, never()).save(anyLong(), anyString(), anyLong());
+    }
+
+    private static UserEntity user(Long id, boolean active) {
+        UserEntity user = new UserEntity();
+        user.setId(id);
+        user.setActive(active);
+        return user;
+    }
+}
@@ -0,0 +1,90 @@
+package com.minhpt.hrmtoolnextgen.service.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserPrincipalCacheTest {
+
+    private StringRedisTemplate stringRedisTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private UserPrincipalCache cache;
+    private AtomicInteger loads;
+    private Function<String, UserPrincipalDto> loader;
+
+    @BeforeEach
+    void setUp() {
+        stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserPrincipalCache(stringRedisTemplate, Mockito.mock(RedisMessageListenerContainer.class), meterRegistry);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(1));
+        cache.init();
+
+        loads = new AtomicInteger();
+        loader = email -> {
+            loads.incrementAndGet();
+            return UserPrincipalDto.internalBuilder()
+                    .id(1L)
+                    .email(email)
+                    .isEnabled(true)
+                    .roles(List.of("USER"))
+                    .build();
+        };
+    }
+
+    @Test
+    void shouldServeCopiesFromCacheAfterFirstLoad() {
+        UserPrincipalDto first = cache.get("user@example.com", loader);
+        first.setAccessToken("token-of-first-request");
+
+        UserPrincipalDto second = cache.get("user@example.com", loader);
+
+        assertEquals(1, loads.get());
+        assertNotSame(first, second);
+        assertNull(second.getAccessToken());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "user_principals").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void shouldReloadAfterInvalidationMessage() {
+        cache.get("user@example.com", loader);
+
+        cache.onMessage(new DefaultMessage(UserPrincipalCache.INVALIDATION_CHANNEL.getBytes(), "1".getBytes()), null);
+        cache.get("user@example.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictShouldDropLocalEntryAndPublishOutsideTransaction() {
+        cache.get("user@example.com", loader);
+
+        cache.evict(1L);
+        cache.get("user@example.com", loader);
+
+        assertEquals(2, loads.get());
+        verify(stringRedisTemplate).convertAndSend(eq(UserPrincipalCache.INVALIDATION_CHANNEL), eq("1"));
+    }
+}
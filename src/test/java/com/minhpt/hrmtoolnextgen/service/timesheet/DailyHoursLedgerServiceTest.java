@@ -0,0 +1,309 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+import com.minhpt.hrmtoolnextgen.dto.request.ApprovalDayOffRequest;
+import com.minhpt.hrmtoolnextgen.entity.jpa.dayoff.DayOffEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.UserDailyHoursEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EDayOffStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.event.WorkCapacityChangedEvent;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.repository.jpa.DayOffRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserDailyHoursRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+import com.minhpt.hrmtoolnextgen.service.dayoff.DayOffApprovalService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(classes = {HrmToolNextGenApplication.class, DailyHoursLedgerServiceTest.MailTestConfig.class})
+@Transactional
+class DailyHoursLedgerServiceTest {
+
+    private static final LocalDate WORK_DAY = LocalDate.of(2026, 3, 2);
+
+    @SuppressWarnings("unused")
+    @TestConfiguration
+    static class MailTestConfig {
+        @SuppressWarnings("unused")
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Autowired
+    private DailyHoursLedgerService dailyHoursLedgerService;
+
+    @Autowired
+    private UserDailyHoursRepository userDailyHoursRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private TimesheetRepository timesheetRepository;
+
+    @Autowired
+    private DayOffRepository dayOffRepository;
+
+    @Autowired
+    private DayOffApprovalService dayOffApprovalService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void lockShouldBuildMissingRowFromTimesheetsAndApprovedDayOffs() {
+        UserEntity user = userRepository.save(createUser());
+        timesheetRepository.saveAll(List.of(
+                createTimesheet(user, ETimesheetType.NORMAL, LocalTime.of(2, 0), ETimesheetStatus.APPROVED),
+                createTimesheet(user, ETimesheetType.OVERTIME, LocalTime.of(1, 30), ETimesheetStatus.PENDING),
+                createTimesheet(user, ETimesheetType.NORMAL, LocalTime.of(4, 0), ETimesheetStatus.REJECTED)));
+        dayOffRepository.save(createDayOff(user, WORK_DAY.atTime(9, 0), WORK_DAY.atTime(12, 0), EDayOffStatus.APPROVED));
+        dayOffRepository.save(createDayOff(user, WORK_DAY.atTime(13, 30), WORK_DAY.atTime(18, 30), EDayOffStatus.PENDING));
+        entityManager.flush();
+
+        UserDailyHoursEntity dailyHours = dailyHoursLedgerService.lock(user.getId(), WORK_DAY);
+
+        assertEquals(210, dailyHours.getLoggedMinutes());
+        assertEquals(180, dailyHours.getDayOffMinutes());
+        assertEquals(300, dailyHoursLedgerService.getLoggableMinutes(dailyHours));
+    }
+
+    @Test
+    void ledgerUpdatesShouldAccumulateOnExistingRows() {
+        UserEntity user = userRepository.save(createUser());
+        LocalDate nextDay = WORK_DAY.plusDays(1);
+
+        dailyHoursLedgerService.addLoggedMinutes(user.getId(), WORK_DAY, 240);
+        dailyHoursLedgerService.moveLoggedMinutes(user.getId(), WORK_DAY, 240, nextDay, 180);
+        dailyHoursLedgerService.addApprovedDayOff(user.getId(), WORK_DAY.atTime(8, 0), nextDay.atTime(12, 0));
+
+        UserDailyHoursEntity first = dailyHoursLedgerService.lock(user.getId(), WORK_DAY);
+        UserDailyHoursEntity second = dailyHoursLedgerService.lock(user.getId(), nextDay);
+        assertEquals(0, first.getLoggedMinutes());
+        assertEquals(480, first.getDayOffMinutes());
+        assertEquals(0, dailyHoursLedgerService.getLoggableMinutes(first));
+        assertEquals(180, second.getLoggedMinutes());
+        assertEquals(180, second.getDayOffMinutes());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentFirstWritersShouldNotBothPassValidation() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long userId = transactionTemplate.execute(status -> userRepository.save(createUser()).getId());
+        CyclicBarrier barrier = new CyclicBarrier(2);
+
+        Callable<Boolean> logSixHours = () -> {
+            barrier.await();
+            return transactionTemplate.execute(status -> {
+                UserDailyHoursEntity dailyHours = dailyHoursLedgerService.lock(userId, WORK_DAY);
+                if (dailyHours.getLoggedMinutes() + 360 > dailyHoursLedgerService.getLoggableMinutes(dailyHours)) {
+                    return false;
+                }
+                dailyHours.setLoggedMinutes(dailyHours.getLoggedMinutes() + 360);
+                return true;
+            });
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = executor.invokeAll(List.of(logSixHours, logSixHours));
+            long accepted = 0;
+            for (Future<Boolean> result : results) {
+                accepted += Boolean.TRUE.equals(result.get()) ? 1 : 0;
+            }
+
+            assertEquals(1, accepted);
+            assertEquals(360, userDailyHoursRepository.findAll().stream()
+                    .filter(row -> row.getUserId().equals(userId))
+                    .mapToInt(UserDailyHoursEntity::getLoggedMinutes)
+                    .sum());
+        } finally {
+            executor.shutdownNow();
+            transactionTemplate.executeWithoutResult(status -> {
+                userDailyHoursRepository.deleteAll(userDailyHoursRepository.findAll().stream()
+                        .filter(row -> row.getUserId().equals(userId))
+                        .toList());
+                userRepository.deleteById(userId);
+            });
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void concurrentApprovalsShouldCountTheDayOffOnce() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        UserEntity user = transactionTemplate.execute(status -> userRepository.save(createUser()));
+        Long userId = user.getId();
+        Long dayOffId = transactionTemplate.execute(status -> dayOffRepository.save(
+                createDayOff(user, WORK_DAY.atTime(9, 0), WORK_DAY.atTime(12, 0), EDayOffStatus.PENDING)).getId());
+        UserPrincipalDto manager = UserPrincipalDto.internalBuilder().id(userId).build();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+
+        Callable<Boolean> approve = () -> {
+            barrier.await();
+            try {
+                dayOffApprovalService.approveDayOffRequest(
+                        new ApprovalDayOffRequest(dayOffId, EDayOffStatus.APPROVED), manager);
+                return true;
+            } catch (BadRequestException e) {
+                return false;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = executor.invokeAll(List.of(approve, approve));
+            long accepted = 0;
+            for (Future<Boolean> result : results) {
+                try {
+                    accepted += Boolean.TRUE.equals(result.get()) ? 1 : 0;
+                } catch (ExecutionException e) {
+                    // A lock timeout also rejects the second approval
+                }
+            }
+
+            assertEquals(1, accepted);
+            Integer dayOffMinutes = transactionTemplate.execute(status ->
+                    dailyHoursLedgerService.lock(userId, WORK_DAY).getDayOffMinutes());
+            assertEquals(180, dayOffMinutes);
+        } finally {
+            executor.shutdownNow();
+            transactionTemplate.executeWithoutResult(status -> {
+                userDailyHoursRepository.deleteAll(userDailyHoursRepository.findAll().stream()
+                        .filter(row -> row.getUserId().equals(userId))
+                        .toList());
+                dayOffRepository.deleteById(dayOffId);
+                userRepository.deleteById(userId);
+            });
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void capacityChangeShouldRecomputeFrozenDayOffMinutes() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Long userId = transactionTemplate.execute(status -> {
+            UserEntity user = userRepository.save(createUser());
+            dayOffRepository.save(createDayOff(user, WORK_DAY.atTime(9, 0), WORK_DAY.atTime(12, 0),
+                    EDayOffStatus.APPROVED));
+            entityManager.flush();
+            // Frozen under an earlier calendar that had a longer morning
+            dailyHoursLedgerService.lock(user.getId(), WORK_DAY).setDayOffMinutes(240);
+            return user.getId();
+        });
+
+        try {
+            dailyHoursLedgerService.onWorkCapacityChanged(new WorkCapacityChangedEvent(Set.of(userId), null));
+
+            Integer dayOffMinutes = transactionTemplate.execute(status ->
+                    dailyHoursLedgerService.lock(userId, WORK_DAY).getDayOffMinutes());
+            assertEquals(180, dayOffMinutes);
+        } finally {
+            transactionTemplate.executeWithoutResult(status -> {
+                userDailyHoursRepository.deleteAll(userDailyHoursRepository.findAll().stream()
+                        .filter(row -> row.getUserId().equals(userId))
+                        .toList());
+                dayOffRepository.deleteAll(dayOffRepository.findAll().stream()
+                        .filter(dayOff -> dayOff.getRequestedBy().getId().equals(userId))
+                        .toList());
+                userRepository.deleteById(userId);
+            });
+        }
+    }
+
+    private UserEntity createUser() {
+        RoleEntity userRole = roleRepository.findByUserRole(EUserRole.USER);
+        if (userRole == null) {
+            userRole = new RoleEntity();
+            userRole.setUserRole(EUserRole.USER);
+            userRole = roleRepository.save(userRole);
+        }
+        long uniqueSeed = System.nanoTime();
+
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Daily");
+        userInfo.setLastName("Ledger");
+        userInfo.setIdentityCard("ID-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setCurrentAddress("Hanoi");
+        userInfo.setPermanentAddress("Hanoi");
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity user = new UserEntity();
+        user.setEmail("daily-ledger-" + uniqueSeed + "@example.com");
+        user.setPassword("encoded-password");
+        user.setActive(true);
+        user.setUserInfo(userInfo);
+        user.setRoles(List.of(userRole));
+        return user;
+    }
+
+    private TimesheetEntity createTimesheet(UserEntity user, ETimesheetType type, LocalTime workingHours,
+                                            ETimesheetStatus status) {
+        TimesheetEntity timesheet = new TimesheetEntity();
+        timesheet.setTitle("Ledger " + type);
+        timesheet.setUserEntity(user);
+        timesheet.setType(type);
+        timesheet.setWorkingHours(workingHours);
+        timesheet.setWorkingDay(WORK_DAY);
+        timesheet.setStatus(status);
+        return timesheet;
+    }
+
+    private DayOffEntity createDayOff(UserEntity user, LocalDateTime startTime, LocalDateTime endTime,
+                                      EDayOffStatus status) {
+        DayOffEntity dayOff = new DayOffEntity();
+        dayOff.setTitle("Ledger day off");
+        dayOff.setRequestedBy(user);
+        dayOff.setStartTime(startTime);
+        dayOff.setEndTime(endTime);
+        dayOff.setRequestedAt(startTime.minusDays(1));
+        dayOff.setStatus(status);
+        return dayOff;
+    }
+}
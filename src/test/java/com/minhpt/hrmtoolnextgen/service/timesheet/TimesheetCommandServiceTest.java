@@ -0,0 +1,294 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+import com.minhpt.hrmtoolnextgen.dto.request.ApprovalTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.BulkApprovalTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetBulkApprovalDto;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.timesheet.TimesheetEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.projection.TimesheetDailyMinutesProjection;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.TimesheetRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(classes = {HrmToolNextGenApplication.class, TimesheetCommandServiceTest.MailTestConfig.class})
+@Transactional
+class TimesheetCommandServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @SuppressWarnings("unused")
+    @TestConfiguration
+    static class MailTestConfig {
+        @SuppressWarnings("unused")
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Autowired
+    private TimesheetCommandService timesheetCommandService;
+
+    @Autowired
+    private DailyHoursLedgerService dailyHoursLedgerService;
+
+    @Autowired
+    private TimesheetRepository timesheetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long userId;
+    private Long projectId;
+    private Long otherProjectId;
+
+    @SuppressWarnings("unused")
+    @BeforeEach
+    void setUp() {
+        UserEntity user = userRepository.save(createUser());
+        ProjectEntity project = createProject(user);
+        project.addMemberToProject(user);
+        projectId = projectRepository.save(project).getId();
+        otherProjectId = projectRepository.save(createProject(user)).getId();
+        userId = user.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        UserPrincipalDto principal = UserPrincipalDto.internalBuilder().id(userId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @SuppressWarnings("unused")
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void createTimesheetsShouldInsertWeekAndUpdateLedger() {
+        List<CreateTimesheetRequest> week = new ArrayList<>();
+        for (int day = 0; day < 5; day++) {
+            week.add(entry(projectId, MONDAY.plusDays(day), LocalTime.of(5, 0), ETimesheetType.NORMAL));
+            week.add(entry(projectId, MONDAY.plusDays(day), LocalTime.of(3, 0), ETimesheetType.NORMAL));
+        }
+
+        List<TimesheetDto> created = timesheetCommandService.createTimesheets(week);
+
+        assertEquals(10, created.size());
+        assertTrue(created.stream().allMatch(dto -> dto.getStatus() == ETimesheetStatus.PENDING));
+        assertTrue(created.stream().allMatch(dto -> dto.getId() != null));
+        assertEquals(10, created.stream().map(TimesheetDto::getId).distinct().count());
+        created.forEach(dto -> assertEquals(dto.getWorkingHours(),
+                timesheetRepository.findById(dto.getId()).orElseThrow().getWorkingHours()));
+        List<TimesheetDailyMinutesProjection> loggedByDay = timesheetRepository.sumLoggedMinutesByDay(
+                userId, MONDAY, MONDAY.plusDays(4), EnumSet.of(ETimesheetStatus.PENDING));
+        assertEquals(5, loggedByDay.size());
+        loggedByDay.forEach(day -> assertEquals(480L, day.getTotalMinutes()));
+        dailyHoursLedgerService.lockAll(userId, Set.of(MONDAY, MONDAY.plusDays(4)))
+                .values()
+                .forEach(row -> assertEquals(480, row.getLoggedMinutes()));
+    }
+
+    @Test
+    void createTimesheetsShouldRejectWholeBatchWhenADayExceedsWorkHours() {
+        List<CreateTimesheetRequest> entries = List.of(
+                entry(projectId, MONDAY, LocalTime.of(8, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY.plusDays(1), LocalTime.of(6, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY.plusDays(1), LocalTime.of(3, 0), ETimesheetType.NORMAL));
+
+        assertThrows(BadRequestException.class, () -> timesheetCommandService.createTimesheets(entries));
+
+        assertTrue(timesheetRepository.sumLoggedMinutesByDay(
+                userId, MONDAY, MONDAY.plusDays(1), EnumSet.allOf(ETimesheetStatus.class)).isEmpty());
+    }
+
+    @Test
+    void createTimesheetsShouldRejectProjectsTheUserIsNotWorkingOn() {
+        List<CreateTimesheetRequest> entries = List.of(
+                entry(projectId, MONDAY, LocalTime.of(4, 0), ETimesheetType.NORMAL),
+                entry(otherProjectId, MONDAY, LocalTime.of(4, 0), ETimesheetType.NORMAL));
+
+        assertThrows(BadRequestException.class, () -> timesheetCommandService.createTimesheets(entries));
+    }
+
+    @Test
+    void bulkRejectionByIdsShouldUpdatePendingTimesheetsAndReleaseLedgerMinutes() {
+        timesheetCommandService.createTimesheets(List.of(
+                entry(projectId, MONDAY, LocalTime.of(5, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY, LocalTime.of(3, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY.plusDays(1), LocalTime.of(8, 0), ETimesheetType.NORMAL)));
+        List<Long> ids = userTimesheetIds();
+
+        TimesheetBulkApprovalDto result = timesheetCommandService.bulkApprovalTimesheets(
+                new BulkApprovalTimesheetRequest(ids, null, null, null, ETimesheetStatus.REJECTED), userId);
+
+        assertEquals(3, result.getUpdatedCount());
+        assertTrue(timesheetRepository.findAllById(ids).stream()
+                .allMatch(timesheet -> timesheet.getStatus() == ETimesheetStatus.REJECTED));
+        dailyHoursLedgerService.lockAll(userId, Set.of(MONDAY, MONDAY.plusDays(1)))
+                .values()
+                .forEach(row -> assertEquals(0, row.getLoggedMinutes()));
+    }
+
+    @Test
+    void bulkRejectionShouldReleaseOnlyTheMinutesOfTheRowsItRejects() {
+        timesheetCommandService.createTimesheets(List.of(
+                entry(projectId, MONDAY, LocalTime.of(5, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY, LocalTime.of(2, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY, LocalTime.of(1, 0), ETimesheetType.NORMAL)));
+        List<Long> ids = userTimesheetIds();
+        timesheetCommandService.approvalTimesheet(new ApprovalTimesheetRequest(ids.get(0), ETimesheetStatus.APPROVED));
+        TimesheetEntity deleted = timesheetRepository.findById(ids.get(2)).orElseThrow();
+        deleted.setDelete(true);
+        timesheetRepository.saveAndFlush(deleted);
+
+        TimesheetBulkApprovalDto result = timesheetCommandService.bulkApprovalTimesheets(
+                new BulkApprovalTimesheetRequest(null, projectId, MONDAY, MONDAY, ETimesheetStatus.REJECTED), userId);
+
+        assertEquals(1, result.getUpdatedCount());
+        assertEquals(360, dailyHoursLedgerService.lock(userId, MONDAY).getLoggedMinutes());
+    }
+
+    @Test
+    void singleApprovalShouldNotOverrideABulkRejection() {
+        timesheetCommandService.createTimesheets(List.of(
+                entry(projectId, MONDAY, LocalTime.of(8, 0), ETimesheetType.NORMAL)));
+        List<Long> ids = userTimesheetIds();
+        timesheetCommandService.bulkApprovalTimesheets(
+                new BulkApprovalTimesheetRequest(ids, null, null, null, ETimesheetStatus.REJECTED), userId);
+
+        assertThrows(BadRequestException.class, () -> timesheetCommandService.approvalTimesheet(
+                new ApprovalTimesheetRequest(ids.get(0), ETimesheetStatus.APPROVED)));
+        assertThrows(BadRequestException.class, () -> timesheetCommandService.approvalTimesheet(
+                new ApprovalTimesheetRequest(ids.get(0), ETimesheetStatus.REJECTED)));
+        assertEquals(ETimesheetStatus.REJECTED, timesheetRepository.findById(ids.get(0)).orElseThrow().getStatus());
+        assertEquals(0, dailyHoursLedgerService.lock(userId, MONDAY).getLoggedMinutes());
+    }
+
+    @Test
+    void bulkApprovalByFilterShouldOnlyTouchPendingTimesheetsInRange() {
+        timesheetCommandService.createTimesheets(List.of(
+                entry(projectId, MONDAY, LocalTime.of(8, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY.plusDays(1), LocalTime.of(8, 0), ETimesheetType.NORMAL),
+                entry(projectId, MONDAY.plusDays(7), LocalTime.of(8, 0), ETimesheetType.NORMAL)));
+        BulkApprovalTimesheetRequest firstWeek = new BulkApprovalTimesheetRequest(
+                null, projectId, MONDAY, MONDAY.plusDays(4), ETimesheetStatus.APPROVED);
+
+        assertEquals(2, timesheetCommandService.bulkApprovalTimesheets(firstWeek, userId).getUpdatedCount());
+        assertEquals(0, timesheetCommandService.bulkApprovalTimesheets(firstWeek, userId).getUpdatedCount());
+        assertEquals(480, dailyHoursLedgerService.lock(userId, MONDAY).getLoggedMinutes());
+    }
+
+    @Test
+    void bulkApprovalShouldRejectTimesheetsOfProjectsManagedBySomeoneElse() {
+        timesheetCommandService.createTimesheets(List.of(
+                entry(projectId, MONDAY, LocalTime.of(8, 0), ETimesheetType.NORMAL)));
+        BulkApprovalTimesheetRequest byIds = new BulkApprovalTimesheetRequest(
+                userTimesheetIds(), null, null, null, ETimesheetStatus.APPROVED);
+        BulkApprovalTimesheetRequest byProject = new BulkApprovalTimesheetRequest(
+                null, projectId, MONDAY, MONDAY, ETimesheetStatus.APPROVED);
+
+        assertThrows(BadRequestException.class, () -> timesheetCommandService.bulkApprovalTimesheets(byIds, userId + 1));
+        assertThrows(BadRequestException.class, () -> timesheetCommandService.bulkApprovalTimesheets(byProject, userId + 1));
+    }
+
+    private List<Long> userTimesheetIds() {
+        return timesheetRepository.findAll().stream()
+                .filter(timesheet -> timesheet.getUserEntity().getId().equals(userId))
+                .map(TimesheetEntity::getId)
+                .toList();
+    }
+
+    private CreateTimesheetRequest entry(Long projectId, LocalDate workingDay, LocalTime workingHours,
+                                         ETimesheetType type) {
+        return new CreateTimesheetRequest("Batch entry", null, projectId, workingHours, type, workingDay);
+    }
+
+    private ProjectEntity createProject(UserEntity manager) {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Batch Project " + System.nanoTime());
+        project.setClientName("Client");
+        project.setProjectStatus(EProjectStatus.RUNNING);
+        project.setStartTime(LocalDate.of(2026, 1, 1));
+        project.setEndTime(LocalDate.of(2026, 12, 31));
+        project.setProjectManager(manager);
+        return project;
+    }
+
+    private UserEntity createUser() {
+        RoleEntity userRole = roleRepository.findByUserRole(EUserRole.USER);
+        if (userRole == null) {
+            userRole = new RoleEntity();
+            userRole.setUserRole(EUserRole.USER);
+            userRole = roleRepository.save(userRole);
+        }
+        long uniqueSeed = System.nanoTime();
+
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Batch");
+        userInfo.setLastName("Timesheet");
+        userInfo.setIdentityCard("ID-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setCurrentAddress("Hanoi");
+        userInfo.setPermanentAddress("Hanoi");
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity user = new UserEntity();
+        user.setEmail("batch-timesheet-" + uniqueSeed + "@example.com");
+        user.setPassword("encoded-password");
+        user.setActive(true);
+        user.setUserInfo(userInfo);
+        user.setRoles(List.of(userRole));
+        return user;
+    }
+}
@@ -0,0 +1,185 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.minhpt.hrmtoolnextgen.component.ExportFileStore;
+import com.minhpt.hrmtoolnextgen.component.MessageService;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetExportJobDto;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportJobStatus;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.exception.NotFoundException;
+import com.minhpt.hrmtoolnextgen.exception.RateLimitException;
+import com.minhpt.hrmtoolnextgen.repository.redis.TimesheetExportJobRedisRepository;
+import com.minhpt.hrmtoolnextgen.service.SseService;
+
+class TimesheetExportJobServiceTest {
+
+    private static final Long OWNER_ID = 7L;
+    private static final YearMonth MARCH = YearMonth.of(2026, 3);
+
+    @TempDir
+    Path storeDirectory;
+
+    private final TimesheetExportService timesheetExportService = mock(TimesheetExportService.class);
+    private final TimesheetExportJobRedisRepository jobRepository = mock(TimesheetExportJobRedisRepository.class);
+    private final SseService sseService = mock(SseService.class);
+    private final MessageService messageService = mock(MessageService.class);
+
+    @BeforeEach
+    void setUp() {
+        when(messageService.getMessage(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(messageService.getMessage(anyString(), any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void jobShouldWriteFileAndReportProgress() throws IOException {
+        when(timesheetExportService.countMonthlyTimesheets(MARCH)).thenReturn(20_000L);
+        when(timesheetExportService.exportMonthlyTimesheets(eq(MARCH), eq(EExportFormat.CSV), any(), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write("rows".getBytes(StandardCharsets.UTF_8));
+                    LongConsumer progress = invocation.getArgument(3);
+                    progress.accept(10_000);
+                    progress.accept(20_000);
+                    return 20_000L;
+                });
+
+        TimesheetExportJobDto job = service(Runnable::run).submit(OWNER_ID, MARCH, EExportFormat.CSV);
+
+        assertEquals(EExportJobStatus.COMPLETED, job.getStatus());
+        assertEquals(20_000L, job.getTotalRows());
+        assertEquals(20_000L, job.getProcessedRows());
+        assertEquals(4L, job.getFileSize());
+        assertEquals(List.of(job.getFileName()), storedFileNames());
+        assertEquals("rows", Files.readString(storeDirectory.resolve(job.getFileName())));
+        verify(jobRepository).updateProgress(job.getJobId(), 10_000);
+        verify(jobRepository).updateProgress(job.getJobId(), 20_000);
+        // Started, two progress steps, completed
+        verify(sseService, atLeast(4)).sendEvent(String.valueOf(OWNER_ID), TimesheetExportJobService.PROGRESS_EVENT, job);
+    }
+
+    @Test
+    void failedJobShouldLeaveNoPartialFile() throws IOException {
+        when(timesheetExportService.exportMonthlyTimesheets(eq(MARCH), eq(EExportFormat.XLSX), any(), any()))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(2, OutputStream.class).write(1);
+                    throw new IOException("disk full");
+                });
+
+        TimesheetExportJobDto job = service(Runnable::run).submit(OWNER_ID, MARCH, EExportFormat.XLSX);
+
+        assertEquals(EExportJobStatus.FAILED, job.getStatus());
+        assertEquals("export.job.failed", job.getErrorMessage());
+        assertEquals(List.of(), storedFileNames());
+        assertThrows(BadRequestException.class, () -> service(Runnable::run).getDownloadFile(job));
+    }
+
+    @Test
+    void fullQueueShouldBeRejected() {
+        TimesheetExportJobService service = service(task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+
+        assertThrows(RateLimitException.class, () -> service.submit(OWNER_ID, MARCH, EExportFormat.CSV));
+        verify(jobRepository, atLeast(2)).save(any(TimesheetExportJobDto.class));
+    }
+
+    @Test
+    void jobThatFailedToSaveShouldNotBeHeartbeated() {
+        doThrow(new IllegalStateException("redis down")).when(jobRepository).save(any(TimesheetExportJobDto.class));
+        TimesheetExportJobService service = service(Runnable::run);
+
+        assertThrows(IllegalStateException.class, () -> service.submit(OWNER_ID, MARCH, EExportFormat.CSV));
+        service.heartbeat();
+
+        verify(jobRepository, never()).heartbeat(anyString(), anyLong());
+    }
+
+    @Test
+    void jobsShouldOnlyBeVisibleToTheirOwner() {
+        TimesheetExportJobDto job = TimesheetExportJobDto.builder()
+                .jobId("job-1")
+                .ownerId(OWNER_ID)
+                .status(EExportJobStatus.COMPLETED)
+                .build();
+        when(jobRepository.findById("job-1")).thenReturn(job);
+        TimesheetExportJobService service = service(Runnable::run);
+
+        assertEquals(job, service.getJob(OWNER_ID, "job-1"));
+        assertThrows(NotFoundException.class, () -> service.getJob(OWNER_ID + 1, "job-1"));
+        assertThrows(NotFoundException.class, () -> service.getJob(OWNER_ID, "unknown"));
+    }
+
+    @Test
+    void sweepShouldFailJobsThatStoppedHeartbeating() {
+        TimesheetExportJobDto orphan = TimesheetExportJobDto.builder()
+                .jobId("orphan")
+                .ownerId(OWNER_ID)
+                .status(EExportJobStatus.FAILED)
+                .build();
+        when(jobRepository.findActiveJobIds()).thenReturn(Set.of("orphan", "alive"));
+        when(jobRepository.failIfStale(eq("orphan"), eq(40_000L), eq("export.job.interrupted"), eq(100_000L)))
+                .thenReturn(true);
+        when(jobRepository.findById("orphan")).thenReturn(orphan);
+
+        service(Runnable::run).failOrphanedJobs(100_000L);
+
+        verify(jobRepository).failIfStale(eq("alive"), eq(40_000L), anyString(), eq(100_000L));
+        verify(sseService).sendEvent(String.valueOf(OWNER_ID), TimesheetExportJobService.PROGRESS_EVENT, orphan);
+    }
+
+    @Test
+    void sweepShouldSkipJobsOfThisNode() {
+        List<Runnable> queued = new ArrayList<>();
+        TimesheetExportJobService service = service(queued::add);
+        TimesheetExportJobDto job = service.submit(OWNER_ID, MARCH, EExportFormat.CSV);
+        when(jobRepository.findActiveJobIds()).thenReturn(Set.of(job.getJobId()));
+
+        service.heartbeat();
+
+        verify(jobRepository).heartbeat(eq(job.getJobId()), anyLong());
+        verify(jobRepository, never()).failIfStale(anyString(), anyLong(), any(), anyLong());
+    }
+
+    private TimesheetExportJobService service(Executor executor) {
+        return new TimesheetExportJobService(timesheetExportService, jobRepository,
+                new ExportFileStore(storeDirectory, Duration.ofHours(1)), sseService, messageService, executor,
+                Duration.ofMinutes(1));
+    }
+
+    private List<String> storedFileNames() throws IOException {
+        try (Stream<Path> files = Files.list(storeDirectory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+}
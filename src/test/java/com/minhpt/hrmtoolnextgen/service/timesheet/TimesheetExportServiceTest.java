@@ -0,0 +1,211 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(classes = {HrmToolNextGenApplication.class, TimesheetExportServiceTest.MailTestConfig.class})
+@Transactional
+class TimesheetExportServiceTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2026, 3);
+
+    @SuppressWarnings("unused")
+    @TestConfiguration
+    static class MailTestConfig {
+        @SuppressWarnings("unused")
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Autowired
+    private TimesheetExportService timesheetExportService;
+
+    @Autowired
+    private TimesheetCommandService timesheetCommandService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long managerId;
+    private Long projectId;
+
+    @SuppressWarnings("unused")
+    @BeforeEach
+    void setUp() {
+        UserEntity manager = userRepository.save(createUser());
+        ProjectEntity project = createProject(manager);
+        project.addMemberToProject(manager);
+        projectId = projectRepository.save(project).getId();
+        managerId = manager.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        UserPrincipalDto principal = UserPrincipalDto.internalBuilder().id(managerId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @SuppressWarnings("unused")
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void csvExportShouldContainOnlyTheMonthAndEscapeFreeText() throws IOException {
+        timesheetCommandService.createTimesheets(List.of(
+                entry("Fix login, \"remember me\"", LocalDate.of(2026, 3, 3), LocalTime.of(2, 30)),
+                entry("=HYPERLINK(\"http://example.com\")", LocalDate.of(2026, 3, 2), LocalTime.of(1, 0)),
+                entry("Next month", LocalDate.of(2026, 4, 1), LocalTime.of(8, 0))));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = timesheetExportService.exportMonthlyProjectTimesheets(projectId, MARCH, EExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(2, rows);
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("\uFEFFMember email,"));
+        assertTrue(lines[1].contains(",Export Manager,2026-03-02,NORMAL,\"'=HYPERLINK(\"\"http://example.com\"\")\",,01:00,PENDING"));
+        assertTrue(lines[2].contains(",2026-03-03,NORMAL,\"Fix login, \"\"remember me\"\"\",,02:30,PENDING"));
+    }
+
+    @Test
+    void xlsxExportShouldBeReadableWorkbook() throws IOException {
+        timesheetCommandService.createTimesheets(List.of(
+                entry("Planning", LocalDate.of(2026, 3, 2), LocalTime.of(4, 0)),
+                entry("Review", LocalDate.of(2026, 3, 2), LocalTime.of(3, 30))));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        timesheetExportService.exportMonthlyProjectTimesheets(projectId, MARCH, EExportFormat.XLSX, output);
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(output.toByteArray()))) {
+            Sheet sheet = workbook.getSheetAt(0);
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("Member email", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(LocalDate.of(2026, 3, 2), sheet.getRow(1).getCell(2).getLocalDateTimeCellValue().toLocalDate());
+            assertEquals(7.5, (sheet.getRow(1).getCell(6).getNumericCellValue()
+                    + sheet.getRow(2).getCell(6).getNumericCellValue()) * 24, 1e-9);
+        }
+    }
+
+    @Test
+    void monthEndExportShouldCoverAllProjectsWithProjectColumn() throws IOException {
+        timesheetCommandService.createTimesheets(List.of(
+                entry("Planning", LocalDate.of(2026, 3, 2), LocalTime.of(4, 0)),
+                entry("Next month", LocalDate.of(2026, 4, 1), LocalTime.of(8, 0))));
+        String projectName = projectRepository.findById(projectId).orElseThrow().getName();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long rows = timesheetExportService.exportMonthlyTimesheets(MARCH, EExportFormat.CSV, output, written -> {
+        });
+
+        List<String> lines = output.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(timesheetExportService.countMonthlyTimesheets(MARCH), rows);
+        assertEquals(rows + 1, lines.size());
+        assertTrue(lines.get(0).startsWith("\uFEFFProject,Member email,"));
+        assertEquals(1, lines.stream().filter(line -> line.startsWith(projectName + ",")).count());
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith(projectName + ",") && line.contains(",Planning,")));
+    }
+
+    @Test
+    void exportShouldBeRefusedForProjectsManagedBySomeoneElse() {
+        assertThrows(BadRequestException.class, () -> timesheetExportService.assertCanExport(managerId + 1, projectId));
+    }
+
+    private CreateTimesheetRequest entry(String title, LocalDate workingDay, LocalTime workingHours) {
+        return new CreateTimesheetRequest(title, null, projectId, workingHours, ETimesheetType.NORMAL, workingDay);
+    }
+
+    private ProjectEntity createProject(UserEntity manager) {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Export Project " + System.nanoTime());
+        project.setClientName("Client");
+        project.setProjectStatus(EProjectStatus.RUNNING);
+        project.setStartTime(LocalDate.of(2026, 1, 1));
+        project.setEndTime(LocalDate.of(2026, 12, 31));
+        project.setProjectManager(manager);
+        return project;
+    }
+
+    private UserEntity createUser() {
+        RoleEntity userRole = roleRepository.findByUserRole(EUserRole.USER);
+        if (userRole == null) {
+            userRole = new RoleEntity();
+            userRole.setUserRole(EUserRole.USER);
+            userRole = roleRepository.save(userRole);
+        }
+        long uniqueSeed = System.nanoTime();
+
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Export");
+        userInfo.setLastName("Manager");
+        userInfo.setIdentityCard("ID-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setCurrentAddress("Hanoi");
+        userInfo.setPermanentAddress("Hanoi");
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity user = new UserEntity();
+        user.setEmail("export-manager-" + uniqueSeed + "@example.com");
+        user.setPassword("encoded-password");
+        user.setActive(true);
+        user.setUserInfo(userInfo);
+        user.setRoles(List.of(userRole));
+        return user;
+    }
+}
@@ -0,0 +1,168 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EExportFormat;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+
+/**
+ * Exports {@value #ROWS} timesheets as XLSX in a separate JVM started with {@value #HEAP}. The
+ * application, POI and the row window must fit in that heap; collecting the rows first would not.
+ */
+@Tag("perf")
+class TimesheetLargeExportTest {
+
+    private static final int ROWS = 500_000;
+    private static final String HEAP = "-Xmx96m";
+    private static final YearMonth MARCH = YearMonth.of(2026, 3);
+    private static final int SEED_CHUNK = 50_000;
+
+    @Test
+    void exportShouldStreamFiveHundredThousandRowsUnderSmallFixedHeap(@TempDir Path tempDir) throws Exception {
+        String database = "jdbc:h2:file:" + tempDir.toAbsolutePath().resolve("export")
+                + ";MODE=MySQL;DB_CLOSE_ON_EXIT=FALSE";
+        // Seeding is not what is measured, so it gets a roomy heap and page cache of its own
+        String seedOutput = runChild(tempDir.resolve("seed.log"), "-Xmx1g", database + ";CACHE_SIZE=262144",
+                "seed", String.valueOf(ROWS));
+        String projectId = seedOutput.lines()
+                .filter(line -> line.startsWith("SEEDED_PROJECT="))
+                .map(line -> line.substring("SEEDED_PROJECT=".length()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Seeding failed:\n" + seedOutput));
+
+        String exportOutput = runChild(tempDir.resolve("export.log"), HEAP, database + ";CACHE_SIZE=8192",
+                "export", projectId);
+
+        assertTrue(exportOutput.contains("EXPORTED_ROWS=" + ROWS), exportOutput);
+    }
+
+    private static String runChild(Path log, String heap, String databaseUrl, String... args) throws Exception {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                heap, "-XX:+ExitOnOutOfMemoryError",
+                // System properties, so they take precedence over the test application.yaml
+                "-Dspring.datasource.url=" + databaseUrl, "-Dspring.devtools.restart.enabled=false",
+                "-cp", System.getProperty("java.class.path"), LargeExport.class.getName()));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        boolean exited = process.waitFor(4, TimeUnit.MINUTES);
+        if (!exited) {
+            process.destroyForcibly();
+        }
+        String output = Files.readString(log);
+        assertTrue(exited, "Child JVM did not finish in time:\n" + output);
+        assertEquals(0, process.exitValue(), output);
+        return output;
+    }
+
+    /**
+     * Runs against the file-backed H2 database given as {@code spring.datasource.url}, so the table
+     * itself is not on the heap. {@code seed <rows>} inserts the timesheets of one new project and
+     * prints its id; {@code export <projectId>} exports them to a stream that discards the bytes.
+     */
+    public static class LargeExport {
+
+        @Configuration
+        static class MailStubConfig {
+            @Bean
+            JavaMailSender javaMailSender() {
+                return mock(JavaMailSender.class);
+            }
+        }
+
+        public static void main(String[] args) throws IOException {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(
+                    HrmToolNextGenApplication.class, MailStubConfig.class)
+                    .properties("server.port=0", "logging.level.root=WARN")
+                    .run();
+            try {
+                if ("seed".equals(args[0])) {
+                    System.out.println("SEEDED_PROJECT=" + seed(context, Integer.parseInt(args[1])));
+                } else {
+                    long exported = context.getBean(TimesheetExportService.class).exportMonthlyProjectTimesheets(
+                            Long.valueOf(args[1]), MARCH, EExportFormat.XLSX, OutputStream.nullOutputStream());
+                    System.out.println("EXPORTED_ROWS=" + exported);
+                }
+            } finally {
+                context.close();
+            }
+        }
+
+        private static long seed(ConfigurableApplicationContext context, int rows) {
+            long[] ids = new TransactionTemplate(context.getBean(PlatformTransactionManager.class))
+                    .execute(status -> createManagerWithProject(context));
+            // Committed in chunks: H2 keeps an open transaction's changes on the heap
+            for (int from = 1; from <= rows; from += SEED_CHUNK) {
+                context.getBean(JdbcTemplate.class).update("""
+                        INSERT INTO timesheets (create_date, create_by, is_delete, is_active, title, working_hours,
+                                                type, working_day, status, project_id, user_id)
+                        SELECT CURRENT_TIMESTAMP, CAST(? AS BIGINT), FALSE, TRUE, CONCAT('Task ', X), TIME '01:00:00',
+                               'NORMAL', DATEADD('DAY', MOD(X, 31), DATE '2026-03-01'), 'PENDING',
+                               CAST(? AS BIGINT), CAST(? AS BIGINT)
+                        FROM SYSTEM_RANGE(CAST(? AS INT), CAST(? AS INT))
+                        """, ids[0], ids[1], ids[0], from, Math.min(rows, from + SEED_CHUNK - 1));
+            }
+            return ids[1];
+        }
+
+        private static long[] createManagerWithProject(ConfigurableApplicationContext context) {
+            long uniqueSeed = System.nanoTime();
+            UserInfoEntity userInfo = new UserInfoEntity();
+            userInfo.setFirstName("Large");
+            userInfo.setLastName("Export");
+            userInfo.setIdentityCard("ID-" + uniqueSeed);
+            userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+            userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+            UserEntity manager = new UserEntity();
+            manager.setEmail("large-export-" + uniqueSeed + "@example.com");
+            manager.setPassword("encoded-password");
+            manager.setActive(true);
+            manager.setUserInfo(userInfo);
+            manager.setRoles(List.of(context.getBean(RoleRepository.class).findByUserRole(EUserRole.USER)));
+            manager = context.getBean(UserRepository.class).save(manager);
+
+            ProjectEntity project = new ProjectEntity();
+            project.setName("Large Export Project " + uniqueSeed);
+            project.setProjectStatus(EProjectStatus.RUNNING);
+            project.setProjectManager(manager);
+            return new long[]{manager.getId(), context.getBean(ProjectRepository.class).save(project).getId()};
+        }
+    }
+}
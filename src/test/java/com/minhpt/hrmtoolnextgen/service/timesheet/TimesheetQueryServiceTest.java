@@ -0,0 +1,194 @@
+package com.minhpt.hrmtoolnextgen.service.timesheet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.minhpt.hrmtoolnextgen.HrmToolNextGenApplication;
+import com.minhpt.hrmtoolnextgen.dto.principal.UserPrincipalDto;
+import com.minhpt.hrmtoolnextgen.dto.request.CreateTimesheetRequest;
+import com.minhpt.hrmtoolnextgen.dto.request.CursorPaginationRequest;
+import com.minhpt.hrmtoolnextgen.dto.response.CursorPaginationResponse;
+import com.minhpt.hrmtoolnextgen.dto.timesheet.TimesheetDto;
+import com.minhpt.hrmtoolnextgen.entity.jpa.project.ProjectEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.role.RoleEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserEntity;
+import com.minhpt.hrmtoolnextgen.entity.jpa.user.UserInfoEntity;
+import com.minhpt.hrmtoolnextgen.enumeration.EProjectStatus;
+import com.minhpt.hrmtoolnextgen.enumeration.ETimesheetType;
+import com.minhpt.hrmtoolnextgen.enumeration.EUserRole;
+import com.minhpt.hrmtoolnextgen.exception.BadRequestException;
+import com.minhpt.hrmtoolnextgen.repository.jpa.ProjectRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.RoleRepository;
+import com.minhpt.hrmtoolnextgen.repository.jpa.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(classes = {HrmToolNextGenApplication.class, TimesheetQueryServiceTest.MailTestConfig.class})
+@Transactional
+class TimesheetQueryServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @SuppressWarnings("unused")
+    @TestConfiguration
+    static class MailTestConfig {
+        @SuppressWarnings("unused")
+        @Bean
+        JavaMailSender javaMailSender() {
+            return mock(JavaMailSender.class);
+        }
+    }
+
+    @Autowired
+    private TimesheetQueryService timesheetQueryService;
+
+    @Autowired
+    private TimesheetCommandService timesheetCommandService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Long managerId;
+    private Long projectId;
+
+    @SuppressWarnings("unused")
+    @BeforeEach
+    void setUp() {
+        UserEntity manager = userRepository.save(createUser());
+        ProjectEntity project = createProject(manager);
+        project.addMemberToProject(manager);
+        projectId = projectRepository.save(project).getId();
+        managerId = manager.getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        UserPrincipalDto principal = UserPrincipalDto.internalBuilder().id(managerId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    @SuppressWarnings("unused")
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cursorPagesShouldVisitEveryTimesheetOnceEvenWithEqualCreatedDates() {
+        // One batch insert, so many rows share the same created date and only the id breaks ties
+        List<CreateTimesheetRequest> entries = new ArrayList<>();
+        for (int index = 0; index < 20; index++) {
+            entries.add(new CreateTimesheetRequest("Entry " + index, null, projectId, LocalTime.of(2, 0),
+                    ETimesheetType.NORMAL, MONDAY.plusDays(index / 4)));
+        }
+        timesheetCommandService.createTimesheets(entries);
+
+        Set<String> seen = new HashSet<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPaginationResponse<TimesheetDto> page = timesheetQueryService.getTimesheetsByManagerWithCursor(
+                    managerId, CursorPaginationRequest.builder().cursor(cursor).size(8).build(), null, projectId);
+            assertEquals(20L, page.getTotalElements());
+            page.getItems().forEach(timesheet -> assertTrue(seen.add(timesheet.getTitle())));
+            pageSizes.add(page.getNumberOfElements());
+            assertEquals(page.isHasNext(), page.getNextCursor() != null);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of(8, 8, 4), pageSizes);
+        assertEquals(20, seen.size());
+    }
+
+    @Test
+    void skipCountShouldOmitTotalElements() {
+        timesheetCommandService.createTimesheets(List.of(new CreateTimesheetRequest("Only", null, projectId,
+                LocalTime.of(2, 0), ETimesheetType.NORMAL, MONDAY)));
+
+        CursorPaginationResponse<TimesheetDto> page = timesheetQueryService.getTimesheetsByManagerWithCursor(
+                managerId, CursorPaginationRequest.builder().skipCount(true).build(), null, null);
+
+        assertNull(page.getTotalElements());
+        assertEquals(1, page.getNumberOfElements());
+        assertFalse(page.isHasNext());
+    }
+
+    @Test
+    void malformedCursorShouldBeRejected() {
+        CursorPaginationRequest request = CursorPaginationRequest.builder().cursor("not-a-cursor").build();
+
+        assertThrows(BadRequestException.class,
+                () -> timesheetQueryService.getTimesheetsByManagerWithCursor(managerId, request, null, null));
+    }
+
+    private ProjectEntity createProject(UserEntity manager) {
+        ProjectEntity project = new ProjectEntity();
+        project.setName("Keyset Project " + System.nanoTime());
+        project.setClientName("Client");
+        project.setProjectStatus(EProjectStatus.RUNNING);
+        project.setStartTime(LocalDate.of(2026, 1, 1));
+        project.setEndTime(LocalDate.of(2026, 12, 31));
+        project.setProjectManager(manager);
+        return project;
+    }
+
+    private UserEntity createUser() {
+        RoleEntity userRole = roleRepository.findByUserRole(EUserRole.USER);
+        if (userRole == null) {
+            userRole = new RoleEntity();
+            userRole.setUserRole(EUserRole.USER);
+            userRole = roleRepository.save(userRole);
+        }
+        long uniqueSeed = System.nanoTime();
+
+        UserInfoEntity userInfo = new UserInfoEntity();
+        userInfo.setFirstName("Keyset");
+        userInfo.setLastName("Manager");
+        userInfo.setIdentityCard("ID-" + uniqueSeed);
+        userInfo.setPhoneNumber1(String.format("09%08d", uniqueSeed % 100000000L));
+        userInfo.setCurrentAddress("Hanoi");
+        userInfo.setPermanentAddress("Hanoi");
+        userInfo.setOnboardDate(LocalDate.of(2026, 1, 1));
+
+        UserEntity user = new UserEntity();
+        user.setEmail("keyset-manager-" + uniqueSeed + "@example.com");
+        user.setPassword("encoded-password");
+        user.setActive(true);
+        user.setUserInfo(userInfo);
+        user.setRoles(List.of(userRole));
+        return user;
+    }
+}